@@ -20,18 +20,41 @@ dependencies {
     implementation("org.springframework.boot:spring-boot-starter-web")
     implementation("org.springframework.boot:spring-boot-starter-validation")
     implementation("org.springframework.boot:spring-boot-starter-security")
+    implementation("org.springframework.boot:spring-boot-starter-actuator")
     implementation("org.springframework.session:spring-session-jdbc")
+    implementation("com.github.ben-manes.caffeine:caffeine")
     implementation("org.springframework.boot:spring-boot-starter-oauth2-client")
     implementation("org.flywaydb:flyway-core")
-    implementation("org.apache.pdfbox:pdfbox:2.0.30") {
+    implementation("org.apache.pdfbox:pdfbox:3.0.8") {
         exclude(group = "commons-logging", module = "commons-logging")
     }
     implementation("org.postgresql:postgresql")
-    implementation("com.github.dhorions:boxable:1.7.0")
     testImplementation("org.springframework.boot:spring-boot-starter-test")
+    // Migrations are PostgreSQL-specific; tests running them are skipped where Docker is not available
+    testImplementation("org.testcontainers:junit-jupiter")
+    testImplementation("org.testcontainers:postgresql")
     testRuntimeOnly("com.h2database:h2")
 }
 
 tasks.withType<Test> {
     useJUnitPlatform()
 }
+
+tasks.test {
+    useJUnitPlatform {
+        excludeTags("load")
+    }
+}
+
+tasks.register<Test>("loadTest") {
+    description = "Compares request throughput with platform and virtual threads."
+    group = "verification"
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    classpath = sourceSets.test.get().runtimeClasspath
+    useJUnitPlatform {
+        includeTags("load")
+    }
+    testLogging {
+        showStandardStreams = true
+    }
+}
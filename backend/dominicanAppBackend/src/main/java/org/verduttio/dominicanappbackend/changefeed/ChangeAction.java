@@ -0,0 +1,7 @@
+package org.verduttio.dominicanappbackend.changefeed;
+
+public enum ChangeAction {
+    CREATED,
+    UPDATED,
+    DELETED
+}
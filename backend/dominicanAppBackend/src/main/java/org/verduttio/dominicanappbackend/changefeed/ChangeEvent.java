@@ -0,0 +1,17 @@
+package org.verduttio.dominicanappbackend.changefeed;
+
+import java.util.Set;
+
+/**
+ * Change of data shown to coordinators, published with Spring's {@code ApplicationEventPublisher} and delivered
+ * to the change feed subscribers of any of its topics after the change is committed.
+ */
+public sealed interface ChangeEvent permits ScheduleChangeEvent, ObstacleChangeEvent, UserChangeEvent, ConflictChangeEvent {
+
+    /**
+     * @return name of the SSE event
+     */
+    String eventName();
+
+    Set<String> topics();
+}
@@ -0,0 +1,177 @@
+package org.verduttio.dominicanappbackend.changefeed;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.verduttio.dominicanappbackend.security.SecurityUtils;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers {@link ChangeEvent}s to Server-Sent Events subscribers of their topics, so that the frontend can
+ * re-fetch only what changed instead of polling.
+ * <p>
+ * Every subscriber has a bounded buffer drained on a virtual thread, so a slow client never blocks the thread
+ * which made the change. When the buffer of a client overflows, its pending events are replaced with a single
+ * {@code resync} event, telling the client to reload everything it shows. Idle connections get a heartbeat
+ * comment every {@code app.changefeed.heartbeat-interval-ms}, which also detects closed connections.
+ */
+@Service
+public class ChangeFeedService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeFeedService.class);
+    private static final String RESYNC_EVENT_NAME = "resync";
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong eventSequence = new AtomicLong();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long timeoutMillis;
+
+    @Autowired
+    public ChangeFeedService(@Value("${app.changefeed.buffer-size:64}") int bufferSize,
+                             @Value("${app.changefeed.max-subscribers:500}") int maxSubscribers,
+                             @Value("${app.changefeed.timeout:30m}") Duration timeout) {
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    /**
+     * @return emitter of the new subscription, or an empty optional if there are too many subscribers
+     * @throws AccessDeniedException if the current user may not read one of the topics: {@code obstacles} is for
+     * admins only, and {@code user:<id>} for the user themselves and admins
+     */
+    public Optional<SseEmitter> subscribe(Set<String> topics) {
+        checkAccess(topics);
+        if (subscribers.size() >= maxSubscribers) {
+            return Optional.empty();
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(Set.copyOf(topics), emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        return Optional.of(emitter);
+    }
+
+    private void checkAccess(Set<String> topics) {
+        for (String topic : topics) {
+            if (ChangeTopics.OBSTACLES.equals(topic) && !SecurityUtils.userHasRoleAdmin()) {
+                throw new AccessDeniedException(SecurityUtils.ACCESS_DENIED_MESSAGE);
+            }
+            Optional<Long> userId = ChangeTopics.userIdOf(topic);
+            if (userId.isPresent() && !SecurityUtils.isUserOwnerOrAdmin(userId.get())) {
+                throw new AccessDeniedException(SecurityUtils.ACCESS_DENIED_MESSAGE);
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(ChangeEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+
+        Set<String> eventTopics = event.topics();
+        FeedMessage message = null;
+        for (Subscriber subscriber : subscribers) {
+            if (!Collections.disjoint(subscriber.topics, eventTopics)) {
+                if (message == null) {
+                    message = new FeedMessage(eventSequence.incrementAndGet(), event.eventName(), event);
+                }
+                subscriber.enqueue(message);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.changefeed.heartbeat-interval-ms:15000}")
+    public void sendHeartbeats() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.enqueue(FeedMessage.HEARTBEAT);
+        }
+    }
+
+    public int getNumberOfSubscribers() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void close() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        senders.shutdownNow();
+    }
+
+    private final class Subscriber {
+        private final Set<String> topics;
+        private final SseEmitter emitter;
+        private final BlockingQueue<FeedMessage> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean sending = new AtomicBoolean();
+
+        private Subscriber(Set<String> topics, SseEmitter emitter) {
+            this.topics = topics;
+            this.emitter = emitter;
+        }
+
+        private void enqueue(FeedMessage message) {
+            if (!buffer.offer(message)) {
+                buffer.clear();
+                buffer.offer(new FeedMessage(eventSequence.incrementAndGet(), RESYNC_EVENT_NAME, RESYNC_EVENT_NAME));
+            }
+            if (sending.compareAndSet(false, true)) {
+                senders.execute(this::send);
+            }
+        }
+
+        private void send() {
+            try {
+                FeedMessage message;
+                while ((message = buffer.poll()) != null) {
+                    emitter.send(message.toSseEvent());
+                }
+            } catch (IOException | IllegalStateException e) {
+                logger.debug("Change feed subscriber disconnected: {}", e.getMessage());
+                subscribers.remove(this);
+                buffer.clear();
+                emitter.completeWithError(e);
+                return;
+            } finally {
+                sending.set(false);
+            }
+
+            // An event could have been added after the buffer was found empty, but before the flag was cleared
+            if (!buffer.isEmpty() && sending.compareAndSet(false, true)) {
+                senders.execute(this::send);
+            }
+        }
+    }
+
+    /**
+     * Event builders cannot be sent twice, so the message is kept and a builder is created for every subscriber.
+     */
+    private record FeedMessage(long id, String name, Object data) {
+        private static final FeedMessage HEARTBEAT = new FeedMessage(0, null, null);
+
+        private SseEmitter.SseEventBuilder toSseEvent() {
+            if (this == HEARTBEAT) {
+                return SseEmitter.event().comment("heartbeat");
+            }
+            return SseEmitter.event().id(Long.toString(id)).name(name).data(data);
+        }
+    }
+}
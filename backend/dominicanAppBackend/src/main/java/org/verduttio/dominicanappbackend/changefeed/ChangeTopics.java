@@ -0,0 +1,85 @@
+package org.verduttio.dominicanappbackend.changefeed;
+
+import org.verduttio.dominicanappbackend.validation.DateValidator;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Names of the topics a change feed client can subscribe to: {@code schedules}, {@code obstacles}, {@code users},
+ * {@code conflicts}, {@code week:<yyyy-MM-dd of the week's Sunday>}, {@code user:<id>} and {@code role:<id>}.
+ */
+public final class ChangeTopics {
+
+    public static final String SCHEDULES = "schedules";
+    public static final String OBSTACLES = "obstacles";
+    public static final String USERS = "users";
+    public static final String CONFLICTS = "conflicts";
+
+    private static final String WEEK_PREFIX = "week:";
+    private static final String USER_PREFIX = "user:";
+    private static final String ROLE_PREFIX = "role:";
+
+    private ChangeTopics() {
+    }
+
+    public static String week(LocalDate date) {
+        return WEEK_PREFIX + DateValidator.getWeekBoundaries(date).get("startWeek");
+    }
+
+    public static Set<String> weeks(LocalDate from, LocalDate to) {
+        Set<String> topics = new LinkedHashSet<>();
+        LocalDate lastWeekStart = DateValidator.getWeekBoundaries(to).get("startWeek");
+        for (LocalDate weekStart = DateValidator.getWeekBoundaries(from).get("startWeek");
+             !weekStart.isAfter(lastWeekStart); weekStart = weekStart.plusWeeks(1)) {
+            topics.add(WEEK_PREFIX + weekStart);
+        }
+        return topics;
+    }
+
+    public static String user(Long userId) {
+        return USER_PREFIX + userId;
+    }
+
+    public static String role(Long roleId) {
+        return ROLE_PREFIX + roleId;
+    }
+
+    /**
+     * @return id of the user whose changes a valid {@code user:<id>} topic is about, empty for other topics
+     */
+    public static Optional<Long> userIdOf(String topic) {
+        if (topic.startsWith(USER_PREFIX)) {
+            return Optional.of(Long.parseLong(topic.substring(USER_PREFIX.length())));
+        }
+        return Optional.empty();
+    }
+
+    public static boolean isValid(String topic) {
+        if (SCHEDULES.equals(topic) || OBSTACLES.equals(topic) || USERS.equals(topic) || CONFLICTS.equals(topic)) {
+            return true;
+        }
+        if (topic.startsWith(WEEK_PREFIX)) {
+            try {
+                LocalDate weekStart = LocalDate.parse(topic.substring(WEEK_PREFIX.length()));
+                return week(weekStart).equals(topic);
+            } catch (DateTimeParseException e) {
+                return false;
+            }
+        }
+        if (topic.startsWith(USER_PREFIX)) {
+            return isId(topic.substring(USER_PREFIX.length()));
+        }
+        if (topic.startsWith(ROLE_PREFIX)) {
+            return isId(topic.substring(ROLE_PREFIX.length()));
+        }
+        return false;
+    }
+
+    private static boolean isId(String value) {
+        return !value.isEmpty() && value.length() < 19 && value.chars().allMatch(Character::isDigit);
+    }
+}
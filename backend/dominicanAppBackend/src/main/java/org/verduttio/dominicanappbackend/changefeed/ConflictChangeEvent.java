@@ -0,0 +1,19 @@
+package org.verduttio.dominicanappbackend.changefeed;
+
+import java.util.Set;
+
+/**
+ * @param conflictId changed conflict, null if all conflicts of a task were removed
+ */
+public record ConflictChangeEvent(Long conflictId, ChangeAction action) implements ChangeEvent {
+
+    @Override
+    public String eventName() {
+        return "conflict";
+    }
+
+    @Override
+    public Set<String> topics() {
+        return Set.of(ChangeTopics.CONFLICTS);
+    }
+}
@@ -0,0 +1,30 @@
+package org.verduttio.dominicanappbackend.changefeed;
+
+import org.verduttio.dominicanappbackend.domain.ObstacleStatus;
+import org.verduttio.dominicanappbackend.domain.obstacle.Obstacle;
+
+import java.time.LocalDate;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+public record ObstacleChangeEvent(Long obstacleId, Long userId, ObstacleStatus status, LocalDate from, LocalDate to,
+                                  ChangeAction action) implements ChangeEvent {
+
+    public static ObstacleChangeEvent of(Obstacle obstacle, ChangeAction action) {
+        return new ObstacleChangeEvent(obstacle.getId(), obstacle.getUser().getId(), obstacle.getStatus(),
+                obstacle.getFromDate(), obstacle.getToDate(), action);
+    }
+
+    @Override
+    public String eventName() {
+        return "obstacle";
+    }
+
+    @Override
+    public Set<String> topics() {
+        Set<String> topics = new LinkedHashSet<>(ChangeTopics.weeks(from, to));
+        topics.add(ChangeTopics.OBSTACLES);
+        topics.add(ChangeTopics.user(userId));
+        return topics;
+    }
+}
@@ -0,0 +1,34 @@
+package org.verduttio.dominicanappbackend.changefeed;
+
+import java.time.LocalDate;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * @param userId user whose schedules changed, null if schedules of many users changed
+ * @param roleId supervisor role of the changed tasks, null if not known
+ */
+public record ScheduleChangeEvent(LocalDate from, LocalDate to, Long userId, Long roleId) implements ChangeEvent {
+
+    public static ScheduleChangeEvent ofRange(LocalDate from, LocalDate to) {
+        return new ScheduleChangeEvent(from, to, null, null);
+    }
+
+    @Override
+    public String eventName() {
+        return "schedule";
+    }
+
+    @Override
+    public Set<String> topics() {
+        Set<String> topics = new LinkedHashSet<>(ChangeTopics.weeks(from, to));
+        topics.add(ChangeTopics.SCHEDULES);
+        if (userId != null) {
+            topics.add(ChangeTopics.user(userId));
+        }
+        if (roleId != null) {
+            topics.add(ChangeTopics.role(roleId));
+        }
+        return topics;
+    }
+}
@@ -0,0 +1,16 @@
+package org.verduttio.dominicanappbackend.changefeed;
+
+import java.util.Set;
+
+public record UserChangeEvent(Long userId, boolean verified, ChangeAction action) implements ChangeEvent {
+
+    @Override
+    public String eventName() {
+        return "user";
+    }
+
+    @Override
+    public Set<String> topics() {
+        return Set.of(ChangeTopics.USERS, ChangeTopics.user(userId));
+    }
+}
@@ -0,0 +1,27 @@
+package org.verduttio.dominicanappbackend.cluster;
+
+/**
+ * Published locally when another node has changed data which may be cached on this node.
+ *
+ * @param id id of the changed entity, or {@link InvalidationMessage#ALL_IDS} if all cached entries of the type
+ *           must be evicted (for example after notifications were missed while reconnecting)
+ */
+public record ClusterInvalidationEvent(InvalidationType type, String id) {
+
+    private static final String ALL_IDS = String.valueOf(InvalidationMessage.ALL_IDS);
+
+    public ClusterInvalidationEvent(InvalidationType type, long id) {
+        this(type, String.valueOf(id));
+    }
+
+    public boolean isForAllIds() {
+        return ALL_IDS.equals(id);
+    }
+
+    /**
+     * @throws NumberFormatException if the type does not have numeric ids
+     */
+    public long numericId() {
+        return Long.parseLong(id);
+    }
+}
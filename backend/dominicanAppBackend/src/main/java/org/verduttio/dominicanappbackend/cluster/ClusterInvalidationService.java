@@ -0,0 +1,226 @@
+package org.verduttio.dominicanappbackend.cluster;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.*;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Keeps in-process caches of several backend nodes consistent, using PostgreSQL {@code LISTEN/NOTIFY} on the
+ * application database.
+ * <p>
+ * A change is published as a notification on the {@value #CHANNEL} channel once the transaction making the change
+ * has committed. Every type has a counter in the {@code cache_invalidation_version} table, increased with each
+ * change, so a node can tell that it has missed notifications: either from a gap in the versions it receives, or,
+ * after reconnecting, from the table itself. Then all cached entries of the type are evicted. Notifications
+ * received by a node are published locally as {@link ClusterInvalidationEvent}s.
+ * <p>
+ * The counter is increased and the notification sent in a short transaction of their own on a background thread,
+ * so writers do not queue up behind the lock on the counter row for the whole length of their transactions. A node
+ * stopping between its commit and that transaction loses the notification without leaving a gap.
+ * <p>
+ * Disabled unless {@code app.cluster.invalidation.enabled} is set, as a single node does not need it.
+ */
+@Service
+public class ClusterInvalidationService implements SmartLifecycle {
+
+    public static final String CHANNEL = "cache_invalidation";
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterInvalidationService.class);
+    private static final int POLL_TIMEOUT_MILLIS = 5_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final Duration reconnectDelay;
+    private final String nodeId = UUID.randomUUID().toString().substring(0, 8);
+    private final Map<InvalidationType, Long> lastSeenVersions = new ConcurrentHashMap<>();
+    // A single thread keeps the notifications of this node in the order of their commits
+    private final ExecutorService publisher = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().daemon().name("cluster-invalidation-publisher").factory());
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    @Autowired
+    public ClusterInvalidationService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                      DataSourceProperties dataSourceProperties, ApplicationEventPublisher eventPublisher,
+                                      @Value("${app.cluster.invalidation.enabled:false}") boolean enabled,
+                                      @Value("${app.cluster.invalidation.reconnect-delay:5s}") Duration reconnectDelay) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.dataSourceProperties = dataSourceProperties;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.reconnectDelay = reconnectDelay;
+    }
+
+    /**
+     * Tells the other nodes that the entity has changed. If there is a current transaction, they are told only
+     * after it commits.
+     */
+    public void publish(InvalidationType type, long id) {
+        publish(type, String.valueOf(id));
+    }
+
+    /**
+     * @param id id of the changed entity, which must not contain {@code ':'}
+     */
+    public void publish(InvalidationType type, String id) {
+        if (!enabled) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publisher.execute(() -> notifyNodes(type, id));
+                }
+            });
+        } else {
+            publisher.execute(() -> notifyNodes(type, id));
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        listenerThread = Thread.ofPlatform().daemon().name("cluster-invalidation-listener").start(this::listen);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void notifyNodes(InvalidationType type, String id) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Long version = jdbcTemplate.queryForObject(
+                        "INSERT INTO cache_invalidation_version (entity_type, version) VALUES (?, 1) " +
+                                "ON CONFLICT (entity_type) DO UPDATE SET version = cache_invalidation_version.version + 1 " +
+                                "RETURNING version", Long.class, type.name());
+                String payload = new InvalidationMessage(type, id, version, nodeId).encode();
+                jdbcTemplate.query("SELECT pg_notify(?, ?)", resultSet -> null, CHANNEL, payload);
+            });
+        } catch (DataAccessException e) {
+            logger.error("Could not notify other nodes about a change of {} {}", type, id, e);
+        }
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                catchUp(connection);
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            handle(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (running) {
+                    logger.warn("Cluster invalidation listener lost its connection, reconnecting in {}", reconnectDelay, e);
+                    try {
+                        Thread.sleep(reconnectDelay);
+                    } catch (InterruptedException interrupted) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Evicts everything of the types which changed while this node was not listening. Called after LISTEN,
+     * so no change can fall between the check and the first notification.
+     */
+    private void catchUp(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT entity_type, version FROM cache_invalidation_version")) {
+            while (resultSet.next()) {
+                InvalidationType type;
+                try {
+                    type = InvalidationType.valueOf(resultSet.getString("entity_type"));
+                } catch (IllegalArgumentException e) {
+                    continue;
+                }
+                long version = resultSet.getLong("version");
+                Long lastSeenVersion = lastSeenVersions.put(type, version);
+                // Nothing is cached about changes made before this node first connected
+                if (lastSeenVersion != null && lastSeenVersion < version) {
+                    eventPublisher.publishEvent(new ClusterInvalidationEvent(type, InvalidationMessage.ALL_IDS));
+                }
+            }
+        }
+    }
+
+    private void handle(String payload) {
+        InvalidationMessage message;
+        try {
+            message = InvalidationMessage.decode(payload);
+        } catch (IllegalArgumentException e) {
+            logger.warn(e.getMessage());
+            return;
+        }
+
+        // Notifications are sent in commit order, and the lock on the version row makes it the version order too,
+        // so a gap in versions means that notifications were lost
+        Long lastSeenVersion = lastSeenVersions.get(message.type());
+        lastSeenVersions.merge(message.type(), message.version(), Math::max);
+        if (lastSeenVersion != null && message.version() > lastSeenVersion + 1) {
+            eventPublisher.publishEvent(new ClusterInvalidationEvent(message.type(), InvalidationMessage.ALL_IDS));
+            return;
+        }
+
+        if (!nodeId.equals(message.origin())) {
+            eventPublisher.publishEvent(new ClusterInvalidationEvent(message.type(), message.id()));
+        }
+    }
+}
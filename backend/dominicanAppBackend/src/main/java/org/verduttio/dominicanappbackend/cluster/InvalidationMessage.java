@@ -0,0 +1,43 @@
+package org.verduttio.dominicanappbackend.cluster;
+
+/**
+ * Payload of a cluster invalidation notification, encoded as {@code type:id:version:origin}.
+ *
+ * @param id id of the changed entity, or {@link #ALL_IDS} if all entities of the type changed; numeric unless
+ *           the type says otherwise
+ * @param version value of the type's counter in the version table after this change
+ * @param origin id of the node which made the change
+ */
+public record InvalidationMessage(InvalidationType type, String id, long version, String origin) {
+
+    public static final long ALL_IDS = 0;
+
+    private static final char SEPARATOR = ':';
+
+    public InvalidationMessage(InvalidationType type, long id, long version, String origin) {
+        this(type, String.valueOf(id), version, origin);
+    }
+
+    public String encode() {
+        return type.name() + SEPARATOR + id + SEPARATOR + version + SEPARATOR + origin;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the payload is not a valid message
+     */
+    public static InvalidationMessage decode(String payload) {
+        String[] parts = payload.split(String.valueOf(SEPARATOR), 4);
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("Invalid invalidation message: " + payload);
+        }
+        try {
+            InvalidationType type = InvalidationType.valueOf(parts[0]);
+            if (type.hasNumericIds()) {
+                Long.parseLong(parts[1]);
+            }
+            return new InvalidationMessage(type, parts[1], Long.parseLong(parts[2]), parts[3]);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid invalidation message: " + payload, e);
+        }
+    }
+}
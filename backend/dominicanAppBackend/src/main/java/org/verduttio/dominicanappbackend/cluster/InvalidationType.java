@@ -0,0 +1,34 @@
+package org.verduttio.dominicanappbackend.cluster;
+
+public enum InvalidationType {
+    /**
+     * Schedules of one week changed, the id is the epoch day of the week's Sunday
+     */
+    SCHEDULE_WEEK,
+    /**
+     * Data shown in all weeks changed (users, roles, tasks, conflicts, feasts)
+     */
+    GLOBAL,
+    /**
+     * Roles of a user changed, the id is the user's id
+     */
+    USER_ROLES,
+    /**
+     * A session was changed or removed, the id is the session id
+     */
+    SESSION(false);
+
+    private final boolean numericIds;
+
+    InvalidationType() {
+        this(true);
+    }
+
+    InvalidationType(boolean numericIds) {
+        this.numericIds = numericIds;
+    }
+
+    public boolean hasNumericIds() {
+        return numericIds;
+    }
+}
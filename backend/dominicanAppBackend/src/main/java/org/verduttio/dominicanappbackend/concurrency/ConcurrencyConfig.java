@@ -0,0 +1,20 @@
+package org.verduttio.dominicanappbackend.concurrency;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class ConcurrencyConfig implements WebMvcConfigurer {
+
+    private final ConcurrencyLimiter concurrencyLimiter;
+
+    public ConcurrencyConfig(ConcurrencyLimiter concurrencyLimiter) {
+        this.concurrencyLimiter = concurrencyLimiter;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ConcurrencyLimitInterceptor(concurrencyLimiter));
+    }
+}
@@ -0,0 +1,16 @@
+package org.verduttio.dominicanappbackend.concurrency;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Limits how many requests handled by the annotated controller (or method) may run at the same time. Handlers
+ * annotated with the same name share the limit, which is set by {@code app.concurrency.limits.<name>}.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ConcurrencyLimit {
+    String value();
+}
@@ -0,0 +1,67 @@
+package org.verduttio.dominicanappbackend.concurrency;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+
+/**
+ * Applies {@link ConcurrencyLimit} to the handlers annotated with it.
+ */
+public class ConcurrencyLimitInterceptor implements HandlerInterceptor {
+
+    private static final String ACQUIRED_LIMIT_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".acquiredLimit";
+
+    private final ConcurrencyLimiter concurrencyLimiter;
+
+    public ConcurrencyLimitInterceptor(ConcurrencyLimiter concurrencyLimiter) {
+        this.concurrencyLimiter = concurrencyLimiter;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+
+        ConcurrencyLimit concurrencyLimit = findConcurrencyLimit(handlerMethod);
+        if (concurrencyLimit == null) {
+            return true;
+        }
+
+        if (!concurrencyLimiter.tryAcquire(concurrencyLimit.value())) {
+            rejectRequest(response);
+            return false;
+        }
+        request.setAttribute(ACQUIRED_LIMIT_ATTRIBUTE, concurrencyLimit.value());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object limitName = request.getAttribute(ACQUIRED_LIMIT_ATTRIBUTE);
+        if (limitName != null) {
+            request.removeAttribute(ACQUIRED_LIMIT_ATTRIBUTE);
+            concurrencyLimiter.release(limitName.toString());
+        }
+    }
+
+    static void rejectRequest(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType("text/plain");
+        response.getWriter().write("Server is busy, please try again later");
+    }
+
+    private ConcurrencyLimit findConcurrencyLimit(HandlerMethod handlerMethod) {
+        ConcurrencyLimit methodLimit = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getMethod(), ConcurrencyLimit.class);
+        if (methodLimit != null) {
+            return methodLimit;
+        }
+        return AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), ConcurrencyLimit.class);
+    }
+}
@@ -0,0 +1,82 @@
+package org.verduttio.dominicanappbackend.concurrency;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.verduttio.dominicanappbackend.datasource.ReplicaDataSourceConfig;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Semaphores which bound how much work runs at the same time. With virtual threads the number of concurrent
+ * requests is not limited by the size of the Tomcat thread pool any more, so the admission semaphore (sized to the
+ * database connection pool) keeps requests from piling up on the pool, and named limits keep heavy endpoints from
+ * taking all the permits.
+ */
+@Component
+public class ConcurrencyLimiter {
+
+    private static final int DEFAULT_LIMIT = 4;
+
+    private final Semaphore admission;
+    private final Map<String, Semaphore> limits = new ConcurrentHashMap<>();
+    private final Environment environment;
+    private final Duration timeout;
+
+    /**
+     * The admission semaphore is sized to the primary connection pool: the pool behind the replica routing when
+     * the replica is enabled, the auto-configured data source otherwise.
+     */
+    @Autowired
+    public ConcurrencyLimiter(DataSource dataSource,
+                              @Qualifier(ReplicaDataSourceConfig.PRIMARY_POOL) ObjectProvider<HikariDataSource> primaryPool,
+                              Environment environment,
+                              @Value("${spring.datasource.hikari.maximum-pool-size:10}") int maximumPoolSize,
+                              @Value("${app.concurrency.timeout-ms:5000}") long timeoutMs) {
+        HikariDataSource pool = primaryPool.getIfAvailable(() -> dataSource instanceof HikariDataSource hikariDataSource ? hikariDataSource : null);
+        int permits = pool != null ? pool.getMaximumPoolSize() : maximumPoolSize;
+        this.admission = new Semaphore(permits, true);
+        this.environment = environment;
+        this.timeout = Duration.ofMillis(timeoutMs);
+    }
+
+    /**
+     * @return {@code true} if the request was admitted; it must then call {@link #release()}
+     */
+    public boolean tryAcquire() throws InterruptedException {
+        return admission.tryAcquire(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public void release() {
+        admission.release();
+    }
+
+    /**
+     * @return {@code true} if a permit of the named limit was acquired; it must then be returned with {@link #release(String)}
+     */
+    public boolean tryAcquire(String limitName) throws InterruptedException {
+        return getLimit(limitName).tryAcquire(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public void release(String limitName) {
+        getLimit(limitName).release();
+    }
+
+    public int availablePermits() {
+        return admission.availablePermits();
+    }
+
+    private Semaphore getLimit(String limitName) {
+        return limits.computeIfAbsent(limitName, name ->
+                new Semaphore(environment.getProperty("app.concurrency.limits." + name, Integer.class, DEFAULT_LIMIT), true));
+    }
+}
@@ -0,0 +1,94 @@
+package org.verduttio.dominicanappbackend.concurrency;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * Coalesces concurrent identical calls: while a call with some key is in flight, other calls with the same key
+ * wait for its result instead of doing the same work again. Keys include the version of the data the work reads,
+ * so a call started after a change never gets a result computed before it.
+ * <p>
+ * The first caller does the work on its own thread. The others share its result or its exception. A caller
+ * which waits longer than {@code app.concurrency.single-flight.timeout} does the work itself, so a stuck call
+ * cannot hold up the others indefinitely.
+ */
+@Component
+public class SingleFlight {
+
+    private static final Logger logger = LoggerFactory.getLogger(SingleFlight.class);
+
+    private final Map<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Duration timeout;
+
+    @Autowired
+    public SingleFlight(@Value("${app.concurrency.single-flight.timeout:30s}") Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    public static Key key(String operation, String dataVersion, Object... arguments) {
+        return new Key(operation, dataVersion, Arrays.asList(arguments));
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T, E extends Exception> T execute(Key key, Work<T, E> work) throws E {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existingFlight = inFlight.putIfAbsent(key, flight);
+        if (existingFlight == null) {
+            return runAndComplete(key, flight, work);
+        }
+
+        try {
+            return (T) existingFlight.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            // The same key means the same work, so a checked exception is of the type this work throws
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw (E) cause;
+        } catch (TimeoutException e) {
+            logger.debug("Waited over {} for {}, doing the work without it", timeout, key.operation());
+            return work.run();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for " + key.operation());
+        }
+    }
+
+    public int getNumberOfCallsInFlight() {
+        return inFlight.size();
+    }
+
+    private <T, E extends Exception> T runAndComplete(Key key, CompletableFuture<Object> flight, Work<T, E> work) throws E {
+        try {
+            T result = work.run();
+            flight.complete(result);
+            return result;
+        } catch (Throwable e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Work<T, E extends Exception> {
+        T run() throws E;
+    }
+
+    public record Key(String operation, String dataVersion, List<Object> arguments) {
+    }
+}
@@ -0,0 +1,46 @@
+package org.verduttio.dominicanappbackend.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.verduttio.dominicanappbackend.changefeed.ChangeFeedService;
+import org.verduttio.dominicanappbackend.changefeed.ChangeTopics;
+
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/changes")
+public class ChangeFeedController {
+
+    private static final int MAX_TOPICS = 50;
+
+    private final ChangeFeedService changeFeedService;
+
+    @Autowired
+    public ChangeFeedController(ChangeFeedService changeFeedService) {
+        this.changeFeedService = changeFeedService;
+    }
+
+    /**
+     * Answers 400 for an unknown or missing topic, 403 for a topic the user may not read and 503 if there are too
+     * many subscribers.
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribe(@RequestParam("topics") Set<String> topics) {
+        if (topics.isEmpty() || topics.size() > MAX_TOPICS || !topics.stream().allMatch(ChangeTopics::isValid)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        try {
+            return changeFeedService.subscribe(topics)
+                    .map(ResponseEntity::ok)
+                    .orElseGet(() -> new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE));
+        } catch (AccessDeniedException e) {
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
+    }
+}
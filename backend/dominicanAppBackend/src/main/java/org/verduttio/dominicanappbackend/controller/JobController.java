@@ -0,0 +1,40 @@
+package org.verduttio.dominicanappbackend.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.verduttio.dominicanappbackend.dto.job.JobStatusDTO;
+import org.verduttio.dominicanappbackend.job.ClusterJobScheduler;
+import org.verduttio.dominicanappbackend.journal.ScheduleProjectionRunner;
+import org.verduttio.dominicanappbackend.service.exception.EntityNotFoundException;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/jobs")
+public class JobController {
+    private final ClusterJobScheduler clusterJobScheduler;
+    private final ScheduleProjectionRunner scheduleProjectionRunner;
+
+    @Autowired
+    public JobController(ClusterJobScheduler clusterJobScheduler, ScheduleProjectionRunner scheduleProjectionRunner) {
+        this.clusterJobScheduler = clusterJobScheduler;
+        this.scheduleProjectionRunner = scheduleProjectionRunner;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<JobStatusDTO>> getJobStatuses() {
+        return new ResponseEntity<>(clusterJobScheduler.getJobStatuses(), HttpStatus.OK);
+    }
+
+    @PostMapping("/projections/{projectionName}/rebuild")
+    public ResponseEntity<?> rebuildProjection(@PathVariable String projectionName) {
+        try {
+            int appliedEvents = scheduleProjectionRunner.rebuild(projectionName);
+            return new ResponseEntity<>("Applied " + appliedEvents + " events", HttpStatus.OK);
+        } catch (EntityNotFoundException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
+        }
+    }
+}
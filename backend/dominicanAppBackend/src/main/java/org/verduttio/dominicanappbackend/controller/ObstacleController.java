@@ -7,14 +7,12 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 import org.verduttio.dominicanappbackend.dto.obstacle.ObstaclePatchDTO;
 import org.verduttio.dominicanappbackend.dto.obstacle.ObstacleRequestDTO;
 import org.verduttio.dominicanappbackend.domain.obstacle.Obstacle;
 import org.verduttio.dominicanappbackend.domain.ObstacleStatus;
-import org.verduttio.dominicanappbackend.security.UserDetailsImpl;
+import org.verduttio.dominicanappbackend.security.SecurityUtils;
 import org.verduttio.dominicanappbackend.service.ObstacleService;
 import org.verduttio.dominicanappbackend.service.exception.EntityNotFoundException;
 
@@ -74,9 +72,7 @@ public class ObstacleController {
 
     @GetMapping("/users/current")
     public ResponseEntity<?> getAllObstaclesByCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
-        Long userId = userDetails.getUser().getId();
+        Long userId = SecurityUtils.getCurrentUserId();
 
         List<Obstacle> obstacles;
         try {
@@ -90,9 +86,7 @@ public class ObstacleController {
 
     @GetMapping("/users/current/pageable")
     public ResponseEntity<?> getAllObstaclesByCurrentUser(Pageable pageable) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
-        Long userId = userDetails.getUser().getId();
+        Long userId = SecurityUtils.getCurrentUserId();
 
         Page<Obstacle> obstacles;
         try {
@@ -112,9 +106,7 @@ public class ObstacleController {
 
     @PostMapping("/users/current")
     public ResponseEntity<?> createObstacleForCurrentUser(@Valid @RequestBody ObstacleRequestDTO obstacleRequestDTO) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
-        Long userId = userDetails.getUser().getId();
+        Long userId = SecurityUtils.getCurrentUserId();
         obstacleRequestDTO.setUserId(userId);
 
         try {
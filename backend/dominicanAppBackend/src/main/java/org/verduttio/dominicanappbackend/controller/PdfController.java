@@ -2,11 +2,15 @@ package org.verduttio.dominicanappbackend.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.verduttio.dominicanappbackend.concurrency.ConcurrencyLimit;
+import org.verduttio.dominicanappbackend.service.ScheduleVersionService;
 import org.verduttio.dominicanappbackend.service.pdf.PdfService;
 
 import java.io.IOException;
@@ -15,19 +19,28 @@ import java.util.List;
 
 @RestController
 @RequestMapping("/api/pdf")
+@ConcurrencyLimit("pdf")
 public class PdfController {
 
     private final PdfService pdfService;
+    private final ScheduleVersionService scheduleVersionService;
 
     @Autowired
-    public PdfController(PdfService pdfService) {
+    public PdfController(PdfService pdfService, ScheduleVersionService scheduleVersionService) {
         this.pdfService = pdfService;
+        this.scheduleVersionService = scheduleVersionService;
     }
 
     @GetMapping("/schedules/users/scheduleShortInfo/week")
     public ResponseEntity<?> generateSchedulePdfForUsers(
             @RequestParam("from") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate from,
-            @RequestParam("to") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate to) {
+            @RequestParam("to") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate to,
+            WebRequest webRequest) {
+        String eTag = scheduleVersionService.getETag(from, to);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
         try {
             byte[] pdfContent = pdfService.generateSchedulePdfForUsers(from, to);
 
@@ -37,6 +50,8 @@ public class PdfController {
             return ResponseEntity
                     .ok()
                     .headers(headers)
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .eTag(eTag)
                     .contentType(MediaType.APPLICATION_PDF)
                     .body(pdfContent);
         } catch (IllegalArgumentException e) {
@@ -49,7 +64,13 @@ public class PdfController {
     @GetMapping("/schedules/users/groupedTasksByRoles/week")
     public ResponseEntity<?> generateSchedulePdfForUsersGroupedTasksByRoles(
             @RequestParam("from") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate from,
-            @RequestParam("to") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate to) {
+            @RequestParam("to") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate to,
+            WebRequest webRequest) {
+        String eTag = scheduleVersionService.getETag(from, to);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
         try {
             byte[] pdfContent = pdfService.generateSchedulePdfForUsersGroupedTasksByRoles(from, to);
 
@@ -59,6 +80,8 @@ public class PdfController {
             return ResponseEntity
                     .ok()
                     .headers(headers)
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .eTag(eTag)
                     .contentType(MediaType.APPLICATION_PDF)
                     .body(pdfContent);
         } catch (IllegalArgumentException e) {
@@ -72,7 +95,13 @@ public class PdfController {
     public ResponseEntity<?> generateSchedulePdfForTasksByRole(
             @PathVariable String supervisorRole,
             @RequestParam("from") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate from,
-            @RequestParam("to") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate to) {
+            @RequestParam("to") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate to,
+            WebRequest webRequest) {
+        String eTag = scheduleVersionService.getETag(from, to);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
         try {
             byte[] pdfContent = pdfService.generateSchedulePdfForTasksBySupervisorRole(supervisorRole, from, to);
 
@@ -82,6 +111,8 @@ public class PdfController {
             return ResponseEntity
                     .ok()
                     .headers(headers)
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .eTag(eTag)
                     .contentType(MediaType.APPLICATION_PDF)
                     .body(pdfContent);
         } catch (IllegalArgumentException e) {
@@ -94,7 +125,13 @@ public class PdfController {
     @GetMapping("/schedules/tasks/scheduleShortInfo/week")
     public ResponseEntity<?> generateSchedulePdfForTasks(
             @RequestParam("from") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate from,
-            @RequestParam("to") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate to) {
+            @RequestParam("to") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate to,
+            WebRequest webRequest) {
+        String eTag = scheduleVersionService.getETag(from, to);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
         try {
             byte[] pdfContent = pdfService.generateSchedulePdfForTasks(from, to);
 
@@ -104,6 +141,8 @@ public class PdfController {
             return ResponseEntity
                     .ok()
                     .headers(headers)
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .eTag(eTag)
                     .contentType(MediaType.APPLICATION_PDF)
                     .body(pdfContent);
         } catch (IllegalArgumentException e) {
@@ -139,7 +178,13 @@ public class PdfController {
     @GetMapping("/schedules/users/days")
     public ResponseEntity<?> generateSchedulePdfForUsersByDays(
             @RequestParam("from") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate from,
-            @RequestParam("to") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate to) {
+            @RequestParam("to") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate to,
+            WebRequest webRequest) {
+        String eTag = scheduleVersionService.getETag(from, to);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
         try {
             byte[] pdfContent = pdfService.generateSchedulePdfForUsersByDays(from, to);
 
@@ -149,6 +194,8 @@ public class PdfController {
             return ResponseEntity
                     .ok()
                     .headers(headers)
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .eTag(eTag)
                     .contentType(MediaType.APPLICATION_PDF)
                     .body(pdfContent);
         } catch (IllegalArgumentException e) {
@@ -162,7 +209,13 @@ public class PdfController {
     public ResponseEntity<?> generateSchedulePdfForUsersBySupervisorRoleByDays(
             @PathVariable String supervisorRoleName,
             @RequestParam("from") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate from,
-            @RequestParam("to") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate to) {
+            @RequestParam("to") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate to,
+            WebRequest webRequest) {
+        String eTag = scheduleVersionService.getETag(from, to);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
         try {
             byte[] pdfContent = pdfService.generateSchedulePdfForUsersBySupervisorRoleByDays(supervisorRoleName, from, to);
 
@@ -172,6 +225,8 @@ public class PdfController {
             return ResponseEntity
                     .ok()
                     .headers(headers)
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .eTag(eTag)
                     .contentType(MediaType.APPLICATION_PDF)
                     .body(pdfContent);
         } catch (IllegalArgumentException e) {
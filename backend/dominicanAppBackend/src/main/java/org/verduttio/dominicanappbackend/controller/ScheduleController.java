@@ -3,20 +3,31 @@ package org.verduttio.dominicanappbackend.controller;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.verduttio.dominicanappbackend.concurrency.ConcurrencyLimit;
 import org.verduttio.dominicanappbackend.dto.schedule.*;
+import org.verduttio.dominicanappbackend.dto.schedule.preview.SchedulePreview;
 import org.verduttio.dominicanappbackend.dto.user.UserSchedulesOnDaysDTO;
 import org.verduttio.dominicanappbackend.dto.user.UserTaskStatisticsDTO;
 import org.verduttio.dominicanappbackend.dto.user.scheduleInfo.UserTasksScheduleInfoWeekly;
 import org.verduttio.dominicanappbackend.dto.user.scheduleInfo.UserTasksScheduleInfoWeeklyByAllDays;
 import org.verduttio.dominicanappbackend.domain.Schedule;
+import org.verduttio.dominicanappbackend.service.ScheduleVersionService;
+import org.verduttio.dominicanappbackend.service.schedule.SchedulePreviewService;
 import org.verduttio.dominicanappbackend.service.schedule.ScheduleService;
+import org.verduttio.dominicanappbackend.service.schedule.ScheduleViewCache;
+import org.verduttio.dominicanappbackend.service.schedule.WeekScheduleBatchService;
 import org.verduttio.dominicanappbackend.service.exception.EntityAlreadyExistsException;
 import org.verduttio.dominicanappbackend.service.exception.EntityNotFoundException;
 import org.verduttio.dominicanappbackend.service.exception.RoleNotMeetRequirementsException;
 import org.verduttio.dominicanappbackend.service.exception.ScheduleIsInConflictException;
+import org.verduttio.dominicanappbackend.service.exception.SchedulePreviewOutdatedException;
+import org.verduttio.dominicanappbackend.service.exception.ScheduleWriteConflictException;
+import org.verduttio.dominicanappbackend.service.exception.TaskParticipantsLimitExceededException;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -27,29 +38,62 @@ import java.util.Map;
 public class ScheduleController {
 
     private final ScheduleService scheduleService;
+    private final ScheduleVersionService scheduleVersionService;
+    private final WeekScheduleBatchService weekScheduleBatchService;
+    private final SchedulePreviewService schedulePreviewService;
+    private final ScheduleViewCache scheduleViewCache;
 
     @Autowired
-    public ScheduleController(ScheduleService scheduleService) {
+    public ScheduleController(ScheduleService scheduleService, ScheduleVersionService scheduleVersionService,
+                              WeekScheduleBatchService weekScheduleBatchService, SchedulePreviewService schedulePreviewService,
+                              ScheduleViewCache scheduleViewCache) {
         this.scheduleService = scheduleService;
+        this.scheduleVersionService = scheduleVersionService;
+        this.weekScheduleBatchService = weekScheduleBatchService;
+        this.schedulePreviewService = schedulePreviewService;
+        this.scheduleViewCache = scheduleViewCache;
+    }
+
+    private <T> ResponseEntity<T> okWithETag(T body, String eTag) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .eTag(eTag)
+                .body(body);
     }
 
     @GetMapping
-    public ResponseEntity<List<Schedule>> getAllSchedules() {
+    public ResponseEntity<List<Schedule>> getAllSchedules(WebRequest webRequest) {
+        String eTag = scheduleVersionService.getETag();
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
         List<Schedule> schedules = scheduleService.getAllSchedules();
-        return new ResponseEntity<>(schedules, HttpStatus.OK);
+        return okWithETag(schedules, eTag);
     }
 
     @GetMapping("/{scheduleId}")
-    public ResponseEntity<Schedule> getScheduleById(@PathVariable Long scheduleId) {
+    public ResponseEntity<Schedule> getScheduleById(@PathVariable Long scheduleId, WebRequest webRequest) {
+        String eTag = scheduleVersionService.getETag();
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
         return scheduleService.getScheduleById(scheduleId)
-                .map(schedule -> new ResponseEntity<>(schedule, HttpStatus.OK))
+                .map(schedule -> okWithETag(schedule, eTag))
                 .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
     @GetMapping("/users/{userId}/week")
     public ResponseEntity<?> getAllSchedulesByUserIdForSpecifiedWeek(@PathVariable Long userId,
                                                                      @RequestParam("from") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate from,
-                                                                     @RequestParam("to") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate to) {
+                                                                     @RequestParam("to") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate to,
+                                                                     WebRequest webRequest) {
+        String eTag = scheduleVersionService.getETag(from, to);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
         List<Schedule> userSchedulesForSpecifiedWeek;
         try {
             userSchedulesForSpecifiedWeek = scheduleService.getAllSchedulesByUserIdForSpecifiedWeek(userId, from, to);
@@ -59,13 +103,19 @@ public class ScheduleController {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
         }
 
-        return new ResponseEntity<>(userSchedulesForSpecifiedWeek, HttpStatus.OK);
+        return okWithETag(userSchedulesForSpecifiedWeek, eTag);
     }
 
     @GetMapping("/users/{userId}/history")
     public ResponseEntity<?> getScheduleHistoryForUser(@PathVariable Long userId,
                                                        @RequestParam("date") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate date,
-                                                       @RequestParam("weeks") int numberOfWeeksToDisplay){
+                                                       @RequestParam("weeks") int numberOfWeeksToDisplay,
+                                                       WebRequest webRequest) {
+        String eTag = scheduleVersionService.getETag(date.minusWeeks(numberOfWeeksToDisplay), date);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
         Map<Integer, List<String>> userScheduleHistory;
         try {
             userScheduleHistory = scheduleService.getScheduleHistoryForUser(userId, date, numberOfWeeksToDisplay);
@@ -75,81 +125,111 @@ public class ScheduleController {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
         }
 
-        return new ResponseEntity<>(userScheduleHistory, HttpStatus.OK);
+        return okWithETag(userScheduleHistory, eTag);
     }
 
     @GetMapping("/users/scheduleShortInfo/week")
     public ResponseEntity<?> getShortScheduleInfoForSpecifiedWeek(
             @RequestParam("from") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate from,
-            @RequestParam("to") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate to) {
+            @RequestParam("to") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate to,
+            WebRequest webRequest) {
+        String eTag = scheduleVersionService.getETag(from, to);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
         List<ScheduleShortInfoForUser> userSchedulesForSpecifiedWeek;
         try {
-            userSchedulesForSpecifiedWeek = scheduleService.getScheduleShortInfoForAllowedUsersForSpecifiedWeek(from, to);
+            userSchedulesForSpecifiedWeek = scheduleViewCache.getScheduleShortInfoForUsers(from, to);
         } catch (EntityNotFoundException e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
         } catch (IllegalArgumentException e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
         }
 
-        return new ResponseEntity<>(userSchedulesForSpecifiedWeek, HttpStatus.OK);
+        return okWithETag(userSchedulesForSpecifiedWeek, eTag);
     }
 
     @GetMapping("/users/groupedScheduleShortInfo/week")
     public ResponseEntity<?> getGroupedShortScheduleInfoForSpecifiedWeek(
             @RequestParam("from") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate from,
-            @RequestParam("to") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate to) {
+            @RequestParam("to") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate to,
+            WebRequest webRequest) {
+        String eTag = scheduleVersionService.getETag(from, to);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
         List<GroupedTasksByRolesInScheduleInfoForUser> userSchedulesForSpecifiedWeek;
         try {
-            userSchedulesForSpecifiedWeek = scheduleService.getGroupedTasksByRolesInScheduleInfoForAllowedUsersForSpecifiedWeek(from, to);
+            userSchedulesForSpecifiedWeek = scheduleViewCache.getGroupedScheduleShortInfoForUsers(from, to);
         } catch (EntityNotFoundException e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
         } catch (IllegalArgumentException e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
         }
 
-        return new ResponseEntity<>(userSchedulesForSpecifiedWeek, HttpStatus.OK);
+        return okWithETag(userSchedulesForSpecifiedWeek, eTag);
     }
 
     @GetMapping("/tasks/scheduleShortInfo/week")
     public ResponseEntity<?> getShortScheduleInfoForSpecifiedWeekForTasks(
             @RequestParam("from") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate from,
-            @RequestParam("to") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate to) {
+            @RequestParam("to") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate to,
+            WebRequest webRequest) {
+        String eTag = scheduleVersionService.getETag(from, to);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
         List<ScheduleShortInfoForTask> taskSchedulesForSpecifiedWeek;
         try {
-            taskSchedulesForSpecifiedWeek = scheduleService.getScheduleShortInfoForEachTaskForSpecifiedWeek(from, to);
+            taskSchedulesForSpecifiedWeek = scheduleViewCache.getScheduleShortInfoForTasks(from, to);
         } catch (EntityNotFoundException e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
         } catch (IllegalArgumentException e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
         }
 
-        return new ResponseEntity<>(taskSchedulesForSpecifiedWeek, HttpStatus.OK);
+        return okWithETag(taskSchedulesForSpecifiedWeek, eTag);
     }
 
     @GetMapping("/tasks/byRole/{supervisorRole}/scheduleShortInfo/week")
     public ResponseEntity<?> getShortScheduleInfoForSpecifiedWeekForTasksBySupervisorRole(
             @PathVariable String supervisorRole,
             @RequestParam("from") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate from,
-            @RequestParam("to") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate to) {
+            @RequestParam("to") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate to,
+            WebRequest webRequest) {
+        String eTag = scheduleVersionService.getETag(from, to);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
         List<ScheduleShortInfoForTask> taskSchedulesForSpecifiedWeek;
         try {
-            taskSchedulesForSpecifiedWeek = scheduleService.getScheduleShortInfoForTaskByRoleForSpecifiedWeek(supervisorRole, from, to);
+            taskSchedulesForSpecifiedWeek = scheduleViewCache.getScheduleShortInfoForTasksByRole(supervisorRole, from, to);
         } catch (EntityNotFoundException e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
         } catch (IllegalArgumentException e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
         }
 
-        return new ResponseEntity<>(taskSchedulesForSpecifiedWeek, HttpStatus.OK);
+        return okWithETag(taskSchedulesForSpecifiedWeek, eTag);
     }
 
     @GetMapping("/users/days")
     public ResponseEntity<?> getSchedulePdfForUsersByDays(
             @RequestParam("from") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate from,
-            @RequestParam("to") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate to) {
+            @RequestParam("to") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate to,
+            WebRequest webRequest) {
+        String eTag = scheduleVersionService.getETag(from, to);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
         try {
-            List<UserSchedulesOnDaysDTO> schedules = scheduleService.getListOfUserSchedulesByDaysDTO(from, to);
-            return new ResponseEntity<>(schedules, HttpStatus.OK);
+            List<UserSchedulesOnDaysDTO> schedules = scheduleViewCache.getUserSchedulesByDays(from, to);
+            return okWithETag(schedules, eTag);
         } catch (IllegalArgumentException e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
         } catch (Exception e) {
@@ -161,10 +241,16 @@ public class ScheduleController {
     public ResponseEntity<?> getSchedulePdfForUsersBySupervisorRoleByDays(
             @PathVariable String supervisorRoleName,
             @RequestParam("from") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate from,
-            @RequestParam("to") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate to) {
+            @RequestParam("to") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate to,
+            WebRequest webRequest) {
+        String eTag = scheduleVersionService.getETag(from, to);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
         try {
-            List<UserSchedulesOnDaysDTO> schedules = scheduleService.getListOfUserSchedulesByDaysDTO(from, to, supervisorRoleName);
-            return new ResponseEntity<>(schedules, HttpStatus.OK);
+            List<UserSchedulesOnDaysDTO> schedules = scheduleViewCache.getUserSchedulesByDays(supervisorRoleName, from, to);
+            return okWithETag(schedules, eTag);
         } catch (IllegalArgumentException e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
         } catch (Exception e) {
@@ -176,10 +262,16 @@ public class ScheduleController {
     public ResponseEntity<?> getUserTasksScheduleInfoWeeklyByRole(
                                                             @PathVariable String roleName,
                                                             @RequestParam("from") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate from,
-                                                           @RequestParam("to") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate to) {
+                                                           @RequestParam("to") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate to,
+                                                           WebRequest webRequest) {
+        String eTag = scheduleVersionService.getETagUpTo(to);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
         try {
-            List<UserTasksScheduleInfoWeekly> dependencies = scheduleService.getUserTasksScheduleInfoWeeklyByRole(roleName, from, to);
-            return ResponseEntity.ok(dependencies);
+            List<UserTasksScheduleInfoWeekly> dependencies = scheduleViewCache.getWeeklyBoard(roleName, from, to);
+            return okWithETag(dependencies, eTag);
         } catch (EntityNotFoundException e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
         } catch (IllegalArgumentException e) {
@@ -194,10 +286,16 @@ public class ScheduleController {
             @PathVariable String roleName,
             @PathVariable Long userId,
             @RequestParam("from") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate from,
-            @RequestParam("to") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate to) {
+            @RequestParam("to") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate to,
+            WebRequest webRequest) {
+        String eTag = scheduleVersionService.getETagUpTo(to);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
         try {
             UserTasksScheduleInfoWeekly userDependency = scheduleService.getUserTasksScheduleInfoWeeklyByRole(roleName, userId, from, to);
-            return ResponseEntity.ok(userDependency);
+            return okWithETag(userDependency, eTag);
         } catch (EntityNotFoundException e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
         } catch (IllegalArgumentException e) {
@@ -211,10 +309,16 @@ public class ScheduleController {
     public ResponseEntity<?> getUserTasksScheduleInfoWeeklyByRoleByAllDays(
             @PathVariable String roleName,
             @RequestParam("from") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate from,
-            @RequestParam("to") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate to) {
+            @RequestParam("to") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate to,
+            WebRequest webRequest) {
+        String eTag = scheduleVersionService.getETagUpTo(to);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
         try {
-            List<UserTasksScheduleInfoWeeklyByAllDays> dependencies = scheduleService.getUserTasksScheduleInfoWeeklyByAllDaysByRole(roleName, from, to);
-            return ResponseEntity.ok(dependencies);
+            List<UserTasksScheduleInfoWeeklyByAllDays> dependencies = scheduleViewCache.getWeeklyBoardByAllDays(roleName, from, to);
+            return okWithETag(dependencies, eTag);
         } catch (EntityNotFoundException e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
         } catch (IllegalArgumentException e) {
@@ -229,10 +333,16 @@ public class ScheduleController {
             @PathVariable String roleName,
             @PathVariable Long userId,
             @RequestParam("from") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate from,
-            @RequestParam("to") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate to) {
+            @RequestParam("to") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate to,
+            WebRequest webRequest) {
+        String eTag = scheduleVersionService.getETagUpTo(to);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
         try {
             UserTasksScheduleInfoWeeklyByAllDays userDependency = scheduleService.getUserTasksScheduleInfoWeeklyByAllDaysByRole(roleName, userId, from, to);
-            return ResponseEntity.ok(userDependency);
+            return okWithETag(userDependency, eTag);
         } catch (EntityNotFoundException e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
         } catch (IllegalArgumentException e) {
@@ -246,10 +356,16 @@ public class ScheduleController {
     public ResponseEntity<?> getUserTasksScheduleInfoWeeklyForOneDayByRoleForOneUser(
             @PathVariable String roleName,
             @PathVariable Long userId,
-            @RequestParam("date") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate date) {
+            @RequestParam("date") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate date,
+            WebRequest webRequest) {
+        String eTag = scheduleVersionService.getETagUpTo(date);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
         try {
             UserTasksScheduleInfoWeekly dependencies = scheduleService.getUserTasksScheduleInfoWeeklyForOneDayByRole(roleName, userId, date);
-            return ResponseEntity.ok(dependencies);
+            return okWithETag(dependencies, eTag);
         } catch (EntityNotFoundException e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
         } catch (IllegalArgumentException e) {
@@ -262,10 +378,16 @@ public class ScheduleController {
     @GetMapping("task/{roleName}/all/schedule-info/daily")
     public ResponseEntity<?> getUserTasksScheduleInfoWeeklyForOneDayByRole(
             @PathVariable String roleName,
-            @RequestParam("date") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate date) {
+            @RequestParam("date") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate date,
+            WebRequest webRequest) {
+        String eTag = scheduleVersionService.getETagUpTo(date);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
         try {
             List<UserTasksScheduleInfoWeekly> dependencies = scheduleService.getUserTasksScheduleInfoWeeklyForOneDayByRole(roleName, date);
-            return ResponseEntity.ok(dependencies);
+            return okWithETag(dependencies, eTag);
         } catch (EntityNotFoundException e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
         } catch (IllegalArgumentException e) {
@@ -276,16 +398,22 @@ public class ScheduleController {
     }
 
     @GetMapping("/users/{userId}/statistics/tasks")
-    public ResponseEntity<?> getStatisticsForUserTasks(@PathVariable Long userId) {
+    public ResponseEntity<?> getStatisticsForUserTasks(@PathVariable Long userId, WebRequest webRequest) {
+        String eTag = scheduleVersionService.getETag();
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
         try {
             List<UserTaskStatisticsDTO> userTaskStatistics = scheduleService.getStatisticsForUserTasks(userId);
-            return new ResponseEntity<>(userTaskStatistics, HttpStatus.OK);
+            return okWithETag(userTaskStatistics, eTag);
         } catch (EntityNotFoundException e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
         }
     }
 
     @PostMapping("/generator/kitchen-style/{roleId}")
+    @ConcurrencyLimit("generator")
     public ResponseEntity<?> generateSchedule(@PathVariable Long roleId,
                                               @RequestParam("startingFromUserId") Long startingFromUserId,
                                               @RequestParam("from") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate from,
@@ -294,12 +422,46 @@ public class ScheduleController {
             scheduleService.generateSchedule(roleId, startingFromUserId, from, to);
         } catch (IllegalArgumentException e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (TaskParticipantsLimitExceededException | ScheduleWriteConflictException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.CONFLICT);
+        }
+
+        return new ResponseEntity<>(HttpStatus.CREATED);
+    }
+
+    @PostMapping("/generator/kitchen-style/{roleId}/preview")
+    @ConcurrencyLimit("generator")
+    public ResponseEntity<?> previewGeneratedSchedule(@PathVariable Long roleId,
+                                                      @RequestParam("startingFromUserId") Long startingFromUserId,
+                                                      @RequestParam("from") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate from,
+                                                      @RequestParam("to") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate to) {
+        SchedulePreview preview;
+        try {
+            preview = schedulePreviewService.previewGeneration(roleId, startingFromUserId, from, to);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+
+        return new ResponseEntity<>(preview, HttpStatus.OK);
+    }
+
+    @PostMapping("/previews/{previewId}/commit")
+    public ResponseEntity<?> commitSchedulePreview(@PathVariable String previewId) {
+        try {
+            schedulePreviewService.commitPreview(previewId);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (EntityNotFoundException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
+        } catch (SchedulePreviewOutdatedException | TaskParticipantsLimitExceededException | ScheduleWriteConflictException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.CONFLICT);
         }
 
         return new ResponseEntity<>(HttpStatus.CREATED);
     }
 
     @PostMapping("/cleaner/kitchen-style/{roleId}")
+    @ConcurrencyLimit("generator")
     public ResponseEntity<?> cleanSchedule(@PathVariable Long roleId,
                                               @RequestParam("from") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate from,
                                               @RequestParam("to") @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate to) {
@@ -322,7 +484,8 @@ public class ScheduleController {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
         } catch (EntityNotFoundException e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
-        } catch (EntityAlreadyExistsException | RoleNotMeetRequirementsException | ScheduleIsInConflictException e) {
+        } catch (EntityAlreadyExistsException | RoleNotMeetRequirementsException | ScheduleIsInConflictException
+                 | TaskParticipantsLimitExceededException | ScheduleWriteConflictException e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.CONFLICT);
         }
 
@@ -338,13 +501,45 @@ public class ScheduleController {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
         } catch (EntityNotFoundException e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
-        } catch (EntityAlreadyExistsException | RoleNotMeetRequirementsException | ScheduleIsInConflictException e) {
+        } catch (EntityAlreadyExistsException | RoleNotMeetRequirementsException | ScheduleIsInConflictException
+                 | TaskParticipantsLimitExceededException | ScheduleWriteConflictException e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.CONFLICT);
         }
 
         return new ResponseEntity<>(HttpStatus.CREATED);
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<?> applyBulkWeekSchedule(@Valid @RequestBody BulkWeekScheduleDTO bulkWeekScheduleDTO,
+                                                   @RequestParam(required = false, defaultValue = "false") boolean ignoreConflicts) {
+        BulkWeekScheduleResult result;
+        try {
+            result = weekScheduleBatchService.applyWeekChanges(bulkWeekScheduleDTO, ignoreConflicts);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (TaskParticipantsLimitExceededException | ScheduleWriteConflictException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.CONFLICT);
+        }
+
+        if (!result.applied()) {
+            return new ResponseEntity<>(result, HttpStatus.CONFLICT);
+        }
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
+    @PostMapping("/bulk/preview")
+    public ResponseEntity<?> previewBulkWeekSchedule(@Valid @RequestBody BulkWeekScheduleDTO bulkWeekScheduleDTO,
+                                                     @RequestParam(required = false, defaultValue = "false") boolean ignoreConflicts) {
+        SchedulePreview preview;
+        try {
+            preview = schedulePreviewService.previewBulkWeekChanges(bulkWeekScheduleDTO, ignoreConflicts);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+
+        return new ResponseEntity<>(preview, HttpStatus.OK);
+    }
+
     @DeleteMapping("/forWholePeriod")
     public ResponseEntity<?> deleteScheduleForWholePeriod(@Valid @RequestBody AddScheduleForWholePeriodTaskDTO addScheduleForWholePeriodTaskDTO) {
         try {
@@ -20,7 +20,7 @@ import org.verduttio.dominicanappbackend.dto.user.UserShortInfo;
 import org.verduttio.dominicanappbackend.domain.AuthProvider;
 import org.verduttio.dominicanappbackend.domain.User;
 import org.verduttio.dominicanappbackend.security.SecurityUtils;
-import org.verduttio.dominicanappbackend.security.UserDetailsImpl;
+import org.verduttio.dominicanappbackend.security.SessionPrincipal;
 import org.verduttio.dominicanappbackend.service.UserService;
 import org.verduttio.dominicanappbackend.service.exception.EntityAlreadyExistsException;
 import org.verduttio.dominicanappbackend.service.exception.EntityNotFoundException;
@@ -73,15 +73,14 @@ public class UserController {
             System.out.println("Principal: " + p.getPrincipal() + " Session ID: " + p.getSessionId());
         }
 
-        UserDetailsImpl userDetails = (UserDetailsImpl) principal;
+        SessionPrincipal sessionPrincipal = (SessionPrincipal) principal;
 
-        return ResponseEntity.ok("Active sessions for user: " + userDetails.getUsername() + " are: " + principals.size());
+        return ResponseEntity.ok("Active sessions for user: " + sessionPrincipal.email() + " are: " + principals.size());
     }
 
     @GetMapping("/current")
     public ResponseEntity<?> getCurrentUser() {
-        User currentUser = SecurityUtils.getCurrentUser();
-        User currentUserDb = userService.getUserByEmail(currentUser.getEmail()).orElse(null);
+        User currentUserDb = userService.getUserById(SecurityUtils.getCurrentUserId()).orElse(null);
         return new ResponseEntity<>(currentUserDb, HttpStatus.OK);
     }
 
@@ -129,10 +128,7 @@ public class UserController {
     //TODO: Move to service layer
     @GetMapping("/checkRole/{roleName}")
     public ResponseEntity<Boolean> checkIfUserHasRole(@PathVariable String roleName) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
-
-        if (userDetails.getUser().getRoles().stream().anyMatch(role -> role.getName().equals(roleName))) {
+        if (SecurityUtils.getCurrentPrincipal().hasRole(roleName)) {
             return new ResponseEntity<>(true, HttpStatus.OK);
         } else {
             return new ResponseEntity<>(false, HttpStatus.OK);
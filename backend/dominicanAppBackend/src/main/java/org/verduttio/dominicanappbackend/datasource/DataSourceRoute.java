@@ -0,0 +1,5 @@
+package org.verduttio.dominicanappbackend.datasource;
+
+public enum DataSourceRoute {
+    PRIMARY, REPLICA
+}
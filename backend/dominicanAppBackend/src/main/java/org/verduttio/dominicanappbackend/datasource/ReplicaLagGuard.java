@@ -0,0 +1,55 @@
+package org.verduttio.dominicanappbackend.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.verduttio.dominicanappbackend.service.ScheduleVersionService;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Decides when a read-only transaction cannot use the replica, because the replica may not have a recent change yet:
+ * for {@code app.datasource.replica.max-lag} after the session committed a write, and for everyone after schedule
+ * data changed (locally or on another node). The latter keeps schedule views, which are cached under the current
+ * data version, from being computed from older data.
+ */
+public class ReplicaLagGuard {
+
+    private final Supplier<ScheduleVersionService> scheduleVersionService;
+    private final long maxLagNanos;
+    private final Cache<String, Boolean> recentWriters;
+    private volatile String lastSeenDataVersion;
+    private volatile long dataChangedAtNanos;
+
+    // The version service uses the database itself, so it is looked up only when needed
+    public ReplicaLagGuard(Supplier<ScheduleVersionService> scheduleVersionService, Duration maxLag) {
+        this.scheduleVersionService = scheduleVersionService;
+        this.maxLagNanos = maxLag.toNanos();
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(maxLag)
+                .build();
+        this.dataChangedAtNanos = System.nanoTime() - maxLagNanos;
+    }
+
+    public void markWrite(String sessionId) {
+        if (sessionId != null) {
+            recentWriters.put(sessionId, Boolean.TRUE);
+        }
+    }
+
+    public boolean isPrimaryRequired(String sessionId) {
+        if (sessionId != null && recentWriters.getIfPresent(sessionId) != null) {
+            return true;
+        }
+
+        long now = System.nanoTime();
+        String dataVersion = scheduleVersionService.get().getETag();
+        if (lastSeenDataVersion == null) {
+            lastSeenDataVersion = dataVersion;
+        } else if (!dataVersion.equals(lastSeenDataVersion)) {
+            lastSeenDataVersion = dataVersion;
+            dataChangedAtNanos = now;
+        }
+        return now - dataChangedAtNanos < maxLagNanos;
+    }
+}
@@ -0,0 +1,56 @@
+package org.verduttio.dominicanappbackend.datasource;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Gives connections of read-only transactions from the replica, unless {@link ReplicaLagGuard} says it may be
+ * behind, and all other connections from the primary.
+ * <p>
+ * The transaction is known to be read-only only after its connection would normally be taken, so this data source
+ * has to be wrapped in a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final ReplicaLagGuard replicaLagGuard;
+
+    public ReplicaRoutingDataSource(ReplicaLagGuard replicaLagGuard) {
+        this.replicaLagGuard = replicaLagGuard;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String sessionId = getCurrentSessionId();
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return replicaLagGuard.isPrimaryRequired(sessionId) ? DataSourceRoute.PRIMARY : DataSourceRoute.REPLICA;
+        }
+
+        // Replication lag counts from the commit, so that is when the write is noted
+        if (sessionId != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    replicaLagGuard.markWrite(sessionId);
+                }
+            });
+        }
+        return DataSourceRoute.PRIMARY;
+    }
+
+    /**
+     * Requested id only, so that no session is loaded (or created) while a connection is being taken.
+     */
+    private static String getCurrentSessionId() {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes instanceof ServletRequestAttributes servletRequestAttributes) {
+            HttpServletRequest request = servletRequestAttributes.getRequest();
+            return request.getRequestedSessionId();
+        }
+        return null;
+    }
+}
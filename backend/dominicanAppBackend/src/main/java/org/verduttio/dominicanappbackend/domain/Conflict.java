@@ -3,6 +3,7 @@ package org.verduttio.dominicanappbackend.domain;
 import jakarta.persistence.*;
 
 import java.time.DayOfWeek;
+import java.util.EnumSet;
 import java.util.Set;
 
 @Entity
@@ -22,13 +23,9 @@ public class Conflict {
     @JoinColumn(name = "task2_id")
     private Task task2;
 
-    @ElementCollection(targetClass = DayOfWeek.class)
-    @Enumerated(EnumType.STRING)
-    @CollectionTable(
-            name = "conflict_day_of_week",
-            joinColumns = @JoinColumn(name = "conflict_id")
-    )
-    private Set<DayOfWeek> daysOfWeek;
+    @Convert(converter = DaysOfWeekConverter.class)
+    @Column(name = "days_of_week", nullable = false)
+    private Set<DayOfWeek> daysOfWeek = EnumSet.noneOf(DayOfWeek.class);
 
 
     // Getters and setters
@@ -61,7 +58,10 @@ public class Conflict {
     }
 
     public void setDaysOfWeek(Set<DayOfWeek> daysOfWeek) {
-        this.daysOfWeek = daysOfWeek;
+        this.daysOfWeek = EnumSet.noneOf(DayOfWeek.class);
+        if (daysOfWeek != null) {
+            this.daysOfWeek.addAll(daysOfWeek);
+        }
     }
 
 
@@ -72,6 +72,6 @@ public class Conflict {
     public Conflict(Task task1, Task task2, Set<DayOfWeek> daysOfWeek) {
         this.task1 = task1;
         this.task2 = task2;
-        this.daysOfWeek = daysOfWeek;
+        setDaysOfWeek(daysOfWeek);
     }
 }
@@ -0,0 +1,25 @@
+package org.verduttio.dominicanappbackend.domain;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.verduttio.dominicanappbackend.util.DaysOfWeekMask;
+
+import java.time.DayOfWeek;
+import java.util.Set;
+
+/**
+ * Stores a set of days of the week as a {@link DaysOfWeekMask} in a single smallint column.
+ */
+@Converter
+public class DaysOfWeekConverter implements AttributeConverter<Set<DayOfWeek>, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(Set<DayOfWeek> daysOfWeek) {
+        return (short) DaysOfWeekMask.toMask(daysOfWeek);
+    }
+
+    @Override
+    public Set<DayOfWeek> convertToEntityAttribute(Short mask) {
+        return DaysOfWeekMask.fromMask(mask != null ? mask : 0);
+    }
+}
@@ -0,0 +1,110 @@
+package org.verduttio.dominicanappbackend.domain;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "job_runs", indexes = @Index(name = "idx_job_runs_job_name_started_at", columnList = "jobName, startedAt"))
+public class JobRun {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "job_run_id_generator")
+    @SequenceGenerator(name="job_run_id_generator", sequenceName = "job_run_id_seq", allocationSize=1)
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String jobName;
+
+    @Column(nullable = false, length = 128)
+    private String node;
+
+    @Column(nullable = false)
+    private Instant startedAt;
+
+    private Instant finishedAt;
+
+    private Long durationMillis;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private JobRunStatus status;
+
+    @Column(length = 1000)
+    private String details;
+
+    // Getters and setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getJobName() {
+        return jobName;
+    }
+
+    public void setJobName(String jobName) {
+        this.jobName = jobName;
+    }
+
+    public String getNode() {
+        return node;
+    }
+
+    public void setNode(String node) {
+        this.node = node;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public Long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public void setDurationMillis(Long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+
+    public JobRunStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(JobRunStatus status) {
+        this.status = status;
+    }
+
+    public String getDetails() {
+        return details;
+    }
+
+    public void setDetails(String details) {
+        this.details = details;
+    }
+
+    // Constructors
+    public JobRun() {
+    }
+
+    public JobRun(String jobName, String node, Instant startedAt) {
+        this.jobName = jobName;
+        this.node = node;
+        this.startedAt = startedAt;
+        this.status = JobRunStatus.RUNNING;
+    }
+}
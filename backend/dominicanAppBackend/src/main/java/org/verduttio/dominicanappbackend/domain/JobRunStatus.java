@@ -0,0 +1,7 @@
+package org.verduttio.dominicanappbackend.domain;
+
+public enum JobRunStatus {
+    RUNNING,
+    SUCCEEDED,
+    FAILED
+}
@@ -4,7 +4,8 @@ import jakarta.persistence.*;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "schedule")
+@Table(name = "schedule",
+        uniqueConstraints = @UniqueConstraint(name = "uc_schedule_user_task_date", columnNames = {"user_id", "task_id", "date"}))
 public class Schedule {
 
     @Id
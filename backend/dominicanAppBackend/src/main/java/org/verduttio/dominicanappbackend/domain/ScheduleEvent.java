@@ -0,0 +1,109 @@
+package org.verduttio.dominicanappbackend.domain;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * One assignment added to or removed from the schedule. Events are only appended, in the transaction of the change,
+ * and their ids give the order in which projections apply them. Users and tasks are kept as plain ids, so the
+ * events stay in the journal after the user or task is deleted.
+ */
+@Entity
+@Table(name = "schedule_events", indexes = @Index(name = "idx_schedule_events_user_task_date", columnList = "user_id, task_id, date"))
+public class ScheduleEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "schedule_event_id_generator")
+    @SequenceGenerator(name="schedule_event_id_generator", sequenceName = "schedule_event_id_seq", allocationSize=1)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private ScheduleEventType type;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "task_id", nullable = false)
+    private Long taskId;
+
+    @Column(nullable = false)
+    private LocalDate date;
+
+    // Id of the user who made the change, null for changes made by jobs
+    private Long changedBy;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    // Getters and setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public ScheduleEventType getType() {
+        return type;
+    }
+
+    public void setType(ScheduleEventType type) {
+        this.type = type;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getTaskId() {
+        return taskId;
+    }
+
+    public void setTaskId(Long taskId) {
+        this.taskId = taskId;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+
+    public Long getChangedBy() {
+        return changedBy;
+    }
+
+    public void setChangedBy(Long changedBy) {
+        this.changedBy = changedBy;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    // Constructors
+    public ScheduleEvent() {
+    }
+
+    public ScheduleEvent(ScheduleEventType type, Long userId, Long taskId, LocalDate date, Long changedBy, Instant createdAt) {
+        this.type = type;
+        this.userId = userId;
+        this.taskId = taskId;
+        this.date = date;
+        this.changedBy = changedBy;
+        this.createdAt = createdAt;
+    }
+}
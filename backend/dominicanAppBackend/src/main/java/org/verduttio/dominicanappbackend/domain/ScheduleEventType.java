@@ -0,0 +1,22 @@
+package org.verduttio.dominicanappbackend.domain;
+
+public enum ScheduleEventType {
+    ASSIGNED(true),
+    UNASSIGNED(false),
+    BULK_GENERATED(true),
+    BULK_CLEANED(false),
+    OBSTACLE_PURGED(false);
+
+    private final boolean addition;
+
+    ScheduleEventType(boolean addition) {
+        this.addition = addition;
+    }
+
+    /**
+     * @return true if the event adds an assignment, false if it removes one
+     */
+    public boolean isAddition() {
+        return addition;
+    }
+}
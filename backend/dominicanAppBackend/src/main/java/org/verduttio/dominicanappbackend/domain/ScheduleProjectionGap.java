@@ -0,0 +1,73 @@
+package org.verduttio.dominicanappbackend.domain;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Event id a projection has read past while it was missing from the {@link ScheduleEvent} journal. The transaction
+ * which took it may still commit, so the id is looked for again until it is {@code app.schedule.projections.gap-timeout}
+ * old.
+ */
+@Entity
+@Table(name = "schedule_projection_gaps",
+        uniqueConstraints = @UniqueConstraint(name = "uc_schedule_projection_gaps_projection_event", columnNames = {"projection_name", "event_id"}))
+public class ScheduleProjectionGap {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "schedule_projection_gap_id_generator")
+    @SequenceGenerator(name="schedule_projection_gap_id_generator", sequenceName = "schedule_projection_gap_id_seq", allocationSize=1)
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String projectionName;
+
+    @Column(nullable = false)
+    private long eventId;
+
+    // Creation time of the event read after the gap; the missing id was taken before it
+    @Column(nullable = false)
+    private Instant missingSince;
+
+    // Getters and setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getProjectionName() {
+        return projectionName;
+    }
+
+    public void setProjectionName(String projectionName) {
+        this.projectionName = projectionName;
+    }
+
+    public long getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(long eventId) {
+        this.eventId = eventId;
+    }
+
+    public Instant getMissingSince() {
+        return missingSince;
+    }
+
+    public void setMissingSince(Instant missingSince) {
+        this.missingSince = missingSince;
+    }
+
+    // Constructors
+    public ScheduleProjectionGap() {
+    }
+
+    public ScheduleProjectionGap(String projectionName, long eventId, Instant missingSince) {
+        this.projectionName = projectionName;
+        this.eventId = eventId;
+        this.missingSince = missingSince;
+    }
+}
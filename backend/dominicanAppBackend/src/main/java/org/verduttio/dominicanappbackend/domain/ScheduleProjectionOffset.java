@@ -0,0 +1,56 @@
+package org.verduttio.dominicanappbackend.domain;
+
+import jakarta.persistence.*;
+
+/**
+ * How far a projection has read the {@link ScheduleEvent} journal.
+ */
+@Entity
+@Table(name = "schedule_projection_offsets")
+public class ScheduleProjectionOffset {
+    @Id
+    @Column(length = 64)
+    private String projectionName;
+
+    // Id of the last applied event, 0 if none
+    @Column(nullable = false)
+    private long lastEventId;
+
+    // Settings the projection was computed with, it is rebuilt when they change
+    @Column(nullable = false)
+    private String basis;
+
+    // Getters and setters
+    public String getProjectionName() {
+        return projectionName;
+    }
+
+    public void setProjectionName(String projectionName) {
+        this.projectionName = projectionName;
+    }
+
+    public long getLastEventId() {
+        return lastEventId;
+    }
+
+    public void setLastEventId(long lastEventId) {
+        this.lastEventId = lastEventId;
+    }
+
+    public String getBasis() {
+        return basis;
+    }
+
+    public void setBasis(String basis) {
+        this.basis = basis;
+    }
+
+    // Constructors
+    public ScheduleProjectionOffset() {
+    }
+
+    public ScheduleProjectionOffset(String projectionName, String basis) {
+        this.projectionName = projectionName;
+        this.basis = basis;
+    }
+}
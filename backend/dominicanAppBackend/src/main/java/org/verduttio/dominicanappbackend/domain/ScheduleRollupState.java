@@ -0,0 +1,57 @@
+package org.verduttio.dominicanappbackend.domain;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+/**
+ * How far schedules are rolled up into {@link ScheduleWeeklyRollup}s. There is at most one row.
+ */
+@Entity
+@Table(name = "schedule_rollup_state")
+public class ScheduleRollupState {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "schedule_rollup_state_id_generator")
+    @SequenceGenerator(name="schedule_rollup_state_id_generator", sequenceName = "schedule_rollup_state_id_seq", allocationSize=1)
+    private Long id;
+
+    // Weeks before this date are counted from roll-ups, not from schedules
+    @Column(nullable = false)
+    private LocalDate rolledUpBefore;
+
+    // Schedules before this date have been deleted, only their roll-ups are left
+    private LocalDate prunedBefore;
+
+    // Getters and setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public LocalDate getRolledUpBefore() {
+        return rolledUpBefore;
+    }
+
+    public void setRolledUpBefore(LocalDate rolledUpBefore) {
+        this.rolledUpBefore = rolledUpBefore;
+    }
+
+    public LocalDate getPrunedBefore() {
+        return prunedBefore;
+    }
+
+    public void setPrunedBefore(LocalDate prunedBefore) {
+        this.prunedBefore = prunedBefore;
+    }
+
+    // Constructors
+    public ScheduleRollupState() {
+    }
+
+    public ScheduleRollupState(LocalDate rolledUpBefore) {
+        this.rolledUpBefore = rolledUpBefore;
+    }
+}
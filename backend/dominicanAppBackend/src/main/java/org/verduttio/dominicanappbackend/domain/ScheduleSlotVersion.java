@@ -0,0 +1,75 @@
+package org.verduttio.dominicanappbackend.domain;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDate;
+
+/**
+ * Version of the assignments of a task on a date. Every write adding assignments increases it in its transaction,
+ * so a writer which checked the participants limit can tell, by comparing the version, whether anyone assigned the
+ * task on that date in the meantime.
+ */
+@Entity
+@Table(name = "schedule_slot_versions",
+        uniqueConstraints = @UniqueConstraint(name = "uc_schedule_slot_versions_task_date", columnNames = {"task_id", "date"}))
+public class ScheduleSlotVersion {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "schedule_slot_version_id_generator")
+    @SequenceGenerator(name="schedule_slot_version_id_generator", sequenceName = "schedule_slot_version_id_seq", allocationSize=1)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "task_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Task task;
+
+    @Column(nullable = false)
+    private LocalDate date;
+
+    @Column(nullable = false)
+    private long version;
+
+    // Getters and setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Task getTask() {
+        return task;
+    }
+
+    public void setTask(Task task) {
+        this.task = task;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    // Constructors
+    public ScheduleSlotVersion() {
+    }
+
+    public ScheduleSlotVersion(Task task, LocalDate date) {
+        this.task = task;
+        this.date = date;
+    }
+}
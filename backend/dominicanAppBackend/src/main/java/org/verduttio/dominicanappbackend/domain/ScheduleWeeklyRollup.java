@@ -0,0 +1,147 @@
+package org.verduttio.dominicanappbackend.domain;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Schedules of one user and task in one week (starting on Sunday), stored in place of the single schedules once the
+ * week is closed. Bit {@code n} of {@code dayMask} is set if the user had the task on day {@code n} of the week, so
+ * bit 0 is Sunday. This is the position in the week, not a {@link org.verduttio.dominicanappbackend.util.DaysOfWeekMask}.
+ */
+@Entity
+@Table(name = "schedule_weekly_rollup",
+        uniqueConstraints = @UniqueConstraint(name = "uc_schedule_weekly_rollup_user_task_week", columnNames = {"user_id", "task_id", "weekStart"}))
+public class ScheduleWeeklyRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "schedule_weekly_rollup_id_generator")
+    @SequenceGenerator(name="schedule_weekly_rollup_id_generator", sequenceName = "schedule_weekly_rollup_id_seq", allocationSize=1)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private User user;
+
+    @ManyToOne
+    @JoinColumn(name = "task_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Task task;
+
+    @Column(nullable = false)
+    private LocalDate weekStart;
+
+    @Column(nullable = false)
+    private int dayMask;
+
+    @Column(nullable = false)
+    private int count;
+
+    public boolean hasDay(LocalDate date) {
+        return (dayMask & positionBit(date)) != 0;
+    }
+
+    public void addDay(LocalDate date) {
+        dayMask |= positionBit(date);
+    }
+
+    /**
+     * Number of schedules between the given dates (inclusive). Days of the week are known, but not how many
+     * schedules each of them had, so a partly covered week counts one schedule per covered day.
+     */
+    public long countBetween(LocalDate from, LocalDate to) {
+        LocalDate weekEnd = weekStart.plusDays(6);
+        if (!from.isAfter(weekStart) && !to.isBefore(weekEnd)) {
+            return count;
+        }
+        return Integer.bitCount(dayMask & daysMaskBetween(from, to));
+    }
+
+    /**
+     * @return the last day of the week with a schedule, before {@code upToDate}, or null if there is none
+     */
+    public LocalDate getLastDateBefore(LocalDate upToDate) {
+        int mask = dayMask & daysMaskBetween(weekStart, upToDate.minusDays(1));
+        if (mask == 0) {
+            return null;
+        }
+        return weekStart.plusDays(31 - Integer.numberOfLeadingZeros(mask));
+    }
+
+    private int positionBit(LocalDate date) {
+        return 1 << ChronoUnit.DAYS.between(weekStart, date);
+    }
+
+    private int daysMaskBetween(LocalDate from, LocalDate to) {
+        int mask = 0;
+        for (int day = 0; day < 7; day++) {
+            LocalDate date = weekStart.plusDays(day);
+            if (!date.isBefore(from) && !date.isAfter(to)) {
+                mask |= 1 << day;
+            }
+        }
+        return mask;
+    }
+
+    // Getters and setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public void setUser(User user) {
+        this.user = user;
+    }
+
+    public Task getTask() {
+        return task;
+    }
+
+    public void setTask(Task task) {
+        this.task = task;
+    }
+
+    public LocalDate getWeekStart() {
+        return weekStart;
+    }
+
+    public void setWeekStart(LocalDate weekStart) {
+        this.weekStart = weekStart;
+    }
+
+    public int getDayMask() {
+        return dayMask;
+    }
+
+    public void setDayMask(int dayMask) {
+        this.dayMask = dayMask;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+
+    // Constructors
+    public ScheduleWeeklyRollup() {
+    }
+
+    public ScheduleWeeklyRollup(User user, Task task, LocalDate weekStart) {
+        this.user = user;
+        this.task = task;
+        this.weekStart = weekStart;
+    }
+}
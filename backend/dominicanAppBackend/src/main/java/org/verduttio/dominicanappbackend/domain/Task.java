@@ -2,9 +2,9 @@ package org.verduttio.dominicanappbackend.domain;
 
 import jakarta.persistence.*;
 import java.time.DayOfWeek;
-import java.util.Comparator;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.Set;
-import java.util.TreeSet;
 
 @Entity
 @Table(name = "tasks")
@@ -35,13 +35,9 @@ public class Task {
     @JoinColumn(name = "role_id")
     private Role supervisorRole;
 
-    @ElementCollection(targetClass = DayOfWeek.class)
-    @Enumerated(EnumType.STRING)
-    @CollectionTable(
-            name = "task_day_of_week",
-            joinColumns = @JoinColumn(name = "task_id")
-    )
-    private Set<DayOfWeek> daysOfWeek;
+    @Convert(converter = DaysOfWeekConverter.class)
+    @Column(name = "days_of_week", nullable = false)
+    private Set<DayOfWeek> daysOfWeek = EnumSet.noneOf(DayOfWeek.class);
 
     private Long sortOrder;
 
@@ -107,13 +103,15 @@ public class Task {
     }
 
     public Set<DayOfWeek> getDaysOfWeek() {
-        TreeSet<DayOfWeek> sortedDays = new TreeSet<>(Comparator.comparingInt(DayOfWeek::getValue));
-        sortedDays.addAll(this.daysOfWeek);
-        return sortedDays;
+        // EnumSet is already sorted from Monday to Sunday
+        return Collections.unmodifiableSet(daysOfWeek);
     }
 
     public void setDaysOfWeek(Set<DayOfWeek> daysOfWeek) {
-        this.daysOfWeek = daysOfWeek;
+        this.daysOfWeek = EnumSet.noneOf(DayOfWeek.class);
+        if (daysOfWeek != null) {
+            this.daysOfWeek.addAll(daysOfWeek);
+        }
     }
 
     public Long getSortOrder() {
@@ -145,7 +143,7 @@ public class Task {
         this.archived = archived;
         this.allowedRoles = allowedRoles;
         this.supervisorRole = supervisorRole;
-        this.daysOfWeek = daysOfWeek;
+        setDaysOfWeek(daysOfWeek);
         this.sortOrder = this.id;
     }
 
@@ -158,7 +156,7 @@ public class Task {
         this.archived = archived;
         this.allowedRoles = allowedRoles;
         this.supervisorRole = supervisorRole;
-        this.daysOfWeek = daysOfWeek;
+        setDaysOfWeek(daysOfWeek);
         this.sortOrder = sortOrder;
         this.visibleInObstacleFormForUserRole = visibleInObstacleFormForUserRole;
     }
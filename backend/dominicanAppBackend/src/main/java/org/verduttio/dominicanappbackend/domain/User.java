@@ -54,6 +54,10 @@ public class User implements Serializable {
     @JsonIgnore
     private LocalDateTime lockTime;
 
+    @JsonIgnore
+    @Column(name = "role_version", nullable = false, columnDefinition = "bigint default 0")
+    private long roleVersion;
+
 
 
     // Getters and setters
@@ -131,6 +135,14 @@ public class User implements Serializable {
         this.entryDate = entryDate;
     }
 
+    public long getRoleVersion() {
+        return roleVersion;
+    }
+
+    public void setRoleVersion(long roleVersion) {
+        this.roleVersion = roleVersion;
+    }
+
 
     // Constructors
     public User() {
@@ -0,0 +1,97 @@
+package org.verduttio.dominicanappbackend.domain;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDate;
+
+/**
+ * Assignments of one user to one task, projected from the {@link ScheduleEvent} journal.
+ */
+@Entity
+@Table(name = "user_task_assignment_stats",
+        uniqueConstraints = @UniqueConstraint(name = "uc_user_task_assignment_stats_user_task", columnNames = {"user_id", "task_id"}))
+public class UserTaskAssignmentStats {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_task_assignment_stats_id_generator")
+    @SequenceGenerator(name="user_task_assignment_stats_id_generator", sequenceName = "user_task_assignment_stats_id_seq", allocationSize=1)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private User user;
+
+    @ManyToOne
+    @JoinColumn(name = "task_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Task task;
+
+    @Column(nullable = false)
+    private long occurrencesAllTime;
+
+    @Column(nullable = false)
+    private long occurrencesFromStatsDate;
+
+    // Last assignment since the statistics start date
+    private LocalDate lastAssignmentDate;
+
+    // Getters and setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public void setUser(User user) {
+        this.user = user;
+    }
+
+    public Task getTask() {
+        return task;
+    }
+
+    public void setTask(Task task) {
+        this.task = task;
+    }
+
+    public long getOccurrencesAllTime() {
+        return occurrencesAllTime;
+    }
+
+    public void setOccurrencesAllTime(long occurrencesAllTime) {
+        this.occurrencesAllTime = occurrencesAllTime;
+    }
+
+    public long getOccurrencesFromStatsDate() {
+        return occurrencesFromStatsDate;
+    }
+
+    public void setOccurrencesFromStatsDate(long occurrencesFromStatsDate) {
+        this.occurrencesFromStatsDate = occurrencesFromStatsDate;
+    }
+
+    public LocalDate getLastAssignmentDate() {
+        return lastAssignmentDate;
+    }
+
+    public void setLastAssignmentDate(LocalDate lastAssignmentDate) {
+        this.lastAssignmentDate = lastAssignmentDate;
+    }
+
+    // Constructors
+    public UserTaskAssignmentStats() {
+    }
+
+    public UserTaskAssignmentStats(User user, Task task) {
+        this.user = user;
+        this.task = task;
+    }
+}
@@ -0,0 +1,16 @@
+package org.verduttio.dominicanappbackend.dto.job;
+
+import org.verduttio.dominicanappbackend.domain.JobRun;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * @param averageDurationMillis average duration of the successful runs among {@code recentRuns}, or null if none
+ * @param maxDurationMillis longest of the successful runs among {@code recentRuns}, or null if none
+ * @param failedRuns number of failed runs among {@code recentRuns}
+ */
+public record JobStatusDTO(String name, String cron, Instant nextRunAt, Instant lastSuccessAt,
+                           Long averageDurationMillis, Long maxDurationMillis, long failedRuns,
+                           List<JobRun> recentRuns) {
+}
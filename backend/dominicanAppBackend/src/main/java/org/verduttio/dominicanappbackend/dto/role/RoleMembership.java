@@ -0,0 +1,7 @@
+package org.verduttio.dominicanappbackend.dto.role;
+
+/**
+ * A role held by a user, or allowed for a task. {@code roleId} is null for owners without any role.
+ */
+public record RoleMembership(Long ownerId, Long roleId) {
+}
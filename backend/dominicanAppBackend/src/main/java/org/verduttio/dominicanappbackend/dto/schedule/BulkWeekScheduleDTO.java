@@ -0,0 +1,74 @@
+package org.verduttio.dominicanappbackend.dto.schedule;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BulkWeekScheduleDTO {
+    @NotNull(message="Start date of week is mandatory")
+    private LocalDate weekStartDate;
+    @NotNull(message="End date of week is mandatory")
+    private LocalDate weekEndDate;
+    @NotNull(message="Additions are mandatory")
+    private List<@Valid WeekAssignmentDTO> additions = new ArrayList<>();
+    @NotNull(message="Removals are mandatory")
+    private List<@Valid WeekAssignmentDTO> removals = new ArrayList<>();
+    private boolean allOrNothing;
+
+    // Getters and setters
+    public LocalDate getWeekStartDate() {
+        return weekStartDate;
+    }
+
+    public void setWeekStartDate(LocalDate weekStartDate) {
+        this.weekStartDate = weekStartDate;
+    }
+
+    public LocalDate getWeekEndDate() {
+        return weekEndDate;
+    }
+
+    public void setWeekEndDate(LocalDate weekEndDate) {
+        this.weekEndDate = weekEndDate;
+    }
+
+    public List<WeekAssignmentDTO> getAdditions() {
+        return additions;
+    }
+
+    public void setAdditions(List<WeekAssignmentDTO> additions) {
+        this.additions = additions;
+    }
+
+    public List<WeekAssignmentDTO> getRemovals() {
+        return removals;
+    }
+
+    public void setRemovals(List<WeekAssignmentDTO> removals) {
+        this.removals = removals;
+    }
+
+    public boolean isAllOrNothing() {
+        return allOrNothing;
+    }
+
+    public void setAllOrNothing(boolean allOrNothing) {
+        this.allOrNothing = allOrNothing;
+    }
+
+    // Constructors
+    public BulkWeekScheduleDTO() {
+    }
+
+    public BulkWeekScheduleDTO(LocalDate weekStartDate, LocalDate weekEndDate, List<WeekAssignmentDTO> additions,
+                               List<WeekAssignmentDTO> removals, boolean allOrNothing) {
+        this.weekStartDate = weekStartDate;
+        this.weekEndDate = weekEndDate;
+        this.additions = additions;
+        this.removals = removals;
+        this.allOrNothing = allOrNothing;
+    }
+}
@@ -0,0 +1,7 @@
+package org.verduttio.dominicanappbackend.dto.schedule;
+
+import java.util.List;
+
+public record BulkWeekScheduleResult(boolean applied, int addedSchedules, int removedSchedules,
+                                     List<WeekAssignmentViolation> violations) {
+}
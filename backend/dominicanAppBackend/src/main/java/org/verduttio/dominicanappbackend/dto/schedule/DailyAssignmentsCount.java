@@ -0,0 +1,6 @@
+package org.verduttio.dominicanappbackend.dto.schedule;
+
+import java.time.LocalDate;
+
+public record DailyAssignmentsCount(Long userId, Long taskId, LocalDate date, long assignmentsCount) {
+}
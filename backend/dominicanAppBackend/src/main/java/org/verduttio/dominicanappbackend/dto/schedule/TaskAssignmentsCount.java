@@ -0,0 +1,4 @@
+package org.verduttio.dominicanappbackend.dto.schedule;
+
+public record TaskAssignmentsCount(Long taskId, long assignmentsCount) {
+}
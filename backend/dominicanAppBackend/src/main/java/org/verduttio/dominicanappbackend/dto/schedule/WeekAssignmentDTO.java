@@ -0,0 +1,55 @@
+package org.verduttio.dominicanappbackend.dto.schedule;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDate;
+
+/**
+ * One assignment of a user to a task within a week. Without a task date it covers the whole week.
+ */
+public class WeekAssignmentDTO {
+    @NotNull(message="User id is mandatory")
+    private Long userId;
+    @NotNull(message="Task id is mandatory")
+    private Long taskId;
+    private LocalDate taskDate;
+
+    // Getters and setters
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getTaskId() {
+        return taskId;
+    }
+
+    public void setTaskId(Long taskId) {
+        this.taskId = taskId;
+    }
+
+    public LocalDate getTaskDate() {
+        return taskDate;
+    }
+
+    public void setTaskDate(LocalDate taskDate) {
+        this.taskDate = taskDate;
+    }
+
+    public boolean isForWholePeriod() {
+        return taskDate == null;
+    }
+
+    // Constructors
+    public WeekAssignmentDTO() {
+    }
+
+    public WeekAssignmentDTO(Long userId, Long taskId, LocalDate taskDate) {
+        this.userId = userId;
+        this.taskId = taskId;
+        this.taskDate = taskDate;
+    }
+}
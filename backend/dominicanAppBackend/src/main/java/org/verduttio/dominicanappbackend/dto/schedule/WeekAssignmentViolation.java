@@ -0,0 +1,10 @@
+package org.verduttio.dominicanappbackend.dto.schedule;
+
+import java.time.LocalDate;
+
+/**
+ * @param operation "ADD" or "REMOVE"
+ * @param index position of the assignment in the additions or removals list
+ */
+public record WeekAssignmentViolation(String operation, int index, Long userId, Long taskId, LocalDate taskDate, String message) {
+}
@@ -0,0 +1,7 @@
+package org.verduttio.dominicanappbackend.dto.schedule.preview;
+
+/**
+ * Number of the user's assignments in the previewed period before and after the previewed changes.
+ */
+public record FairnessDelta(Long userId, String userName, int assignmentsBefore, int assignmentsAfter, int delta) {
+}
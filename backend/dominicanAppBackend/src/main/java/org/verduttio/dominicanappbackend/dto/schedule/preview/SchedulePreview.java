@@ -0,0 +1,18 @@
+package org.verduttio.dominicanappbackend.dto.schedule.preview;
+
+import org.verduttio.dominicanappbackend.dto.schedule.WeekAssignmentViolation;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Outcome of a generation or bulk change computed without touching the database.
+ *
+ * @param previewId id to commit the preview with, null if the preview cannot be committed
+ * @param violations rejected entries of a bulk change, always empty for generated schedules
+ */
+public record SchedulePreview(String previewId, boolean committable, LocalDate from, LocalDate to,
+                              List<SchedulePreviewEntry> proposedSchedules, List<SchedulePreviewEntry> removedSchedules,
+                              List<SchedulePreviewIssue> conflicts, List<SchedulePreviewIssue> obstacleHits,
+                              List<FairnessDelta> fairnessDeltas, List<WeekAssignmentViolation> violations) {
+}
@@ -0,0 +1,14 @@
+package org.verduttio.dominicanappbackend.dto.schedule.preview;
+
+import org.verduttio.dominicanappbackend.domain.Schedule;
+
+import java.time.LocalDate;
+
+public record SchedulePreviewEntry(Long userId, String userName, Long taskId, String taskName, LocalDate date) {
+
+    public static SchedulePreviewEntry of(Schedule schedule) {
+        return new SchedulePreviewEntry(schedule.getUser().getId(),
+                schedule.getUser().getName() + " " + schedule.getUser().getSurname(),
+                schedule.getTask().getId(), schedule.getTask().getName(), schedule.getDate());
+    }
+}
@@ -0,0 +1,6 @@
+package org.verduttio.dominicanappbackend.dto.schedule.preview;
+
+import java.time.LocalDate;
+
+public record SchedulePreviewIssue(Long userId, Long taskId, LocalDate date, String message) {
+}
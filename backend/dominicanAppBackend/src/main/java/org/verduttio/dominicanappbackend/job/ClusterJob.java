@@ -0,0 +1,23 @@
+package org.verduttio.dominicanappbackend.job;
+
+/**
+ * Background job which must run on only one node of the cluster at a time. Beans implementing it are run by
+ * {@link ClusterJobScheduler}.
+ */
+public interface ClusterJob {
+
+    /**
+     * Unique name, used for the run history and the advisory lock
+     */
+    String getName();
+
+    /**
+     * Cron expression (in Spring's six-field format) of the planned runs
+     */
+    String getCron();
+
+    /**
+     * @return short summary of the run, stored in the run history
+     */
+    String run();
+}
@@ -0,0 +1,206 @@
+package org.verduttio.dominicanappbackend.job;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Service;
+import org.verduttio.dominicanappbackend.domain.JobRun;
+import org.verduttio.dominicanappbackend.domain.JobRunStatus;
+import org.verduttio.dominicanappbackend.dto.job.JobStatusDTO;
+import org.verduttio.dominicanappbackend.repository.JobRunRepository;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.*;
+
+/**
+ * Runs {@link ClusterJob}s on one node of the cluster at a time. Every node checks regularly which jobs are due,
+ * and runs a due job only while holding a PostgreSQL advisory lock of that job, so the node that gets the lock
+ * first is the leader for that run.
+ * <p>
+ * Runs are recorded in the {@code job_runs} table, and a job is due when its cron expression has a planned run
+ * after the start of the last recorded one. Planned runs missed while no node was up are therefore caught up
+ * with a single run. Failed runs are retried after {@code app.jobs.retry-delay}.
+ */
+@Service
+public class ClusterJobScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterJobScheduler.class);
+    // First key of the two-key advisory locks, so that they cannot collide with locks taken for other purposes
+    private static final int LOCK_NAMESPACE = 0x4a4f4253;
+    private static final int MAX_DETAILS_LENGTH = 1000;
+
+    private final Map<String, RegisteredJob> jobs = new LinkedHashMap<>();
+    private final JobRunRepository jobRunRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration retryDelay;
+    private final Duration historyRetention;
+    private final String node = resolveNodeName();
+
+    @Autowired
+    public ClusterJobScheduler(List<ClusterJob> clusterJobs, JobRunRepository jobRunRepository, JdbcTemplate jdbcTemplate,
+                               @Value("${app.jobs.retry-delay:10m}") Duration retryDelay,
+                               @Value("${app.jobs.history-retention:30d}") Duration historyRetention) {
+        for (ClusterJob job : clusterJobs) {
+            if (jobs.put(job.getName(), new RegisteredJob(job, CronExpression.parse(job.getCron()))) != null) {
+                throw new IllegalStateException("Duplicate cluster job name: " + job.getName());
+            }
+        }
+        this.jobRunRepository = jobRunRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.retryDelay = retryDelay;
+        this.historyRetention = historyRetention;
+    }
+
+    @Scheduled(fixedDelayString = "${app.jobs.check-interval-ms:60000}", initialDelayString = "${app.jobs.initial-delay-ms:30000}")
+    public void runDueJobs() {
+        for (RegisteredJob job : jobs.values()) {
+            try {
+                if (isDue(job, Instant.now())) {
+                    // Checked again under the lock, because another node could have run the job in the meantime
+                    withAdvisoryLock(job.name(), () -> {
+                        if (isDue(job, Instant.now())) {
+                            execute(job);
+                        }
+                    });
+                }
+            } catch (RuntimeException e) {
+                logger.error("Could not run cluster job {}", job.name(), e);
+            }
+        }
+    }
+
+    public List<JobStatusDTO> getJobStatuses() {
+        List<JobStatusDTO> statuses = new ArrayList<>();
+        for (RegisteredJob job : jobs.values()) {
+            List<JobRun> recentRuns = jobRunRepository.findTop20ByJobNameOrderByStartedAtDesc(job.name());
+            LongSummaryStatistics durations = recentRuns.stream()
+                    .filter(run -> run.getStatus() == JobRunStatus.SUCCEEDED)
+                    .mapToLong(JobRun::getDurationMillis)
+                    .summaryStatistics();
+            long failedRuns = recentRuns.stream().filter(run -> run.getStatus() == JobRunStatus.FAILED).count();
+            Instant lastSuccessAt = jobRunRepository.findFirstByJobNameAndStatusOrderByStartedAtDesc(job.name(), JobRunStatus.SUCCEEDED)
+                    .map(JobRun::getStartedAt)
+                    .orElse(null);
+
+            statuses.add(new JobStatusDTO(job.name(), job.job().getCron(), getNextRun(job, recentRuns), lastSuccessAt,
+                    durations.getCount() > 0 ? Math.round(durations.getAverage()) : null,
+                    durations.getCount() > 0 ? durations.getMax() : null,
+                    failedRuns, recentRuns));
+        }
+        return statuses;
+    }
+
+    private boolean isDue(RegisteredJob job, Instant now) {
+        Optional<JobRun> lastRun = jobRunRepository.findFirstByJobNameOrderByStartedAtDesc(job.name());
+        return lastRun.isEmpty() || !getNextRun(job, lastRun.get()).isAfter(now);
+    }
+
+    private Instant getNextRun(RegisteredJob job, List<JobRun> recentRuns) {
+        return recentRuns.isEmpty() ? Instant.now() : getNextRun(job, recentRuns.getFirst());
+    }
+
+    private Instant getNextRun(RegisteredJob job, JobRun lastRun) {
+        ZonedDateTime nextPlannedRun = job.cron().next(lastRun.getStartedAt().atZone(ZoneId.systemDefault()));
+        Instant next = nextPlannedRun != null ? nextPlannedRun.toInstant() : Instant.MAX;
+        if (lastRun.getStatus() == JobRunStatus.FAILED) {
+            Instant retry = lastRun.getStartedAt().plus(retryDelay);
+            return retry.isBefore(next) ? retry : next;
+        }
+        return next;
+    }
+
+    private void execute(RegisteredJob job) {
+        // Holding the lock, so a run still marked as running was interrupted by a node going down
+        jobRunRepository.findFirstByJobNameOrderByStartedAtDesc(job.name())
+                .filter(run -> run.getStatus() == JobRunStatus.RUNNING)
+                .ifPresent(run -> {
+                    run.setStatus(JobRunStatus.FAILED);
+                    run.setDetails("Interrupted");
+                    jobRunRepository.save(run);
+                });
+
+        JobRun run = jobRunRepository.save(new JobRun(job.name(), node, Instant.now()));
+        long startTime = System.nanoTime();
+        try {
+            run.setDetails(truncate(job.job().run()));
+            run.setStatus(JobRunStatus.SUCCEEDED);
+        } catch (RuntimeException e) {
+            logger.error("Cluster job {} failed", job.name(), e);
+            run.setDetails(truncate(e.toString()));
+            run.setStatus(JobRunStatus.FAILED);
+        } finally {
+            run.setDurationMillis(Duration.ofNanos(System.nanoTime() - startTime).toMillis());
+            run.setFinishedAt(Instant.now());
+            jobRunRepository.save(run);
+        }
+        logger.info("Cluster job {} {} in {} ms: {}", job.name(), run.getStatus(), run.getDurationMillis(), run.getDetails());
+
+        jobRunRepository.deleteStartedBefore(Instant.now().minus(historyRetention));
+    }
+
+    private void withAdvisoryLock(String jobName, Runnable action) {
+        // The lock belongs to the database session, so it is taken and released on one connection held for the run
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            if (!"PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+                // Other databases (H2 in tests) are only used with a single node
+                action.run();
+                return null;
+            }
+            if (!callLockFunction(connection, "pg_try_advisory_lock", jobName)) {
+                logger.debug("Cluster job {} is being run by another node", jobName);
+                return null;
+            }
+            try {
+                action.run();
+            } finally {
+                callLockFunction(connection, "pg_advisory_unlock", jobName);
+            }
+            return null;
+        });
+    }
+
+    private static boolean callLockFunction(Connection connection, String function, String jobName) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT " + function + "(?, hashtext(?))")) {
+            statement.setInt(1, LOCK_NAMESPACE);
+            statement.setString(2, jobName);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getBoolean(1);
+            }
+        }
+    }
+
+    private static String truncate(String details) {
+        if (details == null || details.length() <= MAX_DETAILS_LENGTH) {
+            return details;
+        }
+        return details.substring(0, MAX_DETAILS_LENGTH);
+    }
+
+    private static String resolveNodeName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return UUID.randomUUID().toString().substring(0, 8);
+        }
+    }
+
+    private record RegisteredJob(ClusterJob job, CronExpression cron) {
+        private String name() {
+            return job.getName();
+        }
+    }
+}
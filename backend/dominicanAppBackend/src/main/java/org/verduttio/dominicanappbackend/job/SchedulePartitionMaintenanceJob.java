@@ -0,0 +1,139 @@
+package org.verduttio.dominicanappbackend.job;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maintains the yearly partitions of the {@code schedule} table (see the V8 migration): creates the partitions of
+ * the next {@code app.schedule.partitions.years-ahead} years, and, if {@code app.schedule.partitions.archive-after-years}
+ * is set, moves partitions of older years to the {@code schedule_archive} table.
+ * <p>
+ * Archived schedules are no longer seen by the application (history and statistics included), so archiving is
+ * disabled by default.
+ */
+@Component
+public class SchedulePartitionMaintenanceJob implements ClusterJob {
+
+    private static final String PARTITION_PREFIX = "schedule_y";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final String cron;
+    private final int yearsAhead;
+    private final int archiveAfterYears;
+
+    @Autowired
+    public SchedulePartitionMaintenanceJob(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                           @Value("${app.jobs.schedule-partition-maintenance.cron:0 0 4 * * *}") String cron,
+                                           @Value("${app.schedule.partitions.years-ahead:2}") int yearsAhead,
+                                           @Value("${app.schedule.partitions.archive-after-years:0}") int archiveAfterYears) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cron = cron;
+        this.yearsAhead = yearsAhead;
+        this.archiveAfterYears = archiveAfterYears;
+    }
+
+    @Override
+    public String getName() {
+        return "schedule-partition-maintenance";
+    }
+
+    @Override
+    public String getCron() {
+        return cron;
+    }
+
+    @Override
+    public String run() {
+        if (!isSchedulePartitioned()) {
+            return "Schedule table is not partitioned";
+        }
+
+        List<String> changes = new ArrayList<>();
+        List<Integer> partitionYears = getPartitionYears("schedule");
+        int currentYear = LocalDate.now().getYear();
+        for (int year = currentYear; year <= currentYear + yearsAhead; year++) {
+            if (!partitionYears.contains(year)) {
+                createPartition(year);
+                changes.add("created " + PARTITION_PREFIX + year);
+            }
+        }
+
+        if (archiveAfterYears > 0) {
+            for (int year : partitionYears) {
+                if (year < currentYear - archiveAfterYears) {
+                    archivePartition(year);
+                    changes.add("archived " + PARTITION_PREFIX + year);
+                }
+            }
+        }
+
+        return changes.isEmpty() ? "Partitions are up to date" : String.join(", ", changes);
+    }
+
+    private boolean isSchedulePartitioned() {
+        Boolean partitioned = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName()));
+        if (!Boolean.TRUE.equals(partitioned)) {
+            return false;
+        }
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass('schedule'))", Boolean.class));
+    }
+
+    private List<Integer> getPartitionYears(String parentTable) {
+        return jdbcTemplate.queryForList(
+                        "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                                "WHERE i.inhparent = to_regclass(?) AND c.relname ~ '^schedule_y[0-9]{4}$'",
+                        String.class, parentTable).stream()
+                .map(name -> Integer.parseInt(name.substring(PARTITION_PREFIX.length())))
+                .sorted()
+                .toList();
+    }
+
+    /**
+     * Schedules of the year may already be stored in the default partition, which would then reject the new
+     * partition, so they are moved to it in the same transaction.
+     */
+    private void createPartition(int year) {
+        LocalDate from = LocalDate.of(year, 1, 1);
+        LocalDate to = from.plusYears(1);
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("CREATE TEMP TABLE schedule_moved (LIKE schedule) ON COMMIT DROP");
+            jdbcTemplate.update("WITH moved AS (DELETE FROM schedule_default WHERE date >= ? AND date < ? RETURNING *) " +
+                    "INSERT INTO schedule_moved SELECT * FROM moved", from, to);
+            jdbcTemplate.execute("CREATE TABLE " + PARTITION_PREFIX + year + " PARTITION OF schedule " +
+                    "FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+            jdbcTemplate.update("INSERT INTO schedule SELECT * FROM schedule_moved");
+        });
+    }
+
+    /**
+     * Detaches the partition and attaches it to the archive table. Its foreign keys are dropped, so that archived
+     * schedules do not keep users or tasks from being deleted.
+     */
+    private void archivePartition(int year) {
+        String partition = PARTITION_PREFIX + year;
+        LocalDate from = LocalDate.of(year, 1, 1);
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("ALTER TABLE schedule DETACH PARTITION " + partition);
+            List<String> foreignKeys = jdbcTemplate.queryForList(
+                    "SELECT conname FROM pg_constraint WHERE conrelid = to_regclass(?) AND contype = 'f'", String.class, partition);
+            for (String foreignKey : foreignKeys) {
+                jdbcTemplate.execute("ALTER TABLE " + partition + " DROP CONSTRAINT \"" + foreignKey + "\"");
+            }
+            jdbcTemplate.execute("ALTER TABLE schedule_archive ATTACH PARTITION " + partition +
+                    " FOR VALUES FROM ('" + from + "') TO ('" + from.plusYears(1) + "')");
+        });
+    }
+}
@@ -0,0 +1,38 @@
+package org.verduttio.dominicanappbackend.job;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.verduttio.dominicanappbackend.journal.ScheduleProjectionRunner;
+
+/**
+ * Applies new schedule journal events to all projections, so they are kept up to date even when nobody reads them.
+ */
+@Component
+public class ScheduleProjectionJob implements ClusterJob {
+
+    private final ScheduleProjectionRunner scheduleProjectionRunner;
+    private final String cron;
+
+    @Autowired
+    public ScheduleProjectionJob(ScheduleProjectionRunner scheduleProjectionRunner,
+                                 @Value("${app.jobs.schedule-projections.cron:0 * * * * *}") String cron) {
+        this.scheduleProjectionRunner = scheduleProjectionRunner;
+        this.cron = cron;
+    }
+
+    @Override
+    public String getName() {
+        return "schedule-projections";
+    }
+
+    @Override
+    public String getCron() {
+        return cron;
+    }
+
+    @Override
+    public String run() {
+        return "Applied " + scheduleProjectionRunner.catchUpAll() + " events";
+    }
+}
@@ -0,0 +1,68 @@
+package org.verduttio.dominicanappbackend.job;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.verduttio.dominicanappbackend.domain.SpecialDate;
+import org.verduttio.dominicanappbackend.domain.SpecialDateType;
+import org.verduttio.dominicanappbackend.repository.SpecialDateRepository;
+import org.verduttio.dominicanappbackend.service.schedule.ScheduleRollupService;
+import org.verduttio.dominicanappbackend.validation.DateValidator;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Rolls up weeks which are closed (at least {@code app.schedule.rollup.closed-after-weeks} old) and before the
+ * statistics start date, so counts since that date keep being made from schedules alone. If
+ * {@code app.schedule.rollup.detail-retention-weeks} is set, schedules of rolled up weeks older than that are
+ * deleted; they are then no longer listed in the history of users.
+ */
+@Component
+public class ScheduleRollupJob implements ClusterJob {
+
+    private final ScheduleRollupService scheduleRollupService;
+    private final SpecialDateRepository specialDateRepository;
+    private final String cron;
+    private final int closedAfterWeeks;
+    private final int detailRetentionWeeks;
+
+    @Autowired
+    public ScheduleRollupJob(ScheduleRollupService scheduleRollupService, SpecialDateRepository specialDateRepository,
+                             @Value("${app.jobs.schedule-rollup.cron:0 0 5 * * *}") String cron,
+                             @Value("${app.schedule.rollup.closed-after-weeks:4}") int closedAfterWeeks,
+                             @Value("${app.schedule.rollup.detail-retention-weeks:0}") int detailRetentionWeeks) {
+        this.scheduleRollupService = scheduleRollupService;
+        this.specialDateRepository = specialDateRepository;
+        this.cron = cron;
+        this.closedAfterWeeks = closedAfterWeeks;
+        this.detailRetentionWeeks = detailRetentionWeeks;
+    }
+
+    @Override
+    public String getName() {
+        return "schedule-rollup";
+    }
+
+    @Override
+    public String getCron() {
+        return cron;
+    }
+
+    @Override
+    public String run() {
+        LocalDate currentWeekStart = DateValidator.getWeekBoundaries(LocalDate.now()).get("startWeek");
+        LocalDate rollUpBefore = currentWeekStart.minusWeeks(closedAfterWeeks);
+        List<SpecialDate> statsDates = specialDateRepository.findByType(SpecialDateType.STATS);
+        if (!statsDates.isEmpty() && statsDates.getFirst().getDate().isBefore(rollUpBefore)) {
+            rollUpBefore = statsDates.getFirst().getDate();
+        }
+
+        String details = "Rolled up " + scheduleRollupService.rollUpWeeksBefore(rollUpBefore) + " weeks";
+        if (detailRetentionWeeks > 0) {
+            int deleted = scheduleRollupService.pruneSchedulesBefore(currentWeekStart.minusWeeks(detailRetentionWeeks));
+            details += ", deleted " + deleted + " schedules";
+        }
+        return details;
+    }
+}
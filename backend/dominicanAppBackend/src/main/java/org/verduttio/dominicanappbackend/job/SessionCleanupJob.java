@@ -0,0 +1,45 @@
+package org.verduttio.dominicanappbackend.job;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.session.jdbc.JdbcIndexedSessionRepository;
+
+/**
+ * Removes expired sessions from the session table. Replaces the cleanup built into Spring Session, which runs
+ * on every node ({@code spring.session.jdbc.cleanup-cron} is disabled).
+ */
+@Component
+public class SessionCleanupJob implements ClusterJob {
+
+    private final ObjectProvider<JdbcIndexedSessionRepository> sessionRepository;
+    private final String cron;
+
+    @Autowired
+    public SessionCleanupJob(ObjectProvider<JdbcIndexedSessionRepository> sessionRepository,
+                             @Value("${app.jobs.session-cleanup.cron:0 */5 * * * *}") String cron) {
+        this.sessionRepository = sessionRepository;
+        this.cron = cron;
+    }
+
+    @Override
+    public String getName() {
+        return "session-cleanup";
+    }
+
+    @Override
+    public String getCron() {
+        return cron;
+    }
+
+    @Override
+    public String run() {
+        JdbcIndexedSessionRepository repository = sessionRepository.getIfAvailable();
+        if (repository == null) {
+            return "Sessions are not stored in the database";
+        }
+        repository.cleanUpExpiredSessions();
+        return "Expired sessions removed";
+    }
+}
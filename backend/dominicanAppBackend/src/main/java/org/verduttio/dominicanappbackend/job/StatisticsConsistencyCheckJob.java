@@ -0,0 +1,66 @@
+package org.verduttio.dominicanappbackend.job;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.verduttio.dominicanappbackend.domain.SpecialDateType;
+import org.verduttio.dominicanappbackend.repository.ScheduleRepository;
+import org.verduttio.dominicanappbackend.repository.SpecialDateRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Nightly check of the data which user task statistics are computed from. Problems are logged and stored in the
+ * run history, nothing is changed.
+ */
+@Component
+public class StatisticsConsistencyCheckJob implements ClusterJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatisticsConsistencyCheckJob.class);
+
+    private final ScheduleRepository scheduleRepository;
+    private final SpecialDateRepository specialDateRepository;
+    private final String cron;
+
+    @Autowired
+    public StatisticsConsistencyCheckJob(ScheduleRepository scheduleRepository, SpecialDateRepository specialDateRepository,
+                                         @Value("${app.jobs.statistics-check.cron:0 30 3 * * *}") String cron) {
+        this.scheduleRepository = scheduleRepository;
+        this.specialDateRepository = specialDateRepository;
+        this.cron = cron;
+    }
+
+    @Override
+    public String getName() {
+        return "statistics-consistency-check";
+    }
+
+    @Override
+    public String getCron() {
+        return cron;
+    }
+
+    @Override
+    public String run() {
+        List<String> problems = new ArrayList<>();
+
+        int statsDates = specialDateRepository.findByType(SpecialDateType.STATS).size();
+        if (statsDates != 1) {
+            problems.add("Expected one statistics start date, found " + statsDates);
+        }
+        long duplicateAssignments = scheduleRepository.countDuplicateAssignments();
+        if (duplicateAssignments > 0) {
+            problems.add(duplicateAssignments + " duplicate assignments (same user, task and date) are counted in statistics");
+        }
+
+        if (problems.isEmpty()) {
+            return "Statistics data is consistent";
+        }
+        String summary = String.join("; ", problems);
+        logger.warn("Statistics consistency check found problems: {}", summary);
+        return summary;
+    }
+}
@@ -0,0 +1,51 @@
+package org.verduttio.dominicanappbackend.journal;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.verduttio.dominicanappbackend.domain.Schedule;
+import org.verduttio.dominicanappbackend.domain.ScheduleEvent;
+import org.verduttio.dominicanappbackend.domain.ScheduleEventType;
+import org.verduttio.dominicanappbackend.repository.ScheduleEventRepository;
+import org.verduttio.dominicanappbackend.security.SecurityUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Appends {@link ScheduleEvent}s for added and removed assignments. Must be called in the transaction which makes
+ * the change, so that the journal has exactly the committed changes; projections are then computed from it by
+ * {@link ScheduleProjectionRunner}.
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class ScheduleJournal {
+
+    private final ScheduleEventRepository scheduleEventRepository;
+
+    @Autowired
+    public ScheduleJournal(ScheduleEventRepository scheduleEventRepository) {
+        this.scheduleEventRepository = scheduleEventRepository;
+    }
+
+    public void record(ScheduleEventType type, Schedule schedule) {
+        record(type, List.of(schedule));
+    }
+
+    public void record(ScheduleEventType type, Collection<Schedule> schedules) {
+        if (schedules.isEmpty()) {
+            return;
+        }
+
+        Long changedBy = SecurityUtils.findCurrentUserId().orElse(null);
+        Instant now = Instant.now();
+        List<ScheduleEvent> events = new ArrayList<>(schedules.size());
+        for (Schedule schedule : schedules) {
+            events.add(new ScheduleEvent(type, schedule.getUser().getId(), schedule.getTask().getId(), schedule.getDate(), changedBy, now));
+        }
+        scheduleEventRepository.saveAll(events);
+    }
+}
@@ -0,0 +1,34 @@
+package org.verduttio.dominicanappbackend.journal;
+
+import org.verduttio.dominicanappbackend.domain.ScheduleEvent;
+
+import java.util.List;
+
+/**
+ * Data computed from the {@link ScheduleEvent} journal alone, so that it can be rebuilt from scratch at any time.
+ * All methods are called by {@link ScheduleProjectionRunner} in one transaction with the update of the projection's
+ * offset.
+ */
+public interface ScheduleProjection {
+
+    String getName();
+
+    /**
+     * @return settings the projection is computed with besides the events (e.g. the statistics start date); when
+     * they change, the projection is rebuilt
+     */
+    default String getBasis() {
+        return "";
+    }
+
+    /**
+     * Deletes everything computed so far, before the events are applied again from the first one.
+     */
+    void reset();
+
+    /**
+     * Applies the next events, in the order of their ids. Besides the events after the ones applied so far, they may
+     * start with late events: ones with lower ids, committed after the projection had read past them.
+     */
+    void apply(List<ScheduleEvent> events);
+}
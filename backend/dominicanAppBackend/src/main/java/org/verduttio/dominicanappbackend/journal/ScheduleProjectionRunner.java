@@ -0,0 +1,193 @@
+package org.verduttio.dominicanappbackend.journal;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.verduttio.dominicanappbackend.domain.ScheduleEvent;
+import org.verduttio.dominicanappbackend.domain.ScheduleProjectionGap;
+import org.verduttio.dominicanappbackend.domain.ScheduleProjectionOffset;
+import org.verduttio.dominicanappbackend.repository.ScheduleEventRepository;
+import org.verduttio.dominicanappbackend.repository.ScheduleProjectionGapRepository;
+import org.verduttio.dominicanappbackend.repository.ScheduleProjectionOffsetRepository;
+import org.verduttio.dominicanappbackend.service.exception.EntityNotFoundException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Applies new {@link ScheduleEvent}s to every {@link ScheduleProjection}, in batches of
+ * {@code app.schedule.projections.batch-size}, starting after the last event the projection has applied.
+ * A batch and the new offset are committed together, and the offset row is locked meanwhile, so every event is
+ * applied exactly once even if several nodes catch up at the same time.
+ * <p>
+ * Event ids are taken when the events are written, not when they are committed, so an id missing from the journal
+ * may belong to a transaction which has not committed yet. The runner reads past it, but keeps it as a
+ * {@link ScheduleProjectionGap} and looks for it again in every batch, applying it once it is committed. A missing
+ * id is given up when it is older than {@code app.schedule.projections.gap-timeout}; it has then been rolled back,
+ * unless its transaction is still open after all that time, in which case only {@link #rebuild} applies it.
+ */
+@Service
+public class ScheduleProjectionRunner {
+
+    private final List<ScheduleProjection> projections;
+    private final ScheduleEventRepository scheduleEventRepository;
+    private final ScheduleProjectionOffsetRepository offsetRepository;
+    private final ScheduleProjectionGapRepository gapRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration gapTimeout;
+
+    @Autowired
+    public ScheduleProjectionRunner(List<ScheduleProjection> projections, ScheduleEventRepository scheduleEventRepository,
+                                    ScheduleProjectionOffsetRepository offsetRepository,
+                                    ScheduleProjectionGapRepository gapRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${app.schedule.projections.batch-size:500}") int batchSize,
+                                    @Value("${app.schedule.projections.gap-timeout:1h}") Duration gapTimeout) {
+        this.projections = projections;
+        this.scheduleEventRepository = scheduleEventRepository;
+        this.offsetRepository = offsetRepository;
+        this.gapRepository = gapRepository;
+        // Projections may be brought up to date before reading them, also from read-only transactions
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.batchSize = batchSize;
+        this.gapTimeout = gapTimeout;
+    }
+
+    /**
+     * @return number of events applied, summed over all projections
+     */
+    public int catchUpAll() {
+        int applied = 0;
+        for (ScheduleProjection projection : projections) {
+            applied += catchUp(projection);
+        }
+        return applied;
+    }
+
+    /**
+     * @return number of events applied
+     */
+    public int catchUp(String projectionName) {
+        return catchUp(getProjection(projectionName));
+    }
+
+    /**
+     * Deletes the projection and applies all events again.
+     *
+     * @return number of events applied
+     */
+    public int rebuild(String projectionName) {
+        ScheduleProjection projection = getProjection(projectionName);
+        ensureOffsetExists(projection);
+        transactionTemplate.executeWithoutResult(status -> {
+            ScheduleProjectionOffset offset = offsetRepository.findForUpdate(projection.getName()).orElseThrow();
+            reset(projection, offset);
+            offset.setBasis(projection.getBasis());
+            offsetRepository.save(offset);
+        });
+        return catchUp(projection);
+    }
+
+    private int catchUp(ScheduleProjection projection) {
+        ensureOffsetExists(projection);
+        int applied = 0;
+        while (true) {
+            Integer batch = transactionTemplate.execute(status -> applyNextBatch(projection));
+            if (batch == null || batch == 0) {
+                return applied;
+            }
+            applied += batch;
+        }
+    }
+
+    private int applyNextBatch(ScheduleProjection projection) {
+        ScheduleProjectionOffset offset = offsetRepository.findForUpdate(projection.getName()).orElseThrow();
+        String basis = projection.getBasis();
+        if (!basis.equals(offset.getBasis())) {
+            reset(projection, offset);
+            offset.setBasis(basis);
+        }
+
+        // Late events have lower ids than the new ones, so together they are still in the order of ids
+        List<ScheduleEvent> events = new ArrayList<>(findLateEvents(projection));
+        List<ScheduleEvent> newEvents = scheduleEventRepository.findByIdGreaterThanOrderByIdAsc(offset.getLastEventId(), PageRequest.of(0, batchSize));
+        events.addAll(newEvents);
+        if (!newEvents.isEmpty()) {
+            recordGaps(projection, offset.getLastEventId(), newEvents);
+            offset.setLastEventId(newEvents.getLast().getId());
+        }
+        if (!events.isEmpty()) {
+            projection.apply(events);
+        }
+        gapRepository.deleteByProjectionNameAndMissingSinceBefore(projection.getName(), Instant.now().minus(gapTimeout));
+        offsetRepository.save(offset);
+        return events.size();
+    }
+
+    private List<ScheduleEvent> findLateEvents(ScheduleProjection projection) {
+        List<ScheduleProjectionGap> gaps = gapRepository.findByProjectionName(projection.getName());
+        if (gaps.isEmpty()) {
+            return List.of();
+        }
+
+        List<ScheduleEvent> lateEvents = scheduleEventRepository.findByIdInOrderByIdAsc(
+                gaps.stream().map(ScheduleProjectionGap::getEventId).toList());
+        Set<Long> lateEventIds = lateEvents.stream().map(ScheduleEvent::getId).collect(Collectors.toSet());
+        gapRepository.deleteAllInBatch(gaps.stream().filter(gap -> lateEventIds.contains(gap.getEventId())).toList());
+        return lateEvents;
+    }
+
+    private void recordGaps(ScheduleProjection projection, long lastEventId, List<ScheduleEvent> events) {
+        // Ids missing before an event older than the timeout are not recorded at all, e.g. when rebuilding
+        Instant gapDeadline = Instant.now().minus(gapTimeout);
+        List<ScheduleProjectionGap> gaps = new ArrayList<>();
+        long expectedId = lastEventId + 1;
+        for (ScheduleEvent event : events) {
+            if (event.getCreatedAt().isAfter(gapDeadline)) {
+                for (long missingId = expectedId; missingId < event.getId(); missingId++) {
+                    gaps.add(new ScheduleProjectionGap(projection.getName(), missingId, event.getCreatedAt()));
+                }
+            }
+            expectedId = event.getId() + 1;
+        }
+        gapRepository.saveAll(gaps);
+    }
+
+    private void reset(ScheduleProjection projection, ScheduleProjectionOffset offset) {
+        projection.reset();
+        gapRepository.deleteByProjectionName(projection.getName());
+        offset.setLastEventId(0);
+    }
+
+    private void ensureOffsetExists(ScheduleProjection projection) {
+        if (offsetRepository.existsById(projection.getName())) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                projection.reset();
+                offsetRepository.saveAndFlush(new ScheduleProjectionOffset(projection.getName(), projection.getBasis()));
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Created by another node meanwhile
+        }
+    }
+
+    private ScheduleProjection getProjection(String projectionName) {
+        return projections.stream()
+                .filter(projection -> projection.getName().equals(projectionName))
+                .findFirst()
+                .orElseThrow(() -> new EntityNotFoundException("Projection with given name does not exist"));
+    }
+}
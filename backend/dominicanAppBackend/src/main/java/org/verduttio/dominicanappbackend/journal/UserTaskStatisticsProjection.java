@@ -0,0 +1,131 @@
+package org.verduttio.dominicanappbackend.journal;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.verduttio.dominicanappbackend.domain.*;
+import org.verduttio.dominicanappbackend.repository.ScheduleEventRepository;
+import org.verduttio.dominicanappbackend.repository.SpecialDateRepository;
+import org.verduttio.dominicanappbackend.repository.TaskRepository;
+import org.verduttio.dominicanappbackend.repository.UserRepository;
+import org.verduttio.dominicanappbackend.repository.UserTaskAssignmentStatsRepository;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps {@link UserTaskAssignmentStats} of every user and task: how many times the user had the task, in total and
+ * since the statistics start date, and when the last time since that date was. The statistics start date is the
+ * basis of the projection, so changing it makes the projection be rebuilt. Events of deleted users and tasks stay in
+ * the journal, but are skipped, as their statistics are deleted with them.
+ */
+@Component
+public class UserTaskStatisticsProjection implements ScheduleProjection {
+
+    public static final String NAME = "user-task-statistics";
+
+    private static final Set<ScheduleEventType> ADDITIONS = Arrays.stream(ScheduleEventType.values())
+            .filter(ScheduleEventType::isAddition)
+            .collect(Collectors.toCollection(() -> EnumSet.noneOf(ScheduleEventType.class)));
+
+    private final UserTaskAssignmentStatsRepository statsRepository;
+    private final ScheduleEventRepository scheduleEventRepository;
+    private final SpecialDateRepository specialDateRepository;
+    private final UserRepository userRepository;
+    private final TaskRepository taskRepository;
+
+    @Autowired
+    public UserTaskStatisticsProjection(UserTaskAssignmentStatsRepository statsRepository,
+                                        ScheduleEventRepository scheduleEventRepository,
+                                        SpecialDateRepository specialDateRepository,
+                                        UserRepository userRepository, TaskRepository taskRepository) {
+        this.statsRepository = statsRepository;
+        this.scheduleEventRepository = scheduleEventRepository;
+        this.specialDateRepository = specialDateRepository;
+        this.userRepository = userRepository;
+        this.taskRepository = taskRepository;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String getBasis() {
+        LocalDate statsDate = getStatsDate();
+        return statsDate == null ? "" : statsDate.toString();
+    }
+
+    @Override
+    public void reset() {
+        statsRepository.deleteAllInBatch();
+    }
+
+    @Override
+    public void apply(List<ScheduleEvent> events) {
+        LocalDate statsDate = getStatsDate();
+        // Late events may come after events with higher ids, so the journal is read up to the last one in every case
+        long upToId = events.getLast().getId();
+        Map<StatsKey, UserTaskAssignmentStats> changedStats = new HashMap<>();
+        Set<StatsKey> deletedKeys = new HashSet<>();
+        for (ScheduleEvent event : events) {
+            StatsKey key = new StatsKey(event.getUserId(), event.getTaskId());
+            if (deletedKeys.contains(key)) {
+                continue;
+            }
+            UserTaskAssignmentStats stats = changedStats.get(key);
+            if (stats == null) {
+                stats = findOrCreateStats(key);
+                if (stats == null) {
+                    deletedKeys.add(key);
+                    continue;
+                }
+                changedStats.put(key, stats);
+            }
+
+            LocalDate date = event.getDate();
+            boolean fromStatsDate = statsDate != null && !date.isBefore(statsDate);
+            if (event.getType().isAddition()) {
+                stats.setOccurrencesAllTime(stats.getOccurrencesAllTime() + 1);
+                if (fromStatsDate) {
+                    stats.setOccurrencesFromStatsDate(stats.getOccurrencesFromStatsDate() + 1);
+                    if (stats.getLastAssignmentDate() == null || date.isAfter(stats.getLastAssignmentDate())) {
+                        stats.setLastAssignmentDate(date);
+                    }
+                }
+            } else {
+                stats.setOccurrencesAllTime(stats.getOccurrencesAllTime() - 1);
+                if (fromStatsDate) {
+                    stats.setOccurrencesFromStatsDate(stats.getOccurrencesFromStatsDate() - 1);
+                    if (date.equals(stats.getLastAssignmentDate())) {
+                        // Found from the journal up to the last event applied now, so a rebuild gives the same date
+                        stats.setLastAssignmentDate(scheduleEventRepository.findAssignedDatesSince(key.userId(), key.taskId(),
+                                statsDate, upToId, ADDITIONS, PageRequest.of(0, 1)).stream().findFirst().orElse(null));
+                    }
+                }
+            }
+        }
+        statsRepository.saveAll(changedStats.values());
+    }
+
+    private UserTaskAssignmentStats findOrCreateStats(StatsKey key) {
+        Optional<UserTaskAssignmentStats> stats = statsRepository.findByUserIdAndTaskId(key.userId(), key.taskId());
+        if (stats.isPresent()) {
+            return stats.get();
+        }
+        if (!userRepository.existsById(key.userId()) || !taskRepository.existsById(key.taskId())) {
+            return null;
+        }
+        return new UserTaskAssignmentStats(userRepository.getReferenceById(key.userId()), taskRepository.getReferenceById(key.taskId()));
+    }
+
+    private LocalDate getStatsDate() {
+        List<SpecialDate> statsDates = specialDateRepository.findByType(SpecialDateType.STATS);
+        return statsDates.isEmpty() ? null : statsDates.getFirst().getDate();
+    }
+
+    private record StatsKey(Long userId, Long taskId) {
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.verduttio.dominicanappbackend.domain.Conflict;
+import org.verduttio.dominicanappbackend.util.DaysOfWeekMask;
 
 import java.time.DayOfWeek;
 import java.util.List;
@@ -27,7 +28,11 @@ public interface ConflictRepository extends JpaRepository<Conflict, Long> {
     @Query("SELECT c FROM Conflict c WHERE c.task1.id = :taskId OR c.task2.id = :taskId")
     List<Conflict> findAllByTaskId(Long taskId);
 
+    default boolean existsByTaskIdsAndDayOfWeek(Long task1Id, Long task2Id, DayOfWeek dayOfWeek) {
+        return existsByTaskIdsAndAnyDayOf(task1Id, task2Id, DaysOfWeekMask.dayBit(dayOfWeek));
+    }
+
     @Transactional
-    @Query("SELECT CASE WHEN COUNT(c) > 0 THEN true ELSE false END FROM Conflict c WHERE ((c.task1.id = :task1Id AND c.task2.id = :task2Id) OR (c.task1.id = :task2Id AND c.task2.id = :task1Id)) AND :dayOfWeek MEMBER OF c.daysOfWeek")
-    boolean existsByTaskIdsAndDayOfWeek(Long task1Id, Long task2Id, DayOfWeek dayOfWeek);
+    @Query("SELECT CASE WHEN COUNT(c) > 0 THEN true ELSE false END FROM Conflict c WHERE ((c.task1.id = :task1Id AND c.task2.id = :task2Id) OR (c.task1.id = :task2Id AND c.task2.id = :task1Id)) AND bitand(c.daysOfWeek, cast(:daysMask as Integer)) <> 0")
+    boolean existsByTaskIdsAndAnyDayOf(@Param("task1Id") Long task1Id, @Param("task2Id") Long task2Id, @Param("daysMask") int daysMask);
 }
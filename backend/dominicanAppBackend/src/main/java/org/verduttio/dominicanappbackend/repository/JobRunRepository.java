@@ -0,0 +1,25 @@
+package org.verduttio.dominicanappbackend.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+import org.verduttio.dominicanappbackend.domain.JobRun;
+import org.verduttio.dominicanappbackend.domain.JobRunStatus;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+public interface JobRunRepository extends JpaRepository<JobRun, Long> {
+    Optional<JobRun> findFirstByJobNameOrderByStartedAtDesc(String jobName);
+
+    Optional<JobRun> findFirstByJobNameAndStatusOrderByStartedAtDesc(String jobName, JobRunStatus status);
+
+    List<JobRun> findTop20ByJobNameOrderByStartedAtDesc(String jobName);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM JobRun r WHERE r.startedAt < :before")
+    int deleteStartedBefore(Instant before);
+}
@@ -10,6 +10,8 @@ import org.springframework.data.repository.query.Param;
 import org.verduttio.dominicanappbackend.domain.obstacle.Obstacle;
 import org.verduttio.dominicanappbackend.domain.ObstacleStatus;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 
@@ -17,6 +19,12 @@ public interface ObstacleRepository extends JpaRepository<Obstacle, Long> {
     @Query("SELECT o FROM Obstacle o JOIN o.tasks t WHERE o.user.id = :userId AND t.id = :taskId")
     List<Obstacle> findObstaclesByUserIdAndTaskId(@Param("userId") Long userId, @Param("taskId") Long taskId);
 
+    @Query("SELECT DISTINCT o FROM Obstacle o JOIN FETCH o.tasks WHERE o.user.id IN :userIds AND o.status = :status AND o.fromDate <= :to AND o.toDate >= :from")
+    List<Obstacle> findByUserIdsAndStatusOverlappingPeriod(@Param("userIds") Collection<Long> userIds,
+                                                           @Param("status") ObstacleStatus status,
+                                                           @Param("from") LocalDate from,
+                                                           @Param("to") LocalDate to);
+
     @Query("SELECT o FROM Obstacle o ORDER BY CASE WHEN o.fromDate > CURRENT_DATE THEN 1 WHEN o.toDate >= CURRENT_DATE THEN 2 ELSE 3 END, CASE WHEN o.fromDate > CURRENT_DATE THEN o.toDate WHEN o.toDate >= CURRENT_DATE THEN o.toDate ELSE o.toDate END DESC")
     List<Obstacle> findAllSorted();
 
@@ -0,0 +1,30 @@
+package org.verduttio.dominicanappbackend.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.verduttio.dominicanappbackend.domain.ScheduleEvent;
+import org.verduttio.dominicanappbackend.domain.ScheduleEventType;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface ScheduleEventRepository extends JpaRepository<ScheduleEvent, Long> {
+    List<ScheduleEvent> findByIdGreaterThanOrderByIdAsc(long id, Pageable pageable);
+
+    List<ScheduleEvent> findByIdInOrderByIdAsc(Collection<Long> ids);
+
+    /**
+     * @return dates since {@code from} on which the user had the task after the event {@code upToId}, latest first
+     */
+    @Query("SELECT e.date FROM ScheduleEvent e " +
+            "WHERE e.userId = :userId AND e.taskId = :taskId AND e.date >= :from AND e.id <= :upToId " +
+            "GROUP BY e.date " +
+            "HAVING SUM(CASE WHEN e.type IN :additions THEN 1 ELSE -1 END) > 0 " +
+            "ORDER BY e.date DESC")
+    List<LocalDate> findAssignedDatesSince(@Param("userId") Long userId, @Param("taskId") Long taskId,
+                                           @Param("from") LocalDate from, @Param("upToId") long upToId,
+                                           @Param("additions") Collection<ScheduleEventType> additions, Pageable pageable);
+}
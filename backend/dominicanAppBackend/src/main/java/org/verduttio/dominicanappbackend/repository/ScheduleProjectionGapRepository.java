@@ -0,0 +1,22 @@
+package org.verduttio.dominicanappbackend.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.verduttio.dominicanappbackend.domain.ScheduleProjectionGap;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface ScheduleProjectionGapRepository extends JpaRepository<ScheduleProjectionGap, Long> {
+    List<ScheduleProjectionGap> findByProjectionName(String projectionName);
+
+    @Modifying
+    @Query("DELETE FROM ScheduleProjectionGap g WHERE g.projectionName = :projectionName")
+    void deleteByProjectionName(@Param("projectionName") String projectionName);
+
+    @Modifying
+    @Query("DELETE FROM ScheduleProjectionGap g WHERE g.projectionName = :projectionName AND g.missingSince < :before")
+    int deleteByProjectionNameAndMissingSinceBefore(@Param("projectionName") String projectionName, @Param("before") Instant before);
+}
@@ -0,0 +1,16 @@
+package org.verduttio.dominicanappbackend.repository;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.verduttio.dominicanappbackend.domain.ScheduleProjectionOffset;
+
+import java.util.Optional;
+
+public interface ScheduleProjectionOffsetRepository extends JpaRepository<ScheduleProjectionOffset, String> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM ScheduleProjectionOffset o WHERE o.projectionName = :projectionName")
+    Optional<ScheduleProjectionOffset> findForUpdate(@Param("projectionName") String projectionName);
+}
@@ -6,8 +6,12 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.verduttio.dominicanappbackend.domain.Schedule;
+import org.verduttio.dominicanappbackend.dto.schedule.DailyAssignmentsCount;
+import org.verduttio.dominicanappbackend.dto.schedule.SlotAssignmentsCount;
+import org.verduttio.dominicanappbackend.dto.schedule.TaskAssignmentsCount;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,6 +28,30 @@ public interface ScheduleRepository extends JpaRepository<Schedule, Long> {
 
     List<Schedule> findByUserIdAndDateOrderByTask_SupervisorRole_SortOrderAscTask_SortOrderAsc(Long userId, LocalDate date);
 
+    @Query("SELECT new org.verduttio.dominicanappbackend.dto.schedule.TaskAssignmentsCount(s.task.id, COUNT(s)) " +
+            "FROM Schedule s WHERE s.date BETWEEN :from AND :to GROUP BY s.task.id")
+    List<TaskAssignmentsCount> countAssignmentsPerTaskInPeriod(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT new org.verduttio.dominicanappbackend.dto.schedule.TaskAssignmentsCount(s.task.id, COUNT(s)) " +
+            "FROM Schedule s WHERE s.task.supervisorRole.id = :supervisorRoleId AND s.date BETWEEN :from AND :to GROUP BY s.task.id")
+    List<TaskAssignmentsCount> countAssignmentsPerTaskOfSupervisorRoleInPeriod(@Param("supervisorRoleId") Long supervisorRoleId,
+                                                                              @Param("from") LocalDate from,
+                                                                              @Param("to") LocalDate to);
+
+    @Query("SELECT s FROM Schedule s JOIN FETCH s.task JOIN FETCH s.user u LEFT JOIN FETCH u.roles WHERE s.date BETWEEN :from AND :to")
+    List<Schedule> findWithUsersByDateBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT s FROM Schedule s JOIN FETCH s.task t JOIN FETCH s.user u LEFT JOIN FETCH u.roles " +
+            "WHERE t.supervisorRole.id = :supervisorRoleId AND s.date BETWEEN :from AND :to")
+    List<Schedule> findWithUsersBySupervisorRoleIdAndDateBetween(@Param("supervisorRoleId") Long supervisorRoleId,
+                                                                 @Param("from") LocalDate from,
+                                                                 @Param("to") LocalDate to);
+
+    @Query("SELECT s FROM Schedule s JOIN FETCH s.task WHERE s.user.id IN :userIds AND s.date BETWEEN :from AND :to")
+    List<Schedule> findByUserIdsAndDateBetween(@Param("userIds") Collection<Long> userIds,
+                                               @Param("from") LocalDate from,
+                                               @Param("to") LocalDate to);
+
     @Query("SELECT s FROM Schedule s WHERE s.date >= :targetDate")
     List<Schedule> findSchedulesLaterOrInDay(@Param("targetDate") LocalDate targetDate);
 
@@ -43,11 +71,37 @@ public interface ScheduleRepository extends JpaRepository<Schedule, Long> {
                                                                       @Param("taskId") Long taskId,
                                                                       @Param("upToDate") LocalDate upToDate);
 
+    @Query("SELECT new org.verduttio.dominicanappbackend.dto.schedule.DailyAssignmentsCount(s.user.id, s.task.id, s.date, COUNT(s)) " +
+            "FROM Schedule s WHERE s.date BETWEEN :from AND :to GROUP BY s.user.id, s.task.id, s.date")
+    List<DailyAssignmentsCount> countAssignmentsPerUserTaskAndDayInPeriod(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT new org.verduttio.dominicanappbackend.dto.schedule.SlotAssignmentsCount(s.task.id, s.date, COUNT(s)) " +
+            "FROM Schedule s WHERE s.task.id IN :taskIds AND s.date BETWEEN :from AND :to GROUP BY s.task.id, s.date")
+    List<SlotAssignmentsCount> countAssignmentsPerTaskAndDayInPeriod(@Param("taskIds") Collection<Long> taskIds,
+                                                                     @Param("from") LocalDate from,
+                                                                     @Param("to") LocalDate to);
+
+    long countByDateBetween(LocalDate from, LocalDate to);
+
+    @Query("SELECT MIN(s.date) FROM Schedule s")
+    Optional<LocalDate> findEarliestDate();
+
+    @Modifying
+    @Query("DELETE FROM Schedule s WHERE s.date BETWEEN :from AND :to")
+    int deleteAllByDateBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    boolean existsByUserIdAndTaskIdAndDate(Long userId, Long taskId, LocalDate date);
+
+    long countByTaskIdAndDate(Long taskId, LocalDate date);
+
+    @Query("SELECT COUNT(s) FROM Schedule s WHERE EXISTS (SELECT 1 FROM Schedule o WHERE o.user.id = s.user.id " +
+            "AND o.task.id = s.task.id AND o.date = s.date AND o.id < s.id)")
+    long countDuplicateAssignments();
+
     @Transactional
     @Modifying
     @Query("DELETE FROM Schedule s WHERE s.user.id = :userId")
     void deleteAllByUserId(Long userId);
 
-    @Transactional
-    void deleteAllByUserIdAndTaskIdAndDateBetween(Long userId, Long taskId, LocalDate fromDate, LocalDate toDate);
+    List<Schedule> findByUserIdAndTaskIdAndDateBetween(Long userId, Long taskId, LocalDate fromDate, LocalDate toDate);
 }
@@ -0,0 +1,17 @@
+package org.verduttio.dominicanappbackend.repository;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.verduttio.dominicanappbackend.domain.ScheduleRollupState;
+
+import java.util.Optional;
+
+public interface ScheduleRollupStateRepository extends JpaRepository<ScheduleRollupState, Long> {
+    Optional<ScheduleRollupState> findFirstByOrderByIdAsc();
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ScheduleRollupState s")
+    Optional<ScheduleRollupState> findForUpdate();
+}
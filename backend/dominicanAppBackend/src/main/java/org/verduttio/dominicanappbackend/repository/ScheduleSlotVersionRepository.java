@@ -0,0 +1,35 @@
+package org.verduttio.dominicanappbackend.repository;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.verduttio.dominicanappbackend.domain.ScheduleSlotVersion;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface ScheduleSlotVersionRepository extends JpaRepository<ScheduleSlotVersion, Long> {
+    Optional<ScheduleSlotVersion> findByTaskIdAndDate(Long taskId, LocalDate date);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT v FROM ScheduleSlotVersion v WHERE v.task.id = :taskId AND v.date = :date")
+    Optional<ScheduleSlotVersion> findForUpdateByTaskIdAndDate(@Param("taskId") Long taskId, @Param("date") LocalDate date);
+
+    List<ScheduleSlotVersion> findByDateBetween(LocalDate from, LocalDate to);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT v FROM ScheduleSlotVersion v WHERE v.date BETWEEN :from AND :to ORDER BY v.task.id, v.date")
+    List<ScheduleSlotVersion> findForUpdateByDateBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * @return 1 if the version was still {@code expectedVersion} and has been increased, 0 otherwise
+     */
+    @Modifying
+    @Query("UPDATE ScheduleSlotVersion v SET v.version = v.version + 1 WHERE v.id = :id AND v.version = :expectedVersion")
+    int compareAndIncrement(@Param("id") Long id, @Param("expectedVersion") long expectedVersion);
+
+}
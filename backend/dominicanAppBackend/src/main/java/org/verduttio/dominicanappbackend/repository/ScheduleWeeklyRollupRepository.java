@@ -0,0 +1,25 @@
+package org.verduttio.dominicanappbackend.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.verduttio.dominicanappbackend.domain.ScheduleWeeklyRollup;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface ScheduleWeeklyRollupRepository extends JpaRepository<ScheduleWeeklyRollup, Long> {
+    List<ScheduleWeeklyRollup> findByUserIdAndTaskIdAndWeekStartBetween(Long userId, Long taskId, LocalDate from, LocalDate to);
+
+    List<ScheduleWeeklyRollup> findTop2ByUserIdAndTaskIdAndWeekStartLessThanOrderByWeekStartDesc(Long userId, Long taskId, LocalDate before);
+
+    @Query("SELECT r FROM ScheduleWeeklyRollup r JOIN FETCH r.user JOIN FETCH r.task " +
+            "WHERE r.weekStart BETWEEN :from AND :to AND (:userId IS NULL OR r.user.id = :userId) AND (:taskId IS NULL OR r.task.id = :taskId)")
+    List<ScheduleWeeklyRollup> findWithUsersByWeekStartBetween(@Param("userId") Long userId, @Param("taskId") Long taskId,
+                                                               @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Modifying
+    @Query("DELETE FROM ScheduleWeeklyRollup r WHERE r.weekStart = :weekStart")
+    void deleteByWeekStart(@Param("weekStart") LocalDate weekStart);
+}
@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.verduttio.dominicanappbackend.dto.role.RoleMembership;
 import org.verduttio.dominicanappbackend.dto.task.TaskShortInfo;
 import org.verduttio.dominicanappbackend.domain.Task;
 
@@ -26,6 +27,9 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     @Query("SELECT new org.verduttio.dominicanappbackend.dto.task.TaskShortInfo(t.id, t.name, t.nameAbbrev, t.supervisorRole.id) FROM Task t JOIN t.supervisorRole sr ORDER BY sr.sortOrder ASC, t.sortOrder ASC")
     List<TaskShortInfo> findAllTasksShortInfo();
 
+    @Query("SELECT new org.verduttio.dominicanappbackend.dto.role.RoleMembership(t.id, r.id) FROM Task t LEFT JOIN t.allowedRoles r")
+    List<RoleMembership> findAllTaskAllowedRoleMemberships();
+
     @Query("SELECT t FROM Task t WHERE t.supervisorRole.name = :supervisorName ORDER BY t.sortOrder ASC")
     List<Task> findTasksBySupervisorRoleName(String supervisorName);
 
@@ -6,6 +6,7 @@ import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.verduttio.dominicanappbackend.dto.role.RoleMembership;
 import org.verduttio.dominicanappbackend.dto.user.UserShortInfo;
 import org.verduttio.dominicanappbackend.domain.User;
 
@@ -39,6 +40,22 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT u FROM User u JOIN u.roles r WHERE r.id IN :roleIds ORDER BY u.entryDate ASC")
     List<User> findAllWhichHaveAnyOfRolesIds(List<Long> roleIds);
 
+    @Query("SELECT new org.verduttio.dominicanappbackend.dto.role.RoleMembership(u.id, r.id) FROM User u LEFT JOIN u.roles r ORDER BY u.entryDate ASC, u.id ASC")
+    List<RoleMembership> findAllUserRoleMemberships();
+
     @Query("SELECT COUNT(u) FROM User u WHERE u.isEnabled = false")
     Long countByNotEnabled();
+
+    @Query("SELECT u.roleVersion FROM User u WHERE u.id = :userId AND u.isEnabled = true")
+    Optional<Long> findRoleVersionOfEnabledUser(Long userId);
+
+    @Modifying(flushAutomatically = true)
+    @Transactional
+    @Query("UPDATE User u SET u.roleVersion = u.roleVersion + 1 WHERE u.id = :userId")
+    void incrementRoleVersion(Long userId);
+
+    @Modifying(flushAutomatically = true)
+    @Transactional
+    @Query(value = "UPDATE users SET role_version = role_version + 1 WHERE id IN (SELECT user_id FROM user_roles WHERE role_id = :roleId)", nativeQuery = true)
+    void incrementRoleVersionOfUsersWithRole(Long roleId);
 }
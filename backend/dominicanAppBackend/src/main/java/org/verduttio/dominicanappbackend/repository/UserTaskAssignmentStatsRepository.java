@@ -0,0 +1,13 @@
+package org.verduttio.dominicanappbackend.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.verduttio.dominicanappbackend.domain.UserTaskAssignmentStats;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface UserTaskAssignmentStatsRepository extends JpaRepository<UserTaskAssignmentStats, Long> {
+    Optional<UserTaskAssignmentStats> findByUserIdAndTaskId(Long userId, Long taskId);
+
+    List<UserTaskAssignmentStats> findByUserIdAndOccurrencesAllTimeGreaterThan(Long userId, long occurrencesAllTime);
+}
@@ -1,5 +1,6 @@
 package org.verduttio.dominicanappbackend.security;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -11,4 +12,11 @@ public class PasswordEncoder {
     public BCryptPasswordEncoder bCryptPasswordEncoder() {
         return new BCryptPasswordEncoder();
     }
+
+    @Bean
+    public BoundedPasswordEncoder loginPasswordEncoder(BCryptPasswordEncoder bCryptPasswordEncoder,
+                                                       @Value("${app.security.password-hashing.threads:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int threads,
+                                                       @Value("${app.security.password-hashing.queue-capacity:100}") int queueCapacity) {
+        return new BoundedPasswordEncoder(bCryptPasswordEncoder, threads, queueCapacity);
+    }
 }
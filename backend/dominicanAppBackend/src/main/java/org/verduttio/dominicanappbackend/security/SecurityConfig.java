@@ -9,22 +9,21 @@ import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.ProviderManager;
-import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.web.authentication.session.ConcurrentSessionControlAuthenticationStrategy;
 import org.springframework.security.web.authentication.session.SessionAuthenticationStrategy;
 import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.security.web.context.SecurityContextHolderFilter;
 import org.springframework.security.web.context.SecurityContextRepository;
 import org.springframework.security.web.savedrequest.NullRequestCache;
 import org.springframework.security.web.session.HttpSessionEventPublisher;
+import org.springframework.session.FindByIndexNameSessionRepository;
 import org.springframework.session.Session;
-import org.springframework.session.jdbc.JdbcIndexedSessionRepository;
 import org.springframework.session.security.SpringSessionBackedSessionRegistry;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -32,6 +31,8 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.verduttio.dominicanappbackend.repository.UserRepository;
 import org.verduttio.dominicanappbackend.security.apiauth.ApiAuthAuthenticationFailureHandler;
 import org.verduttio.dominicanappbackend.security.apiauth.ApiAuthAuthenticationSuccessHandler;
+import org.verduttio.dominicanappbackend.security.apiauth.LoginAttemptService;
+import org.verduttio.dominicanappbackend.security.apiauth.LoginAuthenticationProvider;
 import org.verduttio.dominicanappbackend.security.apiauth.LoginFilter;
 import org.verduttio.dominicanappbackend.security.oauth2.CustomOAuth2UserService;
 import org.verduttio.dominicanappbackend.security.oauth2.OAuth2AuthenticationFailureHandler;
@@ -47,21 +48,26 @@ import java.util.List;
 @Profile({"!integration_tests"})   // To work tests
 public class SecurityConfig {
     private final UserDetailsServiceImpl userDetailsServiceImpl;
-    private final BCryptPasswordEncoder bCryptPasswordEncoder;
+    private final BoundedPasswordEncoder loginPasswordEncoder;
     private final CustomOAuth2UserService customOAuth2UserService;
-    private final JdbcIndexedSessionRepository jdbcIndexedSessionRepository;
+    private final FindByIndexNameSessionRepository<? extends Session> sessionRepository;
     private final ObjectMapper mapper;
     private final UserRepository userRepository;
+    private final UserRoleVersionService userRoleVersionService;
+    private final LoginAttemptService loginAttemptService;
     private final EnvUtils envUtils;
 
-    public SecurityConfig(UserDetailsServiceImpl userDetailsServiceImpl, BCryptPasswordEncoder bCryptPasswordEncoder,
-                          CustomOAuth2UserService customOAuth2UserService, JdbcIndexedSessionRepository jdbcIndexedSessionRepository, ObjectMapper mapper, UserRepository userRepository, EnvUtils envUtils) {
+    public SecurityConfig(UserDetailsServiceImpl userDetailsServiceImpl, BoundedPasswordEncoder loginPasswordEncoder,
+                          CustomOAuth2UserService customOAuth2UserService, FindByIndexNameSessionRepository<? extends Session> sessionRepository, ObjectMapper mapper, UserRepository userRepository,
+                          UserRoleVersionService userRoleVersionService, LoginAttemptService loginAttemptService, EnvUtils envUtils) {
         this.userDetailsServiceImpl = userDetailsServiceImpl;
-        this.bCryptPasswordEncoder = bCryptPasswordEncoder;
+        this.loginPasswordEncoder = loginPasswordEncoder;
         this.customOAuth2UserService = customOAuth2UserService;
-        this.jdbcIndexedSessionRepository = jdbcIndexedSessionRepository;
+        this.sessionRepository = sessionRepository;
         this.mapper = mapper;
         this.userRepository = userRepository;
+        this.userRoleVersionService = userRoleVersionService;
+        this.loginAttemptService = loginAttemptService;
         this.envUtils = envUtils;
     }
 
@@ -69,6 +75,7 @@ public class SecurityConfig {
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
                 .addFilterBefore(loginFilter(), UsernamePasswordAuthenticationFilter.class)
+                .addFilterAfter(sessionPrincipalRefreshFilter(), SecurityContextHolderFilter.class)
                 .authorizeHttpRequests((authorize) -> authorize
                         .requestMatchers("/api/users/login").permitAll()
                         .requestMatchers("/api/users/register").permitAll()
@@ -81,6 +88,10 @@ public class SecurityConfig {
                         .requestMatchers("api/schedules/forDailyPeriod").hasRole("FUNKCYJNY")
                                 .requestMatchers("api/schedules/generator").hasRole("FUNKCYJNY")
                                 .requestMatchers("api/schedules/cleaner").hasRole("FUNKCYJNY")
+                                .requestMatchers("api/schedules/bulk/**").hasRole("FUNKCYJNY")
+                                .requestMatchers("api/schedules/previews/**").hasRole("FUNKCYJNY")
+                        .requestMatchers("api/jobs/**").hasRole("ADMIN")
+                        .requestMatchers("actuator/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.DELETE, "api/users/{userId}").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.PATCH, "api/users/{userId}/roles").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.PUT, "api/users/{userId}/verification/assignRoles").hasRole("ADMIN")
@@ -140,7 +151,12 @@ public class SecurityConfig {
     public LoginFilter loginFilter() {
         return new LoginFilter(mapper, authenticationManager(), securityContextRepository(),
                 sessionAuthenticationStrategy(), apiAuthAuthenticationSuccessHandler(), apiAuthAuthenticationFailureHandler(),
-                userRepository);
+                userRepository, loginAttemptService);
+    }
+
+    @Bean
+    public SessionPrincipalRefreshFilter sessionPrincipalRefreshFilter() {
+        return new SessionPrincipalRefreshFilter(userRoleVersionService, userRepository, securityContextRepository());
     }
 
     @Bean
@@ -150,17 +166,17 @@ public class SecurityConfig {
 
     @Bean
     public ApiAuthAuthenticationSuccessHandler apiAuthAuthenticationSuccessHandler() {
-        return new ApiAuthAuthenticationSuccessHandler(userRepository);
+        return new ApiAuthAuthenticationSuccessHandler(loginAttemptService);
     }
 
     @Bean
     public ApiAuthAuthenticationFailureHandler apiAuthAuthenticationFailureHandler() {
-        return new ApiAuthAuthenticationFailureHandler(userRepository);
+        return new ApiAuthAuthenticationFailureHandler(loginAttemptService);
     }
 
     @Bean
     public SpringSessionBackedSessionRegistry<? extends Session> sessionRegistry() {
-        return new SpringSessionBackedSessionRegistry<>(jdbcIndexedSessionRepository);
+        return new SpringSessionBackedSessionRegistry<>(sessionRepository);
     }
 
     @Bean
@@ -170,9 +186,7 @@ public class SecurityConfig {
 
     @Bean
     public AuthenticationManager authenticationManager() {
-        DaoAuthenticationProvider authenticationProvider = new DaoAuthenticationProvider();
-        authenticationProvider.setUserDetailsService(userDetailsServiceImpl);
-        authenticationProvider.setPasswordEncoder(bCryptPasswordEncoder);
+        LoginAuthenticationProvider authenticationProvider = new LoginAuthenticationProvider(userDetailsServiceImpl, loginPasswordEncoder);
 
         ProviderManager providerManager = new ProviderManager(authenticationProvider);
         providerManager.setEraseCredentialsAfterAuthentication(false);
@@ -218,4 +232,11 @@ public class SecurityConfig {
         return registration;
     }
 
+    @Bean
+    public FilterRegistrationBean<SessionPrincipalRefreshFilter> sessionPrincipalRefreshFilterRegistration() {
+        FilterRegistrationBean<SessionPrincipalRefreshFilter> registration = new FilterRegistrationBean<>(sessionPrincipalRefreshFilter());
+        registration.setEnabled(false);
+        return registration;
+    }
+
 }
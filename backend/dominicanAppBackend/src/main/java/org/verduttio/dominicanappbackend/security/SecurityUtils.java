@@ -3,7 +3,8 @@ package org.verduttio.dominicanappbackend.security;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.verduttio.dominicanappbackend.domain.User;
+
+import java.util.Optional;
 
 public class SecurityUtils {
     public static final String ACCESS_DENIED_MESSAGE = "You are not allowed to make this operation";
@@ -16,10 +17,24 @@ public class SecurityUtils {
         return isUserOwnerOrHasSpecificRole(ownerId, "ROLE_SUPERVISOR");
     }
 
-    public static User getCurrentUser() {
+    public static SessionPrincipal getCurrentPrincipal() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
-        return userDetails.getUser();
+        return (SessionPrincipal) authentication.getPrincipal();
+    }
+
+    public static Long getCurrentUserId() {
+        return getCurrentPrincipal().id();
+    }
+
+    /**
+     * @return id of the logged-in user, or empty if there is none (e.g. in a job)
+     */
+    public static Optional<Long> findCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof SessionPrincipal principal) {
+            return Optional.of(principal.id());
+        }
+        return Optional.empty();
     }
 
     public static boolean userHasRoleAdmin() {
@@ -28,16 +43,14 @@ public class SecurityUtils {
 
     private static boolean userHasRole(String roleName) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
-        return userDetails.getAuthorities().stream()
+        return authentication.getAuthorities().stream()
                 .anyMatch(grantedAuthority -> grantedAuthority.getAuthority().equals(roleName));
     }
 
     private static boolean isUserOwnerOrHasSpecificRole(Long ownerId, String roleName) {
-        User currentUser = getCurrentUser();
+        SessionPrincipal currentPrincipal = getCurrentPrincipal();
 
-        if (currentUser.getRoles().stream().anyMatch(role -> role.getName().equals(roleName))
-                || currentUser.getId().equals(ownerId)) {
+        if (currentPrincipal.hasRole(roleName) || currentPrincipal.id().equals(ownerId)) {
             return true;
         } else {
             throw new AccessDeniedException("You are not allowed to make this operation");
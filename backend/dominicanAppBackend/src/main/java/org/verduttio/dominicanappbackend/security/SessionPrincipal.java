@@ -0,0 +1,61 @@
+package org.verduttio.dominicanappbackend.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.verduttio.dominicanappbackend.domain.Role;
+import org.verduttio.dominicanappbackend.domain.User;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Principal kept in the session after a successful login. It holds only what requests need to identify the user and
+ * authorize them, so session rows stay small and cheap to deserialize. {@code roleVersion} is the value of
+ * {@link User#getRoleVersion()} the role names were read at; when it changes the principal is rebuilt by
+ * {@link SessionPrincipalRefreshFilter}.
+ * <p>
+ * {@link #getName()} returns the email, as it is the principal name sessions are indexed by.
+ */
+public record SessionPrincipal(Long id, String email, Set<String> roleNames, long roleVersion)
+        implements OAuth2User, Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public SessionPrincipal {
+        roleNames = Set.copyOf(roleNames);
+    }
+
+    public static SessionPrincipal from(User user) {
+        Set<String> roleNames = user.getRoles().stream()
+                .map(Role::getName)
+                .collect(Collectors.toSet());
+        return new SessionPrincipal(user.getId(), user.getEmail(), roleNames, user.getRoleVersion());
+    }
+
+    public boolean hasRole(String roleName) {
+        return roleNames.contains(roleName);
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return roleNames.stream()
+                .map(SimpleGrantedAuthority::new)
+                .collect(Collectors.toSet());
+    }
+
+    @Override
+    public Map<String, Object> getAttributes() {
+        return Map.of();
+    }
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
@@ -0,0 +1,76 @@
+package org.verduttio.dominicanappbackend.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.web.context.SecurityContextRepository;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.verduttio.dominicanappbackend.repository.UserRepository;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Keeps the {@link SessionPrincipal} of the session in line with the user's current roles. When the role version
+ * stamp of the user differs from the one in the principal, the principal and its authorities are rebuilt from the
+ * database and saved back to the session, so role changes take effect without logging the user out. Sessions of
+ * users which were removed or disabled are cleared.
+ */
+public class SessionPrincipalRefreshFilter extends OncePerRequestFilter {
+
+    private final UserRoleVersionService userRoleVersionService;
+    private final UserRepository userRepository;
+    private final SecurityContextRepository securityContextRepository;
+
+    public SessionPrincipalRefreshFilter(UserRoleVersionService userRoleVersionService, UserRepository userRepository,
+                                         SecurityContextRepository securityContextRepository) {
+        this.userRoleVersionService = userRoleVersionService;
+        this.userRepository = userRepository;
+        this.securityContextRepository = securityContextRepository;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof SessionPrincipal principal) {
+            Optional<Long> roleVersion = userRoleVersionService.getRoleVersion(principal.id());
+            if (roleVersion.isEmpty()) {
+                saveContext(null, request, response);
+            } else if (roleVersion.get() != principal.roleVersion()) {
+                Optional<SessionPrincipal> refreshedPrincipal = userRepository.findById(principal.id())
+                        .map(SessionPrincipal::from);
+                saveContext(refreshedPrincipal.map(p -> refreshAuthentication(authentication, p)).orElse(null), request, response);
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private Authentication refreshAuthentication(Authentication authentication, SessionPrincipal principal) {
+        if (authentication instanceof OAuth2AuthenticationToken oAuth2Authentication) {
+            OAuth2AuthenticationToken refreshed = new OAuth2AuthenticationToken(principal, principal.getAuthorities(),
+                    oAuth2Authentication.getAuthorizedClientRegistrationId());
+            refreshed.setDetails(authentication.getDetails());
+            return refreshed;
+        }
+
+        UsernamePasswordAuthenticationToken refreshed = UsernamePasswordAuthenticationToken.authenticated(principal, null,
+                principal.getAuthorities());
+        refreshed.setDetails(authentication.getDetails());
+        return refreshed;
+    }
+
+    private void saveContext(Authentication authentication, HttpServletRequest request, HttpServletResponse response) {
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(authentication);
+        SecurityContextHolder.setContext(context);
+        securityContextRepository.saveContext(context, request, response);
+    }
+}
@@ -2,30 +2,26 @@ package org.verduttio.dominicanappbackend.security;
 
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.verduttio.dominicanappbackend.domain.User;
 
 import java.io.Serial;
 import java.io.Serializable;
 import java.util.Collection;
-import java.util.Map;
 import java.util.stream.Collectors;
 
-public class UserDetailsImpl implements UserDetails, Serializable, OAuth2User {
+/**
+ * User details used while checking the credentials of a login request. After a successful login the session keeps
+ * a {@link SessionPrincipal} instead.
+ */
+public class UserDetailsImpl implements UserDetails, Serializable {
     @Serial
     private static final long serialVersionUID = 1L;
     private User user;
-    private Map<String, Object> attributes;
 
     public UserDetailsImpl(User user) {
         this.user = user;
     }
 
-    public UserDetailsImpl(User user, Map<String, Object> attributes) {
-        this.user = user;
-        this.attributes = attributes;
-    }
-
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return user.getRoles().stream()
@@ -63,16 +59,6 @@ public class UserDetailsImpl implements UserDetails, Serializable, OAuth2User {
         return user.isEnabled();
     }
 
-    @Override
-    public String getName() {
-        return user.getName();
-    }
-
-    @Override
-    public Map<String, Object> getAttributes() {
-        return attributes;
-    }
-
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
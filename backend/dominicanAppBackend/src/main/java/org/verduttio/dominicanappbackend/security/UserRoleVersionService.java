@@ -0,0 +1,96 @@
+package org.verduttio.dominicanappbackend.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.verduttio.dominicanappbackend.cluster.ClusterInvalidationEvent;
+import org.verduttio.dominicanappbackend.cluster.ClusterInvalidationService;
+import org.verduttio.dominicanappbackend.cluster.InvalidationMessage;
+import org.verduttio.dominicanappbackend.cluster.InvalidationType;
+import org.verduttio.dominicanappbackend.repository.UserRepository;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Keeps track of the role version stamp of users. The stamp is stored with the user and is increased whenever
+ * the user's roles (or the names of these roles) change, which tells {@link SessionPrincipalRefreshFilter} that
+ * the principal kept in the session is out of date.
+ * <p>
+ * Stamps are cached locally for {@code app.session.cache.ttl}, so checking them does not cost a query per request.
+ * Changes made on this node are visible immediately. Changes made on another node are visible as soon as its
+ * notification from {@link ClusterInvalidationService} arrives, or after at most the TTL if that is disabled.
+ */
+@Service
+public class UserRoleVersionService {
+
+    private final UserRepository userRepository;
+    private final ClusterInvalidationService clusterInvalidationService;
+    private final Cache<Long, Optional<Long>> roleVersions;
+
+    @Autowired
+    public UserRoleVersionService(UserRepository userRepository, ClusterInvalidationService clusterInvalidationService,
+                                  @Value("${app.session.cache.ttl:30s}") Duration cacheTtl) {
+        this.userRepository = userRepository;
+        this.clusterInvalidationService = clusterInvalidationService;
+        this.roleVersions = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(cacheTtl)
+                .build();
+    }
+
+    /**
+     * @return current role version of the user, or an empty optional if the user was removed or disabled
+     */
+    public Optional<Long> getRoleVersion(Long userId) {
+        return roleVersions.get(userId, userRepository::findRoleVersionOfEnabledUser);
+    }
+
+    public void markUserRolesChanged(Long userId) {
+        userRepository.incrementRoleVersion(userId);
+        clusterInvalidationService.publish(InvalidationType.USER_ROLES, userId);
+        afterCommit(() -> roleVersions.invalidate(userId));
+    }
+
+    public void markRoleChanged(Long roleId) {
+        userRepository.incrementRoleVersionOfUsersWithRole(roleId);
+        clusterInvalidationService.publish(InvalidationType.USER_ROLES, InvalidationMessage.ALL_IDS);
+        afterCommit(roleVersions::invalidateAll);
+    }
+
+    public void markUserRemoved(Long userId) {
+        clusterInvalidationService.publish(InvalidationType.USER_ROLES, userId);
+        afterCommit(() -> roleVersions.invalidate(userId));
+    }
+
+    @EventListener
+    public void onClusterInvalidation(ClusterInvalidationEvent event) {
+        if (event.type() != InvalidationType.USER_ROLES) {
+            return;
+        }
+        if (event.isForAllIds()) {
+            roleVersions.invalidateAll();
+        } else {
+            roleVersions.invalidate(event.numericId());
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        // Invalidate only after commit, otherwise a concurrent request could cache the old version again
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -1,29 +0,0 @@
-package org.verduttio.dominicanappbackend.security;
-
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.session.FindByIndexNameSessionRepository;
-import org.springframework.session.Session;
-import org.springframework.stereotype.Service;
-
-import java.util.Map;
-
-@Service
-public class UserSessionService {
-
-    private final FindByIndexNameSessionRepository<? extends Session> sessionRepository;
-
-    @Autowired
-    public UserSessionService(FindByIndexNameSessionRepository<? extends Session> sessionRepository) {
-        this.sessionRepository = sessionRepository;
-    }
-
-    public void expireUserSessions(String username) {
-        Map<String, ? extends Session> userSessions = sessionRepository.findByIndexNameAndIndexValue(FindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME, username);
-
-        for (var session : userSessions.values()) {
-            String sessionId = session.getId();
-            sessionRepository.deleteById(sessionId);
-        }
-    }
-}
-
@@ -4,34 +4,29 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.AuthenticationServiceException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.authentication.LockedException;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.web.authentication.AuthenticationFailureHandler;
 import org.verduttio.dominicanappbackend.domain.User;
-import org.verduttio.dominicanappbackend.repository.UserRepository;
 
 import java.io.IOException;
-import java.time.LocalDateTime;
 
 public class ApiAuthAuthenticationFailureHandler implements AuthenticationFailureHandler {
-    private final UserRepository userRepository;
+    private final LoginAttemptService loginAttemptService;
 
     @Autowired
-    public ApiAuthAuthenticationFailureHandler(UserRepository userRepository) {
-        this.userRepository = userRepository;
+    public ApiAuthAuthenticationFailureHandler(LoginAttemptService loginAttemptService) {
+        this.loginAttemptService = loginAttemptService;
     }
     @Override
     public void onAuthenticationFailure(HttpServletRequest request, HttpServletResponse response, AuthenticationException exception) throws IOException, ServletException {
-        String email = request.getAttribute("username").toString();
-        User user = userRepository.findByEmail(email).orElse(null);
-        if (user != null && user.isEnabled()) {
-            user.setFailedLoginAttempts(user.getFailedLoginAttempts() + 1);
-            if (user.getFailedLoginAttempts() == Configuration.MAX_LOGIN_ATTEMPTS) {
-                user.setLockTime(LocalDateTime.now());
-            }
-            userRepository.save(user);
+        // Requests rejected because of load did not check the password, so they do not count as failed attempts
+        if (request.getAttribute(LoginFilter.LOGIN_USER_ATTRIBUTE) instanceof User user && user.isEnabled()
+                && !(exception instanceof AuthenticationServiceException)) {
+            loginAttemptService.loginFailed(user);
         }
 
         response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
@@ -47,6 +42,10 @@ public class ApiAuthAuthenticationFailureHandler implements AuthenticationFailur
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             response.setContentType("text/plain");
             response.getWriter().write("Konto tymczasowo zablokowane. Zbyt wiele nieudanych prób logowania. Spróbuj ponownie za pare minut.");
+        } else if (exception instanceof AuthenticationServiceException) {
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setContentType("text/plain");
+            response.getWriter().write("Zbyt wiele prób logowania w tej chwili. Spróbuj ponownie za chwilę.");
         } else {
             response.setContentType("text/plain");
             response.getWriter().write(exception.getLocalizedMessage());
@@ -6,13 +6,10 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
 import org.springframework.stereotype.Component;
 import org.verduttio.dominicanappbackend.dto.user.UserShortInfo;
 import org.verduttio.dominicanappbackend.domain.User;
-import org.verduttio.dominicanappbackend.repository.UserRepository;
-import org.verduttio.dominicanappbackend.security.UserDetailsImpl;
 
 import java.io.IOException;
 
@@ -20,27 +17,20 @@ import java.io.IOException;
 public class ApiAuthAuthenticationSuccessHandler implements AuthenticationSuccessHandler {
     private final ObjectMapper objectMapper = new ObjectMapper();
 
-    private final UserRepository userRepository;
+    private final LoginAttemptService loginAttemptService;
 
     @Autowired
-    public ApiAuthAuthenticationSuccessHandler(UserRepository userRepository) {
-        this.userRepository = userRepository;
+    public ApiAuthAuthenticationSuccessHandler(LoginAttemptService loginAttemptService) {
+        this.loginAttemptService = loginAttemptService;
     }
 
     @Override
     public void onAuthenticationSuccess(HttpServletRequest request, HttpServletResponse response, Authentication authentication) throws IOException, ServletException {
-        Object principal = authentication.getPrincipal();
         UserShortInfo userShortInfo;
 
-        if (principal instanceof UserDetails) {
-            UserDetailsImpl userDetails = (UserDetailsImpl) principal;
-            User user = userDetails.getUser();
+        if (request.getAttribute(LoginFilter.LOGIN_USER_ATTRIBUTE) instanceof User user) {
             userShortInfo = new UserShortInfo(user.getId(), user.getName(), user.getSurname());
-
-            User userDb = userRepository.findByEmail(user.getEmail()).orElseThrow();
-            userDb.setFailedLoginAttempts(0);
-            userDb.setLockTime(null);
-            userRepository.save(userDb);
+            loginAttemptService.loginSucceeded(user);
         } else {
             userShortInfo = new UserShortInfo(0L, "Unknown", "Unknown");
         }
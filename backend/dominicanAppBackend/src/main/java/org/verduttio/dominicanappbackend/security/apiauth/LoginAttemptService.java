@@ -0,0 +1,108 @@
+package org.verduttio.dominicanappbackend.security.apiauth;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.verduttio.dominicanappbackend.domain.User;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps failed login attempt counters and lock times in memory. The state of a user is seeded from the user loaded
+ * by the login request and every change is written to the users table later, in one batch with the changes of other
+ * users, so logins do not wait for these updates.
+ */
+@Service
+public class LoginAttemptService implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginAttemptService.class);
+
+    private static final String UPDATE_ATTEMPTS_QUERY = "UPDATE users SET failed_login_attempts = ?, lock_time = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<Long, AttemptState> attempts = new ConcurrentHashMap<>();
+
+    @Autowired
+    public LoginAttemptService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public boolean isLocked(User user) {
+        AttemptState state = attempts.compute(user.getId(), (id, current) -> {
+            AttemptState attemptState = current != null ? current : AttemptState.of(user);
+            if (attemptState.lockTime() != null && !isLockActive(attemptState.lockTime())) {
+                return new AttemptState(0, null, true);
+            }
+            return attemptState;
+        });
+        return state.lockTime() != null;
+    }
+
+    public void loginFailed(User user) {
+        attempts.compute(user.getId(), (id, current) -> {
+            AttemptState attemptState = current != null ? current : AttemptState.of(user);
+            int failedAttempts = attemptState.failedAttempts() + 1;
+            LocalDateTime lockTime = failedAttempts == Configuration.MAX_LOGIN_ATTEMPTS ? LocalDateTime.now() : attemptState.lockTime();
+            return new AttemptState(failedAttempts, lockTime, true);
+        });
+    }
+
+    public void loginSucceeded(User user) {
+        attempts.compute(user.getId(), (id, current) -> {
+            AttemptState attemptState = current != null ? current : AttemptState.of(user);
+            if (attemptState.failedAttempts() == 0 && attemptState.lockTime() == null) {
+                return attemptState.dirty() ? attemptState : null;
+            }
+            return new AttemptState(0, null, true);
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.login-attempts.flush-interval-ms:5000}")
+    public void flushAttempts() {
+        if (attempts.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> batchArgs = new ArrayList<>();
+        for (Long userId : new ArrayList<>(attempts.keySet())) {
+            attempts.computeIfPresent(userId, (id, state) -> {
+                if (state.dirty()) {
+                    Timestamp lockTime = state.lockTime() != null ? Timestamp.valueOf(state.lockTime()) : null;
+                    batchArgs.add(new Object[]{state.failedAttempts(), lockTime, id});
+                }
+                // Users without failed attempts do not need to be tracked any more
+                boolean clean = state.failedAttempts() == 0 && state.lockTime() == null;
+                return clean ? null : new AttemptState(state.failedAttempts(), state.lockTime(), false);
+            });
+        }
+
+        if (!batchArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_ATTEMPTS_QUERY, batchArgs);
+            logger.debug("Flushed login attempts of {} users", batchArgs.size());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        flushAttempts();
+    }
+
+    private static boolean isLockActive(LocalDateTime lockTime) {
+        return lockTime.isAfter(LocalDateTime.now().minusMinutes(Configuration.LOCK_ACCOUNT_DURATION_MINUTES));
+    }
+
+    private record AttemptState(int failedAttempts, LocalDateTime lockTime, boolean dirty) {
+        static AttemptState of(User user) {
+            return new AttemptState(user.getFailedLoginAttempts(), user.getLockTime(), false);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package org.verduttio.dominicanappbackend.security.apiauth;
+
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.AbstractUserDetailsAuthenticationProvider;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.verduttio.dominicanappbackend.security.UserDetailsImpl;
+
+/**
+ * Authentication provider which uses the user loaded by {@link LoginFilter} (see {@link LoginRequestDetails})
+ * instead of querying the users table once more. Requests without these details load the user through the
+ * {@link UserDetailsService}, like {@code DaoAuthenticationProvider} does.
+ */
+public class LoginAuthenticationProvider extends AbstractUserDetailsAuthenticationProvider {
+
+    private static final String USER_NOT_FOUND_PASSWORD = "userNotFoundPassword";
+
+    private final UserDetailsService userDetailsService;
+    private final PasswordEncoder passwordEncoder;
+    private volatile String userNotFoundEncodedPassword;
+
+    public LoginAuthenticationProvider(UserDetailsService userDetailsService, PasswordEncoder passwordEncoder) {
+        this.userDetailsService = userDetailsService;
+        this.passwordEncoder = passwordEncoder;
+    }
+
+    @Override
+    protected UserDetails retrieveUser(String username, UsernamePasswordAuthenticationToken authentication)
+            throws AuthenticationException {
+        if (authentication.getDetails() instanceof LoginRequestDetails details) {
+            if (details.getUser() != null) {
+                return new UserDetailsImpl(details.getUser());
+            }
+            mitigateAgainstTimingAttack(authentication);
+            throw new UsernameNotFoundException("User not found with email: " + username);
+        }
+
+        try {
+            UserDetails user = userDetailsService.loadUserByUsername(username);
+            if (user == null) {
+                throw new InternalAuthenticationServiceException("UserDetailsService returned null");
+            }
+            return user;
+        } catch (UsernameNotFoundException e) {
+            mitigateAgainstTimingAttack(authentication);
+            throw e;
+        }
+    }
+
+    @Override
+    protected void additionalAuthenticationChecks(UserDetails userDetails, UsernamePasswordAuthenticationToken authentication)
+            throws AuthenticationException {
+        if (authentication.getCredentials() == null
+                || !passwordEncoder.matches(authentication.getCredentials().toString(), userDetails.getPassword())) {
+            throw new BadCredentialsException(messages.getMessage("AbstractUserDetailsAuthenticationProvider.badCredentials",
+                    "Bad credentials"));
+        }
+    }
+
+    /**
+     * Takes as long as a real password check, so that response times do not reveal which emails exist.
+     */
+    private void mitigateAgainstTimingAttack(UsernamePasswordAuthenticationToken authentication) {
+        if (authentication.getCredentials() != null) {
+            passwordEncoder.matches(authentication.getCredentials().toString(), getUserNotFoundEncodedPassword());
+        }
+    }
+
+    private String getUserNotFoundEncodedPassword() {
+        if (userNotFoundEncodedPassword == null) {
+            userNotFoundEncodedPassword = passwordEncoder.encode(USER_NOT_FOUND_PASSWORD);
+        }
+        return userNotFoundEncodedPassword;
+    }
+}
@@ -17,23 +17,31 @@ import org.verduttio.dominicanappbackend.dto.auth.LoginRequest;
 import org.verduttio.dominicanappbackend.domain.AuthProvider;
 import org.verduttio.dominicanappbackend.domain.User;
 import org.verduttio.dominicanappbackend.repository.UserRepository;
+import org.verduttio.dominicanappbackend.security.SessionPrincipal;
+import org.verduttio.dominicanappbackend.security.UserDetailsImpl;
 import org.verduttio.dominicanappbackend.service.exception.ApiAuthAuthenticationProcessingException;
 
 import java.io.IOException;
-import java.time.LocalDateTime;
-import java.util.Optional;
 
 public class LoginFilter extends AbstractAuthenticationProcessingFilter {
 
+    /**
+     * Request attribute holding the user loaded for the login request, shared with the success and failure handlers.
+     */
+    public static final String LOGIN_USER_ATTRIBUTE = "loginUser";
+
     private final ObjectMapper mapper;
     private final UserRepository userRepository;
+    private final LoginAttemptService loginAttemptService;
 
     public LoginFilter(ObjectMapper mapper, AuthenticationManager authenticationManager, SecurityContextRepository securityContextRepository,
                        SessionAuthenticationStrategy sessionAuthenticationStrategy, ApiAuthAuthenticationSuccessHandler successHandler,
-                       ApiAuthAuthenticationFailureHandler failureHandler, UserRepository userRepository) {
+                       ApiAuthAuthenticationFailureHandler failureHandler, UserRepository userRepository,
+                       LoginAttemptService loginAttemptService) {
         super(new AntPathRequestMatcher("/api/users/login", "POST"));
         this.mapper = mapper;
         this.userRepository = userRepository;
+        this.loginAttemptService = loginAttemptService;
         setAuthenticationManager(authenticationManager);
         setSecurityContextRepository(securityContextRepository);
         setSessionAuthenticationStrategy(sessionAuthenticationStrategy);
@@ -47,36 +55,45 @@ public class LoginFilter extends AbstractAuthenticationProcessingFilter {
         LoginRequest loginRequest = mapper.readValue(request.getInputStream(), LoginRequest.class);
         request.setAttribute("username", loginRequest.getEmail());
 
-        Optional<User> userOptional = userRepository.findByEmail(loginRequest.getEmail());
-        User user;
-        if (userOptional.isPresent()) {
-            user = userOptional.get();
+        User user = userRepository.findByEmail(loginRequest.getEmail()).orElse(null);
+        if (user != null) {
+            request.setAttribute(LOGIN_USER_ATTRIBUTE, user);
             if(!user.getProvider().equals(AuthProvider.LOCAL)) {
                 throw new ApiAuthAuthenticationProcessingException("Looks like you're signed up with " +
                         user.getProvider() + " account. Please use your " + user.getProvider() +
                         " account to login.");
             }
 
-            if (user.getLockTime() != null && user.getLockTime().isAfter(LocalDateTime.now().minusMinutes(Configuration.LOCK_ACCOUNT_DURATION_MINUTES))) {
+            if (loginAttemptService.isLocked(user)) {
                 throw new LockedException("User account is locked due to too many failed attempts. Please try again later.");
             }
-            if (user.getLockTime() != null && user.getLockTime().isBefore(LocalDateTime.now())) {
-                user.setFailedLoginAttempts(0);
-                user.setLockTime(null);
-                userRepository.save(user);
-            }
-
         }
 
         UsernamePasswordAuthenticationToken authRequest = UsernamePasswordAuthenticationToken.unauthenticated(loginRequest.getEmail(),
                 loginRequest.getPassword());
-        // Allow subclasses to set the "details" property
-        setDetails(request, authRequest);
+        authRequest.setDetails(new LoginRequestDetails(request, user));
 
-        return getAuthenticationManager().authenticate(authRequest);
+        Authentication authentication = getAuthenticationManager().authenticate(authRequest);
+        return toSessionAuthentication(authentication);
     }
 
-    protected void setDetails(HttpServletRequest request, UsernamePasswordAuthenticationToken authRequest) {
-        authRequest.setDetails(this.authenticationDetailsSource.buildDetails(request));
+    /**
+     * Replaces the principal carrying the user entity with the compact {@link SessionPrincipal}, which is what gets
+     * stored in the session.
+     */
+    private Authentication toSessionAuthentication(Authentication authentication) {
+        if (!(authentication.getPrincipal() instanceof UserDetailsImpl userDetails)) {
+            return authentication;
+        }
+
+        SessionPrincipal principal = SessionPrincipal.from(userDetails.getUser());
+        UsernamePasswordAuthenticationToken sessionAuthentication = UsernamePasswordAuthenticationToken.authenticated(principal,
+                null, principal.getAuthorities());
+        if (authentication.getDetails() instanceof LoginRequestDetails details) {
+            sessionAuthentication.setDetails(details.toWebAuthenticationDetails());
+        } else {
+            sessionAuthentication.setDetails(authentication.getDetails());
+        }
+        return sessionAuthentication;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,32 @@
+package org.verduttio.dominicanappbackend.security.apiauth;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+import org.verduttio.dominicanappbackend.domain.User;
+
+import java.io.Serial;
+
+/**
+ * Details of a login request which carry the user already loaded by {@link LoginFilter}, so that
+ * {@link LoginAuthenticationProvider} does not have to load it again. {@code user} is {@code null} when no user
+ * with the given email exists.
+ */
+public class LoginRequestDetails extends WebAuthenticationDetails {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final transient User user;
+
+    public LoginRequestDetails(HttpServletRequest request, User user) {
+        super(request);
+        this.user = user;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public WebAuthenticationDetails toWebAuthenticationDetails() {
+        return new WebAuthenticationDetails(getRemoteAddress(), getSessionId());
+    }
+}
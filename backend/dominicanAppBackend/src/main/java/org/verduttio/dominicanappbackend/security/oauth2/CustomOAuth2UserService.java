@@ -14,7 +14,7 @@ import org.verduttio.dominicanappbackend.domain.Role;
 import org.verduttio.dominicanappbackend.domain.User;
 import org.verduttio.dominicanappbackend.repository.RoleRepository;
 import org.verduttio.dominicanappbackend.repository.UserRepository;
-import org.verduttio.dominicanappbackend.security.UserDetailsImpl;
+import org.verduttio.dominicanappbackend.security.SessionPrincipal;
 import org.verduttio.dominicanappbackend.security.oauth2.user.OAuth2UserInfo;
 import org.verduttio.dominicanappbackend.security.oauth2.user.OAuth2UserInfoFactory;
 import org.verduttio.dominicanappbackend.service.exception.OAuth2AuthenticationProcessingException;
@@ -73,7 +73,7 @@ public class CustomOAuth2UserService extends DefaultOAuth2UserService {
             throw new DisabledException("Konto pomyslnie zarejestrowane. Czeka na weryfikacje przez administratora.");
         }
 
-        return new UserDetailsImpl(user, oAuth2User.getAttributes());
+        return SessionPrincipal.from(user);
     }
 
     private User registerNewUser(OAuth2UserRequest oAuth2UserRequest, OAuth2UserInfo oAuth2UserInfo) {
@@ -11,7 +11,7 @@ import org.springframework.security.web.authentication.AuthenticationSuccessHand
 import org.springframework.security.web.context.SecurityContextRepository;
 import org.springframework.stereotype.Component;
 import org.springframework.web.util.UriComponentsBuilder;
-import org.verduttio.dominicanappbackend.security.UserDetailsImpl;
+import org.verduttio.dominicanappbackend.security.SessionPrincipal;
 import org.verduttio.dominicanappbackend.util.EnvUtils;
 
 import java.io.IOException;
@@ -29,12 +29,12 @@ public class OAuth2AuthenticationSuccessHandler implements AuthenticationSuccess
     @Override
     public void onAuthenticationSuccess(HttpServletRequest request, HttpServletResponse response, Authentication authentication) throws IOException, ServletException {
         String redirectUrl = determineTargetUrl(request, response, authentication);
-        if(authentication.getPrincipal() instanceof UserDetailsImpl) {
+        if(authentication.getPrincipal() instanceof SessionPrincipal) {
             SecurityContext context = SecurityContextHolder.createEmptyContext();
             context.setAuthentication(authentication);
             securityContextRepository.saveContext(context, request, response);
         } else {
-            System.out.println("[ERROR]: Principal is not an instance of UserDetailsImpl");
+            System.out.println("[ERROR]: Principal is not an instance of SessionPrincipal");
         }
 
         new DefaultRedirectStrategy().sendRedirect(request, response, redirectUrl);
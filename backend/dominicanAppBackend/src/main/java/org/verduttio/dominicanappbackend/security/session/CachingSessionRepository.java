@@ -0,0 +1,318 @@
+package org.verduttio.dominicanappbackend.security.session;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.MapSession;
+import org.springframework.session.Session;
+import org.verduttio.dominicanappbackend.cluster.ClusterInvalidationEvent;
+import org.verduttio.dominicanappbackend.cluster.ClusterInvalidationService;
+import org.verduttio.dominicanappbackend.cluster.InvalidationType;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Two-tier session repository: deserialized sessions are kept in a local Caffeine cache in front of the JDBC
+ * repository. Requests which only touch the session (the common case) are served from the cache and their
+ * last access time is written later in one batch, so they do not hit the database at all. Attribute changes,
+ * session id changes and deletions are written through immediately.
+ * <p>
+ * Sessions changed or removed on one node are evicted on the other nodes through {@link ClusterInvalidationService}.
+ * Cached entries are also reloaded from the database after {@code cacheTtl}, which bounds how long another node
+ * can serve such a session if the notification is lost.
+ */
+public class CachingSessionRepository<S extends Session>
+        implements FindByIndexNameSessionRepository<CachingSessionRepository<S>.CachedSession>, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(CachingSessionRepository.class);
+
+    private final FindByIndexNameSessionRepository<S> delegate;
+    private final JdbcTemplate jdbcTemplate;
+    private final ClusterInvalidationService clusterInvalidationService;
+    private final String updateAccessTimeQuery;
+    private final Duration cacheTtl;
+    private final Cache<String, CacheEntry> cache;
+    private final Map<String, PendingAccess> pendingAccesses = new ConcurrentHashMap<>();
+
+    public CachingSessionRepository(FindByIndexNameSessionRepository<S> delegate, JdbcTemplate jdbcTemplate,
+                                    ClusterInvalidationService clusterInvalidationService, String tableName,
+                                    Duration cacheTtl, long maximumSize) {
+        this.delegate = delegate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.clusterInvalidationService = clusterInvalidationService;
+        this.updateAccessTimeQuery = "UPDATE " + tableName + " SET LAST_ACCESS_TIME = ?, EXPIRY_TIME = ? " +
+                "WHERE SESSION_ID = ? AND LAST_ACCESS_TIME < ?";
+        this.cacheTtl = cacheTtl;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(cacheTtl.multipliedBy(2))
+                .build();
+    }
+
+    @Override
+    public CachedSession createSession() {
+        S session = delegate.createSession();
+        return new CachedSession(session, true);
+    }
+
+    @Override
+    public CachedSession findById(String id) {
+        CacheEntry entry = cache.getIfPresent(id);
+        if (entry != null && entry.loadedAt().plus(cacheTtl).isAfter(Instant.now())) {
+            if (entry.session().isExpired()) {
+                deleteById(id);
+                return null;
+            }
+            return new CachedSession(new MapSession(entry.session()));
+        }
+
+        S session = delegate.findById(id);
+        if (session == null) {
+            cache.invalidate(id);
+            pendingAccesses.remove(id);
+            return null;
+        }
+
+        MapSession snapshot = new MapSession(session);
+        PendingAccess pendingAccess = pendingAccesses.get(id);
+        if (pendingAccess != null && pendingAccess.lastAccessedTime().isAfter(snapshot.getLastAccessedTime())) {
+            snapshot.setLastAccessedTime(pendingAccess.lastAccessedTime());
+        }
+        cache.put(id, new CacheEntry(snapshot, Instant.now()));
+        return new CachedSession(new MapSession(snapshot));
+    }
+
+    @Override
+    public void save(CachedSession session) {
+        if (session.isNew || session.idChanged || session.maxInactiveIntervalChanged || !session.changedAttributes.isEmpty()) {
+            writeThrough(session);
+        } else if (session.lastAccessedTimeChanged) {
+            MapSession state = session.state;
+            pendingAccesses.put(state.getId(), new PendingAccess(state.getLastAccessedTime(), state.getMaxInactiveInterval()));
+            cache.asMap().computeIfPresent(state.getId(), (id, entry) -> new CacheEntry(new MapSession(state), entry.loadedAt()));
+        }
+        session.clearChanges();
+    }
+
+    @Override
+    public void deleteById(String id) {
+        cache.invalidate(id);
+        pendingAccesses.remove(id);
+        delegate.deleteById(id);
+        clusterInvalidationService.publish(InvalidationType.SESSION, id);
+    }
+
+    @Override
+    public Map<String, CachedSession> findByIndexNameAndIndexValue(String indexName, String indexValue) {
+        // Sessions are compared by last access time (e.g. concurrent session control), so it has to be up to date
+        flushPendingAccessTimes();
+        return delegate.findByIndexNameAndIndexValue(indexName, indexValue).entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> new CachedSession(new MapSession(entry.getValue()))));
+    }
+
+    @Scheduled(fixedDelayString = "${app.session.cache.flush-interval-ms:10000}")
+    public void flushPendingAccessTimes() {
+        if (pendingAccesses.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> batchArgs = new ArrayList<>();
+        for (String sessionId : new ArrayList<>(pendingAccesses.keySet())) {
+            PendingAccess pendingAccess = pendingAccesses.remove(sessionId);
+            if (pendingAccess != null) {
+                long lastAccessedTime = pendingAccess.lastAccessedTime().toEpochMilli();
+                long expiryTime = pendingAccess.lastAccessedTime().plus(pendingAccess.maxInactiveInterval()).toEpochMilli();
+                batchArgs.add(new Object[]{lastAccessedTime, expiryTime, sessionId, lastAccessedTime});
+            }
+        }
+
+        if (!batchArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate(updateAccessTimeQuery, batchArgs);
+            logger.debug("Flushed last access time of {} sessions", batchArgs.size());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        flushPendingAccessTimes();
+    }
+
+    public void evict(String sessionId) {
+        cache.invalidate(sessionId);
+    }
+
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+
+    @EventListener
+    public void onClusterInvalidation(ClusterInvalidationEvent event) {
+        if (event.type() != InvalidationType.SESSION) {
+            return;
+        }
+        if (event.isForAllIds()) {
+            evictAll();
+        } else {
+            evict(event.id());
+        }
+    }
+
+    private void writeThrough(CachedSession session) {
+        S target = session.resolveDelegate();
+        if (target == null) {
+            // Session was removed in the meantime (e.g. expired by an administrator)
+            cache.invalidate(session.originalId);
+            pendingAccesses.remove(session.originalId);
+            return;
+        }
+
+        MapSession state = session.state;
+        for (String attributeName : session.changedAttributes) {
+            target.setAttribute(attributeName, state.getAttribute(attributeName));
+        }
+        target.setMaxInactiveInterval(state.getMaxInactiveInterval());
+        target.setLastAccessedTime(state.getLastAccessedTime());
+        delegate.save(target);
+
+        if (session.idChanged) {
+            cache.invalidate(session.originalId);
+            pendingAccesses.remove(session.originalId);
+        }
+        pendingAccesses.remove(state.getId());
+        cache.put(state.getId(), new CacheEntry(new MapSession(state), Instant.now()));
+        if (!session.isNew) {
+            // A new session cannot be cached on other nodes yet
+            clusterInvalidationService.publish(InvalidationType.SESSION, session.originalId);
+        }
+    }
+
+    private record CacheEntry(MapSession session, Instant loadedAt) {
+    }
+
+    private record PendingAccess(Instant lastAccessedTime, Duration maxInactiveInterval) {
+    }
+
+    /**
+     * Session handed out to a single request. It works on its own copy of the cached state and remembers what
+     * was changed, so that {@link #save} knows whether the database has to be touched.
+     */
+    public final class CachedSession implements Session {
+
+        private final MapSession state;
+        private final String originalId;
+        private final boolean isNew;
+        private final Set<String> changedAttributes = new HashSet<>();
+        private S delegateSession;
+        private boolean idChanged;
+        private boolean maxInactiveIntervalChanged;
+        private boolean lastAccessedTimeChanged;
+
+        private CachedSession(S delegateSession, boolean isNew) {
+            this.state = new MapSession(delegateSession);
+            this.originalId = delegateSession.getId();
+            this.delegateSession = delegateSession;
+            this.isNew = isNew;
+            if (isNew) {
+                this.changedAttributes.addAll(delegateSession.getAttributeNames());
+            }
+        }
+
+        private CachedSession(MapSession state) {
+            this.state = state;
+            this.originalId = state.getId();
+            this.isNew = false;
+        }
+
+        private S resolveDelegate() {
+            if (delegateSession == null) {
+                delegateSession = delegate.findById(originalId);
+            }
+            return delegateSession;
+        }
+
+        private void clearChanges() {
+            changedAttributes.clear();
+            idChanged = false;
+            maxInactiveIntervalChanged = false;
+            lastAccessedTimeChanged = false;
+        }
+
+        @Override
+        public String getId() {
+            return state.getId();
+        }
+
+        @Override
+        public String changeSessionId() {
+            S target = resolveDelegate();
+            String newId = target != null ? target.changeSessionId() : UUID.randomUUID().toString();
+            state.setId(newId);
+            idChanged = true;
+            return newId;
+        }
+
+        @Override
+        public <T> T getAttribute(String attributeName) {
+            return state.getAttribute(attributeName);
+        }
+
+        @Override
+        public Set<String> getAttributeNames() {
+            return state.getAttributeNames();
+        }
+
+        @Override
+        public void setAttribute(String attributeName, Object attributeValue) {
+            state.setAttribute(attributeName, attributeValue);
+            changedAttributes.add(attributeName);
+        }
+
+        @Override
+        public void removeAttribute(String attributeName) {
+            state.removeAttribute(attributeName);
+            changedAttributes.add(attributeName);
+        }
+
+        @Override
+        public Instant getCreationTime() {
+            return state.getCreationTime();
+        }
+
+        @Override
+        public void setLastAccessedTime(Instant lastAccessedTime) {
+            state.setLastAccessedTime(lastAccessedTime);
+            lastAccessedTimeChanged = true;
+        }
+
+        @Override
+        public Instant getLastAccessedTime() {
+            return state.getLastAccessedTime();
+        }
+
+        @Override
+        public void setMaxInactiveInterval(Duration interval) {
+            state.setMaxInactiveInterval(interval);
+            maxInactiveIntervalChanged = true;
+        }
+
+        @Override
+        public Duration getMaxInactiveInterval() {
+            return state.getMaxInactiveInterval();
+        }
+
+        @Override
+        public boolean isExpired() {
+            return state.isExpired();
+        }
+    }
+}
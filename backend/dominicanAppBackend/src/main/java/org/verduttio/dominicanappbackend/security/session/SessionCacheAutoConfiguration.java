@@ -0,0 +1,34 @@
+package org.verduttio.dominicanappbackend.security.session;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.session.SessionAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.session.jdbc.JdbcIndexedSessionRepository;
+import org.verduttio.dominicanappbackend.cluster.ClusterInvalidationService;
+
+import java.time.Duration;
+
+/**
+ * Registered as auto-configuration (see META-INF/spring), because Spring Boot backs off from creating the JDBC
+ * session repository as soon as any other session repository bean is defined by the application.
+ */
+@AutoConfiguration(after = SessionAutoConfiguration.class)
+@ConditionalOnBean(JdbcIndexedSessionRepository.class)
+public class SessionCacheAutoConfiguration {
+
+    @Bean
+    @Primary
+    public CachingSessionRepository<?> cachingSessionRepository(JdbcIndexedSessionRepository jdbcIndexedSessionRepository,
+                                                                JdbcTemplate jdbcTemplate,
+                                                                ClusterInvalidationService clusterInvalidationService,
+                                                                @Value("${spring.session.jdbc.table-name:SPRING_SESSION}") String tableName,
+                                                                @Value("${app.session.cache.ttl:30s}") Duration cacheTtl,
+                                                                @Value("${app.session.cache.maximum-size:10000}") long maximumSize) {
+        return new CachingSessionRepository<>(jdbcIndexedSessionRepository, jdbcTemplate, clusterInvalidationService,
+                tableName, cacheTtl, maximumSize);
+    }
+}
@@ -1,7 +1,10 @@
 package org.verduttio.dominicanappbackend.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.verduttio.dominicanappbackend.changefeed.ChangeAction;
+import org.verduttio.dominicanappbackend.changefeed.ConflictChangeEvent;
 import org.verduttio.dominicanappbackend.dto.conflict.ConflictDTO;
 import org.verduttio.dominicanappbackend.domain.Conflict;
 import org.verduttio.dominicanappbackend.repository.ConflictRepository;
@@ -16,12 +19,17 @@ public class ConflictService {
 
     private final ConflictRepository conflictRepository;
     private final ConflictValidator conflictValidator;
+    private final ScheduleVersionService scheduleVersionService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
     public ConflictService(ConflictRepository conflictRepository,
-                           ConflictValidator conflictValidator) {
+                           ConflictValidator conflictValidator, ScheduleVersionService scheduleVersionService,
+                           ApplicationEventPublisher eventPublisher) {
         this.conflictRepository = conflictRepository;
         this.conflictValidator = conflictValidator;
+        this.scheduleVersionService = scheduleVersionService;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<Conflict> getAllConflicts() {
@@ -36,15 +44,22 @@ public class ConflictService {
         Conflict conflict = conflictDTO.onlyIdFieldsAndDaysToConflict();
         conflictValidator.validateConflictFieldsOnAdd(conflict);
         conflictRepository.save(conflict);
+        scheduleVersionService.markAllChanged();
+        eventPublisher.publishEvent(new ConflictChangeEvent(conflict.getId(), ChangeAction.CREATED));
     }
 
     public void saveConflict(Conflict conflict) {
+        ChangeAction action = conflict.getId() == null ? ChangeAction.CREATED : ChangeAction.UPDATED;
         conflictRepository.save(conflict);
+        scheduleVersionService.markAllChanged();
+        eventPublisher.publishEvent(new ConflictChangeEvent(conflict.getId(), action));
     }
 
     public void deleteConflict(Long conflictId) {
         conflictValidator.checkIfConflictExists(conflictId);
         conflictRepository.deleteById(conflictId);
+        scheduleVersionService.markAllChanged();
+        eventPublisher.publishEvent(new ConflictChangeEvent(conflictId, ChangeAction.DELETED));
     }
 
     public boolean tasksAreInConflict(Long task1Id, Long task2Id) {
@@ -78,6 +93,8 @@ public class ConflictService {
         conflict.setId(conflictId);
         conflictValidator.validateConflictFieldsOnUpdate(conflict);
         conflictRepository.save(conflict);
+        scheduleVersionService.markAllChanged();
+        eventPublisher.publishEvent(new ConflictChangeEvent(conflictId, ChangeAction.UPDATED));
     }
 
     public boolean existsById(Long conflictId) {
@@ -86,6 +103,8 @@ public class ConflictService {
 
     public void deleteAllConflictsByTaskId(Long taskId) {
         conflictRepository.deleteAllByTaskId(taskId);
+        scheduleVersionService.markAllChanged();
+        eventPublisher.publishEvent(new ConflictChangeEvent(null, ChangeAction.DELETED));
     }
 
     public List<Conflict> findAllByTaskId(Long taskId) {
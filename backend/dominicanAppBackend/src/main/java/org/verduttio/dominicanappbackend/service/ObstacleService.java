@@ -1,19 +1,27 @@
 package org.verduttio.dominicanappbackend.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.verduttio.dominicanappbackend.changefeed.ChangeAction;
+import org.verduttio.dominicanappbackend.changefeed.ObstacleChangeEvent;
+import org.verduttio.dominicanappbackend.changefeed.ScheduleChangeEvent;
 import org.verduttio.dominicanappbackend.comparator.TaskComparator;
 import org.verduttio.dominicanappbackend.domain.ObstacleStatus;
+import org.verduttio.dominicanappbackend.domain.Schedule;
+import org.verduttio.dominicanappbackend.domain.ScheduleEventType;
 import org.verduttio.dominicanappbackend.domain.Task;
 import org.verduttio.dominicanappbackend.domain.User;
 import org.verduttio.dominicanappbackend.domain.obstacle.Obstacle;
 import org.verduttio.dominicanappbackend.domain.obstacle.ObstacleNormalizer;
 import org.verduttio.dominicanappbackend.dto.obstacle.ObstaclePatchDTO;
 import org.verduttio.dominicanappbackend.dto.obstacle.ObstacleRequestDTO;
+import org.verduttio.dominicanappbackend.journal.ScheduleJournal;
 import org.verduttio.dominicanappbackend.repository.ObstacleRepository;
 import org.verduttio.dominicanappbackend.repository.ScheduleRepository;
 import org.verduttio.dominicanappbackend.repository.TaskRepository;
@@ -35,14 +43,22 @@ public class ObstacleService {
     private final ScheduleRepository scheduleRepository;
     private final TaskComparator taskComparator = new TaskComparator();
     private final ObstacleNormalizer obstacleNormalizer;
+    private final ScheduleVersionService scheduleVersionService;
+    private final ScheduleJournal scheduleJournal;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
     public ObstacleService(ObstacleRepository obstacleRepository,
-                           ObstacleValidator obstacleValidator, ScheduleRepository scheduleRepository, ObstacleNormalizer obstacleNormalizer) {
+                           ObstacleValidator obstacleValidator, ScheduleRepository scheduleRepository, ObstacleNormalizer obstacleNormalizer,
+                           ScheduleVersionService scheduleVersionService, ScheduleJournal scheduleJournal,
+                           ApplicationEventPublisher eventPublisher) {
         this.obstacleRepository = obstacleRepository;
         this.obstacleValidator = obstacleValidator;
         this.scheduleRepository = scheduleRepository;
         this.obstacleNormalizer = obstacleNormalizer;
+        this.scheduleVersionService = scheduleVersionService;
+        this.scheduleJournal = scheduleJournal;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<Obstacle> getAllObstacles() {
@@ -75,8 +91,11 @@ public class ObstacleService {
 
         Obstacle obstacle = obstacleRequestDTO.toObstacle();
         obstacleRepository.save(obstacle);
+        scheduleVersionService.markRangeChanged(obstacle.getFromDate(), obstacle.getToDate());
+        eventPublisher.publishEvent(ObstacleChangeEvent.of(obstacle, ChangeAction.CREATED));
     }
 
+    @Transactional
     public void patchObstacle(Long obstacleId, ObstaclePatchDTO obstaclePatchDTO) {
         Obstacle obstacle = obstacleRepository.findById(obstacleId)
                 .orElseThrow(() -> new EntityNotFoundException("Obstacle not found with id: " + obstacleId));
@@ -87,11 +106,16 @@ public class ObstacleService {
         // Remove all schedules for user and tasks in the given range
         if(obstacle.getStatus() == ObstacleStatus.APPROVED) {
             for (Task task : obstacle.getTasks()) {
-                scheduleRepository.deleteAllByUserIdAndTaskIdAndDateBetween(obstacle.getUser().getId(), task.getId(), obstacle.getFromDate(), obstacle.getToDate());
+                List<Schedule> schedules = scheduleRepository.findByUserIdAndTaskIdAndDateBetween(obstacle.getUser().getId(), task.getId(), obstacle.getFromDate(), obstacle.getToDate());
+                scheduleJournal.record(ScheduleEventType.OBSTACLE_PURGED, schedules);
+                scheduleRepository.deleteAll(schedules);
             }
+            eventPublisher.publishEvent(new ScheduleChangeEvent(obstacle.getFromDate(), obstacle.getToDate(), obstacle.getUser().getId(), null));
         }
 
         obstacleRepository.save(obstacle);
+        scheduleVersionService.markRangeChanged(obstacle.getFromDate(), obstacle.getToDate());
+        eventPublisher.publishEvent(ObstacleChangeEvent.of(obstacle, ChangeAction.UPDATED));
     }
 
 
@@ -105,6 +129,8 @@ public class ObstacleService {
         }
 
         obstacleRepository.deleteById(obstacleId);
+        scheduleVersionService.markRangeChanged(obstacle.getFromDate(), obstacle.getToDate());
+        eventPublisher.publishEvent(ObstacleChangeEvent.of(obstacle, ChangeAction.DELETED));
     }
 
     public List<Obstacle> findApprovedObstaclesByUserIdAndTaskIdForDate(Long userId, Long taskId, LocalDate date) {
@@ -0,0 +1,175 @@
+package org.verduttio.dominicanappbackend.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.verduttio.dominicanappbackend.domain.Role;
+import org.verduttio.dominicanappbackend.domain.Task;
+import org.verduttio.dominicanappbackend.domain.User;
+import org.verduttio.dominicanappbackend.dto.role.RoleMembership;
+import org.verduttio.dominicanappbackend.repository.TaskRepository;
+import org.verduttio.dominicanappbackend.repository.UserRepository;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory index of role memberships used for eligibility checks. Every role gets a dense bit index, users have
+ * a mask of their roles and tasks a mask of their allowed roles, so "may the user perform the task" is a single AND.
+ * For every role bit the index also keeps the users having that role, which serves "users eligible for any of
+ * these tasks" without querying users through their roles.
+ * <p>
+ * The index is rebuilt with two queries after the global version of {@link ScheduleVersionService} has changed,
+ * which happens whenever users, roles or tasks are changed, or when it is asked about a user or task created
+ * after the last build.
+ */
+@Service
+public class RoleEligibilityIndex {
+
+    private final UserRepository userRepository;
+    private final TaskRepository taskRepository;
+    private final ScheduleVersionService scheduleVersionService;
+    private volatile Snapshot snapshot;
+
+    @Autowired
+    public RoleEligibilityIndex(UserRepository userRepository, TaskRepository taskRepository,
+                                ScheduleVersionService scheduleVersionService) {
+        this.userRepository = userRepository;
+        this.taskRepository = taskRepository;
+        this.scheduleVersionService = scheduleVersionService;
+    }
+
+    public boolean userHasAllowedRoleForTask(User user, Task task) {
+        Snapshot current = getSnapshot(user.getId(), List.of(task));
+        BitSet userRoles = current.userRoleMasks().get(user.getId());
+        BitSet allowedRoles = current.taskAllowedRoleMasks().get(task.getId());
+        if (userRoles == null || allowedRoles == null) {
+            // Entities which are not stored (yet)
+            return haveCommonRole(user.getRoles(), task.getAllowedRoles());
+        }
+        return userRoles.intersects(allowedRoles);
+    }
+
+    /**
+     * @return ids of users having at least one role allowed for any of the tasks, in order of their entry date
+     */
+    public List<Long> getIdsOfUsersEligibleForAnyOf(Collection<Task> tasks) {
+        Snapshot current = getSnapshot(null, tasks);
+
+        BitSet allowedRoles = new BitSet();
+        for (Task task : tasks) {
+            BitSet taskAllowedRoles = current.taskAllowedRoleMasks().get(task.getId());
+            allowedRoles.or(taskAllowedRoles != null ? taskAllowedRoles : current.toMask(task.getAllowedRoles()));
+        }
+
+        BitSet eligibleUsers = new BitSet();
+        for (int roleBit = allowedRoles.nextSetBit(0); roleBit >= 0; roleBit = allowedRoles.nextSetBit(roleBit + 1)) {
+            eligibleUsers.or(current.usersByRole().get(roleBit));
+        }
+
+        List<Long> userIds = new ArrayList<>(eligibleUsers.cardinality());
+        for (int position = eligibleUsers.nextSetBit(0); position >= 0; position = eligibleUsers.nextSetBit(position + 1)) {
+            userIds.add(current.userIds()[position]);
+        }
+        return userIds;
+    }
+
+    private Snapshot getSnapshot(Long userId, Collection<Task> tasks) {
+        long version = scheduleVersionService.getGlobalVersion();
+        Snapshot current = snapshot;
+        if (current == null || current.version() != version || current.isOlderThan(userId, tasks)) {
+            synchronized (this) {
+                current = snapshot;
+                if (current == null || current.version() != version || current.isOlderThan(userId, tasks)) {
+                    current = build(version);
+                    snapshot = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private Snapshot build(long version) {
+        Map<Long, Integer> roleBits = new HashMap<>();
+        List<BitSet> usersByRole = new ArrayList<>();
+
+        // Memberships come in order of the users' entry date, so user positions keep that order
+        Map<Long, BitSet> userRoleMasks = new LinkedHashMap<>();
+        for (RoleMembership membership : userRepository.findAllUserRoleMemberships()) {
+            BitSet userRoles = userRoleMasks.computeIfAbsent(membership.ownerId(), userId -> new BitSet());
+            if (membership.roleId() != null) {
+                userRoles.set(getRoleBit(roleBits, usersByRole, membership.roleId()));
+            }
+        }
+
+        long[] userIds = new long[userRoleMasks.size()];
+        int position = 0;
+        for (Map.Entry<Long, BitSet> userRoles : userRoleMasks.entrySet()) {
+            userIds[position] = userRoles.getKey();
+            BitSet roles = userRoles.getValue();
+            for (int roleBit = roles.nextSetBit(0); roleBit >= 0; roleBit = roles.nextSetBit(roleBit + 1)) {
+                usersByRole.get(roleBit).set(position);
+            }
+            position++;
+        }
+
+        Map<Long, BitSet> taskAllowedRoleMasks = new HashMap<>();
+        for (RoleMembership membership : taskRepository.findAllTaskAllowedRoleMemberships()) {
+            BitSet allowedRoles = taskAllowedRoleMasks.computeIfAbsent(membership.ownerId(), taskId -> new BitSet());
+            if (membership.roleId() != null) {
+                allowedRoles.set(getRoleBit(roleBits, usersByRole, membership.roleId()));
+            }
+        }
+
+        return new Snapshot(version, roleBits, userRoleMasks, taskAllowedRoleMasks, usersByRole, userIds,
+                maxKey(userRoleMasks), maxKey(taskAllowedRoleMasks));
+    }
+
+    private static int getRoleBit(Map<Long, Integer> roleBits, List<BitSet> usersByRole, Long roleId) {
+        return roleBits.computeIfAbsent(roleId, id -> {
+            usersByRole.add(new BitSet());
+            return usersByRole.size() - 1;
+        });
+    }
+
+    private static long maxKey(Map<Long, ?> map) {
+        return map.keySet().stream().mapToLong(Long::longValue).max().orElse(0);
+    }
+
+    private static boolean haveCommonRole(Set<Role> userRoles, Set<Role> allowedRoles) {
+        Set<String> userRoleNames = userRoles.stream().map(Role::getName).collect(Collectors.toSet());
+        Set<String> allowedRoleNames = allowedRoles.stream().map(Role::getName).collect(Collectors.toSet());
+
+        return !Collections.disjoint(userRoleNames, allowedRoleNames);
+    }
+
+    private record Snapshot(long version, Map<Long, Integer> roleBits, Map<Long, BitSet> userRoleMasks,
+                            Map<Long, BitSet> taskAllowedRoleMasks, List<BitSet> usersByRole, long[] userIds,
+                            long maxUserId, long maxTaskId) {
+
+        /**
+         * Ids come from sequences, so an id greater than any indexed one belongs to an entity created after the build.
+         */
+        boolean isOlderThan(Long userId, Collection<Task> tasks) {
+            if (userId != null && userId > maxUserId) {
+                return true;
+            }
+            for (Task task : tasks) {
+                if (task.getId() != null && task.getId() > maxTaskId) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        BitSet toMask(Set<Role> roles) {
+            BitSet mask = new BitSet();
+            for (Role role : roles) {
+                Integer roleBit = roleBits.get(role.getId());
+                if (roleBit != null) {
+                    mask.set(roleBit);
+                }
+            }
+            return mask;
+        }
+    }
+}
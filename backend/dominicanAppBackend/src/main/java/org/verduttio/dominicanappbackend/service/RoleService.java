@@ -6,11 +6,10 @@ import org.springframework.transaction.annotation.Transactional;
 import org.verduttio.dominicanappbackend.dto.role.RoleSortOrderUpdateDTO;
 import org.verduttio.dominicanappbackend.domain.Role;
 import org.verduttio.dominicanappbackend.domain.RoleType;
-import org.verduttio.dominicanappbackend.domain.User;
 import org.verduttio.dominicanappbackend.repository.RoleRepository;
 import org.verduttio.dominicanappbackend.repository.TaskRepository;
 import org.verduttio.dominicanappbackend.repository.UserRepository;
-import org.verduttio.dominicanappbackend.security.UserSessionService;
+import org.verduttio.dominicanappbackend.security.UserRoleVersionService;
 import org.verduttio.dominicanappbackend.service.exception.EntityAlreadyExistsException;
 import org.verduttio.dominicanappbackend.service.exception.EntityNotFoundException;
 import org.verduttio.dominicanappbackend.service.exception.SensitiveEntityException;
@@ -23,14 +22,17 @@ public class RoleService {
     private final RoleRepository roleRepository;
     private final TaskRepository taskRepository;
     private final UserRepository userRepository;
-    private final UserSessionService userSessionService;
+    private final UserRoleVersionService userRoleVersionService;
+    private final ScheduleVersionService scheduleVersionService;
 
     @Autowired
-    public RoleService(RoleRepository roleRepository, TaskRepository taskRepository, UserRepository userRepository, UserSessionService userSessionService) {
+    public RoleService(RoleRepository roleRepository, TaskRepository taskRepository, UserRepository userRepository, UserRoleVersionService userRoleVersionService,
+                       ScheduleVersionService scheduleVersionService) {
         this.roleRepository = roleRepository;
         this.taskRepository = taskRepository;
         this.userRepository = userRepository;
-        this.userSessionService = userSessionService;
+        this.userRoleVersionService = userRoleVersionService;
+        this.scheduleVersionService = scheduleVersionService;
     }
 
     public List<Role> getAllRoles() {
@@ -79,12 +81,18 @@ public class RoleService {
         if (existsAnotherRoleWithGivenName(updatedRole.getName(), existingRole.getName())) {
             throw new EntityAlreadyExistsException("Another role with given name already exists");
         }
+        boolean nameChanged = !existingRole.getName().equals(updatedRole.getName());
         existingRole.setName(updatedRole.getName());
         existingRole.setType(updatedRole.getType());
         existingRole.setWeeklyScheduleCreatorDefault(updatedRole.isWeeklyScheduleCreatorDefault());
         existingRole.setAssignedTasksGroupName(updatedRole.getAssignedTasksGroupName());
         existingRole.setSortOrder(updatedRole.getSortOrder());
         roleRepository.save(existingRole);
+        if (nameChanged) {
+            // Role names are the authorities of the users which have the role
+            userRoleVersionService.markRoleChanged(roleId);
+        }
+        scheduleVersionService.markAllChanged();
     }
 
     @Transactional
@@ -97,15 +105,12 @@ public class RoleService {
             throw new SensitiveEntityException("Role with given name cannot be deleted");
         }
 
-        List<User> usersWithRole = userRepository.findAllWhichHaveAnyOfRoles(Collections.singletonList(role.getName()));
-        for (User user : usersWithRole) {
-            userSessionService.expireUserSessions(user.getEmail());
-        }
-
+        userRoleVersionService.markRoleChanged(roleId);
         taskRepository.removeRoleFromAllTasks(roleId);
         userRepository.removeRoleFromAllUsers(roleId);
         roleRepository.decrementSortOrderGreaterThan(role.getSortOrder());
         roleRepository.deleteById(roleId);
+        scheduleVersionService.markAllChanged();
     }
 
     /**
@@ -162,6 +167,7 @@ public class RoleService {
             roleToUpdate.setSortOrder(roleSortOrderUpdateDTO.sortOrder());
             roleRepository.save(roleToUpdate);
         }
+        scheduleVersionService.markAllChanged();
     }
 
     @Transactional
@@ -172,5 +178,6 @@ public class RoleService {
             role.setAreTasksVisibleInPrints(roleIds.contains(role.getId()));
             roleRepository.save(role);
         }
+        scheduleVersionService.markAllChanged();
     }
 }
@@ -0,0 +1,149 @@
+package org.verduttio.dominicanappbackend.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.verduttio.dominicanappbackend.cluster.ClusterInvalidationEvent;
+import org.verduttio.dominicanappbackend.cluster.ClusterInvalidationService;
+import org.verduttio.dominicanappbackend.cluster.InvalidationMessage;
+import org.verduttio.dominicanappbackend.cluster.InvalidationType;
+import org.verduttio.dominicanappbackend.validation.DateValidator;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps in-memory version counters of the data shown in schedule views. Every week (starting on Sunday) has its own
+ * counter, and there is a global counter for changes which affect all weeks (tasks, conflicts, users, roles).
+ * Counters only grow, so an ETag built from them changes whenever anything it covers has changed.
+ * <p>
+ * Changes are also published through {@link ClusterInvalidationService}, so that other nodes bump their counters.
+ */
+@Service
+public class ScheduleVersionService {
+
+    // Longer ranges (e.g. a generated month) are published as one global change instead of a notification per week
+    private static final int MAX_WEEKS_PUBLISHED_SEPARATELY = 8;
+
+    private final String instanceTag = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong globalVersion = new AtomicLong();
+    private final AtomicLong totalVersion = new AtomicLong();
+    private final Map<LocalDate, AtomicLong> weekVersions = new ConcurrentHashMap<>();
+    private final ClusterInvalidationService clusterInvalidationService;
+
+    @Autowired
+    public ScheduleVersionService(ClusterInvalidationService clusterInvalidationService) {
+        this.clusterInvalidationService = clusterInvalidationService;
+    }
+
+    public void markDateChanged(LocalDate date) {
+        markRangeChanged(date, date);
+    }
+
+    public void markRangeChanged(LocalDate from, LocalDate to) {
+        LocalDate firstWeekStart = getWeekStart(from);
+        LocalDate lastWeekStart = getWeekStart(to);
+        if (clusterInvalidationService.isEnabled()) {
+            if (ChronoUnit.WEEKS.between(firstWeekStart, lastWeekStart) < MAX_WEEKS_PUBLISHED_SEPARATELY) {
+                for (LocalDate weekStart = firstWeekStart; !weekStart.isAfter(lastWeekStart); weekStart = weekStart.plusWeeks(1)) {
+                    clusterInvalidationService.publish(InvalidationType.SCHEDULE_WEEK, weekStart.toEpochDay());
+                }
+            } else {
+                clusterInvalidationService.publish(InvalidationType.GLOBAL, InvalidationMessage.ALL_IDS);
+            }
+        }
+        afterCommit(() -> bumpWeeks(firstWeekStart, lastWeekStart));
+    }
+
+    public void markAllChanged() {
+        clusterInvalidationService.publish(InvalidationType.GLOBAL, InvalidationMessage.ALL_IDS);
+        afterCommit(this::bumpGlobal);
+    }
+
+    @EventListener
+    public void onClusterInvalidation(ClusterInvalidationEvent event) {
+        if (event.type() == InvalidationType.SCHEDULE_WEEK && !event.isForAllIds()) {
+            LocalDate weekStart = LocalDate.ofEpochDay(event.numericId());
+            bumpWeeks(weekStart, weekStart);
+        } else if (event.type() == InvalidationType.SCHEDULE_WEEK || event.type() == InvalidationType.GLOBAL) {
+            bumpGlobal();
+        }
+    }
+
+    /**
+     * @return counter of changes which affect all weeks (tasks, conflicts, users, roles)
+     */
+    public long getGlobalVersion() {
+        return globalVersion.get();
+    }
+
+    public String getETag(LocalDate from, LocalDate to) {
+        LocalDate firstWeekStart = getWeekStart(from);
+        LocalDate lastWeekStart = getWeekStart(to);
+
+        // Only changed weeks are stored, so scanning the map is cheaper than walking a possibly long range
+        long weeksVersion = 0;
+        for (Map.Entry<LocalDate, AtomicLong> weekVersion : weekVersions.entrySet()) {
+            LocalDate weekStart = weekVersion.getKey();
+            if (!weekStart.isBefore(firstWeekStart) && !weekStart.isAfter(lastWeekStart)) {
+                weeksVersion += weekVersion.getValue().get();
+            }
+        }
+        return "\"" + instanceTag + "-" + globalVersion.get() + "-" + weeksVersion + "\"";
+    }
+
+    /**
+     * ETag of everything up to the end of the week of {@code to}, for data which depends on earlier weeks too
+     * (e.g. the number of assignments since the statistics start date).
+     */
+    public String getETagUpTo(LocalDate to) {
+        LocalDate lastWeekStart = getWeekStart(to);
+
+        long weeksVersion = 0;
+        for (Map.Entry<LocalDate, AtomicLong> weekVersion : weekVersions.entrySet()) {
+            if (!weekVersion.getKey().isAfter(lastWeekStart)) {
+                weeksVersion += weekVersion.getValue().get();
+            }
+        }
+        return "\"" + instanceTag + "-" + globalVersion.get() + "-u" + weeksVersion + "\"";
+    }
+
+    public String getETag() {
+        return "\"" + instanceTag + "-t" + totalVersion.get() + "\"";
+    }
+
+    private void bumpWeeks(LocalDate firstWeekStart, LocalDate lastWeekStart) {
+        for (LocalDate weekStart = firstWeekStart; !weekStart.isAfter(lastWeekStart); weekStart = weekStart.plusWeeks(1)) {
+            weekVersions.computeIfAbsent(weekStart, week -> new AtomicLong()).incrementAndGet();
+        }
+        totalVersion.incrementAndGet();
+    }
+
+    private void bumpGlobal() {
+        globalVersion.incrementAndGet();
+        totalVersion.incrementAndGet();
+    }
+
+    private LocalDate getWeekStart(LocalDate date) {
+        return DateValidator.getWeekBoundaries(date).get("startWeek");
+    }
+
+    private void afterCommit(Runnable action) {
+        // Bump only after commit, otherwise a concurrent read could tag old data with the new version
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
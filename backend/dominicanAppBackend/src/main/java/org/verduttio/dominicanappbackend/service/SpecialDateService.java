@@ -13,10 +13,12 @@ import java.time.LocalDate;
 @Service
 public class SpecialDateService {
     private final SpecialDateRepository specialDateRepository;
+    private final ScheduleVersionService scheduleVersionService;
 
     @Autowired
-    public SpecialDateService(SpecialDateRepository specialDateRepository) {
+    public SpecialDateService(SpecialDateRepository specialDateRepository, ScheduleVersionService scheduleVersionService) {
         this.specialDateRepository = specialDateRepository;
+        this.scheduleVersionService = scheduleVersionService;
     }
 
     public SpecialDate getStatsDate() {
@@ -31,6 +33,7 @@ public class SpecialDateService {
         SpecialDate specialDate = specialDateRepository.findByType(SpecialDateType.STATS).getFirst();
         specialDate.setDate(newDate);
         specialDateRepository.save(specialDate);
+        scheduleVersionService.markAllChanged();
     }
 
     public Page<SpecialDate> getFeastDates(Pageable pageable) {
@@ -42,9 +45,13 @@ public class SpecialDateService {
         specialDate.setDate(date);
         specialDate.setType(SpecialDateType.FEAST);
         specialDateRepository.save(specialDate);
+        scheduleVersionService.markDateChanged(date);
     }
 
     public void deleteFeastDate(Long id) {
-        specialDateRepository.deleteById(id);
+        specialDateRepository.findById(id).ifPresent(specialDate -> {
+            specialDateRepository.deleteById(id);
+            scheduleVersionService.markDateChanged(specialDate.getDate());
+        });
     }
 }
@@ -26,15 +26,18 @@ public class TaskService {
     private final ConflictRepository conflictRepository;
     private final ObstacleRepository obstacleRepository;
     private final ScheduleRepository scheduleRepository;
+    private final ScheduleVersionService scheduleVersionService;
 
     @Autowired
     public TaskService(TaskRepository taskRepository, RoleService roleService, ConflictRepository conflictRepository,
-                       ObstacleRepository obstacleRepository, ScheduleRepository scheduleRepository) {
+                       ObstacleRepository obstacleRepository, ScheduleRepository scheduleRepository,
+                       ScheduleVersionService scheduleVersionService) {
         this.taskRepository = taskRepository;
         this.roleService = roleService;
         this.conflictRepository = conflictRepository;
         this.obstacleRepository = obstacleRepository;
         this.scheduleRepository = scheduleRepository;
+        this.scheduleVersionService = scheduleVersionService;
     }
 
     public List<Task> getAllTasks() {
@@ -53,6 +56,7 @@ public class TaskService {
         Task task = convertTaskDTOToTask(taskDTO);
         task.setSortOrder(taskRepository.countBySupervisorRoleName(taskDTO.getSupervisorRoleName()) + 1);
         taskRepository.save(task);
+        scheduleVersionService.markAllChanged();
     }
 
     public void deleteTask(Long taskId) {
@@ -63,6 +67,7 @@ public class TaskService {
             conflictRepository.deleteAllByTaskId(taskId);
             taskRepository.decrementByRoleSortOrderGreaterThan(task.get().getSupervisorRole().getId(), task.get().getSortOrder());
             taskRepository.deleteById(taskId);
+            scheduleVersionService.markAllChanged();
         } else {
             throw new EntityNotFoundException("Task with id " + taskId + " does not exist");
         }
@@ -115,6 +120,7 @@ public class TaskService {
         task.setDaysOfWeek(updatedTaskDTO.getDaysOfWeek());
 
         taskRepository.save(task);
+        scheduleVersionService.markAllChanged();
     }
 
     private void updateTaskSortOrderIfSupervisorRoleChanged(TaskDTO updatedTaskDTO, Task task) {
@@ -149,6 +155,7 @@ public class TaskService {
             taskToUpdate.setSortOrder(taskSortOrderUpdateDTO.sortOrder());
             taskRepository.save(taskToUpdate);
         }
+        scheduleVersionService.markAllChanged();
     }
 
     public List<Task> getTasksVisibleInObstacleFormForUser() {
@@ -158,5 +165,6 @@ public class TaskService {
     @Transactional
     public void updateTasks(List<Task> tasks) {
         taskRepository.saveAll(tasks);
+        scheduleVersionService.markAllChanged();
     }
 }
@@ -1,12 +1,15 @@
 package org.verduttio.dominicanappbackend.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Sort;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.session.SessionRegistry;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.verduttio.dominicanappbackend.changefeed.ChangeAction;
+import org.verduttio.dominicanappbackend.changefeed.UserChangeEvent;
 import org.verduttio.dominicanappbackend.domain.*;
 import org.verduttio.dominicanappbackend.dto.auth.RegisterUserRequest;
 import org.verduttio.dominicanappbackend.dto.user.UserDTO;
@@ -17,14 +20,17 @@ import org.verduttio.dominicanappbackend.repository.ScheduleRepository;
 import org.verduttio.dominicanappbackend.repository.UserRepository;
 import org.verduttio.dominicanappbackend.security.SecurityUtils;
 import org.verduttio.dominicanappbackend.security.UserDetailsServiceImpl;
-import org.verduttio.dominicanappbackend.security.UserSessionService;
+import org.verduttio.dominicanappbackend.security.UserRoleVersionService;
 import org.verduttio.dominicanappbackend.service.exception.EntityNotFoundException;
 import org.verduttio.dominicanappbackend.service.exception.UserAlreadyVerifiedException;
 import org.verduttio.dominicanappbackend.validation.UserValidator;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -40,11 +46,16 @@ public class UserService {
     private final ObstacleRepository obstacleRepository;
     private final ScheduleRepository scheduleRepository;
     private final BCryptPasswordEncoder bCryptPasswordEncoder;
-    private final UserSessionService userSessionService;
+    private final UserRoleVersionService userRoleVersionService;
+    private final ScheduleVersionService scheduleVersionService;
+    private final RoleEligibilityIndex roleEligibilityIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
     public UserService(UserRepository userRepository, RoleService roleService, TaskService taskService,
-                       UserValidator userValidator, UserDetailsServiceImpl userDetailsService, ObstacleRepository obstacleRepository, ScheduleRepository scheduleRepository, BCryptPasswordEncoder bCryptPasswordEncoder, SessionRegistry sessionRegistry, UserSessionService userSessionService) {
+                       UserValidator userValidator, UserDetailsServiceImpl userDetailsService, ObstacleRepository obstacleRepository, ScheduleRepository scheduleRepository, BCryptPasswordEncoder bCryptPasswordEncoder, SessionRegistry sessionRegistry, UserRoleVersionService userRoleVersionService,
+                       ScheduleVersionService scheduleVersionService, RoleEligibilityIndex roleEligibilityIndex,
+                       ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
         this.roleService = roleService;
         this.taskService = taskService;
@@ -53,7 +64,10 @@ public class UserService {
         this.obstacleRepository = obstacleRepository;
         this.scheduleRepository = scheduleRepository;
         this.bCryptPasswordEncoder = bCryptPasswordEncoder;
-        this.userSessionService = userSessionService;
+        this.userRoleVersionService = userRoleVersionService;
+        this.scheduleVersionService = scheduleVersionService;
+        this.roleEligibilityIndex = roleEligibilityIndex;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<User> getAllUsers() {
@@ -78,22 +92,40 @@ public class UserService {
 
     public List<User> getUsersWhichAreEligibleToPerformTasksAssignedToSupervisorRole(Long supervisorRoleId) {
         List<Task> roleTasks = taskService.findTasksBySupervisorRoleId(supervisorRoleId);
-        List<Long> eligibleRoles = roleTasks.stream().map(Task::getAllowedRoles).flatMap(Set::stream).collect(Collectors.toSet()).stream().map(Role::getId).collect(Collectors.toList());
-
-        return getUsersWhichHaveAnyOfRolesIds(eligibleRoles);
+        return getUsersWhichAreEligibleToPerformAnyOfTasks(roleTasks);
     }
 
     public List<User> getUsersWhichAreEligibleToPerformTasksAssignedToSupervisorRole(String supervisorRoleName) {
         List<Task> roleTasks = taskService.findTasksBySupervisorRoleName(supervisorRoleName);
-        List<Long> eligibleRoles = roleTasks.stream().map(Task::getAllowedRoles).flatMap(Set::stream).collect(Collectors.toSet()).stream().map(Role::getId).collect(Collectors.toList());
+        return getUsersWhichAreEligibleToPerformAnyOfTasks(roleTasks);
+    }
+
+    public List<User> getUsersWhichAreEligibleToPerformAnyOfTasks(List<Task> tasks) {
+        List<Long> eligibleUserIds = roleEligibilityIndex.getIdsOfUsersEligibleForAnyOf(tasks);
+        if (eligibleUserIds.isEmpty()) {
+            return new ArrayList<>();
+        }
 
-        return getUsersWhichHaveAnyOfRolesIds(eligibleRoles);
+        Map<Long, User> usersById = new HashMap<>();
+        for (User user : userRepository.findAllById(eligibleUserIds)) {
+            usersById.put(user.getId(), user);
+        }
+        List<User> eligibleUsers = new ArrayList<>(eligibleUserIds.size());
+        for (Long userId : eligibleUserIds) {
+            User user = usersById.get(userId);
+            if (user != null) {
+                eligibleUsers.add(user);
+            }
+        }
+        return eligibleUsers;
     }
 
     public void createUser(UserDTO userDTO) {
         userValidator.validateEmailWhenRegister(userDTO.getEmail());
         User user = convertUserDTOToUser(userDTO, AuthProvider.LOCAL);
         userRepository.save(user);
+        scheduleVersionService.markAllChanged();
+        publishUserChanged(user, ChangeAction.CREATED);
     }
 
     public void saveUser(User user) {
@@ -106,6 +138,9 @@ public class UserService {
             obstacleRepository.updateAllByRecipientUserIdToNull(userId);
             scheduleRepository.deleteAllByUserId(userId);
             userRepository.deleteById(userId);
+            userRoleVersionService.markUserRemoved(userId);
+            scheduleVersionService.markAllChanged();
+            eventPublisher.publishEvent(new UserChangeEvent(userId, false, ChangeAction.DELETED));
         } else {
             throw new EntityNotFoundException("User with given id does not exist");
         }
@@ -126,13 +161,17 @@ public class UserService {
     public User register(RegisterUserRequest registerUserRequest, AuthProvider authProvider) {
         userValidator.validateEmailWhenRegister(registerUserRequest.getEmail());
         User user = convertRegisterUserRequestToUser(registerUserRequest, authProvider);
-        return userDetailsService.signUpUser(user);
+        User registeredUser = userDetailsService.signUpUser(user);
+        publishUserChanged(registeredUser, ChangeAction.CREATED);
+        return registeredUser;
     }
 
     public User registerDev(UserDTO userDTO, AuthProvider authProvider) {
         userValidator.validateEmailWhenRegister(userDTO.getEmail());
         User user = convertUserDTOToUser(userDTO, authProvider);
-        return userDetailsService.signUpUser(user);
+        User registeredUser = userDetailsService.signUpUser(user);
+        publishUserChanged(registeredUser, ChangeAction.CREATED);
+        return registeredUser;
     }
 
     private User convertRegisterUserRequestToUser(RegisterUserRequest registerUserRequest, AuthProvider authProvider) {
@@ -169,6 +208,9 @@ public class UserService {
         existingUser.setRoles(rolesDB);
 
         userRepository.save(existingUser);
+        userRoleVersionService.markUserRolesChanged(userId);
+        scheduleVersionService.markAllChanged();
+        publishUserChanged(existingUser, ChangeAction.UPDATED);
     }
 
     @Transactional
@@ -191,7 +233,9 @@ public class UserService {
         existingUser.setRoles(rolesDB);
 
         userRepository.save(existingUser);
-        userSessionService.expireUserSessions(existingUser.getEmail());
+        userRoleVersionService.markUserRolesChanged(userId);
+        scheduleVersionService.markAllChanged();
+        publishUserChanged(existingUser, ChangeAction.UPDATED);
     }
 
     public void assignRolesOnVerificationAndVerifyUser(Long userId, Set<String> roles) {
@@ -222,6 +266,9 @@ public class UserService {
         existingUser.setEnabled(true);
 
         userRepository.save(existingUser);
+        userRoleVersionService.markUserRolesChanged(userId);
+        scheduleVersionService.markAllChanged();
+        publishUserChanged(existingUser, ChangeAction.UPDATED);
     }
 
     public void updateUserPassword(Long userId, String newPassword) {
@@ -256,7 +303,8 @@ public class UserService {
         user.setName(userNameSurnameDTO.getName());
         user.setSurname(userNameSurnameDTO.getSurname());
         userRepository.save(user);
-        userSessionService.expireUserSessions(user.getEmail());
+        scheduleVersionService.markAllChanged();
+        publishUserChanged(user, ChangeAction.UPDATED);
     }
 
     public Long getNumberOfNotVerifiedUsers() {
@@ -273,6 +321,11 @@ public class UserService {
 
         user.setEntryDate(entryDate);
         userRepository.save(user);
-        userSessionService.expireUserSessions(user.getEmail());
+        scheduleVersionService.markAllChanged();
+        publishUserChanged(user, ChangeAction.UPDATED);
+    }
+
+    private void publishUserChanged(User user, ChangeAction action) {
+        eventPublisher.publishEvent(new UserChangeEvent(user.getId(), user.isEnabled(), action));
     }
 }
@@ -0,0 +1,7 @@
+package org.verduttio.dominicanappbackend.service.exception;
+
+public class SchedulePreviewOutdatedException extends RuntimeException {
+    public SchedulePreviewOutdatedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package org.verduttio.dominicanappbackend.service.exception;
+
+public class ScheduleWriteConflictException extends RuntimeException {
+    public ScheduleWriteConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package org.verduttio.dominicanappbackend.service.exception;
+
+public class TaskParticipantsLimitExceededException extends RuntimeException {
+    public TaskParticipantsLimitExceededException(String message) {
+        super(message);
+    }
+}
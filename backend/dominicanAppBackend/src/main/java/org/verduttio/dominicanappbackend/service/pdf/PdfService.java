@@ -1,66 +1,106 @@
 package org.verduttio.dominicanappbackend.service.pdf;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.verduttio.dominicanappbackend.concurrency.SingleFlight;
 import org.verduttio.dominicanappbackend.domain.Role;
 import org.verduttio.dominicanappbackend.service.RoleService;
+import org.verduttio.dominicanappbackend.service.ScheduleVersionService;
 import org.verduttio.dominicanappbackend.service.schedule.ScheduleService;
 import org.verduttio.dominicanappbackend.service.pdf.generators.*;
 
 import java.io.IOException;
 import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Supplier;
 
-
+/**
+ * Generates schedule PDFs. Concurrent requests for the same document and data version share one rendering
+ * (see {@link SingleFlight}), as a published schedule tends to be downloaded by many users at once.
+ * <p>
+ * Sizes of rendered documents are recorded in the {@code pdf.size} metric: the saved size ({@code output=compact})
+ * and an estimate of the size without font subsetting and page content compression ({@code output=estimated-full}).
+ * The service only measures; the generators embed font subsets and save documents with compressed object streams.
+ */
 @Service
 public class PdfService {
 
     private final ScheduleService scheduleService;
     private final RoleService roleService;
+    private final ScheduleVersionService scheduleVersionService;
+    private final SingleFlight singleFlight;
+    private final MeterRegistry meterRegistry;
 
     @Autowired
-    public PdfService(ScheduleService scheduleService, RoleService roleService) {
+    public PdfService(ScheduleService scheduleService, RoleService roleService, ScheduleVersionService scheduleVersionService,
+                      SingleFlight singleFlight, MeterRegistry meterRegistry) {
         this.scheduleService = scheduleService;
         this.roleService = roleService;
+        this.scheduleVersionService = scheduleVersionService;
+        this.singleFlight = singleFlight;
+        this.meterRegistry = meterRegistry;
     }
 
     public byte[] generateSchedulePdfForUsers(LocalDate from, LocalDate to) throws IOException {
-        PdfGenerator generator = new UserSchedulePdfGenerator(scheduleService, from, to);
-        return generator.generatePdf();
+        return generateOnce("usersPdf", from, to, () -> new UserSchedulePdfGenerator(scheduleService, from, to));
     }
 
     public byte[] generateSchedulePdfForTasksBySupervisorRole(String roleName, LocalDate from, LocalDate to) throws IOException {
-        PdfGenerator generator = new TaskSchedulePdfGenerator(scheduleService, from, to, Collections.singletonList(roleName));
-        return generator.generatePdf();
+        return generateOnce("tasksByRolePdf", from, to,
+                () -> new TaskSchedulePdfGenerator(scheduleService, from, to, Collections.singletonList(roleName)), roleName);
     }
 
     public byte[] generateSchedulePdfForTasksBySupervisorRoles(List<String> roleNames, LocalDate from, LocalDate to) throws IOException {
-        PdfGenerator generator = new TaskSchedulePdfGenerator(scheduleService, from, to, roleNames);
-        return generator.generatePdf();
+        return generateOnce("tasksByRolesPdf", from, to,
+                () -> new TaskSchedulePdfGenerator(scheduleService, from, to, roleNames), List.copyOf(roleNames));
     }
 
     public byte[] generateSchedulePdfForTasks(LocalDate from, LocalDate to) throws IOException {
         // Because we generate schedule for all tasks, we pass null as roleNames
-        PdfGenerator generator = new TaskSchedulePdfGenerator(scheduleService, from, to, null);
-        return generator.generatePdf();
+        return generateOnce("tasksPdf", from, to, () -> new TaskSchedulePdfGenerator(scheduleService, from, to, null));
     }
 
     public byte[] generateSchedulePdfForUsersByDays(LocalDate from, LocalDate to) throws IOException {
-        PdfGenerator generator = new DaySchedulePdfGenerator(scheduleService, from, to, null);
-        return generator.generatePdf();
+        return generateOnce("usersByDaysPdf", from, to, () -> new DaySchedulePdfGenerator(scheduleService, from, to, null));
     }
 
     public byte[] generateSchedulePdfForUsersBySupervisorRoleByDays(String supervisorRoleName, LocalDate from, LocalDate to) throws IOException {
-        PdfGenerator generator = new DaySchedulePdfGenerator(scheduleService, from, to, supervisorRoleName);
-        return generator.generatePdf();
+        return generateOnce("usersByDaysByRolePdf", from, to,
+                () -> new DaySchedulePdfGenerator(scheduleService, from, to, supervisorRoleName), supervisorRoleName);
     }
 
     public byte[] generateSchedulePdfForUsersGroupedTasksByRoles(LocalDate from, LocalDate to) throws IOException {
-        List<Role> visibleRoles = roleService.getRolesByAreTasksVisibleInPrints(true);
+        return generateOnce("usersGroupedTasksByRolesPdf", from, to, () -> {
+            List<Role> visibleRoles = roleService.getRolesByAreTasksVisibleInPrints(true);
+            return new UserScheduleGroupedTasksByRolesPdfGenerator(scheduleService, from, to, visibleRoles);
+        });
+    }
+
+    private byte[] generateOnce(String document, LocalDate from, LocalDate to, Supplier<PdfGenerator> generator,
+                                Object... arguments) throws IOException {
+        // Role and print visibility changes bump the global part of the version, so it covers all documents
+        SingleFlight.Key key = SingleFlight.key(document, scheduleVersionService.getETag(from, to),
+                from, to, Arrays.asList(arguments));
+        return singleFlight.execute(key, () -> {
+            RenderedPdf pdf = generator.get().generatePdf();
+            recordSize(document, "estimated-full", pdf.estimatedFullSize());
+            recordSize(document, "compact", pdf.content().length);
+            return pdf.content();
+        });
+    }
 
-        PdfGenerator generator = new UserScheduleGroupedTasksByRolesPdfGenerator(scheduleService, from, to, visibleRoles);
-        return generator.generatePdf();
+    private void recordSize(String document, String output, long size) {
+        DistributionSummary.builder("pdf.size")
+                .description("Size of rendered schedule PDFs")
+                .baseUnit("bytes")
+                .tag("document", document)
+                .tag("output", output)
+                .register(meterRegistry)
+                .record(size);
     }
 }
 
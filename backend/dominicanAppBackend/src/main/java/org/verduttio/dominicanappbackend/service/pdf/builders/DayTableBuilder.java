@@ -1,42 +1,42 @@
 package org.verduttio.dominicanappbackend.service.pdf.builders;
 
-import be.quodlibet.boxable.BaseTable;
-import be.quodlibet.boxable.Cell;
-import be.quodlibet.boxable.HorizontalAlignment;
-import be.quodlibet.boxable.Row;
-import org.apache.pdfbox.pdmodel.PDPage;
-import org.apache.pdfbox.pdmodel.font.PDFont;
 import org.verduttio.dominicanappbackend.dto.user.UserSchedulesOnDaysDTO;
 import org.verduttio.dominicanappbackend.dto.user.UserShortInfo;
+import org.verduttio.dominicanappbackend.service.pdf.table.CellStyle;
+import org.verduttio.dominicanappbackend.service.pdf.table.PdfTable;
+import org.verduttio.dominicanappbackend.service.pdf.table.TableCell;
 import org.verduttio.dominicanappbackend.util.DateUtils;
 
 import java.awt.*;
 import java.io.IOException;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
-import static org.verduttio.dominicanappbackend.service.pdf.generators.AbstractPdfGenerator.BORDER_LINE_STYLE;
+import static org.verduttio.dominicanappbackend.service.pdf.generators.AbstractPdfGenerator.BORDER_LINE_WIDTH;
 import static org.verduttio.dominicanappbackend.service.pdf.generators.AbstractPdfGenerator.COLOR_LIGHT_GRAY;
 
 
 public class DayTableBuilder {
 
-    private final BaseTable table;
-    private final PDFont font;
+    private static final Color NAME_CELL_COLOR = new Color(217, 225, 242);
+
+    private final PdfTable table;
     private final LocalDate from;
     private final LocalDate to;
 
-    public DayTableBuilder(BaseTable table, PDFont font, LocalDate from, LocalDate to) {
+    public DayTableBuilder(PdfTable table, LocalDate from, LocalDate to) {
         this.table = table;
-        this.font = font;
         this.from = from;
         this.to = to;
     }
 
     public void buildTable(List<UserSchedulesOnDaysDTO> userSchedules) throws IOException {
         TableParameters params = calculateTableParameters();
+        table.setColumnWidths(calculateColumnWidths(params));
         addDayOfWeekHeaderRow(params);
         addDateHeaderRow(params);
         addUserDataRows(userSchedules, params);
@@ -66,72 +66,61 @@ public class DayTableBuilder {
         return new TableParameters(fontSize, nameCellWidth, taskCellWidth, rowHeight);
     }
 
+    private float[] calculateColumnWidths(TableParameters params) {
+        float[] columnWidths = new float[(int) daysBetween() + 1];
+        columnWidths[0] = params.nameCellWidth;
+        Arrays.fill(columnWidths, 1, columnWidths.length, (float) params.taskCellWidth / daysBetween());
+        return columnWidths;
+    }
+
     private void addDayOfWeekHeaderRow(TableParameters params) {
-        Row<PDPage> dayOfWeekRow = table.createRow(params.rowHeight);
-        createHeaderCell(dayOfWeekRow, params.nameCellWidth, params.fontSize, "", Color.LIGHT_GRAY);  // Brighter color
+        List<TableCell> dayOfWeekRow = new ArrayList<>();
+        dayOfWeekRow.add(createCell(params.fontSize, "", Color.LIGHT_GRAY));  // Brighter color
 
         for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
             String dayOfWeek = DateUtils.getDayOfWeekPL(date.getDayOfWeek());
-            createHeaderCell(dayOfWeekRow, (float) params.taskCellWidth / daysBetween(), params.fontSize, dayOfWeek, COLOR_LIGHT_GRAY);
+            dayOfWeekRow.add(createCell(params.fontSize, dayOfWeek, COLOR_LIGHT_GRAY));
         }
-        table.addHeaderRow(dayOfWeekRow);
+        table.addHeaderRow(params.rowHeight, dayOfWeekRow);
     }
 
     private void addDateHeaderRow(TableParameters params) {
-        Row<PDPage> dateRow = table.createRow(params.rowHeight);
-        createHeaderCell(dateRow, params.nameCellWidth, params.fontSize, "Brat", Color.LIGHT_GRAY);  // Brighter color
+        List<TableCell> dateRow = new ArrayList<>();
+        dateRow.add(createCell(params.fontSize, "Brat", Color.LIGHT_GRAY));  // Brighter color
 
         for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
             String dateStr = DateUtils.getDayMonthFormat(date);
-            createHeaderCell(dateRow, (float) params.taskCellWidth / daysBetween(), params.fontSize, dateStr, COLOR_LIGHT_GRAY);
+            dateRow.add(createCell(params.fontSize, dateStr, COLOR_LIGHT_GRAY));
         }
-        table.addHeaderRow(dateRow);
+        table.addHeaderRow(params.rowHeight, dateRow);
     }
 
     private void addUserDataRows(List<UserSchedulesOnDaysDTO> userSchedules, TableParameters params) {
         int rowIndex = 0;
         for (UserSchedulesOnDaysDTO userDTO : userSchedules) {
-            Row<PDPage> row = table.createRow(params.rowHeight);
+            List<TableCell> row = new ArrayList<>();
             UserShortInfo userInfo = userDTO.getUserShortInfo();
             String fullName = userInfo.getName() + " " + userInfo.getSurname();
             Color rowColor = (rowIndex % 2 == 1) ? COLOR_LIGHT_GRAY : Color.WHITE;
 
-            createDataCell(row, params.nameCellWidth, params.fontSize, fullName, new Color(217, 225, 242));
+            row.add(createCell(params.fontSize, fullName, NAME_CELL_COLOR));
 
             for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
                 List<String> tasks = userDTO.getSchedules().getOrDefault(date, Collections.emptyList());
                 String tasksStr = String.join(", ", tasks);
-                createDataCell(row, (float) params.taskCellWidth / daysBetween(), params.fontSize, tasksStr, rowColor);
+                row.add(createCell(params.fontSize, tasksStr, rowColor));
             }
+            table.addRow(params.rowHeight, row);
             rowIndex++;
         }
     }
 
-    private void createHeaderCell(Row<PDPage> row, float width, float fontSize, String text, Color fillColor) {
-        Cell<PDPage> cell = row.createCell(width, text);
-        cell.setFont(font);
-        cell.setFontSize(fontSize);
-        cell.setAlign(HorizontalAlignment.CENTER);
-        cell.setFillColor(fillColor);
-        cell.setBorderStyle(BORDER_LINE_STYLE);
-        setCellPadding(cell, 0);
-    }
-
-    private void createDataCell(Row<PDPage> row, float width, float fontSize, String text, Color fillColor) {
-        Cell<PDPage> cell = row.createCell(width, text);
-        cell.setFont(font);
-        cell.setFontSize(fontSize);
-        cell.setAlign(HorizontalAlignment.CENTER);
-        cell.setFillColor(fillColor);
-        cell.setBorderStyle(BORDER_LINE_STYLE);
-        setCellPadding(cell, 0);
-    }
-
-    private void setCellPadding(Cell<PDPage> cell, float padding) {
-        cell.setTopPadding(padding);
-        cell.setBottomPadding(padding);
-        cell.setLeftPadding(padding);
-        cell.setRightPadding(padding);
+    private TableCell createCell(float fontSize, String text, Color fillColor) {
+        CellStyle style = CellStyle.of(fontSize)
+                .withFill(fillColor)
+                .withBorder(Color.BLACK, BORDER_LINE_WIDTH)
+                .withPadding(0);
+        return TableCell.of(text, style);
     }
 
     private long daysBetween() {
@@ -152,4 +141,3 @@ public class DayTableBuilder {
         }
     }
 }
-
@@ -1,54 +1,39 @@
 package org.verduttio.dominicanappbackend.service.pdf.builders;
 
-import be.quodlibet.boxable.BaseTable;
-import be.quodlibet.boxable.Cell;
-import be.quodlibet.boxable.HorizontalAlignment;
-import be.quodlibet.boxable.Row;
-import org.apache.pdfbox.pdmodel.PDPage;
-import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.verduttio.dominicanappbackend.service.pdf.table.CellStyle;
+import org.verduttio.dominicanappbackend.service.pdf.table.PdfTable;
+import org.verduttio.dominicanappbackend.service.pdf.table.TableCell;
 
 import java.awt.*;
+import java.util.Arrays;
+import java.util.List;
 
 // TableBuilder.java
 public class TableBuilder {
 
-    private final BaseTable table;
-    private final PDFont font;
+    private static final CellStyle HEADER_CELL_STYLE = CellStyle.of(12).withFill(Color.LIGHT_GRAY).withTextColor(Color.BLACK);
+    private static final CellStyle CELL_STYLE = CellStyle.of(12);
 
-    public TableBuilder(BaseTable table, PDFont font) {
+    private final PdfTable table;
+
+    public TableBuilder(PdfTable table) {
         this.table = table;
-        this.font = font;
     }
 
     public void addHeaderRow(String... headers) {
-        Row<PDPage> headerRow = table.createRow(15f);
-        for (String header : headers) {
-            Cell<PDPage> cell = headerRow.createCell(100f / headers.length, header);
-            styleHeaderCell(cell);
-        }
-        table.addHeaderRow(headerRow);
+        float[] columnWidths = new float[headers.length];
+        Arrays.fill(columnWidths, 100f / headers.length);
+        table.setColumnWidths(columnWidths);
+        table.addHeaderRow(15f, createCells(headers, HEADER_CELL_STYLE));
     }
 
     public void addRow(String... values) {
-        Row<PDPage> row = table.createRow(12f);
-        for (String value : values) {
-            Cell<PDPage> cell = row.createCell(100f / values.length, value);
-            styleCell(cell);
-        }
-    }
-
-    private void styleHeaderCell(Cell<PDPage> cell) {
-        cell.setFont(font);
-        cell.setFontSize(12);
-        cell.setFillColor(Color.LIGHT_GRAY);
-        cell.setTextColor(Color.BLACK);
-        cell.setAlign(HorizontalAlignment.CENTER);
+        table.addRow(12f, createCells(values, CELL_STYLE));
     }
 
-    private void styleCell(Cell<PDPage> cell) {
-        cell.setFont(font);
-        cell.setFontSize(12);
-        cell.setAlign(HorizontalAlignment.CENTER);
+    private List<TableCell> createCells(String[] texts, CellStyle style) {
+        return Arrays.stream(texts)
+                .map(text -> TableCell.of(text, style))
+                .toList();
     }
 }
-
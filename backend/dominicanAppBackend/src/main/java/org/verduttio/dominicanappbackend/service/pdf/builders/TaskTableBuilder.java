@@ -1,13 +1,9 @@
 package org.verduttio.dominicanappbackend.service.pdf.builders;
 
-import be.quodlibet.boxable.BaseTable;
-import be.quodlibet.boxable.Cell;
-import be.quodlibet.boxable.HorizontalAlignment;
-import be.quodlibet.boxable.Row;
-import be.quodlibet.boxable.line.LineStyle;
-import org.apache.pdfbox.pdmodel.PDPage;
-import org.apache.pdfbox.pdmodel.font.PDFont;
 import org.verduttio.dominicanappbackend.dto.schedule.ScheduleShortInfoForTask;
+import org.verduttio.dominicanappbackend.service.pdf.table.CellStyle;
+import org.verduttio.dominicanappbackend.service.pdf.table.PdfTable;
+import org.verduttio.dominicanappbackend.service.pdf.table.TableCell;
 
 import java.awt.*;
 import java.io.IOException;
@@ -16,15 +12,20 @@ import java.util.List;
 // TaskTableBuilder.java
 public class TaskTableBuilder {
 
-    private final BaseTable table;
-    private final PDFont font;
+    private static final CellStyle HEADER_CELL_STYLE = CellStyle.of(12).withFill(Color.LIGHT_GRAY).withTextColor(Color.BLACK);  // brighter mode
+    private static final CellStyle TASK_CELL_STYLE = CellStyle.of(12).withFill(Color.LIGHT_GRAY);
+    private static final CellStyle TASK_CONTINUATION_CELL_STYLE = TASK_CELL_STYLE.withBorder(Color.LIGHT_GRAY, 0);
+    private static final CellStyle CELL_STYLE = CellStyle.of(12);
+    private static final CellStyle SEPARATOR_CELL_STYLE = CellStyle.of(8).withFill(Color.WHITE);
 
-    public TaskTableBuilder(BaseTable table, PDFont font) {
+    private final PdfTable table;
+
+    public TaskTableBuilder(PdfTable table) {
         this.table = table;
-        this.font = font;
     }
 
     public void buildTable(List<ScheduleShortInfoForTask> schedules) throws IOException {
+        table.setColumnWidths(50, 50);
         addHeaderRow();
         for (ScheduleShortInfoForTask schedule : schedules) {
             addTaskRows(schedule);
@@ -34,14 +35,9 @@ public class TaskTableBuilder {
     }
 
     private void addHeaderRow() {
-        Row<PDPage> headerRow = table.createRow(10f);  // smaller to fit in one page
-        Cell<PDPage> taskCell = headerRow.createCell(50, "Oficjum");
-        styleHeaderCell(taskCell);
-
-        Cell<PDPage> userCell = headerRow.createCell(50, "Wykonujący");
-        styleHeaderCell(userCell);
-
-        table.addHeaderRow(headerRow);
+        table.addHeaderRow(10f, List.of(  // smaller to fit in one page
+                TableCell.of("Oficjum", HEADER_CELL_STYLE),
+                TableCell.of("Wykonujący", HEADER_CELL_STYLE)));
     }
 
     private void addTaskRows(ScheduleShortInfoForTask schedule) {
@@ -63,43 +59,13 @@ public class TaskTableBuilder {
     }
 
     private void addRow(String taskName, String userName) {
-        Row<PDPage> row = table.createRow(8f); // smaller to fit in one page
-
-        Cell<PDPage> taskCell = row.createCell(50, taskName);
-        styleTaskCell(taskCell, !taskName.isEmpty());
-
-        Cell<PDPage> userCell = row.createCell(50, userName);
-        styleCell(userCell);
+        CellStyle taskCellStyle = taskName.isEmpty() ? TASK_CONTINUATION_CELL_STYLE : TASK_CELL_STYLE;
+        table.addRow(8f, List.of(  // smaller to fit in one page
+                TableCell.of(taskName, taskCellStyle),
+                TableCell.of(userName, CELL_STYLE)));
     }
 
     private void addSeparatorRow() {
-        Row<PDPage> separatorRow = table.createRow(0.5f);
-        Cell<PDPage> separatorCell = separatorRow.createCell(100, "");
-        separatorCell.setFillColor(Color.WHITE);
-    }
-
-    private void styleHeaderCell(Cell<PDPage> cell) {
-        cell.setFont(font);
-        cell.setFontSize(12);
-        cell.setFillColor(Color.LIGHT_GRAY);  // brighter mode
-        cell.setTextColor(Color.BLACK);
-        cell.setAlign(HorizontalAlignment.CENTER);
-    }
-
-    private void styleTaskCell(Cell<PDPage> cell, boolean hasTaskName) {
-        cell.setFont(font);
-        cell.setFontSize(12);
-        cell.setFillColor(Color.LIGHT_GRAY);
-        cell.setAlign(HorizontalAlignment.CENTER);
-        if (!hasTaskName) {
-            cell.setBorderStyle(new LineStyle(Color.LIGHT_GRAY, 0));
-        }
-    }
-
-    private void styleCell(Cell<PDPage> cell) {
-        cell.setFont(font);
-        cell.setFontSize(12);
-        cell.setAlign(HorizontalAlignment.CENTER);
+        table.addRow(0.5f, List.of(new TableCell("", SEPARATOR_CELL_STYLE, 2)));
     }
 }
-
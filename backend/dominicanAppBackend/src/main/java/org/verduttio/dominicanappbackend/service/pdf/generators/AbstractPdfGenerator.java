@@ -1,13 +1,17 @@
 package org.verduttio.dominicanappbackend.service.pdf.generators;
 
-import be.quodlibet.boxable.BaseTable;
-import be.quodlibet.boxable.line.LineStyle;
+import org.apache.fontbox.ttf.TTFParser;
+import org.apache.fontbox.ttf.TrueTypeFont;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.io.RandomAccessReadBufferedFile;
+import org.apache.pdfbox.pdfwriter.compress.CompressParameters;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
 import org.apache.pdfbox.pdmodel.common.PDRectangle;
-import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.common.PDStream;
 import org.apache.pdfbox.pdmodel.font.PDType0Font;
+import org.verduttio.dominicanappbackend.service.pdf.table.PdfTable;
 import org.verduttio.dominicanappbackend.service.schedule.ScheduleService;
 import org.verduttio.dominicanappbackend.validation.DateValidator;
 
@@ -15,17 +19,20 @@ import java.awt.*;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.time.LocalDate;
+import java.util.Iterator;
 
 public abstract class AbstractPdfGenerator implements PdfGenerator {
 
     public static final float MARGIN = 15;
     public static final String FONT_PATH = "Baloo-Regular.ttf";
     public static final Color COLOR_LIGHT_GRAY = new Color(247, 247, 247);  // brighter mode
-    public static final LineStyle BORDER_LINE_STYLE = new LineStyle(Color.BLACK, 0.4f);
+    public static final float BORDER_LINE_WIDTH = 0.4f;
 
     protected final ScheduleService scheduleService;
-    protected PDFont font;
+    protected PDType0Font font;
     protected PDDocument document;
 
     protected AbstractPdfGenerator(ScheduleService scheduleService) {
@@ -34,7 +41,19 @@ public abstract class AbstractPdfGenerator implements PdfGenerator {
 
     protected void initializeDocument() throws IOException {
         document = new PDDocument();
-        font = PDType0Font.load(document, new File(FONT_PATH));
+        font = loadFont(document);
+    }
+
+    /**
+     * Loads the font, to be embedded as a subset of the glyphs used in the document. Glyph substitution (GSUB) is
+     * turned off: the font's substitutions are for Devanagari and change nothing in Polish text, yet applying them
+     * made every {@code showText} call of PDFBox 3 hundreds of times slower.
+     */
+    public static PDType0Font loadFont(PDDocument document) throws IOException {
+        TrueTypeFont trueTypeFont = new TTFParser().parse(new RandomAccessReadBufferedFile(FONT_PATH));
+        trueTypeFont.setEnableGsub(false);
+        document.registerTrueTypeFontForClosing(trueTypeFont);
+        return PDType0Font.load(document, trueTypeFont, true);
     }
 
     protected PDPage addNewPage(PDRectangle size) {
@@ -59,25 +78,37 @@ public abstract class AbstractPdfGenerator implements PdfGenerator {
         return startY - titleHeight;
     }
 
-    protected BaseTable initializeTable(PDPage page, float startY) throws IOException {
-        return new BaseTable(
-                startY,
-                page.getMediaBox().getHeight() - MARGIN,
-                MARGIN,
-                page.getMediaBox().getWidth() - 2 * MARGIN,
-                MARGIN,
-                document,
-                page,
-                true,
-                true
-        );
+    protected PdfTable initializeTable(PDPage page, float startY) {
+        return new PdfTable(document, page, font, startY, MARGIN);
     }
 
-    protected byte[] finalizeDocument() throws IOException {
+    protected RenderedPdf finalizeDocument() throws IOException {
         ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-        document.save(byteArrayOutputStream);
+        // Packs the objects into compressed object streams and writes a cross-reference stream
+        document.save(byteArrayOutputStream, CompressParameters.DEFAULT_COMPRESSION);
+        long estimatedFullSize = byteArrayOutputStream.size() + countCompactedBytes();
         document.close();
-        return byteArrayOutputStream.toByteArray();
+        return new RenderedPdf(byteArrayOutputStream.toByteArray(), estimatedFullSize);
+    }
+
+    // Bytes saved by embedding the font subset and compressing page contents, read from the saved document
+    private long countCompactedBytes() throws IOException {
+        long compactedBytes = 0;
+        PDStream embeddedFontFile = font.getDescendantFont().getFontDescriptor().getFontFile2();
+        if (embeddedFontFile != null) {
+            compactedBytes += new File(FONT_PATH).length() - embeddedFontFile.getCOSObject().getLength();
+        }
+
+        for (PDPage page : document.getPages()) {
+            Iterator<PDStream> contentStreams = page.getContentStreams();
+            while (contentStreams.hasNext()) {
+                COSStream contentStream = contentStreams.next().getCOSObject();
+                try (InputStream decoded = contentStream.createInputStream()) {
+                    compactedBytes += decoded.transferTo(OutputStream.nullOutputStream()) - contentStream.getLength();
+                }
+            }
+        }
+        return compactedBytes;
     }
 
     protected void validateDateRange(LocalDate from, LocalDate to) {
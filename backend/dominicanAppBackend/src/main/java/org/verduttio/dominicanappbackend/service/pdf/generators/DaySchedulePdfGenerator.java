@@ -1,12 +1,12 @@
 package org.verduttio.dominicanappbackend.service.pdf.generators;
 
 
-import be.quodlibet.boxable.BaseTable;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.common.PDRectangle;
 import org.verduttio.dominicanappbackend.dto.user.UserSchedulesOnDaysDTO;
 import org.verduttio.dominicanappbackend.service.schedule.ScheduleService;
 import org.verduttio.dominicanappbackend.service.pdf.builders.DayTableBuilder;
+import org.verduttio.dominicanappbackend.service.pdf.table.PdfTable;
 import org.verduttio.dominicanappbackend.util.DateUtils;
 import org.verduttio.dominicanappbackend.validation.DateValidator;
 
@@ -29,7 +29,7 @@ public class DaySchedulePdfGenerator extends AbstractPdfGenerator {
     }
 
     @Override
-    public byte[] generatePdf() throws IOException {
+    public RenderedPdf generatePdf() throws IOException {
         DateValidator.ensureFromDateNotAfterToDate(from, to);
         List<UserSchedulesOnDaysDTO> userSchedules;
 
@@ -42,7 +42,7 @@ public class DaySchedulePdfGenerator extends AbstractPdfGenerator {
         initializeDocument();
         PDPage page = addNewPage(new PDRectangle(PDRectangle.A4.getHeight(), PDRectangle.A4.getWidth()));
         float startY = addTitle(page, getTitle());
-        BaseTable table = initializeTable(page, startY);
+        PdfTable table = initializeTable(page, startY);
 
         populateTable(table, userSchedules);
 
@@ -57,8 +57,8 @@ public class DaySchedulePdfGenerator extends AbstractPdfGenerator {
                 to.format(DateUtils.getPlDateFormatter());
     }
 
-    private void populateTable(BaseTable table, List<UserSchedulesOnDaysDTO> userSchedules) throws IOException {
-        DayTableBuilder tableBuilder = new DayTableBuilder(table, font, from, to);
+    private void populateTable(PdfTable table, List<UserSchedulesOnDaysDTO> userSchedules) throws IOException {
+        DayTableBuilder tableBuilder = new DayTableBuilder(table, from, to);
         tableBuilder.buildTable(userSchedules);
     }
 }
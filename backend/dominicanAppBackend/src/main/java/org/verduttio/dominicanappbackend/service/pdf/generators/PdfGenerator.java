@@ -3,5 +3,5 @@ package org.verduttio.dominicanappbackend.service.pdf.generators;
 import java.io.IOException;
 
 public interface PdfGenerator {
-    byte[] generatePdf() throws IOException;
-}
\ No newline at end of file
+    RenderedPdf generatePdf() throws IOException;
+}
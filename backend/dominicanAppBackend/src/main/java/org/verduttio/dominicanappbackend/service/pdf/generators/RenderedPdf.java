@@ -0,0 +1,10 @@
+package org.verduttio.dominicanappbackend.service.pdf.generators;
+
+/**
+ * @param content           the saved document, with object streams
+ * @param estimatedFullSize size the document would have with the whole font embedded and uncompressed page
+ *                          contents, computed from the saved document rather than measured; what object streams
+ *                          save is not included
+ */
+public record RenderedPdf(byte[] content, long estimatedFullSize) {
+}
@@ -1,12 +1,12 @@
 package org.verduttio.dominicanappbackend.service.pdf.generators;
 
 
-import be.quodlibet.boxable.BaseTable;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.common.PDRectangle;
 import org.verduttio.dominicanappbackend.dto.schedule.ScheduleShortInfoForTask;
 import org.verduttio.dominicanappbackend.service.schedule.ScheduleService;
 import org.verduttio.dominicanappbackend.service.pdf.builders.TaskTableBuilder;
+import org.verduttio.dominicanappbackend.service.pdf.table.PdfTable;
 import org.verduttio.dominicanappbackend.util.DateUtils;
 
 import java.io.IOException;
@@ -28,7 +28,7 @@ public class TaskSchedulePdfGenerator extends AbstractPdfGenerator {
     }
 
     @Override
-    public byte[] generatePdf() throws IOException {
+    public RenderedPdf generatePdf() throws IOException {
         validateDateRange(from, to);
         List<ScheduleShortInfoForTask> schedules;
 
@@ -46,7 +46,7 @@ public class TaskSchedulePdfGenerator extends AbstractPdfGenerator {
         initializeDocument();
         PDPage page = addNewPage(PDRectangle.A4);
         float startY = addTitle(page, getTitle());
-        BaseTable table = initializeTable(page, startY);
+        PdfTable table = initializeTable(page, startY);
 
         populateTable(table, schedules);
 
@@ -67,8 +67,8 @@ public class TaskSchedulePdfGenerator extends AbstractPdfGenerator {
                 to.format(DateUtils.getPlDateFormatter());
     }
 
-    private void populateTable(BaseTable table, List<ScheduleShortInfoForTask> schedules) throws IOException {
-        TaskTableBuilder tableBuilder = new TaskTableBuilder(table, font);
+    private void populateTable(PdfTable table, List<ScheduleShortInfoForTask> schedules) throws IOException {
+        TaskTableBuilder tableBuilder = new TaskTableBuilder(table);
         tableBuilder.buildTable(schedules);
     }
 }
@@ -1,12 +1,12 @@
 package org.verduttio.dominicanappbackend.service.pdf.generators;
 
-import be.quodlibet.boxable.BaseTable;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.common.PDRectangle;
 import org.verduttio.dominicanappbackend.dto.schedule.GroupedTasksByRolesInScheduleInfoForUser;
 import org.verduttio.dominicanappbackend.domain.Role;
 import org.verduttio.dominicanappbackend.service.schedule.ScheduleService;
 import org.verduttio.dominicanappbackend.service.pdf.builders.GroupedTasksTableBuilder;
+import org.verduttio.dominicanappbackend.service.pdf.table.PdfTable;
 import org.verduttio.dominicanappbackend.util.DateUtils;
 
 import java.io.IOException;
@@ -27,7 +27,7 @@ public class UserScheduleGroupedTasksByRolesPdfGenerator extends AbstractPdfGene
     }
 
     @Override
-    public byte[] generatePdf() throws IOException {
+    public RenderedPdf generatePdf() throws IOException {
         validateDateRange(from, to);
         List<GroupedTasksByRolesInScheduleInfoForUser> schedules =
                 scheduleService.getGroupedTasksByRolesInScheduleInfoForAllowedUsersForSpecifiedWeek(from, to);
@@ -35,7 +35,7 @@ public class UserScheduleGroupedTasksByRolesPdfGenerator extends AbstractPdfGene
         initializeDocument();
         PDPage page = addNewPage(PDRectangle.A4);
         float startY = addTitle(page, getTitle());
-        BaseTable table = initializeTable(page, startY);
+        PdfTable table = initializeTable(page, startY);
 
         populateTable(table, schedules);
 
@@ -49,8 +49,8 @@ public class UserScheduleGroupedTasksByRolesPdfGenerator extends AbstractPdfGene
                 to.format(DateUtils.getPlDateFormatter());
     }
 
-    private void populateTable(BaseTable table, List<GroupedTasksByRolesInScheduleInfoForUser> groupedByTasksSchedules) throws IOException {
-        GroupedTasksTableBuilder tableBuilder = new GroupedTasksTableBuilder(table, font);
+    private void populateTable(PdfTable table, List<GroupedTasksByRolesInScheduleInfoForUser> groupedByTasksSchedules) throws IOException {
+        GroupedTasksTableBuilder tableBuilder = new GroupedTasksTableBuilder(table);
         String[] headers = createHeaderRow();
         tableBuilder.addHeaderRow(headers);
 
@@ -1,12 +1,12 @@
 package org.verduttio.dominicanappbackend.service.pdf.generators;
 
 
-import be.quodlibet.boxable.BaseTable;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.common.PDRectangle;
 import org.verduttio.dominicanappbackend.dto.schedule.ScheduleShortInfoForUser;
 import org.verduttio.dominicanappbackend.service.schedule.ScheduleService;
 import org.verduttio.dominicanappbackend.service.pdf.builders.TableBuilder;
+import org.verduttio.dominicanappbackend.service.pdf.table.PdfTable;
 import org.verduttio.dominicanappbackend.util.DateUtils;
 
 import java.io.IOException;
@@ -25,7 +25,7 @@ public class UserSchedulePdfGenerator extends AbstractPdfGenerator {
     }
 
     @Override
-    public byte[] generatePdf() throws IOException {
+    public RenderedPdf generatePdf() throws IOException {
         validateDateRange(from, to);
         List<ScheduleShortInfoForUser> schedules =
                 scheduleService.getScheduleShortInfoForAllowedUsersForSpecifiedWeek(from, to);
@@ -33,7 +33,7 @@ public class UserSchedulePdfGenerator extends AbstractPdfGenerator {
         initializeDocument();
         PDPage page = addNewPage(PDRectangle.A4);
         float startY = addTitle(page, getTitle());
-        BaseTable table = initializeTable(page, startY);
+        PdfTable table = initializeTable(page, startY);
 
         populateTable(table, schedules);
 
@@ -47,8 +47,8 @@ public class UserSchedulePdfGenerator extends AbstractPdfGenerator {
                 to.format(DateUtils.getPlDateFormatter());
     }
 
-    private void populateTable(BaseTable table, List<ScheduleShortInfoForUser> schedules) throws IOException {
-        TableBuilder tableBuilder = new TableBuilder(table, font);
+    private void populateTable(PdfTable table, List<ScheduleShortInfoForUser> schedules) throws IOException {
+        TableBuilder tableBuilder = new TableBuilder(table);
         tableBuilder.addHeaderRow("Imię i nazwisko", "Oficjum");
 
         for (ScheduleShortInfoForUser schedule : schedules) {
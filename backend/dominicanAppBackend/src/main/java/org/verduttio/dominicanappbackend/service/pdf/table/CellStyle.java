@@ -0,0 +1,38 @@
+package org.verduttio.dominicanappbackend.service.pdf.table;
+
+import java.awt.*;
+
+/**
+ * Look of a {@link PdfTable} cell. A {@code null} fill leaves the cell transparent and a {@code null} border color
+ * draws no border.
+ */
+public record CellStyle(float fontSize, Color textColor, Color fillColor, Color borderColor, float borderWidth,
+                        float padding) {
+
+    private static final float DEFAULT_PADDING = 5f;
+    private static final float DEFAULT_BORDER_WIDTH = 1f;
+
+    public static CellStyle of(float fontSize) {
+        return new CellStyle(fontSize, Color.BLACK, null, Color.BLACK, DEFAULT_BORDER_WIDTH, DEFAULT_PADDING);
+    }
+
+    public CellStyle withFill(Color fillColor) {
+        return new CellStyle(fontSize, textColor, fillColor, borderColor, borderWidth, padding);
+    }
+
+    public CellStyle withTextColor(Color textColor) {
+        return new CellStyle(fontSize, textColor, fillColor, borderColor, borderWidth, padding);
+    }
+
+    public CellStyle withBorder(Color borderColor, float borderWidth) {
+        return new CellStyle(fontSize, textColor, fillColor, borderColor, borderWidth, padding);
+    }
+
+    public CellStyle withPadding(float padding) {
+        return new CellStyle(fontSize, textColor, fillColor, borderColor, borderWidth, padding);
+    }
+
+    float getInset() {
+        return padding + (borderColor == null ? 0 : borderWidth);
+    }
+}
@@ -0,0 +1,59 @@
+package org.verduttio.dominicanappbackend.service.pdf.table;
+
+import org.apache.pdfbox.pdmodel.font.PDFont;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Widths of single characters of a font, in thousandths of the font size. Looking a character up in the font
+ * encodes it and reads the glyph metrics every time, which dominated measuring the text of large tables.
+ */
+class GlyphWidthCache {
+
+    // Latin-1 and Latin Extended-A, which covers the Polish letters
+    private static final int TABLE_SIZE = 0x180;
+
+    private final PDFont font;
+    private final float[] commonWidths = new float[TABLE_SIZE];
+    private final Map<Integer, Float> otherWidths = new HashMap<>();
+
+    GlyphWidthCache(PDFont font) {
+        this.font = font;
+        Arrays.fill(commonWidths, Float.NaN);
+    }
+
+    float getWidth(String text) throws IOException {
+        float width = 0;
+        for (int i = 0; i < text.length(); ) {
+            int codePoint = text.codePointAt(i);
+            width += getWidth(codePoint);
+            i += Character.charCount(codePoint);
+        }
+        return width;
+    }
+
+    float getWidth(int codePoint) throws IOException {
+        if (codePoint < TABLE_SIZE) {
+            float width = commonWidths[codePoint];
+            if (Float.isNaN(width)) {
+                width = measure(codePoint);
+                commonWidths[codePoint] = width;
+            }
+            return width;
+        }
+
+        Float width = otherWidths.get(codePoint);
+        if (width == null) {
+            width = measure(codePoint);
+            otherWidths.put(codePoint, width);
+        }
+        return width;
+    }
+
+    private float measure(int codePoint) throws IOException {
+        return font.getStringWidth(new String(Character.toChars(codePoint)));
+    }
+}
@@ -0,0 +1,322 @@
+package org.verduttio.dominicanappbackend.service.pdf.table;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDFontDescriptor;
+import org.apache.pdfbox.util.Matrix;
+
+import java.awt.*;
+import java.io.IOException;
+import java.util.*;
+import java.util.List;
+
+/**
+ * Table drawn straight onto page content streams, with text centred in every cell and wrapped to its width.
+ * Rows which do not fit on a page continue on a new page of the same size, below the repeated header rows.
+ * <p>
+ * Column edges are computed once, character widths and wrapped texts are cached, and each page is drawn in three
+ * passes: all fills of one color as a single path, all borders of one style as a single path, and all texts in a
+ * single text object. Large tables are drawn much faster than by drawing cell after cell.
+ */
+public class PdfTable {
+
+    private final PDDocument document;
+    private final PDPage firstPage;
+    private final PDFont font;
+    private final GlyphWidthCache glyphWidths;
+    private final float startY;
+    private final float newPageStartY;
+    private final float bottomMargin;
+    private final float left;
+    private final float width;
+    private final float ascent;
+    private final float lineHeight;
+
+    private final List<List<TableCell>> headerRows = new ArrayList<>();
+    private final List<List<TableCell>> rows = new ArrayList<>();
+    private final List<Float> headerRowHeights = new ArrayList<>();
+    private final List<Float> rowHeights = new ArrayList<>();
+    private final Map<WrapKey, WrappedText> wrappedTexts = new HashMap<>();
+    private float[] columnWidths;
+    private float[] columnEdges;
+
+    public PdfTable(PDDocument document, PDPage page, PDFont font, float startY, float margin) {
+        this.document = document;
+        this.firstPage = page;
+        this.font = font;
+        this.glyphWidths = new GlyphWidthCache(font);
+        this.startY = startY;
+        this.newPageStartY = page.getMediaBox().getHeight() - margin;
+        this.bottomMargin = margin;
+        this.left = margin;
+        this.width = page.getMediaBox().getWidth() - 2 * margin;
+
+        PDFontDescriptor descriptor = font.getFontDescriptor();
+        this.ascent = descriptor.getAscent() / 1000;
+        this.lineHeight = (descriptor.getAscent() - descriptor.getDescent()) / 1000;
+    }
+
+    /**
+     * @param percents width of every column, in percent of the table width
+     */
+    public void setColumnWidths(float... percents) {
+        this.columnWidths = percents.clone();
+    }
+
+    /**
+     * Adds a row drawn at the top of the table on every page.
+     *
+     * @param minHeight height of the row unless its text needs more
+     */
+    public void addHeaderRow(float minHeight, List<TableCell> cells) {
+        headerRows.add(checkColumns(cells));
+        headerRowHeights.add(minHeight);
+    }
+
+    /**
+     * @param minHeight height of the row unless its text needs more
+     */
+    public void addRow(float minHeight, List<TableCell> cells) {
+        rows.add(checkColumns(cells));
+        rowHeights.add(minHeight);
+    }
+
+    public void draw() throws IOException {
+        computeColumnEdges();
+        List<PlacedRow> placedHeaderRows = new ArrayList<>();
+        for (int i = 0; i < headerRows.size(); i++) {
+            placedHeaderRows.add(layOut(headerRows.get(i), headerRowHeights.get(i)));
+        }
+
+        PDPage page = firstPage;
+        PageContent content = new PageContent();
+        float y = content.addRows(placedHeaderRows, startY);
+        for (int i = 0; i < rows.size(); i++) {
+            PlacedRow row = layOut(rows.get(i), rowHeights.get(i));
+            if (y - row.height() < bottomMargin) {
+                content.drawOn(page);
+                page = new PDPage(new PDRectangle(firstPage.getMediaBox().getWidth(), firstPage.getMediaBox().getHeight()));
+                document.addPage(page);
+                content = new PageContent();
+                y = content.addRows(placedHeaderRows, newPageStartY);
+            }
+            y = content.addRow(row, y);
+        }
+        content.drawOn(page);
+    }
+
+    private List<TableCell> checkColumns(List<TableCell> cells) {
+        if (columnWidths == null) {
+            throw new IllegalStateException("Column widths have to be set before adding rows");
+        }
+        int spannedColumns = cells.stream().mapToInt(TableCell::span).sum();
+        if (spannedColumns != columnWidths.length) {
+            throw new IllegalArgumentException("Row spans " + spannedColumns + " columns, but the table has " + columnWidths.length);
+        }
+        return List.copyOf(cells);
+    }
+
+    private void computeColumnEdges() {
+        columnEdges = new float[columnWidths.length + 1];
+        columnEdges[0] = left;
+        for (int i = 0; i < columnWidths.length; i++) {
+            columnEdges[i + 1] = columnEdges[i] + width * columnWidths[i] / 100;
+        }
+    }
+
+    private PlacedRow layOut(List<TableCell> cells, float minHeight) throws IOException {
+        List<PlacedCell> placedCells = new ArrayList<>(cells.size());
+        float height = minHeight;
+        int column = 0;
+        for (TableCell cell : cells) {
+            float x = columnEdges[column];
+            float cellWidth = columnEdges[column + cell.span()] - x;
+            CellStyle style = cell.style();
+            WrappedText text = wrap(cell.text(), cellWidth - 2 * style.getInset(), style.fontSize());
+
+            float textHeight = text.lines().isEmpty() ? 0 : text.lines().size() * lineHeight * style.fontSize();
+            height = Math.max(height, textHeight + 2 * style.getInset());
+            placedCells.add(new PlacedCell(x, cellWidth, style, text));
+            column += cell.span();
+        }
+        return new PlacedRow(placedCells, height);
+    }
+
+    private WrappedText wrap(String text, float maxWidth, float fontSize) throws IOException {
+        if (text == null || text.isEmpty()) {
+            return WrappedText.EMPTY;
+        }
+        WrapKey key = new WrapKey(text, maxWidth, fontSize);
+        WrappedText wrapped = wrappedTexts.get(key);
+        if (wrapped == null) {
+            wrapped = wrapWords(text, maxWidth / fontSize * 1000);
+            wrappedTexts.put(key, wrapped);
+        }
+        return wrapped;
+    }
+
+    // Widths are in thousandths of the font size here
+    private WrappedText wrapWords(String text, float maxWidth) throws IOException {
+        List<String> lines = new ArrayList<>();
+        List<Float> lineWidths = new ArrayList<>();
+        float spaceWidth = glyphWidths.getWidth(' ');
+        StringBuilder line = new StringBuilder();
+        float lineWidth = 0;
+
+        for (String word : text.split(" ")) {
+            float wordWidth = glyphWidths.getWidth(word);
+            if (!line.isEmpty() && lineWidth + spaceWidth + wordWidth <= maxWidth) {
+                line.append(' ').append(word);
+                lineWidth += spaceWidth + wordWidth;
+                continue;
+            }
+            if (wordWidth <= maxWidth) {
+                if (!line.isEmpty()) {
+                    lines.add(line.toString());
+                    lineWidths.add(lineWidth);
+                }
+                line.setLength(0);
+                line.append(word);
+                lineWidth = wordWidth;
+                continue;
+            }
+
+            // A word longer than the cell continues the current line and is broken wherever the line is full,
+            // leaving at least one character on every line
+            if (!line.isEmpty()) {
+                line.append(' ');
+                lineWidth += spaceWidth;
+            }
+            for (int i = 0; i < word.length(); ) {
+                int codePoint = word.codePointAt(i);
+                float charWidth = glyphWidths.getWidth(codePoint);
+                if (!line.isEmpty() && lineWidth + charWidth > maxWidth) {
+                    if (line.charAt(line.length() - 1) == ' ') {
+                        line.setLength(line.length() - 1);
+                        lineWidth -= spaceWidth;
+                    }
+                    lines.add(line.toString());
+                    lineWidths.add(lineWidth);
+                    line.setLength(0);
+                    lineWidth = 0;
+                }
+                line.appendCodePoint(codePoint);
+                lineWidth += charWidth;
+                i += Character.charCount(codePoint);
+            }
+        }
+        if (!line.isEmpty()) {
+            lines.add(line.toString());
+            lineWidths.add(lineWidth);
+        }
+
+        float[] widths = new float[lineWidths.size()];
+        for (int i = 0; i < widths.length; i++) {
+            widths[i] = lineWidths.get(i);
+        }
+        return new WrappedText(lines, widths);
+    }
+
+    /**
+     * Fills, borders and texts of the rows placed on one page, grouped so that each pass is drawn at once.
+     */
+    private class PageContent {
+        private final Map<Color, List<float[]>> fills = new LinkedHashMap<>();
+        private final Map<Border, List<float[]>> borders = new LinkedHashMap<>();
+        private final List<PlacedText> texts = new ArrayList<>();
+
+        float addRows(List<PlacedRow> placedRows, float y) {
+            for (PlacedRow row : placedRows) {
+                y = addRow(row, y);
+            }
+            return y;
+        }
+
+        float addRow(PlacedRow row, float top) {
+            float bottom = top - row.height();
+            for (PlacedCell cell : row.cells()) {
+                CellStyle style = cell.style();
+                float[] rectangle = {cell.x(), bottom, cell.width(), row.height()};
+                if (style.fillColor() != null) {
+                    fills.computeIfAbsent(style.fillColor(), color -> new ArrayList<>()).add(rectangle);
+                }
+                if (style.borderColor() != null) {
+                    borders.computeIfAbsent(new Border(style.borderColor(), style.borderWidth()), border -> new ArrayList<>()).add(rectangle);
+                }
+
+                float fontSize = style.fontSize();
+                float baseline = top - style.getInset() - ascent * fontSize;
+                List<String> lines = cell.text().lines();
+                for (int i = 0; i < lines.size(); i++) {
+                    float lineWidth = cell.text().widths()[i] / 1000 * fontSize;
+                    float x = cell.x() + (cell.width() - lineWidth) / 2;
+                    texts.add(new PlacedText(lines.get(i), x, baseline - i * lineHeight * fontSize, fontSize, style.textColor()));
+                }
+            }
+            return bottom;
+        }
+
+        void drawOn(PDPage page) throws IOException {
+            try (PDPageContentStream contentStream = new PDPageContentStream(document, page, PDPageContentStream.AppendMode.APPEND, true, true)) {
+                for (Map.Entry<Color, List<float[]>> fill : fills.entrySet()) {
+                    contentStream.setNonStrokingColor(fill.getKey());
+                    for (float[] rectangle : fill.getValue()) {
+                        contentStream.addRect(rectangle[0], rectangle[1], rectangle[2], rectangle[3]);
+                    }
+                    contentStream.fill();
+                }
+
+                for (Map.Entry<Border, List<float[]>> border : borders.entrySet()) {
+                    contentStream.setStrokingColor(border.getKey().color());
+                    contentStream.setLineWidth(border.getKey().width());
+                    for (float[] rectangle : border.getValue()) {
+                        contentStream.addRect(rectangle[0], rectangle[1], rectangle[2], rectangle[3]);
+                    }
+                    contentStream.stroke();
+                }
+
+                if (texts.isEmpty()) {
+                    return;
+                }
+                contentStream.beginText();
+                float currentFontSize = -1;
+                Color currentColor = null;
+                for (PlacedText text : texts) {
+                    if (text.fontSize() != currentFontSize) {
+                        contentStream.setFont(font, text.fontSize());
+                        currentFontSize = text.fontSize();
+                    }
+                    if (!text.color().equals(currentColor)) {
+                        contentStream.setNonStrokingColor(text.color());
+                        currentColor = text.color();
+                    }
+                    contentStream.setTextMatrix(Matrix.getTranslateInstance(text.x(), text.y()));
+                    contentStream.showText(text.text());
+                }
+                contentStream.endText();
+            }
+        }
+    }
+
+    private record WrapKey(String text, float maxWidth, float fontSize) {
+    }
+
+    private record WrappedText(List<String> lines, float[] widths) {
+        static final WrappedText EMPTY = new WrappedText(List.of(), new float[0]);
+    }
+
+    private record PlacedCell(float x, float width, CellStyle style, WrappedText text) {
+    }
+
+    private record PlacedRow(List<PlacedCell> cells, float height) {
+    }
+
+    private record PlacedText(String text, float x, float y, float fontSize, Color color) {
+    }
+
+    private record Border(Color color, float width) {
+    }
+}
@@ -0,0 +1,11 @@
+package org.verduttio.dominicanappbackend.service.pdf.table;
+
+/**
+ * Text of a {@link PdfTable} cell spanning {@code span} consecutive columns.
+ */
+public record TableCell(String text, CellStyle style, int span) {
+
+    public static TableCell of(String text, CellStyle style) {
+        return new TableCell(text, style, 1);
+    }
+}
@@ -0,0 +1,42 @@
+package org.verduttio.dominicanappbackend.service.schedule;
+
+import org.verduttio.dominicanappbackend.domain.Conflict;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * In-memory lookup of task conflicts for a period, used to check many schedules without a query per schedule.
+ * Like the conflict checks of {@link ScheduleService}, a feast is treated as Sunday.
+ */
+class ConflictCalendar {
+
+    private final Map<Long, Map<Long, EnumSet<DayOfWeek>>> conflictDays = new HashMap<>();
+    private final Set<LocalDate> feastDates;
+
+    ConflictCalendar(Collection<Conflict> conflicts, Set<LocalDate> feastDates) {
+        this.feastDates = feastDates;
+        for (Conflict conflict : conflicts) {
+            addConflictDays(conflict.getTask1().getId(), conflict.getTask2().getId(), conflict.getDaysOfWeek());
+            addConflictDays(conflict.getTask2().getId(), conflict.getTask1().getId(), conflict.getDaysOfWeek());
+        }
+    }
+
+    private void addConflictDays(Long taskId, Long otherTaskId, Set<DayOfWeek> daysOfWeek) {
+        conflictDays.computeIfAbsent(taskId, id -> new HashMap<>())
+                .computeIfAbsent(otherTaskId, id -> EnumSet.noneOf(DayOfWeek.class)).addAll(daysOfWeek);
+    }
+
+    boolean isFeast(LocalDate date) {
+        return feastDates.contains(date);
+    }
+
+    boolean areInConflict(Long task1Id, Long task2Id, LocalDate date) {
+        Set<DayOfWeek> days = conflictDays.getOrDefault(task1Id, Map.of()).get(task2Id);
+        if (days == null) {
+            return false;
+        }
+        return days.contains(isFeast(date) ? DayOfWeek.SUNDAY : date.getDayOfWeek());
+    }
+}
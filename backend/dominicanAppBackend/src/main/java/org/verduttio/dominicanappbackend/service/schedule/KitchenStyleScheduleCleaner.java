@@ -4,7 +4,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 import org.verduttio.dominicanappbackend.domain.Schedule;
+import org.verduttio.dominicanappbackend.domain.ScheduleEventType;
 import org.verduttio.dominicanappbackend.domain.Task;
+import org.verduttio.dominicanappbackend.journal.ScheduleJournal;
 import org.verduttio.dominicanappbackend.repository.ScheduleRepository;
 import org.verduttio.dominicanappbackend.service.TaskService;
 
@@ -16,11 +18,13 @@ import java.util.List;
 public class KitchenStyleScheduleCleaner implements ScheduleCleaner{
     private final ScheduleRepository scheduleRepository;
     private final TaskService taskService;
+    private final ScheduleJournal scheduleJournal;
     private static final Logger logger = LoggerFactory.getLogger(KitchenStyleScheduleCleaner.class);
 
-    public KitchenStyleScheduleCleaner(ScheduleRepository scheduleRepository, TaskService taskService) {
+    public KitchenStyleScheduleCleaner(ScheduleRepository scheduleRepository, TaskService taskService, ScheduleJournal scheduleJournal) {
         this.scheduleRepository = scheduleRepository;
         this.taskService = taskService;
+        this.scheduleJournal = scheduleJournal;
     }
 
     @Override
@@ -35,6 +39,7 @@ public class KitchenStyleScheduleCleaner implements ScheduleCleaner{
         }
 
         logger.debug("Removing schedules: {}", schedules);
+        scheduleJournal.record(ScheduleEventType.BULK_CLEANED, schedules);
         scheduleRepository.deleteAll(schedules);
     }
 }
@@ -5,13 +5,16 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 import org.verduttio.dominicanappbackend.domain.Schedule;
+import org.verduttio.dominicanappbackend.domain.ScheduleEventType;
 import org.verduttio.dominicanappbackend.domain.Task;
 import org.verduttio.dominicanappbackend.domain.User;
+import org.verduttio.dominicanappbackend.journal.ScheduleJournal;
 import org.verduttio.dominicanappbackend.repository.ScheduleRepository;
 import org.verduttio.dominicanappbackend.service.TaskService;
 import org.verduttio.dominicanappbackend.service.UserService;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
 @Component
@@ -19,21 +22,35 @@ public class KitchenStyleScheduleGenerator implements ScheduleGenerator {
     private final ScheduleRepository scheduleRepository;
     private final UserService userService;
     private final TaskService taskService;
+    private final ScheduleJournal scheduleJournal;
+    private final ScheduleSlotService scheduleSlotService;
     private static final Logger logger = LoggerFactory.getLogger(KitchenStyleScheduleGenerator.class);
 
-    public KitchenStyleScheduleGenerator(ScheduleRepository scheduleRepository, UserService userService, TaskService taskService) {
+    public KitchenStyleScheduleGenerator(ScheduleRepository scheduleRepository, UserService userService, TaskService taskService,
+                                         ScheduleJournal scheduleJournal, ScheduleSlotService scheduleSlotService) {
         this.scheduleRepository = scheduleRepository;
         this.userService = userService;
         this.taskService = taskService;
+        this.scheduleJournal = scheduleJournal;
+        this.scheduleSlotService = scheduleSlotService;
     }
 
     @Override
     public void generateSchedule(Long roleId, Long startingFromUserId, LocalDate startDate, LocalDate endDate) {
         logger.info("Generating schedule for supervisor role ID: {}, starting from user ID: {}, from: {} to: {}",
                 roleId, startingFromUserId, startDate, endDate);
+        List<Schedule> proposedSchedules = proposeSchedule(roleId, startingFromUserId, startDate, endDate);
+        scheduleSlotService.reserve(proposedSchedules, List.of());
+        List<Schedule> schedules = scheduleRepository.saveAll(proposedSchedules);
+        scheduleJournal.record(ScheduleEventType.BULK_GENERATED, schedules);
+    }
+
+    @Override
+    public List<Schedule> proposeSchedule(Long roleId, Long startingFromUserId, LocalDate startDate, LocalDate endDate) {
         List<Task> roleTasks = taskService.findTasksBySupervisorRoleId(roleId);
         List<User> eligibleUsers = userService.getUsersWhichAreEligibleToPerformTasksAssignedToSupervisorRole(roleId);
 
+        List<Schedule> schedules = new ArrayList<>();
         int userIndex = eligibleUsers.stream().filter(user -> user.getId().equals(startingFromUserId)).findFirst().map(eligibleUsers::indexOf).orElseThrow(EntityNotFoundException::new);
         for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
             LocalDate taskDate = date;
@@ -43,11 +60,12 @@ public class KitchenStyleScheduleGenerator implements ScheduleGenerator {
                 schedule.setTask(roleTask);
                 schedule.setUser(eligibleUsers.get(userIndex));
                 logger.debug("Generated schedule: {}", schedule);
-                scheduleRepository.save(schedule);
+                schedules.add(schedule);
 
                 taskDate = taskDate.plusDays(1);
             }
             userIndex = (userIndex + 1) % eligibleUsers.size();
         }
+        return schedules;
     }
 }
@@ -0,0 +1,168 @@
+package org.verduttio.dominicanappbackend.service.schedule;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.verduttio.dominicanappbackend.domain.Role;
+import org.verduttio.dominicanappbackend.domain.RoleType;
+import org.verduttio.dominicanappbackend.service.RoleService;
+import org.verduttio.dominicanappbackend.service.ScheduleVersionService;
+import org.verduttio.dominicanappbackend.validation.DateValidator;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fills {@link ScheduleViewCache} with the views of the previous, current and next week, so that the first
+ * coordinator opening the board does not pay for computing them (nor for the JIT warming up).
+ * <p>
+ * Runs when the application is ready, and again once the schedule data version has not changed for
+ * {@code app.schedule.warm-up.debounce} after a mutation (made on this node or another one). Warming up runs on a
+ * single low priority thread, and stops as soon as the data changes again, because the views it would compute
+ * are already outdated then.
+ */
+@Component
+public class ScheduleCacheWarmer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScheduleCacheWarmer.class);
+
+    private final ScheduleViewCache scheduleViewCache;
+    private final ScheduleVersionService scheduleVersionService;
+    private final RoleService roleService;
+    private final boolean enabled;
+    private final Duration debounce;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(Thread.ofPlatform()
+            .name("schedule-cache-warmer")
+            .daemon()
+            .priority(Thread.MIN_PRIORITY)
+            .factory());
+    private final AtomicBoolean warmingUp = new AtomicBoolean();
+    private volatile String warmedVersion;
+    private String observedVersion;
+    private Instant observedAt;
+
+    @Autowired
+    public ScheduleCacheWarmer(ScheduleViewCache scheduleViewCache, ScheduleVersionService scheduleVersionService,
+                               RoleService roleService,
+                               @Value("${app.schedule.warm-up.enabled:true}") boolean enabled,
+                               @Value("${app.schedule.warm-up.debounce:2s}") Duration debounce) {
+        this.scheduleViewCache = scheduleViewCache;
+        this.scheduleVersionService = scheduleVersionService;
+        this.roleService = roleService;
+        this.enabled = enabled;
+        this.debounce = debounce;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            submitWarmUp();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.schedule.warm-up.check-interval-ms:1000}")
+    public void warmUpAfterChanges() {
+        if (!enabled) {
+            return;
+        }
+
+        String version = scheduleVersionService.getETag();
+        if (version.equals(warmedVersion)) {
+            return;
+        }
+        if (!version.equals(observedVersion)) {
+            observedVersion = version;
+            observedAt = Instant.now();
+            return;
+        }
+        if (!observedAt.plus(debounce).isAfter(Instant.now())) {
+            submitWarmUp();
+        }
+    }
+
+    /**
+     * Computes all views of the three weeks around today.
+     *
+     * @return false if it stopped early, because the data changed in the meantime
+     */
+    public boolean warmUp() {
+        String version = scheduleVersionService.getETag();
+        long startTime = System.nanoTime();
+
+        int warmedViews = 0;
+        for (Runnable view : getViewsToWarmUp()) {
+            if (!version.equals(scheduleVersionService.getETag())) {
+                logger.debug("Cache warm-up stopped after {} views, schedules have changed", warmedViews);
+                return false;
+            }
+            try {
+                view.run();
+                warmedViews++;
+            } catch (RuntimeException e) {
+                logger.warn("Could not warm up a schedule view: {}", e.getMessage());
+            }
+        }
+
+        warmedVersion = version;
+        logger.info("Warmed up {} schedule views in {} ms", warmedViews, Duration.ofNanos(System.nanoTime() - startTime).toMillis());
+        return true;
+    }
+
+    @PreDestroy
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private void submitWarmUp() {
+        // A warm-up in progress either finishes with the current version or stops and is submitted again later
+        if (warmingUp.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                try {
+                    warmUp();
+                } catch (RuntimeException e) {
+                    logger.warn("Cache warm-up failed", e);
+                } finally {
+                    warmingUp.set(false);
+                }
+            });
+        }
+    }
+
+    private List<Runnable> getViewsToWarmUp() {
+        LocalDate currentWeekStart = DateValidator.getWeekBoundaries(LocalDate.now()).get("startWeek");
+        List<Role> supervisorRoles = roleService.getRolesByType(RoleType.SUPERVISOR);
+
+        List<Runnable> views = new ArrayList<>();
+        // The current week first, it is the one most likely to be opened
+        for (LocalDate from : List.of(currentWeekStart, currentWeekStart.plusWeeks(1), currentWeekStart.minusWeeks(1))) {
+            LocalDate to = from.plusDays(6);
+            views.add(() -> scheduleViewCache.getScheduleShortInfoForUsers(from, to));
+            views.add(() -> scheduleViewCache.getGroupedScheduleShortInfoForUsers(from, to));
+            views.add(() -> scheduleViewCache.getScheduleShortInfoForTasks(from, to));
+            views.add(() -> scheduleViewCache.getUserSchedulesByDays(from, to));
+            for (Role role : supervisorRoles) {
+                String roleName = role.getName();
+                views.add(() -> scheduleViewCache.getScheduleShortInfoForTasksByRole(roleName, from, to));
+                views.add(() -> scheduleViewCache.getUserSchedulesByDays(roleName, from, to));
+                if (role.isWeeklyScheduleCreatorDefault()) {
+                    views.add(() -> scheduleViewCache.getWeeklyBoard(roleName, from, to));
+                } else {
+                    views.add(() -> scheduleViewCache.getWeeklyBoardByAllDays(roleName, from, to));
+                }
+            }
+        }
+        return views;
+    }
+}
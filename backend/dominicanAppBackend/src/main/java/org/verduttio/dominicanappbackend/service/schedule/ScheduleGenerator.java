@@ -1,7 +1,15 @@
 package org.verduttio.dominicanappbackend.service.schedule;
 
+import org.verduttio.dominicanappbackend.domain.Schedule;
+
 import java.time.LocalDate;
+import java.util.List;
 
 public interface ScheduleGenerator {
     void generateSchedule(Long roleId, Long startingFromUserId, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Generates the same schedules as {@link #generateSchedule}, but returns them unsaved instead of writing them.
+     */
+    List<Schedule> proposeSchedule(Long roleId, Long startingFromUserId, LocalDate startDate, LocalDate endDate);
 }
@@ -0,0 +1,47 @@
+package org.verduttio.dominicanappbackend.service.schedule;
+
+import org.verduttio.dominicanappbackend.domain.Schedule;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Copy-on-write view of the schedules of a period. The schedules loaded from the database are never modified;
+ * removed and added schedules are kept aside and applied on reading, so proposed changes can be inspected
+ * as if they were stored.
+ */
+class ScheduleOverlay {
+
+    private final Map<Long, List<Schedule>> baseSchedules = new HashMap<>();
+    private final Set<Long> removedScheduleIds = new HashSet<>();
+    private final Map<Long, List<Schedule>> addedSchedules = new HashMap<>();
+
+    ScheduleOverlay(Collection<Schedule> schedules) {
+        for (Schedule schedule : schedules) {
+            baseSchedules.computeIfAbsent(schedule.getUser().getId(), id -> new ArrayList<>()).add(schedule);
+        }
+    }
+
+    void remove(Schedule schedule) {
+        removedScheduleIds.add(schedule.getId());
+    }
+
+    void add(Schedule schedule) {
+        addedSchedules.computeIfAbsent(schedule.getUser().getId(), id -> new ArrayList<>()).add(schedule);
+    }
+
+    int countBaseSchedulesOfUser(Long userId) {
+        return baseSchedules.getOrDefault(userId, List.of()).size();
+    }
+
+    List<Schedule> getSchedulesOfUser(Long userId) {
+        List<Schedule> schedules = new ArrayList<>();
+        for (Schedule schedule : baseSchedules.getOrDefault(userId, List.of())) {
+            if (!removedScheduleIds.contains(schedule.getId())) {
+                schedules.add(schedule);
+            }
+        }
+        schedules.addAll(addedSchedules.getOrDefault(userId, List.of()));
+        return schedules;
+    }
+}
@@ -0,0 +1,206 @@
+package org.verduttio.dominicanappbackend.service.schedule;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.verduttio.dominicanappbackend.changefeed.ScheduleChangeEvent;
+import org.verduttio.dominicanappbackend.domain.*;
+import org.verduttio.dominicanappbackend.domain.obstacle.Obstacle;
+import org.verduttio.dominicanappbackend.dto.schedule.BulkWeekScheduleDTO;
+import org.verduttio.dominicanappbackend.dto.schedule.WeekAssignmentViolation;
+import org.verduttio.dominicanappbackend.dto.schedule.preview.FairnessDelta;
+import org.verduttio.dominicanappbackend.dto.schedule.preview.SchedulePreview;
+import org.verduttio.dominicanappbackend.dto.schedule.preview.SchedulePreviewEntry;
+import org.verduttio.dominicanappbackend.dto.schedule.preview.SchedulePreviewIssue;
+import org.verduttio.dominicanappbackend.journal.ScheduleJournal;
+import org.verduttio.dominicanappbackend.repository.*;
+import org.verduttio.dominicanappbackend.service.ConflictService;
+import org.verduttio.dominicanappbackend.service.ScheduleVersionService;
+import org.verduttio.dominicanappbackend.service.exception.EntityNotFoundException;
+import org.verduttio.dominicanappbackend.service.exception.SchedulePreviewOutdatedException;
+import org.verduttio.dominicanappbackend.validation.DateValidator;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Computes the outcome of schedule generation and bulk week changes without writing to the database, so that
+ * coordinators can inspect it first. A committable preview is kept for {@code app.schedule.preview.ttl} and can
+ * then be stored as-is in one batched write, provided the assignments of its period have not changed since it was
+ * made.
+ */
+@Service
+public class SchedulePreviewService {
+
+    private final ScheduleGenerator scheduleGenerator;
+    private final WeekScheduleBatchService weekScheduleBatchService;
+    private final ScheduleRepository scheduleRepository;
+    private final UserRepository userRepository;
+    private final TaskRepository taskRepository;
+    private final ObstacleRepository obstacleRepository;
+    private final SpecialDateRepository specialDateRepository;
+    private final ConflictService conflictService;
+    private final ScheduleVersionService scheduleVersionService;
+    private final ScheduleSlotService scheduleSlotService;
+    private final ScheduleJournal scheduleJournal;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Cache<String, StoredPreview> previews;
+
+    @Autowired
+    public SchedulePreviewService(ScheduleGenerator scheduleGenerator, WeekScheduleBatchService weekScheduleBatchService,
+                                  ScheduleRepository scheduleRepository, UserRepository userRepository,
+                                  TaskRepository taskRepository, ObstacleRepository obstacleRepository,
+                                  SpecialDateRepository specialDateRepository, ConflictService conflictService,
+                                  ScheduleVersionService scheduleVersionService, ScheduleSlotService scheduleSlotService,
+                                  ScheduleJournal scheduleJournal, ApplicationEventPublisher eventPublisher,
+                                  @Value("${app.schedule.preview.ttl:15m}") Duration previewTtl) {
+        this.scheduleGenerator = scheduleGenerator;
+        this.weekScheduleBatchService = weekScheduleBatchService;
+        this.scheduleRepository = scheduleRepository;
+        this.userRepository = userRepository;
+        this.taskRepository = taskRepository;
+        this.obstacleRepository = obstacleRepository;
+        this.specialDateRepository = specialDateRepository;
+        this.conflictService = conflictService;
+        this.scheduleVersionService = scheduleVersionService;
+        this.scheduleSlotService = scheduleSlotService;
+        this.scheduleJournal = scheduleJournal;
+        this.eventPublisher = eventPublisher;
+        this.previews = Caffeine.newBuilder()
+                .maximumSize(1_000)
+                .expireAfterWrite(previewTtl)
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public SchedulePreview previewGeneration(Long roleId, Long startingFromUserId, LocalDate from, LocalDate to) {
+        DateValidator.ensureFromDateNotAfterToDate(from, to);
+        // Taken before reading anything, so that a change made while the preview is computed makes it outdated
+        String dataVersion = scheduleSlotService.getPeriodVersion(from, to);
+
+        List<Schedule> proposedSchedules = scheduleGenerator.proposeSchedule(roleId, startingFromUserId, from, to);
+        return createPreview(from, to, dataVersion, List.of(), proposedSchedules, ScheduleEventType.BULK_GENERATED, List.of(), true);
+    }
+
+    @Transactional(readOnly = true)
+    public SchedulePreview previewBulkWeekChanges(BulkWeekScheduleDTO bulkWeekScheduleDTO, boolean ignoreConflicts) {
+        String dataVersion = scheduleSlotService.getPeriodVersion(bulkWeekScheduleDTO.getWeekStartDate(), bulkWeekScheduleDTO.getWeekEndDate());
+
+        WeekScheduleBatchService.WeekSchedulePlan plan = weekScheduleBatchService.planWeekChanges(bulkWeekScheduleDTO, ignoreConflicts);
+        return createPreview(plan.from(), plan.to(), dataVersion, plan.schedulesToDelete(), plan.schedulesToSave(),
+                ScheduleEventType.ASSIGNED, plan.violations(), plan.isApplicable());
+    }
+
+    /**
+     * Stores the previewed changes with one batch delete and one batch insert. The version of the period is
+     * checked while its slot versions are locked, so two previews of the same period cannot both be committed,
+     * and the changed slots are reserved, so the participants limits hold even against writers of new slots.
+     */
+    @Transactional
+    public void commitPreview(String previewId) {
+        StoredPreview preview = previews.asMap().remove(previewId);
+        if (preview == null) {
+            throw new EntityNotFoundException("Preview with given id does not exist or has expired");
+        }
+        if (!preview.dataVersion().equals(scheduleSlotService.lockPeriod(preview.from(), preview.to()))) {
+            throw new SchedulePreviewOutdatedException("Schedules have changed since the preview was made");
+        }
+
+        List<Schedule> schedulesToDelete = scheduleRepository.findAllById(preview.scheduleIdsToDelete());
+        List<Schedule> schedules = new ArrayList<>(preview.schedulesToSave().size());
+        for (SchedulePreviewEntry entry : preview.schedulesToSave()) {
+            schedules.add(new Schedule(taskRepository.getReferenceById(entry.taskId()),
+                    userRepository.getReferenceById(entry.userId()), entry.date()));
+        }
+        scheduleSlotService.reserve(schedules, schedulesToDelete);
+
+        if (!schedulesToDelete.isEmpty()) {
+            scheduleJournal.record(ScheduleEventType.UNASSIGNED, schedulesToDelete);
+            scheduleRepository.deleteAllInBatch(schedulesToDelete);
+        }
+        scheduleRepository.saveAll(schedules);
+        scheduleJournal.record(preview.additionType(), schedules);
+        scheduleVersionService.markRangeChanged(preview.from(), preview.to());
+        eventPublisher.publishEvent(ScheduleChangeEvent.ofRange(preview.from(), preview.to()));
+    }
+
+    private SchedulePreview createPreview(LocalDate from, LocalDate to, String dataVersion, List<Schedule> removedSchedules,
+                                          List<Schedule> proposedSchedules, ScheduleEventType additionType,
+                                          List<WeekAssignmentViolation> violations, boolean committable) {
+        Set<Long> userIds = new LinkedHashSet<>();
+        removedSchedules.forEach(schedule -> userIds.add(schedule.getUser().getId()));
+        proposedSchedules.forEach(schedule -> userIds.add(schedule.getUser().getId()));
+
+        ScheduleOverlay overlay = new ScheduleOverlay(userIds.isEmpty() ? List.of() : scheduleRepository.findByUserIdsAndDateBetween(userIds, from, to));
+        removedSchedules.forEach(overlay::remove);
+        proposedSchedules.forEach(overlay::add);
+
+        List<SchedulePreviewIssue> conflicts = new ArrayList<>();
+        List<SchedulePreviewIssue> obstacleHits = new ArrayList<>();
+        if (!proposedSchedules.isEmpty()) {
+            Map<Long, List<Obstacle>> approvedObstacles = new HashMap<>();
+            for (Obstacle obstacle : obstacleRepository.findByUserIdsAndStatusOverlappingPeriod(userIds, ObstacleStatus.APPROVED, from, to)) {
+                approvedObstacles.computeIfAbsent(obstacle.getUser().getId(), id -> new ArrayList<>()).add(obstacle);
+            }
+            Set<LocalDate> feastDates = new HashSet<>();
+            for (SpecialDate feast : specialDateRepository.findByTypeAndDateBetween(SpecialDateType.FEAST, from, to)) {
+                feastDates.add(feast.getDate());
+            }
+            ConflictCalendar conflictCalendar = new ConflictCalendar(conflictService.getAllConflicts(), feastDates);
+
+            for (Schedule schedule : proposedSchedules) {
+                Long userId = schedule.getUser().getId();
+                Long taskId = schedule.getTask().getId();
+                if (hasApprovedObstacle(approvedObstacles.getOrDefault(userId, List.of()), taskId, schedule.getDate())) {
+                    obstacleHits.add(new SchedulePreviewIssue(userId, taskId, schedule.getDate(), "User has an approved obstacle for this task"));
+                }
+                boolean inConflict = overlay.getSchedulesOfUser(userId).stream()
+                        .anyMatch(other -> other != schedule && other.getDate().equals(schedule.getDate())
+                                && conflictCalendar.areInConflict(taskId, other.getTask().getId(), schedule.getDate()));
+                if (inConflict) {
+                    conflicts.add(new SchedulePreviewIssue(userId, taskId, schedule.getDate(), "Schedule is in conflict with other schedules"));
+                }
+            }
+        }
+
+        Map<Long, User> users = new LinkedHashMap<>();
+        removedSchedules.forEach(schedule -> users.putIfAbsent(schedule.getUser().getId(), schedule.getUser()));
+        proposedSchedules.forEach(schedule -> users.putIfAbsent(schedule.getUser().getId(), schedule.getUser()));
+        List<FairnessDelta> fairnessDeltas = new ArrayList<>();
+        for (User user : users.values()) {
+            int before = overlay.countBaseSchedulesOfUser(user.getId());
+            int after = overlay.getSchedulesOfUser(user.getId()).size();
+            fairnessDeltas.add(new FairnessDelta(user.getId(), user.getName() + " " + user.getSurname(), before, after, after - before));
+        }
+
+        List<SchedulePreviewEntry> proposedEntries = proposedSchedules.stream().map(SchedulePreviewEntry::of).toList();
+        List<SchedulePreviewEntry> removedEntries = removedSchedules.stream().map(SchedulePreviewEntry::of).toList();
+
+        String previewId = null;
+        if (committable) {
+            previewId = UUID.randomUUID().toString();
+            List<Long> scheduleIdsToDelete = removedSchedules.stream().map(Schedule::getId).toList();
+            previews.put(previewId, new StoredPreview(from, to, dataVersion, scheduleIdsToDelete, proposedEntries, additionType));
+        }
+
+        return new SchedulePreview(previewId, committable, from, to, proposedEntries, removedEntries, conflicts,
+                obstacleHits, fairnessDeltas, violations);
+    }
+
+    private static boolean hasApprovedObstacle(List<Obstacle> obstacles, Long taskId, LocalDate date) {
+        return obstacles.stream().anyMatch(obstacle -> !date.isBefore(obstacle.getFromDate()) && !date.isAfter(obstacle.getToDate())
+                && obstacle.getTasks().stream().anyMatch(task -> task.getId().equals(taskId)));
+    }
+
+    /**
+     * @param additionType type of the journal events of the saved schedules
+     */
+    private record StoredPreview(LocalDate from, LocalDate to, String dataVersion, List<Long> scheduleIdsToDelete,
+                                 List<SchedulePreviewEntry> schedulesToSave, ScheduleEventType additionType) {
+    }
+}
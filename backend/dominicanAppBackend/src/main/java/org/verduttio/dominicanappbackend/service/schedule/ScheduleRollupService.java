@@ -0,0 +1,286 @@
+package org.verduttio.dominicanappbackend.service.schedule;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.verduttio.dominicanappbackend.changefeed.ScheduleChangeEvent;
+import org.verduttio.dominicanappbackend.domain.Schedule;
+import org.verduttio.dominicanappbackend.domain.ScheduleRollupState;
+import org.verduttio.dominicanappbackend.domain.ScheduleWeeklyRollup;
+import org.verduttio.dominicanappbackend.dto.schedule.DailyAssignmentsCount;
+import org.verduttio.dominicanappbackend.repository.*;
+import org.verduttio.dominicanappbackend.service.ScheduleVersionService;
+import org.verduttio.dominicanappbackend.validation.DateValidator;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Keeps per-week {@link ScheduleWeeklyRollup}s of closed weeks, so that statistics of long periods do not have to
+ * count single schedules, which then may be deleted after a retention period.
+ * <p>
+ * Weeks before {@link ScheduleRollupState#getRolledUpBefore()} are counted only from roll-ups, later ones only from
+ * schedules. Schedules of rolled up weeks are still stored (unless pruned) and changes to them are applied to the
+ * roll-ups before the change is committed. Pruned weeks cannot be changed anymore, and their schedules are
+ * restored from the roll-ups for reading.
+ * <p>
+ * Roll-ups of a week are recomputed while the {@link ScheduleRollupState} row is locked, so the roll-up job and
+ * changes of closed weeks see each other's schedules.
+ */
+@Service
+public class ScheduleRollupService {
+
+    private final ScheduleRepository scheduleRepository;
+    private final ScheduleWeeklyRollupRepository rollupRepository;
+    private final ScheduleRollupStateRepository stateRepository;
+    private final UserRepository userRepository;
+    private final TaskRepository taskRepository;
+    private final ScheduleVersionService scheduleVersionService;
+    private final TransactionTemplate transactionTemplate;
+    private volatile CachedBoundary cachedBoundary;
+
+    @Autowired
+    public ScheduleRollupService(ScheduleRepository scheduleRepository, ScheduleWeeklyRollupRepository rollupRepository,
+                                 ScheduleRollupStateRepository stateRepository, UserRepository userRepository,
+                                 TaskRepository taskRepository, ScheduleVersionService scheduleVersionService,
+                                 PlatformTransactionManager transactionManager) {
+        this.scheduleRepository = scheduleRepository;
+        this.rollupRepository = rollupRepository;
+        this.stateRepository = stateRepository;
+        this.userRepository = userRepository;
+        this.taskRepository = taskRepository;
+        this.scheduleVersionService = scheduleVersionService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * @return number of schedules of the user and task between the given dates (inclusive)
+     */
+    public long countAssignments(Long userId, Long taskId, LocalDate from, LocalDate to) {
+        LocalDate rolledUpBefore = getRolledUpBefore();
+        if (rolledUpBefore == null || !from.isBefore(rolledUpBefore)) {
+            return scheduleRepository.countByUserIdAndTaskIdInLastNDays(userId, taskId, from, to);
+        }
+
+        LocalDate rolledUpTo = to.isBefore(rolledUpBefore) ? to : rolledUpBefore.minusDays(1);
+        long count = 0;
+        for (ScheduleWeeklyRollup rollup : rollupRepository.findByUserIdAndTaskIdAndWeekStartBetween(userId, taskId, getWeekStart(from), rolledUpTo)) {
+            count += rollup.countBetween(from, rolledUpTo);
+        }
+        if (!to.isBefore(rolledUpBefore)) {
+            count += scheduleRepository.countByUserIdAndTaskIdInLastNDays(userId, taskId, rolledUpBefore, to);
+        }
+        return count;
+    }
+
+    /**
+     * @return date of the last schedule of the user and task before {@code upToDate}
+     */
+    public Optional<LocalDate> findLatestAssignmentDate(Long userId, Long taskId, LocalDate upToDate) {
+        Optional<LocalDate> latestDate = scheduleRepository.findLatestTaskCompletionDateByUserIdAndTaskId(userId, taskId, upToDate);
+        LocalDate rolledUpBefore = getRolledUpBefore();
+        if (rolledUpBefore == null || (latestDate.isPresent() && !latestDate.get().isBefore(rolledUpBefore))) {
+            return latestDate;
+        }
+
+        LocalDate rolledUpUpTo = upToDate.isBefore(rolledUpBefore) ? upToDate : rolledUpBefore;
+        // Only the week of the date itself can have no days before it
+        for (ScheduleWeeklyRollup rollup : rollupRepository.findTop2ByUserIdAndTaskIdAndWeekStartLessThanOrderByWeekStartDesc(userId, taskId, rolledUpUpTo)) {
+            LocalDate lastDate = rollup.getLastDateBefore(rolledUpUpTo);
+            if (lastDate != null) {
+                return Optional.of(lastDate);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Schedules of pruned weeks between the given dates (inclusive), restored from their roll-ups. A user has a task
+     * at most once a day, so the days of a roll-up are exactly its schedules. Restored schedules have no id.
+     *
+     * @param userId user of the schedules, or null for all users
+     * @param taskId task of the schedules, or null for all tasks
+     */
+    public List<Schedule> restorePrunedSchedules(Long userId, Long taskId, LocalDate from, LocalDate to) {
+        LocalDate prunedBefore = getBoundary().prunedBefore();
+        if (prunedBefore == null || !from.isBefore(prunedBefore)) {
+            return List.of();
+        }
+
+        LocalDate prunedTo = to.isBefore(prunedBefore) ? to : prunedBefore.minusDays(1);
+        List<Schedule> schedules = new ArrayList<>();
+        for (ScheduleWeeklyRollup rollup : rollupRepository.findWithUsersByWeekStartBetween(userId, taskId, getWeekStart(from), prunedTo)) {
+            for (int day = 0; day < 7; day++) {
+                LocalDate date = rollup.getWeekStart().plusDays(day);
+                if (rollup.hasDay(date) && !date.isBefore(from) && !date.isAfter(prunedTo)) {
+                    schedules.add(new Schedule(rollup.getTask(), rollup.getUser(), date));
+                }
+            }
+        }
+        return schedules;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the schedules of the date were pruned, so it cannot be changed
+     */
+    public void ensureNotPruned(LocalDate date) {
+        LocalDate prunedBefore = getBoundary().prunedBefore();
+        if (prunedBefore != null && date.isBefore(prunedBefore)) {
+            throw new IllegalArgumentException("Schedules before " + prunedBefore + " are archived and cannot be changed");
+        }
+    }
+
+    /**
+     * @return first day which is not rolled up, or null if nothing is
+     */
+    public LocalDate getRolledUpBefore() {
+        return getBoundary().rolledUpBefore();
+    }
+
+    private CachedBoundary getBoundary() {
+        // The boundaries are moved only by the roll-up job, which then marks all schedules as changed
+        long globalVersion = scheduleVersionService.getGlobalVersion();
+        CachedBoundary boundary = cachedBoundary;
+        if (boundary == null || boundary.globalVersion() != globalVersion) {
+            Optional<ScheduleRollupState> state = stateRepository.findFirstByOrderByIdAsc();
+            boundary = new CachedBoundary(globalVersion, state.map(ScheduleRollupState::getRolledUpBefore).orElse(null),
+                    state.map(ScheduleRollupState::getPrunedBefore).orElse(null));
+            cachedBoundary = boundary;
+        }
+        return boundary;
+    }
+
+    /**
+     * Rolls up all weeks which are not rolled up yet and end before the week of {@code date}, one transaction
+     * per week.
+     *
+     * @return number of weeks rolled up
+     */
+    public int rollUpWeeksBefore(LocalDate date) {
+        LocalDate lastWeekStart = getWeekStart(date).minusWeeks(1);
+        LocalDate weekStart = stateRepository.findFirstByOrderByIdAsc()
+                .map(ScheduleRollupState::getRolledUpBefore)
+                .or(() -> scheduleRepository.findEarliestDate().map(this::getWeekStart))
+                .orElse(lastWeekStart.plusWeeks(1));
+
+        if (weekStart.isAfter(lastWeekStart)) {
+            return 0;
+        }
+        LocalDate firstWeekStart = weekStart;
+        // Created up front, so that there is a row to lock while the first week is rolled up
+        transactionTemplate.executeWithoutResult(status -> {
+            if (stateRepository.findForUpdate().isEmpty()) {
+                ScheduleRollupState state = new ScheduleRollupState();
+                state.setRolledUpBefore(firstWeekStart);
+                stateRepository.save(state);
+            }
+        });
+
+        int weeks = 0;
+        for (; !weekStart.isAfter(lastWeekStart); weekStart = weekStart.plusWeeks(1)) {
+            LocalDate week = weekStart;
+            transactionTemplate.executeWithoutResult(status -> {
+                ScheduleRollupState state = stateRepository.findForUpdate().orElseThrow();
+                rollUpWeek(week);
+                state.setRolledUpBefore(week.plusWeeks(1));
+            });
+            weeks++;
+        }
+        if (weeks > 0) {
+            scheduleVersionService.markAllChanged();
+        }
+        return weeks;
+    }
+
+    /**
+     * Deletes schedules of rolled up weeks which end before the week of {@code date}.
+     *
+     * @return number of deleted schedules
+     */
+    public int pruneSchedulesBefore(LocalDate date) {
+        Integer deleted = transactionTemplate.execute(status -> {
+            ScheduleRollupState state = stateRepository.findForUpdate().orElse(null);
+            if (state == null) {
+                return 0;
+            }
+            LocalDate prunedBefore = getWeekStart(date);
+            if (state.getRolledUpBefore().isBefore(prunedBefore)) {
+                prunedBefore = state.getRolledUpBefore();
+            }
+            if (state.getPrunedBefore() != null && !state.getPrunedBefore().isBefore(prunedBefore)) {
+                return 0;
+            }
+
+            Optional<LocalDate> earliestDate = scheduleRepository.findEarliestDate();
+            int count = 0;
+            if (earliestDate.isPresent() && earliestDate.get().isBefore(prunedBefore)) {
+                count = scheduleRepository.deleteAllByDateBetween(earliestDate.get(), prunedBefore.minusDays(1));
+            }
+            state.setPrunedBefore(prunedBefore);
+            stateRepository.save(state);
+            return count;
+        });
+        if (deleted != null && deleted > 0) {
+            scheduleVersionService.markAllChanged();
+        }
+        return deleted == null ? 0 : deleted;
+    }
+
+    /**
+     * Applies a change of schedules of rolled up weeks to their roll-ups, in the transaction of the change. A change
+     * made outside of a transaction is applied in a transaction of its own right after it.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onScheduleChange(ScheduleChangeEvent event) {
+        // Only weeks which have ended are rolled up, so changes of later ones never need the lock
+        if (!event.from().isBefore(getWeekStart(LocalDate.now()))) {
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            ScheduleRollupState state = stateRepository.findForUpdate().orElse(null);
+            if (state == null || !event.from().isBefore(state.getRolledUpBefore())) {
+                return;
+            }
+
+            LocalDate lastChangedDate = event.to().isBefore(state.getRolledUpBefore()) ? event.to() : state.getRolledUpBefore().minusDays(1);
+            LocalDate lastWeekStart = getWeekStart(lastChangedDate);
+            for (LocalDate weekStart = getWeekStart(event.from()); !weekStart.isAfter(lastWeekStart); weekStart = weekStart.plusWeeks(1)) {
+                // Roll-ups of pruned weeks are all that is left of them, they must not be recounted from schedules
+                if (state.getPrunedBefore() == null || !weekStart.isBefore(state.getPrunedBefore())) {
+                    rollUpWeek(weekStart);
+                }
+            }
+        });
+    }
+
+    /**
+     * Replaces the roll-ups of the week with counts of its schedules.
+     */
+    private void rollUpWeek(LocalDate weekStart) {
+        rollupRepository.deleteByWeekStart(weekStart);
+
+        Map<RollupKey, ScheduleWeeklyRollup> rollups = new HashMap<>();
+        for (DailyAssignmentsCount dailyCount : scheduleRepository.countAssignmentsPerUserTaskAndDayInPeriod(weekStart, weekStart.plusDays(6))) {
+            ScheduleWeeklyRollup rollup = rollups.computeIfAbsent(new RollupKey(dailyCount.userId(), dailyCount.taskId()),
+                    key -> new ScheduleWeeklyRollup(userRepository.getReferenceById(key.userId()),
+                            taskRepository.getReferenceById(key.taskId()), weekStart));
+            rollup.addDay(dailyCount.date());
+            rollup.setCount(rollup.getCount() + (int) dailyCount.assignmentsCount());
+        }
+        rollupRepository.saveAll(rollups.values());
+    }
+
+    private LocalDate getWeekStart(LocalDate date) {
+        return DateValidator.getWeekBoundaries(date).get("startWeek");
+    }
+
+    private record RollupKey(Long userId, Long taskId) {
+    }
+
+    private record CachedBoundary(long globalVersion, LocalDate rolledUpBefore, LocalDate prunedBefore) {
+    }
+}
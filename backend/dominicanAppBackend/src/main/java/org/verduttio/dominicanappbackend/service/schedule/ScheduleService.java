@@ -1,33 +1,48 @@
 package org.verduttio.dominicanappbackend.service.schedule;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.verduttio.dominicanappbackend.changefeed.ScheduleChangeEvent;
 import org.verduttio.dominicanappbackend.domain.*;
 import org.verduttio.dominicanappbackend.dto.schedule.*;
 import org.verduttio.dominicanappbackend.dto.user.*;
 import org.verduttio.dominicanappbackend.dto.user.scheduleInfo.UserTaskScheduleInfo;
 import org.verduttio.dominicanappbackend.dto.user.scheduleInfo.UserTasksScheduleInfoWeekly;
 import org.verduttio.dominicanappbackend.dto.user.scheduleInfo.UserTasksScheduleInfoWeeklyByAllDays;
+import org.verduttio.dominicanappbackend.journal.ScheduleJournal;
+import org.verduttio.dominicanappbackend.journal.ScheduleProjectionRunner;
+import org.verduttio.dominicanappbackend.journal.UserTaskStatisticsProjection;
 import org.verduttio.dominicanappbackend.repository.ScheduleRepository;
 import org.verduttio.dominicanappbackend.repository.SpecialDateRepository;
 import org.verduttio.dominicanappbackend.repository.TaskRepository;
+import org.verduttio.dominicanappbackend.repository.UserTaskAssignmentStatsRepository;
 import org.verduttio.dominicanappbackend.service.*;
 import org.verduttio.dominicanappbackend.service.exception.EntityAlreadyExistsException;
 import org.verduttio.dominicanappbackend.service.exception.EntityNotFoundException;
 import org.verduttio.dominicanappbackend.service.exception.RoleNotMeetRequirementsException;
 import org.verduttio.dominicanappbackend.service.exception.ScheduleIsInConflictException;
+import org.verduttio.dominicanappbackend.util.DaysOfWeekMask;
+import org.verduttio.dominicanappbackend.util.OccurrenceLabelFormatter;
 import org.verduttio.dominicanappbackend.validation.DateValidator;
 
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
-import java.util.function.BinaryOperator;
 import java.util.stream.Collectors;
 
 @Service
 public class ScheduleService {
 
+    private static final Comparator<Task> TASK_ORDER_COMPARATOR = Comparator
+            .comparing((Task t) -> t.getSupervisorRole().getSortOrder())
+            .thenComparing(Task::getSortOrder);
+    private static final Comparator<User> USER_NAME_COMPARATOR = Comparator
+            .comparing(User::getName)
+            .thenComparing(User::getSurname);
+
     private final ScheduleRepository scheduleRepository;
     private final UserService userService;
     private final TaskService taskService;
@@ -38,10 +53,23 @@ public class ScheduleService {
     private final TaskRepository taskRepository;
     private final ScheduleGenerator scheduleGenerator;
     private final ScheduleCleaner scheduleCleaner;
+    private final ScheduleVersionService scheduleVersionService;
+    private final RoleEligibilityIndex roleEligibilityIndex;
+    private final ScheduleRollupService scheduleRollupService;
+    private final ScheduleSlotService scheduleSlotService;
+    private final ScheduleJournal scheduleJournal;
+    private final ScheduleProjectionRunner scheduleProjectionRunner;
+    private final UserTaskAssignmentStatsRepository userTaskAssignmentStatsRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
     public ScheduleService(ScheduleRepository scheduleRepository, UserService userService, TaskService taskService, RoleService roleService, ObstacleService obstacleService, ConflictService conflictService, SpecialDateRepository specialDateRepository,
-                           TaskRepository taskRepository, ScheduleGenerator scheduleGenerator, ScheduleCleaner scheduleCleaner) {
+                           TaskRepository taskRepository, ScheduleGenerator scheduleGenerator, ScheduleCleaner scheduleCleaner,
+                           ScheduleVersionService scheduleVersionService, RoleEligibilityIndex roleEligibilityIndex,
+                           ScheduleRollupService scheduleRollupService, ScheduleSlotService scheduleSlotService,
+                           ScheduleJournal scheduleJournal, ScheduleProjectionRunner scheduleProjectionRunner,
+                           UserTaskAssignmentStatsRepository userTaskAssignmentStatsRepository,
+                           ApplicationEventPublisher eventPublisher) {
         this.scheduleRepository = scheduleRepository;
         this.userService = userService;
         this.taskService = taskService;
@@ -52,6 +80,14 @@ public class ScheduleService {
         this.taskRepository = taskRepository;
         this.scheduleGenerator = scheduleGenerator;
         this.scheduleCleaner = scheduleCleaner;
+        this.scheduleVersionService = scheduleVersionService;
+        this.roleEligibilityIndex = roleEligibilityIndex;
+        this.scheduleRollupService = scheduleRollupService;
+        this.scheduleSlotService = scheduleSlotService;
+        this.scheduleJournal = scheduleJournal;
+        this.scheduleProjectionRunner = scheduleProjectionRunner;
+        this.userTaskAssignmentStatsRepository = userTaskAssignmentStatsRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<Schedule> getAllSchedules() {
@@ -72,39 +108,31 @@ public class ScheduleService {
         Task task = taskService.getTaskById(addScheduleDTO.getTaskId()).get();
         User user = userService.getUserById(addScheduleDTO.getUserId()).get();
 
+        List<LocalDate> dates = new ArrayList<>();
         LocalDate date = from;
         while(date.isBefore(to) || date.isEqual(to)) {
             if (specialDateRepository.existsByTypeAndDate(SpecialDateType.FEAST, date)) {
                 if (task.getDaysOfWeek().contains(DayOfWeek.SUNDAY)) {
                     //If the task for example does not occur on date.getDayOfWeek() but occurs on Sunday
                     // then we can assign the task on the feast day
-                    Schedule schedule = new Schedule();
-                    schedule.setTask(task);
-                    schedule.setUser(user);
-                    schedule.setDate(date);
-                    scheduleRepository.save(schedule);
+                    dates.add(date);
                 } else if (task.getDaysOfWeek().contains(date.getDayOfWeek())) {
                     // If the task occurs on date.getDayOfWeek() then we can assign the task on the feast day,
                     // even if the task does not occur on Sunday
-                    Schedule schedule = new Schedule();
-                    schedule.setTask(task);
-                    schedule.setUser(user);
-                    schedule.setDate(date);
-                    scheduleRepository.save(schedule);
+                    dates.add(date);
                 }
             } else {
                 if (task.getDaysOfWeek().contains(date.getDayOfWeek())) {
-                    Schedule schedule = new Schedule();
-                    schedule.setTask(task);
-                    schedule.setUser(user);
-                    schedule.setDate(date);
-                    scheduleRepository.save(schedule);
+                    dates.add(date);
                 }
             }
 
             date = date.plusDays(1);
         }
+        scheduleSlotService.assign(task, user, dates);
 
+        scheduleVersionService.markRangeChanged(from, to);
+        eventPublisher.publishEvent(new ScheduleChangeEvent(from, to, user.getId(), task.getSupervisorRole().getId()));
     }
 
     @SuppressWarnings("OptionalGetWithoutIsPresent")
@@ -115,20 +143,34 @@ public class ScheduleService {
 
         validateAddScheduleForDailyPeriodTask(addScheduleDTO, ignoreConflicts, weekStartDate, weekEndDate, taskDate);
 
-        Schedule schedule = new Schedule();
-        schedule.setTask(taskService.getTaskById(addScheduleDTO.getTaskId()).get());
-        schedule.setUser(userService.getUserById(addScheduleDTO.getUserId()).get());
-        schedule.setDate(taskDate);
-        scheduleRepository.save(schedule);
+        Task task = taskService.getTaskById(addScheduleDTO.getTaskId()).get();
+        User user = userService.getUserById(addScheduleDTO.getUserId()).get();
+        scheduleSlotService.assign(task, user, List.of(taskDate));
+        scheduleVersionService.markDateChanged(taskDate);
+        eventPublisher.publishEvent(new ScheduleChangeEvent(taskDate, taskDate, user.getId(), task.getSupervisorRole().getId()));
     }
 
+    @Transactional
     public void updateSchedule(Long scheduleId, ScheduleDTO updatedScheduleDTO, boolean ignoreConflicts) {
         checkIfScheduleExists(scheduleId);
         validateSchedule(updatedScheduleDTO, ignoreConflicts);
+        Optional<Schedule> previousSchedule = scheduleRepository.findById(scheduleId);
+        Optional<LocalDate> previousDate = previousSchedule.map(Schedule::getDate);
+        previousSchedule.ifPresent(previous -> scheduleJournal.record(ScheduleEventType.UNASSIGNED, previous));
 
         Schedule schedule = updatedScheduleDTO.toSchedule();
         schedule.setId(scheduleId);
+        schedule.setTask(taskService.getTaskById(updatedScheduleDTO.getTaskId()).orElseThrow(() ->
+                new EntityNotFoundException("Task with given id does not exist")));
+        scheduleSlotService.reserve(List.of(schedule), previousSchedule.map(List::of).orElse(List.of()));
         scheduleRepository.save(schedule);
+        scheduleJournal.record(ScheduleEventType.ASSIGNED, schedule);
+        scheduleVersionService.markDateChanged(schedule.getDate());
+        eventPublisher.publishEvent(new ScheduleChangeEvent(schedule.getDate(), schedule.getDate(), updatedScheduleDTO.getUserId(), null));
+        if (previousDate.isPresent() && !previousDate.get().equals(schedule.getDate())) {
+            scheduleVersionService.markDateChanged(previousDate.get());
+            eventPublisher.publishEvent(ScheduleChangeEvent.ofRange(previousDate.get(), previousDate.get()));
+        }
     }
 
     public boolean existsById(Long scheduleId) {
@@ -144,13 +186,14 @@ public class ScheduleService {
 
     public List<Task> getAvailableTasks(LocalDate from, LocalDate to) {
         List<Task> allTasks = taskService.getAllTasks();
-        List<Schedule> schedulesInPeriod = scheduleRepository.findByDateBetweenOrderByTask_SupervisorRole_SortOrderAscTask_SortOrderAsc(from, to);
+        List<TaskAssignmentsCount> assignmentsCounts = scheduleRepository.countAssignmentsPerTaskInPeriod(from, to);
 
-        return getNotFullyAssignedTasks(allTasks, schedulesInPeriod);
+        return getNotFullyAssignedTasks(allTasks, assignmentsCounts);
     }
 
     public List<Schedule> getAllSchedulesForUserInSpecifiedWeek(Long userId, LocalDate from, LocalDate to) {
-        return scheduleRepository.findByUserIdAndDateBetweenOrderByTask_SupervisorRole_SortOrderAscTask_SortOrderAsc(userId, from, to);
+        return withPrunedSchedules(scheduleRepository.findByUserIdAndDateBetweenOrderByTask_SupervisorRole_SortOrderAscTask_SortOrderAsc(userId, from, to),
+                userId, null, from, to);
     }
 
     public List<Task> getAvailableTasksBySupervisorRole(String supervisor, LocalDate from, LocalDate to) {
@@ -158,14 +201,17 @@ public class ScheduleService {
                 .orElseThrow(() -> new EntityNotFoundException("Supervisor role not found or not a supervisor"));
 
         List<Task> allTasks = taskService.findTasksBySupervisorRoleName(supervisorRole.getName());
-        List<Schedule> schedulesInPeriod = scheduleRepository.findByDateBetweenOrderByTask_SupervisorRole_SortOrderAscTask_SortOrderAsc(from, to);
+        List<TaskAssignmentsCount> assignmentsCounts =
+                scheduleRepository.countAssignmentsPerTaskOfSupervisorRoleInPeriod(supervisorRole.getId(), from, to);
 
-        return getNotFullyAssignedTasks(allTasks, schedulesInPeriod);
+        return getNotFullyAssignedTasks(allTasks, assignmentsCounts);
     }
 
-    private List<Task> getNotFullyAssignedTasks(List<Task> allTasks, List<Schedule> schedulesInPeriod) {
-        Map<Long, Long> taskOccurrences = schedulesInPeriod.stream()
-                .collect(Collectors.groupingBy(schedule -> schedule.getTask().getId(), Collectors.counting()));
+    private List<Task> getNotFullyAssignedTasks(List<Task> allTasks, List<TaskAssignmentsCount> assignmentsCounts) {
+        Map<Long, Long> taskOccurrences = new HashMap<>();
+        for (TaskAssignmentsCount assignmentsCount : assignmentsCounts) {
+            taskOccurrences.put(assignmentsCount.taskId(), assignmentsCount.assignmentsCount());
+        }
 
         return allTasks.stream().filter(task -> {
             Long occurrences = taskOccurrences.getOrDefault(task.getId(), 0L);
@@ -202,82 +248,27 @@ public class ScheduleService {
 
     private long getNumberOfTaskCompletionByUserFromStatsDate(long userId, long taskId, LocalDate to) {
         LocalDate statsDate = specialDateRepository.findByType(SpecialDateType.STATS).getFirst().getDate();
-        return scheduleRepository.countByUserIdAndTaskIdInLastNDays(userId, taskId, statsDate, to);
+        return scheduleRollupService.countAssignments(userId, taskId, statsDate, to);
     }
 
     public List<String> createInfoStringsOfTasksOccurrenceFromGivenSchedule(List<Schedule> schedules, boolean weekWithFeast) {
-        schedules = schedules.stream().filter(s -> s.getTask().getSupervisorRole().isAreTasksVisibleInPrints()).toList();
-
         // If task appears in the list n times, where n is the task occurrence in the week,
         // then it will be converted to "task.name" only string.
         // If task appears less than n times, then it will be converted to "task.name (P, W, Ś)" string,
         // where P, W, Ś are the days of the week when the task occurs.
+        Map<Task, Integer> taskDaysMasks = new HashMap<>();
+        for (Schedule schedule : schedules) {
+            if (schedule.getTask().getSupervisorRole().isAreTasksVisibleInPrints()) {
+                taskDaysMasks.merge(schedule.getTask(), DaysOfWeekMask.dayBit(schedule.getDate().getDayOfWeek()), (a, b) -> a | b);
+            }
+        }
 
-        // Possible days of the week
-        // Dictionary of DayOfWeek enum and its abbreviation in polish
-        Map<DayOfWeek, String> dayOfWeekAbbreviations = Map.of(
-                DayOfWeek.SUNDAY, "Nd",
-                DayOfWeek.MONDAY, "Pn",
-                DayOfWeek.TUESDAY, "Wt",
-                DayOfWeek.WEDNESDAY, "Śr",
-                DayOfWeek.THURSDAY, "Cz",
-                DayOfWeek.FRIDAY, "Pt",
-                DayOfWeek.SATURDAY, "So"
-        );
-
-        // Create a map of tasks and their DaysOfWeek assigns from task.date
-        // Example: {task: [MONDAY, WEDNESDAY, FRIDAY], task2: [TUESDAY, THURSDAY]}
-        Map<Task, Set<DayOfWeek>> taskDaysWhenItIsAssignedInSchedule = schedules.stream()
-                .collect(Collectors.groupingBy(Schedule::getTask, Collectors.mapping(
-                        schedule -> schedule.getDate().getDayOfWeek(),
-                        Collectors.collectingAndThen(
-                                Collectors.toList(),
-                                list -> {
-                                    Collections.sort(list);
-                                    return new LinkedHashSet<>(list);
-                                })
-                )));
-
-
-        return taskDaysWhenItIsAssignedInSchedule.entrySet().stream()
-                .sorted(Map.Entry.comparingByKey(
-                        Comparator.comparing((Task t) -> t.getSupervisorRole().getSortOrder())
-                                .thenComparing(Task::getSortOrder)
-                ))
-                .map(entry -> {
-                    Task task = entry.getKey();
-                    Set<DayOfWeek> occurrences = entry.getValue();
-
-                    // SUNDAY, MONDAY, ..., SATURDAY order
-                    Comparator<DayOfWeek> customOrderComparator = Comparator
-                            .comparingInt(day -> (day.getValue() % DayOfWeek.values().length));
-
-                    // If there is any feast in the week,
-                    // then the string should be: task.name (days of week when assign)
-                    // even if the task occurs on all days of the week.
-                    if (weekWithFeast) {
-                        String daysOfWeekString = occurrences.stream().sorted(customOrderComparator)
-                                .map(dayOfWeekAbbreviations::get)
-                                .collect(Collectors.joining(", "));
-                        return task.getNameAbbrev() + " (" + daysOfWeekString + ")";
-                    }
-
-
-                    if (occurrences.size() < task.getDaysOfWeek().size()) {
-                        String daysOfWeekString = occurrences.stream().sorted(customOrderComparator)
-                                .map(dayOfWeekAbbreviations::get)
-                                .collect(Collectors.joining(", "));
-                        return task.getNameAbbrev() + " (" + daysOfWeekString + ")";
-                    } else {
-                        return task.getNameAbbrev();
-                    }
-                })
-                .collect(Collectors.toList());
+        return createTasksInfoStrings(taskDaysMasks, weekWithFeast);
     }
 
     public Optional<LocalDate> getLastTaskCompletionDateForUserFromStatsDate(Long userId, Long taskId, LocalDate upToDate) {
         LocalDate statsDate = specialDateRepository.findByType(SpecialDateType.STATS).getFirst().getDate();
-        Optional<LocalDate> date = scheduleRepository.findLatestTaskCompletionDateByUserIdAndTaskId(userId, taskId, upToDate);
+        Optional<LocalDate> date = scheduleRollupService.findLatestAssignmentDate(userId, taskId, upToDate);
         if(date.isPresent()) {
             if(date.get().isAfter(statsDate) || date.get().equals(statsDate)) {
                 return date;
@@ -290,7 +281,24 @@ public class ScheduleService {
     }
 
     public List<Schedule> getSchedulesByUserIdAndDateBetween(Long userId, LocalDate from, LocalDate to) {
-        return scheduleRepository.findByUserIdAndDateBetweenOrderByTask_SupervisorRole_SortOrderAscTask_SortOrderAsc(userId, from, to);
+        return withPrunedSchedules(scheduleRepository.findByUserIdAndDateBetweenOrderByTask_SupervisorRole_SortOrderAscTask_SortOrderAsc(userId, from, to),
+                userId, null, from, to);
+    }
+
+    /**
+     * Adds schedules of pruned weeks, restored from their roll-ups, keeping the order of supervisor roles and tasks.
+     */
+    private List<Schedule> withPrunedSchedules(List<Schedule> schedules, Long userId, Long taskId, LocalDate from, LocalDate to) {
+        List<Schedule> prunedSchedules = scheduleRollupService.restorePrunedSchedules(userId, taskId, from, to);
+        if (prunedSchedules.isEmpty()) {
+            return schedules;
+        }
+
+        List<Schedule> allSchedules = new ArrayList<>(prunedSchedules);
+        allSchedules.addAll(schedules);
+        allSchedules.sort(Comparator.comparing((Schedule schedule) -> schedule.getTask().getSupervisorRole().getSortOrder(), Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(schedule -> schedule.getTask().getSortOrder(), Comparator.nullsLast(Comparator.naturalOrder())));
+        return allSchedules;
     }
 
     private List<Task> getTasksFromSchedules(List<Schedule> schedules) {
@@ -389,10 +397,7 @@ public class ScheduleService {
 
 
     public boolean userHasAllowedRoleForTask(User user, Task task) {
-        Set<String> userRoleNames = user.getRoles().stream().map(Role::getName).collect(Collectors.toSet());
-        Set<String> allowedRoleNames = task.getAllowedRoles().stream().map(Role::getName).collect(Collectors.toSet());
-
-        return !Collections.disjoint(userRoleNames, allowedRoleNames);
+        return roleEligibilityIndex.userHasAllowedRoleForTask(user, task);
     }
 
     public void checkIfScheduleExists(Long scheduleId) {
@@ -496,6 +501,9 @@ public class ScheduleService {
 
     public void save(Schedule existingSchedule) {
         scheduleRepository.save(existingSchedule);
+        scheduleVersionService.markDateChanged(existingSchedule.getDate());
+        eventPublisher.publishEvent(new ScheduleChangeEvent(existingSchedule.getDate(), existingSchedule.getDate(),
+                existingSchedule.getUser().getId(), null));
     }
 
     public List<Schedule> getAllSchedulesByUserIdForSpecifiedWeek(Long userId, LocalDate from, LocalDate to) {
@@ -518,6 +526,7 @@ public class ScheduleService {
         return getAllSchedulesForUserInSpecifiedWeek(userId, from, to);
     }
 
+    @Transactional(readOnly = true)
     public List<ScheduleShortInfoForUser> getScheduleShortInfoForAllowedUsersForSpecifiedWeek(LocalDate from, LocalDate to) {
         if(!DateValidator.isStartDateMax6daysBeforeEndDate(from, to)) {
             throw new IllegalArgumentException(DateValidator.isStartDateMax6daysBeforeEndDateError);
@@ -531,6 +540,7 @@ public class ScheduleService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public List<GroupedTasksByRolesInScheduleInfoForUser> getGroupedTasksByRolesInScheduleInfoForAllowedUsersForSpecifiedWeek(LocalDate from, LocalDate to) {
         if(!DateValidator.isStartDateMax6daysBeforeEndDate(from, to)) {
             throw new IllegalArgumentException(DateValidator.isStartDateMax6daysBeforeEndDateError);
@@ -567,6 +577,7 @@ public class ScheduleService {
     }
 
     //TODO: Optimise this method
+    @Transactional
     public void deleteScheduleForWholePeriodTask(AddScheduleForWholePeriodTaskDTO addScheduleForWholePeriodTaskDTO) {
         LocalDate from = addScheduleForWholePeriodTaskDTO.getFromDate();
         LocalDate to = addScheduleForWholePeriodTaskDTO.getToDate();
@@ -587,12 +598,16 @@ public class ScheduleService {
 
         schedules.forEach(schedule -> {
             if(schedule.getTask().getId().equals(addScheduleForWholePeriodTaskDTO.getTaskId())) {
+                scheduleJournal.record(ScheduleEventType.UNASSIGNED, schedule);
                 scheduleRepository.deleteById(schedule.getId());
             }
         });
+        scheduleVersionService.markRangeChanged(from, to);
+        eventPublisher.publishEvent(new ScheduleChangeEvent(from, to, addScheduleForWholePeriodTaskDTO.getUserId(), null));
     }
 
     //TODO: Optimise this method
+    @Transactional
     public void deleteScheduleForDailyPeriodTask(AddScheduleForDailyPeriodTaskDTO addScheduleForDailyPeriodTaskDTO) {
         LocalDate weekStartDate = addScheduleForDailyPeriodTaskDTO.getWeekStartDate();
         LocalDate weekEndDate = addScheduleForDailyPeriodTaskDTO.getWeekEndDate();
@@ -615,9 +630,12 @@ public class ScheduleService {
 
         schedules.forEach(schedule -> {
             if(schedule.getDate().equals(taskDate) && schedule.getTask().getId().equals(addScheduleForDailyPeriodTaskDTO.getTaskId())) {
+                scheduleJournal.record(ScheduleEventType.UNASSIGNED, schedule);
                 scheduleRepository.deleteById(schedule.getId());
             }
         });
+        scheduleVersionService.markDateChanged(taskDate);
+        eventPublisher.publishEvent(new ScheduleChangeEvent(taskDate, taskDate, addScheduleForDailyPeriodTaskDTO.getUserId(), null));
     }
 
     public List<Schedule> getAllSchedulesForTaskForSpecifiedWeek(Long taskId, LocalDate from, LocalDate to) {
@@ -629,30 +647,35 @@ public class ScheduleService {
             throw new EntityNotFoundException("Task with given id does not exist");
         }
 
-        return scheduleRepository.findByTaskIdAndDateBetweenOrderByTask_SupervisorRole_SortOrderAscTask_SortOrderAsc(taskId, from, to);
+        return withPrunedSchedules(scheduleRepository.findByTaskIdAndDateBetweenOrderByTask_SupervisorRole_SortOrderAscTask_SortOrderAsc(taskId, from, to),
+                null, taskId, from, to);
     }
 
+    @Transactional(readOnly = true)
     public List<ScheduleShortInfoForTask> getScheduleShortInfoForEachTaskForSpecifiedWeek(LocalDate from, LocalDate to) {
         if(!DateValidator.isStartDateMax6daysBeforeEndDate(from, to)) {
             throw new IllegalArgumentException(DateValidator.isStartDateMax6daysBeforeEndDateError);
         }
 
         List<Task> tasks = taskService.getAllTasks();
+        List<Schedule> schedules = withPrunedSchedules(scheduleRepository.findWithUsersByDateBetween(from, to), null, null, from, to);
         boolean weekWithFeast = specialDateRepository.existsByTypeAndDateBetween(SpecialDateType.FEAST, from, to);
-        return tasks.stream()
-                .map(task -> createScheduleShortInfoForTask(task.getId(), from, to, weekWithFeast))
-                .collect(Collectors.toList());
+        return createScheduleShortInfoForTasks(tasks, schedules, weekWithFeast);
     }
 
-    private ScheduleShortInfoForTask createScheduleShortInfoForTask(Long taskId, LocalDate from, LocalDate to, boolean weekWithFeast) {
-        Task task = taskService.getTaskById(taskId).orElseThrow(() ->
-                new EntityNotFoundException("Task with given id does not exist"));
-
-        List<Schedule> schedules = getAllSchedulesForTaskForSpecifiedWeek(taskId, from, to);
-
-        List<String> usersInfoStrings = createInfoStringsOfUsersOccurrenceFromGivenSchedule(schedules, task.getDaysOfWeek().size(), weekWithFeast);
+    private List<ScheduleShortInfoForTask> createScheduleShortInfoForTasks(List<Task> tasks, List<Schedule> schedules, boolean weekWithFeast) {
+        Map<Long, List<Schedule>> schedulesByTaskId = new HashMap<>();
+        for (Schedule schedule : schedules) {
+            schedulesByTaskId.computeIfAbsent(schedule.getTask().getId(), taskId -> new ArrayList<>()).add(schedule);
+        }
 
-        return new ScheduleShortInfoForTask(taskId, task.getName(), usersInfoStrings);
+        List<ScheduleShortInfoForTask> scheduleShortInfos = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            List<Schedule> taskSchedules = schedulesByTaskId.getOrDefault(task.getId(), List.of());
+            List<String> usersInfoStrings = createInfoStringsOfUsersOccurrenceFromGivenSchedule(taskSchedules, task.getDaysOfWeek().size(), weekWithFeast);
+            scheduleShortInfos.add(new ScheduleShortInfoForTask(task.getId(), task.getName(), usersInfoStrings));
+        }
+        return scheduleShortInfos;
     }
 
     private List<String> createInfoStringsOfUsersOccurrenceFromGivenSchedule(List<Schedule> schedules, int taskDaysOfWeekCount, boolean weekWithFeast) {
@@ -660,138 +683,55 @@ public class ScheduleService {
         // then it will be converted to "user.name user.surname" only string.
         // If user appears less than n times, then it will be converted to "user.name user.surname (P, W, Ś)" string,
         // where P, W, Ś are the days of the week when the user occurs.
+        Map<User, Integer> userDaysMasks = new HashMap<>();
+        for (Schedule schedule : schedules) {
+            userDaysMasks.merge(schedule.getUser(), DaysOfWeekMask.dayBit(schedule.getDate().getDayOfWeek()), (a, b) -> a | b);
+        }
 
-        // Possible days of the week
-        // Dictionary of DayOfWeek enum and its abbreviation in polish
-        Map<DayOfWeek, String> dayOfWeekAbbreviations = Map.of(
-                DayOfWeek.SUNDAY, "Nd",
-                DayOfWeek.MONDAY, "Pn",
-                DayOfWeek.TUESDAY, "Wt",
-                DayOfWeek.WEDNESDAY, "Śr",
-                DayOfWeek.THURSDAY, "Cz",
-                DayOfWeek.FRIDAY, "Pt",
-                DayOfWeek.SATURDAY, "So"
-        );
+        List<Map.Entry<User, Integer>> entries = new ArrayList<>(userDaysMasks.entrySet());
+        entries.sort(Map.Entry.comparingByKey(USER_NAME_COMPARATOR));
 
-        // Create a map of users and their DaysOfWeek assigns from schedule.date
-        // Example: {user: [MONDAY, WEDNESDAY, FRIDAY], user2: [TUESDAY, THURSDAY]}
-        Map<User, Set<DayOfWeek>> userDaysWhenItIsAssignedInSchedule = schedules.stream()
-                .collect(Collectors.groupingBy(Schedule::getUser, Collectors.mapping(
-                        schedule -> schedule.getDate().getDayOfWeek(),
-                        Collectors.collectingAndThen(
-                                Collectors.toList(),
-                                list -> {
-                                    Collections.sort(list);
-                                    return new LinkedHashSet<>(list);
-                                })
-                )));
-
-        return userDaysWhenItIsAssignedInSchedule.entrySet().stream()
-                .sorted(Map.Entry.comparingByKey(Comparator.comparing(User::getName).thenComparing(User::getSurname)))
-                .map(entry -> {
-                    User user = entry.getKey();
-                    Set<DayOfWeek> occurrences = entry.getValue();
-
-                    // SUNDAY, MONDAY, ..., SATURDAY order
-                    Comparator<DayOfWeek> customOrderComparator = Comparator
-                            .comparingInt(day -> (day.getValue() % DayOfWeek.values().length));
-                    if (weekWithFeast) {
-                        String daysOfWeekString = occurrences.stream().sorted(customOrderComparator)
-                                .map(dayOfWeekAbbreviations::get)
-                                .collect(Collectors.joining(", "));
-                        return user.getName() + " " + user.getSurname() + " (" + daysOfWeekString + ")";
-                    }
-
-
-                    if (occurrences.size() < taskDaysOfWeekCount) {
-                        String daysOfWeekString = occurrences.stream().sorted(customOrderComparator)
-                                .map(dayOfWeekAbbreviations::get)
-                                .collect(Collectors.joining(", "));
-                        return user.getName() + " " + user.getSurname() + " (" + daysOfWeekString + ")";
-                    } else {
-                        return user.getName() + " " + user.getSurname();
-                    }
-                })
-                .collect(Collectors.toList());
+        List<String> infoStrings = new ArrayList<>(entries.size());
+        for (Map.Entry<User, Integer> entry : entries) {
+            User user = entry.getKey();
+            infoStrings.add(OccurrenceLabelFormatter.format(user.getName() + " " + user.getSurname(), entry.getValue(),
+                    taskDaysOfWeekCount, weekWithFeast));
+        }
+        return infoStrings;
     }
 
     public Map<String, List<String>> createGroupedTasksInfoStringsOfTasksOccurrenceFromGivenSchedule(List<Schedule> schedules, boolean weekWithFeast) {
-        schedules = schedules.stream().filter(s -> s.getTask().getSupervisorRole().isAreTasksVisibleInPrints()).toList();
-        List<Role> roles = schedules.stream().map(Schedule::getTask).map(Task::getSupervisorRole).distinct().toList();
+        Map<String, Map<Task, Integer>> taskDaysMasksByRole = new HashMap<>();
+        for (Schedule schedule : schedules) {
+            Role supervisorRole = schedule.getTask().getSupervisorRole();
+            if (supervisorRole.isAreTasksVisibleInPrints()) {
+                taskDaysMasksByRole.computeIfAbsent(supervisorRole.getName(), roleName -> new HashMap<>())
+                        .merge(schedule.getTask(), DaysOfWeekMask.dayBit(schedule.getDate().getDayOfWeek()), (a, b) -> a | b);
+            }
+        }
 
         Map<String, List<String>> groupedTasksInfoStrings = new HashMap<>();
-
-        for (Role role: roles) {
-            List<Schedule> filteredSchedules = schedules.stream().filter(s -> s.getTask().getSupervisorRole().equals(role)).toList();
-            // If task appears in the list n times, where n is the task occurrence in the week,
-            // then it will be converted to "task.name" only string.
-            // If task appears less than n times, then it will be converted to "task.name (P, W, Ś)" string,
-            // where P, W, Ś are the days of the week when the task occurs.
-
-            // Possible days of the week
-            // Dictionary of DayOfWeek enum and its abbreviation in polish
-            Map<DayOfWeek, String> dayOfWeekAbbreviations = Map.of(
-                    DayOfWeek.SUNDAY, "Nd",
-                    DayOfWeek.MONDAY, "Pn",
-                    DayOfWeek.TUESDAY, "Wt",
-                    DayOfWeek.WEDNESDAY, "Śr",
-                    DayOfWeek.THURSDAY, "Cz",
-                    DayOfWeek.FRIDAY, "Pt",
-                    DayOfWeek.SATURDAY, "So"
-            );
-
-            // Create a map of tasks and their DaysOfWeek assigns from task.date
-            // Example: {task: [MONDAY, WEDNESDAY, FRIDAY], task2: [TUESDAY, THURSDAY]}
-            Map<Task, Set<DayOfWeek>> taskDaysWhenItIsAssignedInSchedule = filteredSchedules.stream()
-                    .collect(Collectors.groupingBy(Schedule::getTask, Collectors.mapping(
-                            schedule -> schedule.getDate().getDayOfWeek(),
-                            Collectors.collectingAndThen(
-                                    Collectors.toList(),
-                                    list -> {
-                                        Collections.sort(list);
-                                        return new LinkedHashSet<>(list);
-                                    })
-                    )));
-
-
-            groupedTasksInfoStrings.put(role.getName(), taskDaysWhenItIsAssignedInSchedule.entrySet().stream()
-                    .sorted(Map.Entry.comparingByKey(
-                            Comparator.comparing((Task t) -> t.getSupervisorRole().getSortOrder())
-                                    .thenComparing(Task::getSortOrder)
-                    ))
-                    .map(entry -> {
-                        Task task = entry.getKey();
-                        Set<DayOfWeek> occurrences = entry.getValue();
-
-                        // SUNDAY, MONDAY, ..., SATURDAY order
-                        Comparator<DayOfWeek> customOrderComparator = Comparator
-                                .comparingInt(day -> (day.getValue() % DayOfWeek.values().length));
-
-                        // If there is any feast in the week,
-                        // then the string should be: task.name (days of week when assign)
-                        // even if the task occurs on all days of the week.
-                        if (weekWithFeast) {
-                            String daysOfWeekString = occurrences.stream().sorted(customOrderComparator)
-                                    .map(dayOfWeekAbbreviations::get)
-                                    .collect(Collectors.joining(", "));
-                            return task.getNameAbbrev() + " (" + daysOfWeekString + ")";
-                        }
-
-
-                        if (occurrences.size() < task.getDaysOfWeek().size()) {
-                            String daysOfWeekString = occurrences.stream().sorted(customOrderComparator)
-                                    .map(dayOfWeekAbbreviations::get)
-                                    .collect(Collectors.joining(", "));
-                            return task.getNameAbbrev() + " (" + daysOfWeekString + ")";
-                        } else {
-                            return task.getNameAbbrev();
-                        }
-                    })
-                    .collect(Collectors.toList()));
+        for (Map.Entry<String, Map<Task, Integer>> roleTasks : taskDaysMasksByRole.entrySet()) {
+            groupedTasksInfoStrings.put(roleTasks.getKey(), createTasksInfoStrings(roleTasks.getValue(), weekWithFeast));
         }
         return groupedTasksInfoStrings;
     }
 
+    private List<String> createTasksInfoStrings(Map<Task, Integer> taskDaysMasks, boolean weekWithFeast) {
+        List<Map.Entry<Task, Integer>> entries = new ArrayList<>(taskDaysMasks.entrySet());
+        entries.sort(Map.Entry.comparingByKey(TASK_ORDER_COMPARATOR));
+
+        // If there is any feast in the week, then the string should be: task.name (days of week when assign)
+        // even if the task occurs on all days of the week.
+        List<String> infoStrings = new ArrayList<>(entries.size());
+        for (Map.Entry<Task, Integer> entry : entries) {
+            Task task = entry.getKey();
+            infoStrings.add(OccurrenceLabelFormatter.format(task.getNameAbbrev(), entry.getValue(), task.getDaysOfWeek().size(), weekWithFeast));
+        }
+        return infoStrings;
+    }
+
+    @Transactional(readOnly = true)
     public List<ScheduleShortInfoForTask> getScheduleShortInfoForTaskByRoleForSpecifiedWeek(String supervisorRole, LocalDate from, LocalDate to) {
         if(!DateValidator.isStartDateMax6daysBeforeEndDate(from, to)) {
             throw new IllegalArgumentException(DateValidator.isStartDateMax6daysBeforeEndDateError);
@@ -801,47 +741,30 @@ public class ScheduleService {
                 .orElseThrow(() -> new EntityNotFoundException("Supervisor role not found or not a supervisor"));
 
         List<Task> tasks = taskService.findTasksBySupervisorRoleName(role.getName());
+        List<Schedule> schedules = new ArrayList<>(scheduleRepository.findWithUsersBySupervisorRoleIdAndDateBetween(role.getId(), from, to));
+        for (Schedule prunedSchedule : scheduleRollupService.restorePrunedSchedules(null, null, from, to)) {
+            if (role.getId().equals(prunedSchedule.getTask().getSupervisorRole().getId())) {
+                schedules.add(prunedSchedule);
+            }
+        }
         boolean weekWithFeast = specialDateRepository.existsByTypeAndDateBetween(SpecialDateType.FEAST, from, to);
-        return tasks.stream()
-                .map(task -> createScheduleShortInfoForTask(task.getId(), from, to, weekWithFeast))
-                .collect(Collectors.toList());
+        return createScheduleShortInfoForTasks(tasks, schedules, weekWithFeast);
     }
 
+    // Not in a transaction, as the projection is first brought up to date in a transaction of its own
     public List<UserTaskStatisticsDTO> getStatisticsForUserTasks(Long userId) {
-        // Retrieve user
-        User user = userService.getUserById(userId)
-                .orElseThrow(() -> new EntityNotFoundException("User with given id does not exist"));
-
-        // Retrieve all schedules for the user
-        List<Schedule> schedules = getAllSchedulesByUserId(userId);
-
-        // Retrieve the special stats date once
-        LocalDate statsDate = specialDateRepository.findByType(SpecialDateType.STATS)
-                .getFirst()
-                .getDate();
-
-        // Filter schedules from stats date
-        List<Schedule> schedulesFromStatsDate = schedules.stream()
-                .filter(schedule -> !schedule.getDate().isBefore(statsDate))
-                .collect(Collectors.toList());
+        if (!userService.existsById(userId)) {
+            throw new EntityNotFoundException("User with given id does not exist");
+        }
 
-        // Map of last assignment dates
-        Map<Task, LocalDate> lastAssignmentDateMap = schedulesFromStatsDate.stream()
-                .collect(Collectors.toMap(
-                        Schedule::getTask,
-                        Schedule::getDate,
-                        BinaryOperator.maxBy(LocalDate::compareTo)));
-
-        // Count occurrences
-        Map<Task, Long> taskOccurrencesFromStatsDate = countTaskOccurrences(schedulesFromStatsDate);
-        Map<Task, Long> taskOccurrencesAllTime = countTaskOccurrences(schedules);
-
-        // Build statistics
-        List<UserTaskStatistic> statistics = taskOccurrencesAllTime.keySet().stream()
-                .map(task -> new UserTaskStatistic.Builder(task)
-                        .lastAssignmentDate(lastAssignmentDateMap.get(task))
-                        .occurrencesFromStatsDate(taskOccurrencesFromStatsDate.getOrDefault(task, 0L))
-                        .occurrencesAllTime(taskOccurrencesAllTime.get(task))
+        // Counted from the schedule journal, so assignments of weeks pruned since it was added (V11) are included too;
+        // weeks pruned before that were not copied into it and are not counted
+        scheduleProjectionRunner.catchUp(UserTaskStatisticsProjection.NAME);
+        List<UserTaskStatistic> statistics = userTaskAssignmentStatsRepository.findByUserIdAndOccurrencesAllTimeGreaterThan(userId, 0).stream()
+                .map(stats -> new UserTaskStatistic.Builder(stats.getTask())
+                        .lastAssignmentDate(stats.getLastAssignmentDate())
+                        .occurrencesFromStatsDate(stats.getOccurrencesFromStatsDate())
+                        .occurrencesAllTime(stats.getOccurrencesAllTime())
                         .build())
                 .collect(Collectors.toList());
 
@@ -854,13 +777,6 @@ public class ScheduleService {
                 .collect(Collectors.toList());
     }
 
-    private Map<Task, Long> countTaskOccurrences(List<Schedule> schedules) {
-        return schedules.stream()
-                .collect(Collectors.groupingBy(
-                        Schedule::getTask,
-                        Collectors.counting()));
-    }
-
     private List<UserTaskStatistic> sortStatistics(List<UserTaskStatistic> statistics) {
         List<Task> orderedTasks = taskRepository.findAllTasksOrderBySupervisorRoleSortOrderAndTaskSortOrder();
         Map<String, Integer> taskOrderMap = new HashMap<>();
@@ -882,6 +798,7 @@ public class ScheduleService {
                 .collect(Collectors.groupingBy(Schedule::getTask, Collectors.counting()));
     }
 
+    @Transactional(readOnly = true)
     public List<UserTasksScheduleInfoWeekly> getUserTasksScheduleInfoWeeklyByRole(String roleName, LocalDate from, LocalDate to) {
         validateDateRange(from, to);
 
@@ -911,6 +828,7 @@ public class ScheduleService {
         return createUserTasksScheduleInfoWeekly(user, tasksByRole, from, to, weekWithFeast, schedulesForThisWeek, allConflicts);
     }
 
+    @Transactional(readOnly = true)
     public List<UserTasksScheduleInfoWeeklyByAllDays> getUserTasksScheduleInfoWeeklyByAllDaysByRole(String roleName, LocalDate from, LocalDate to) {
         Role role = validateRoleExistence(roleName);
 
@@ -952,14 +870,7 @@ public class ScheduleService {
     }
 
     private List<User> getUsersEligibleForTasks(List<Task> tasksByRole) {
-        List<String> allowedRoles = tasksByRole.stream()
-                .map(Task::getAllowedRoles)
-                .flatMap(Collection::stream)
-                .map(Role::getName)
-                .distinct()
-                .collect(Collectors.toList());
-
-        return userService.getUsersWhichHaveAnyOfRoles(allowedRoles);
+        return userService.getUsersWhichAreEligibleToPerformAnyOfTasks(tasksByRole);
     }
 
     private UserTasksScheduleInfoWeekly createUserTasksScheduleInfoWeekly(User user, List<Task> tasksByRole, LocalDate from, LocalDate to, boolean weekWithFeast, List<Schedule> schedulesForThisWeek, List<Conflict> allConflicts) {
@@ -1178,22 +1089,45 @@ public class ScheduleService {
         }
 
         Map<Integer, List<String>> userScheduleHistory = new HashMap<>();
+        if (numberOfWeeksToDisplay <= 0) {
+            return userScheduleHistory;
+        }
 
-        LocalDate weekStartDate = date.minusWeeks(1);
-        LocalDate weekEndDate = date.minusDays(1);
-        boolean weekWithFeast = specialDateRepository.existsByTypeAndDateBetween(SpecialDateType.FEAST, weekStartDate, weekEndDate);
-        for(int i = 0; i < numberOfWeeksToDisplay; i++) {
-            List<Schedule> schedules = getAllSchedulesByUserIdForSpecifiedWeek(userId, weekStartDate, weekEndDate);
-            List<String> tasksInfoStrings = createInfoStringsOfTasksOccurrenceFromGivenSchedule(schedules, weekWithFeast);
-            userScheduleHistory.put(i+1, tasksInfoStrings);
+        // Week 1 is the week before the given date, week n the earliest one
+        LocalDate from = date.minusWeeks(numberOfWeeksToDisplay);
+        LocalDate to = date.minusDays(1);
 
-            weekStartDate = weekStartDate.minusWeeks(1);
-            weekEndDate = weekEndDate.minusWeeks(1);
+        List<Schedule> schedules = getAllSchedulesForUserInSpecifiedWeek(userId, from, to);
+        if (schedules.isEmpty() && !userService.existsById(userId)) {
+            throw new EntityNotFoundException("User with given id does not exist");
+        }
+
+        List<List<Schedule>> weeksSchedules = new ArrayList<>(numberOfWeeksToDisplay);
+        for (int i = 0; i < numberOfWeeksToDisplay; i++) {
+            weeksSchedules.add(new ArrayList<>());
+        }
+        for (Schedule schedule : schedules) {
+            weeksSchedules.get(getHistoryWeekNumber(schedule.getDate(), date) - 1).add(schedule);
+        }
+
+        boolean[] weeksWithFeast = new boolean[numberOfWeeksToDisplay];
+        for (SpecialDate feast : specialDateRepository.findByTypeAndDateBetween(SpecialDateType.FEAST, from, to)) {
+            weeksWithFeast[getHistoryWeekNumber(feast.getDate(), date) - 1] = true;
+        }
+
+        for (int i = 0; i < numberOfWeeksToDisplay; i++) {
+            List<String> tasksInfoStrings = createInfoStringsOfTasksOccurrenceFromGivenSchedule(weeksSchedules.get(i), weeksWithFeast[i]);
+            userScheduleHistory.put(i + 1, tasksInfoStrings);
         }
 
         return userScheduleHistory;
     }
 
+    private int getHistoryWeekNumber(LocalDate day, LocalDate historyEndSunday) {
+        long daysBefore = ChronoUnit.DAYS.between(day, historyEndSunday);
+        return (int) ((daysBefore + 6) / 7);
+    }
+
     public Map<User, List<Schedule>> getScheduleForUsers(List<User> users, LocalDate from, LocalDate to) {
         Map<User, List<Schedule>> userSchedules = new HashMap<>();
         for(User user : users) {
@@ -1225,6 +1159,7 @@ public class ScheduleService {
         return getScheduleForUsers(users, from, to, taskSupervisorRoleName);
     }
 
+    @Transactional(readOnly = true)
     public List<UserSchedulesOnDaysDTO> getListOfUserSchedulesByDaysDTO(LocalDate from, LocalDate to) {
         List<User> users = userService.getAllUsers();
         users = users.stream()
@@ -1256,6 +1191,7 @@ public class ScheduleService {
 
     }
 
+    @Transactional(readOnly = true)
     public List<UserSchedulesOnDaysDTO> getListOfUserSchedulesByDaysDTO(LocalDate from, LocalDate to, String taskSupervisorRoleName) {
         List<User> users = userService.getUsersWhichAreEligibleToPerformTasksAssignedToSupervisorRole(taskSupervisorRoleName);
 
@@ -1286,11 +1222,17 @@ public class ScheduleService {
         return userSchedulesOnDaysDTO;
     }
 
+    @Transactional
     public void generateSchedule(Long roleId, Long startingFromUserId, LocalDate from, LocalDate to) {
         scheduleGenerator.generateSchedule(roleId, startingFromUserId, from, to);
+        scheduleVersionService.markRangeChanged(from, to);
+        eventPublisher.publishEvent(new ScheduleChangeEvent(from, to, null, roleId));
     }
 
+    @Transactional
     public void cleanSchedule(Long roleId, LocalDate from, LocalDate to) {
         scheduleCleaner.cleanSchedule(roleId, from, to);
+        scheduleVersionService.markRangeChanged(from, to);
+        eventPublisher.publishEvent(new ScheduleChangeEvent(from, to, null, roleId));
     }
 }
@@ -0,0 +1,255 @@
+package org.verduttio.dominicanappbackend.service.schedule;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.verduttio.dominicanappbackend.domain.Schedule;
+import org.verduttio.dominicanappbackend.domain.ScheduleEventType;
+import org.verduttio.dominicanappbackend.domain.ScheduleSlotVersion;
+import org.verduttio.dominicanappbackend.domain.Task;
+import org.verduttio.dominicanappbackend.domain.User;
+import org.verduttio.dominicanappbackend.journal.ScheduleJournal;
+import org.verduttio.dominicanappbackend.repository.ScheduleRepository;
+import org.verduttio.dominicanappbackend.repository.ScheduleSlotVersionRepository;
+import org.verduttio.dominicanappbackend.service.exception.ScheduleWriteConflictException;
+import org.verduttio.dominicanappbackend.service.exception.TaskParticipantsLimitExceededException;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Stores assignments without locking out other writers. The participants limit of every (task, date) is checked
+ * against its {@link ScheduleSlotVersion}, which is then increased only if it has not changed since it was read;
+ * otherwise another assignment was made meanwhile and the whole write is retried, up to
+ * {@code app.schedule.assignment.max-attempts} times. Assignments which already exist are skipped, and the unique
+ * (user, task, date) constraint of the schedule table rules out duplicates made by concurrent writers.
+ * <p>
+ * Writes made in a larger transaction (moving an assignment, generated schedules) use {@link #reserve} instead,
+ * which locks the slot versions they change, so that they and {@link #assign} never miss each other's assignments.
+ */
+@Service
+public class ScheduleSlotService {
+
+    private final ScheduleRepository scheduleRepository;
+    private final ScheduleSlotVersionRepository slotVersionRepository;
+    private final ScheduleJournal scheduleJournal;
+    private final ScheduleRollupService scheduleRollupService;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate slotCreationTransactionTemplate;
+    private final int maxAttempts;
+
+    @Autowired
+    public ScheduleSlotService(ScheduleRepository scheduleRepository, ScheduleSlotVersionRepository slotVersionRepository,
+                               ScheduleJournal scheduleJournal, ScheduleRollupService scheduleRollupService,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${app.schedule.assignment.max-attempts:5}") int maxAttempts) {
+        this.scheduleRepository = scheduleRepository;
+        this.slotVersionRepository = slotVersionRepository;
+        this.scheduleJournal = scheduleJournal;
+        this.scheduleRollupService = scheduleRollupService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.slotCreationTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.slotCreationTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Assigns the user to the task on all given dates, or on none of them.
+     *
+     * @return number of new assignments, without those which already existed
+     * @throws TaskParticipantsLimitExceededException if the task has no free place on one of the dates
+     * @throws ScheduleWriteConflictException if other writers kept changing the assignments of the task
+     * @throws IllegalArgumentException if one of the dates is archived
+     */
+    public int assign(Task task, User user, List<LocalDate> dates) {
+        dates.forEach(scheduleRollupService::ensureNotPruned);
+        for (int attempt = 1; ; attempt++) {
+            List<ScheduleSlotVersion> slotVersions = new ArrayList<>(dates.size());
+            for (LocalDate date : dates) {
+                slotVersions.add(getOrCreateSlotVersion(task, date));
+            }
+
+            try {
+                Integer created = transactionTemplate.execute(status -> {
+                    int count = 0;
+                    for (ScheduleSlotVersion slotVersion : slotVersions) {
+                        if (insertIfAbsent(task, user, slotVersion)) {
+                            count++;
+                        }
+                    }
+                    return count;
+                });
+                return created == null ? 0 : created;
+            } catch (ConcurrencyFailureException | DataIntegrityViolationException e) {
+                if (attempt >= maxAttempts) {
+                    throw new ScheduleWriteConflictException("Schedules of the task are being changed by someone else, try again");
+                }
+                backOff(attempt);
+            }
+        }
+    }
+
+    /**
+     * Checks the participants limits for assignments which the transaction of the caller is going to add, and
+     * increases the versions of all slots it adds to or removes from. The slot versions stay locked until the
+     * transaction ends and are locked in a fixed order, so concurrent writers of the same slots wait for each other
+     * instead of overfilling a task, and concurrent {@link #assign} calls retry.
+     *
+     * @param added assignments which the transaction is going to save
+     * @param removed assignments which the transaction is going to delete or move, still stored
+     * @throws TaskParticipantsLimitExceededException if a task would have more participants than its limit on a date
+     * @throws ScheduleWriteConflictException if a slot version was being created by another writer at the same time,
+     *         or an added user is already assigned to the task on that date
+     * @throws IllegalArgumentException if an added assignment falls on an archived date
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reserve(Collection<Schedule> added, Collection<Schedule> removed) {
+        added.forEach(schedule -> scheduleRollupService.ensureNotPruned(schedule.getDate()));
+        Map<SlotKey, SlotChange> changes = new TreeMap<>();
+        for (Schedule schedule : added) {
+            changes.computeIfAbsent(SlotKey.of(schedule), key -> new SlotChange(schedule.getTask())).added.add(schedule);
+        }
+        for (Schedule schedule : removed) {
+            changes.computeIfAbsent(SlotKey.of(schedule), key -> new SlotChange(schedule.getTask())).removed.add(schedule);
+        }
+
+        for (Map.Entry<SlotKey, SlotChange> change : changes.entrySet()) {
+            LocalDate date = change.getKey().date();
+            Task task = change.getValue().task;
+            ScheduleSlotVersion slotVersion = lockSlotVersion(task, date);
+
+            // Checked only now that the slot is locked, so assignments committed meanwhile by others are seen too
+            checkNotAssignedYet(change.getValue(), date);
+            int addedParticipants = change.getValue().added.size() - change.getValue().removed.size();
+            if (addedParticipants > 0
+                    && scheduleRepository.countByTaskIdAndDate(task.getId(), date) + addedParticipants > task.getParticipantsLimit()) {
+                throw new TaskParticipantsLimitExceededException("Task has no free places left on " + date);
+            }
+            slotVersion.setVersion(slotVersion.getVersion() + 1);
+        }
+    }
+
+    /**
+     * Describes the assignments of the period. The description changes whenever an assignment of the period is
+     * added, moved or removed, as each of them increases a slot version or changes the number of assignments.
+     */
+    @Transactional(readOnly = true)
+    public String getPeriodVersion(LocalDate from, LocalDate to) {
+        return describePeriod(slotVersionRepository.findByDateBetween(from, to), from, to);
+    }
+
+    /**
+     * Same as {@link #getPeriodVersion}, but locks the existing slot versions of the period until the transaction
+     * of the caller ends, so that assignments cannot be added to those slots before it is done.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public String lockPeriod(LocalDate from, LocalDate to) {
+        return describePeriod(slotVersionRepository.findForUpdateByDateBetween(from, to), from, to);
+    }
+
+    private String describePeriod(List<ScheduleSlotVersion> slotVersions, LocalDate from, LocalDate to) {
+        long versionsSum = 0;
+        for (ScheduleSlotVersion slotVersion : slotVersions) {
+            versionsSum += slotVersion.getVersion();
+        }
+        return versionsSum + "-" + slotVersions.size() + "-" + scheduleRepository.countByDateBetween(from, to);
+    }
+
+    private boolean insertIfAbsent(Task task, User user, ScheduleSlotVersion slotVersion) {
+        LocalDate date = slotVersion.getDate();
+        if (scheduleRepository.existsByUserIdAndTaskIdAndDate(user.getId(), task.getId(), date)) {
+            return false;
+        }
+        if (scheduleRepository.countByTaskIdAndDate(task.getId(), date) >= task.getParticipantsLimit()) {
+            throw new TaskParticipantsLimitExceededException("Task has no free places left on " + date);
+        }
+
+        Schedule schedule = scheduleRepository.save(new Schedule(task, user, date));
+        scheduleJournal.record(ScheduleEventType.ASSIGNED, schedule);
+        if (slotVersionRepository.compareAndIncrement(slotVersion.getId(), slotVersion.getVersion()) == 0) {
+            throw new OptimisticLockingFailureException("Assignments of the task on " + date + " have changed");
+        }
+        return true;
+    }
+
+    private void checkNotAssignedYet(SlotChange change, LocalDate date) {
+        Set<Long> removedUserIds = new HashSet<>();
+        for (Schedule schedule : change.removed) {
+            removedUserIds.add(schedule.getUser().getId());
+        }
+        for (Schedule schedule : change.added) {
+            Long userId = schedule.getUser().getId();
+            if (!removedUserIds.contains(userId)
+                    && scheduleRepository.existsByUserIdAndTaskIdAndDate(userId, change.task.getId(), date)) {
+                throw new ScheduleWriteConflictException("User is already assigned to the task on " + date);
+            }
+        }
+    }
+
+    private ScheduleSlotVersion lockSlotVersion(Task task, LocalDate date) {
+        Optional<ScheduleSlotVersion> slotVersion = slotVersionRepository.findForUpdateByTaskIdAndDate(task.getId(), date);
+        if (slotVersion.isPresent()) {
+            return slotVersion.get();
+        }
+        try {
+            // A row inserted by the transaction cannot be changed by others until it ends, just like a locked one
+            return slotVersionRepository.saveAndFlush(new ScheduleSlotVersion(task, date));
+        } catch (DataIntegrityViolationException e) {
+            throw new ScheduleWriteConflictException("Schedules of the task are being changed by someone else, try again");
+        }
+    }
+
+    private ScheduleSlotVersion getOrCreateSlotVersion(Task task, LocalDate date) {
+        return slotVersionRepository.findByTaskIdAndDate(task.getId(), date).orElseGet(() -> {
+            try {
+                return slotCreationTransactionTemplate.execute(status ->
+                        slotVersionRepository.saveAndFlush(new ScheduleSlotVersion(task, date)));
+            } catch (DataIntegrityViolationException e) {
+                // Created by another writer meanwhile
+                return slotVersionRepository.findByTaskIdAndDate(task.getId(), date).orElseThrow(() -> e);
+            }
+        });
+    }
+
+    private static void backOff(int attempt) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(5, 20) * attempt);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ScheduleWriteConflictException("Interrupted while retrying the write");
+        }
+    }
+
+    private record SlotKey(Long taskId, LocalDate date) implements Comparable<SlotKey> {
+
+        private static final Comparator<SlotKey> ORDER = Comparator.comparing(SlotKey::taskId).thenComparing(SlotKey::date);
+
+        static SlotKey of(Schedule schedule) {
+            return new SlotKey(schedule.getTask().getId(), schedule.getDate());
+        }
+
+        @Override
+        public int compareTo(SlotKey other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+    private static final class SlotChange {
+        private final Task task;
+        private final List<Schedule> added = new ArrayList<>();
+        private final List<Schedule> removed = new ArrayList<>();
+
+        private SlotChange(Task task) {
+            this.task = task;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package org.verduttio.dominicanappbackend.service.schedule;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.verduttio.dominicanappbackend.concurrency.SingleFlight;
+import org.verduttio.dominicanappbackend.dto.schedule.GroupedTasksByRolesInScheduleInfoForUser;
+import org.verduttio.dominicanappbackend.dto.schedule.ScheduleShortInfoForTask;
+import org.verduttio.dominicanappbackend.dto.schedule.ScheduleShortInfoForUser;
+import org.verduttio.dominicanappbackend.dto.user.UserSchedulesOnDaysDTO;
+import org.verduttio.dominicanappbackend.dto.user.scheduleInfo.UserTasksScheduleInfoWeekly;
+import org.verduttio.dominicanappbackend.dto.user.scheduleInfo.UserTasksScheduleInfoWeeklyByAllDays;
+import org.verduttio.dominicanappbackend.service.ScheduleVersionService;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Keeps computed week views (boards, short-info lists, the users by days matrix) in memory. Every entry is
+ * keyed by the version of the data it was computed from, so a change never serves stale results: the next read
+ * just misses and computes the view again, and old entries are evicted by size and idle time.
+ * <p>
+ * Concurrent misses of the same view are computed once, through {@link SingleFlight}. Results are shared between
+ * requests, so they must not be modified by callers.
+ */
+@Service
+public class ScheduleViewCache {
+
+    private final ScheduleService scheduleService;
+    private final ScheduleVersionService scheduleVersionService;
+    private final SingleFlight singleFlight;
+    private final Cache<ViewKey, Object> views;
+
+    @Autowired
+    public ScheduleViewCache(ScheduleService scheduleService, ScheduleVersionService scheduleVersionService,
+                             SingleFlight singleFlight,
+                             @Value("${app.schedule.view-cache.maximum-size:500}") long maximumSize,
+                             @Value("${app.schedule.view-cache.ttl:1h}") Duration ttl) {
+        this.scheduleService = scheduleService;
+        this.scheduleVersionService = scheduleVersionService;
+        this.singleFlight = singleFlight;
+        this.views = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(ttl)
+                .build();
+    }
+
+    public List<ScheduleShortInfoForUser> getScheduleShortInfoForUsers(LocalDate from, LocalDate to) {
+        return get(new ViewKey("usersShortInfo", from, to, null, scheduleVersionService.getETag(from, to)),
+                () -> scheduleService.getScheduleShortInfoForAllowedUsersForSpecifiedWeek(from, to));
+    }
+
+    public List<GroupedTasksByRolesInScheduleInfoForUser> getGroupedScheduleShortInfoForUsers(LocalDate from, LocalDate to) {
+        return get(new ViewKey("usersGroupedShortInfo", from, to, null, scheduleVersionService.getETag(from, to)),
+                () -> scheduleService.getGroupedTasksByRolesInScheduleInfoForAllowedUsersForSpecifiedWeek(from, to));
+    }
+
+    public List<ScheduleShortInfoForTask> getScheduleShortInfoForTasks(LocalDate from, LocalDate to) {
+        return get(new ViewKey("tasksShortInfo", from, to, null, scheduleVersionService.getETag(from, to)),
+                () -> scheduleService.getScheduleShortInfoForEachTaskForSpecifiedWeek(from, to));
+    }
+
+    public List<ScheduleShortInfoForTask> getScheduleShortInfoForTasksByRole(String supervisorRole, LocalDate from, LocalDate to) {
+        return get(new ViewKey("tasksShortInfoByRole", from, to, supervisorRole, scheduleVersionService.getETag(from, to)),
+                () -> scheduleService.getScheduleShortInfoForTaskByRoleForSpecifiedWeek(supervisorRole, from, to));
+    }
+
+    public List<UserSchedulesOnDaysDTO> getUserSchedulesByDays(LocalDate from, LocalDate to) {
+        return get(new ViewKey("usersByDays", from, to, null, scheduleVersionService.getETag(from, to)),
+                () -> scheduleService.getListOfUserSchedulesByDaysDTO(from, to));
+    }
+
+    public List<UserSchedulesOnDaysDTO> getUserSchedulesByDays(String supervisorRole, LocalDate from, LocalDate to) {
+        return get(new ViewKey("usersByDaysByRole", from, to, supervisorRole, scheduleVersionService.getETag(from, to)),
+                () -> scheduleService.getListOfUserSchedulesByDaysDTO(from, to, supervisorRole));
+    }
+
+    /**
+     * The board shows assignments since the statistics start date, so it depends on all earlier weeks too.
+     */
+    public List<UserTasksScheduleInfoWeekly> getWeeklyBoard(String roleName, LocalDate from, LocalDate to) {
+        return get(new ViewKey("weeklyBoard", from, to, roleName, scheduleVersionService.getETagUpTo(to)),
+                () -> scheduleService.getUserTasksScheduleInfoWeeklyByRole(roleName, from, to));
+    }
+
+    public List<UserTasksScheduleInfoWeeklyByAllDays> getWeeklyBoardByAllDays(String roleName, LocalDate from, LocalDate to) {
+        return get(new ViewKey("weeklyBoardByAllDays", from, to, roleName, scheduleVersionService.getETagUpTo(to)),
+                () -> scheduleService.getUserTasksScheduleInfoWeeklyByAllDaysByRole(roleName, from, to));
+    }
+
+    public long getNumberOfCachedViews() {
+        return views.estimatedSize();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T get(ViewKey key, Supplier<T> loader) {
+        Object view = views.getIfPresent(key);
+        if (view == null) {
+            view = singleFlight.execute(SingleFlight.key(key.view(), key.version(), key.from(), key.to(), key.roleName()),
+                    loader::get);
+            if (view != null) {
+                views.put(key, view);
+            }
+        }
+        return (T) view;
+    }
+
+    private record ViewKey(String view, LocalDate from, LocalDate to, String roleName, String version) {
+    }
+}
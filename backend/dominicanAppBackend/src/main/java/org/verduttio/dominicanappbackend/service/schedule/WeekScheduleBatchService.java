@@ -0,0 +1,365 @@
+package org.verduttio.dominicanappbackend.service.schedule;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.verduttio.dominicanappbackend.changefeed.ScheduleChangeEvent;
+import org.verduttio.dominicanappbackend.domain.*;
+import org.verduttio.dominicanappbackend.domain.obstacle.Obstacle;
+import org.verduttio.dominicanappbackend.dto.schedule.BulkWeekScheduleDTO;
+import org.verduttio.dominicanappbackend.dto.schedule.BulkWeekScheduleResult;
+import org.verduttio.dominicanappbackend.dto.schedule.SlotAssignmentsCount;
+import org.verduttio.dominicanappbackend.dto.schedule.WeekAssignmentDTO;
+import org.verduttio.dominicanappbackend.dto.schedule.WeekAssignmentViolation;
+import org.verduttio.dominicanappbackend.journal.ScheduleJournal;
+import org.verduttio.dominicanappbackend.repository.*;
+import org.verduttio.dominicanappbackend.service.ConflictService;
+import org.verduttio.dominicanappbackend.service.RoleEligibilityIndex;
+import org.verduttio.dominicanappbackend.service.ScheduleVersionService;
+import org.verduttio.dominicanappbackend.validation.DateValidator;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Applies many additions and removals of assignments within one week at once. All of them are validated against
+ * one snapshot of the week (users, tasks, the users' schedules, participants of the tasks, approved obstacles,
+ * conflicts and feasts), which also takes in the changes accepted earlier in the same batch, so every violation is reported in one response.
+ */
+@Service
+public class WeekScheduleBatchService {
+
+    private static final String ADD = "ADD";
+    private static final String REMOVE = "REMOVE";
+
+    private final ScheduleRepository scheduleRepository;
+    private final UserRepository userRepository;
+    private final TaskRepository taskRepository;
+    private final ObstacleRepository obstacleRepository;
+    private final SpecialDateRepository specialDateRepository;
+    private final ConflictService conflictService;
+    private final RoleEligibilityIndex roleEligibilityIndex;
+    private final ScheduleVersionService scheduleVersionService;
+    private final ScheduleSlotService scheduleSlotService;
+    private final ScheduleJournal scheduleJournal;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    public WeekScheduleBatchService(ScheduleRepository scheduleRepository, UserRepository userRepository,
+                                    TaskRepository taskRepository, ObstacleRepository obstacleRepository,
+                                    SpecialDateRepository specialDateRepository, ConflictService conflictService,
+                                    RoleEligibilityIndex roleEligibilityIndex, ScheduleVersionService scheduleVersionService,
+                                    ScheduleSlotService scheduleSlotService, ScheduleJournal scheduleJournal,
+                                    ApplicationEventPublisher eventPublisher) {
+        this.scheduleRepository = scheduleRepository;
+        this.userRepository = userRepository;
+        this.taskRepository = taskRepository;
+        this.obstacleRepository = obstacleRepository;
+        this.specialDateRepository = specialDateRepository;
+        this.conflictService = conflictService;
+        this.roleEligibilityIndex = roleEligibilityIndex;
+        this.scheduleVersionService = scheduleVersionService;
+        this.scheduleSlotService = scheduleSlotService;
+        this.scheduleJournal = scheduleJournal;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Removals are applied before additions, so an assignment can be moved from one user to another in one batch.
+     * Valid changes are stored even if some others are rejected, unless the batch is marked as all-or-nothing.
+     * The participants limits are checked again when the changed slots are reserved, since the snapshot does not
+     * lock them.
+     */
+    @Transactional
+    public BulkWeekScheduleResult applyWeekChanges(BulkWeekScheduleDTO bulkWeekScheduleDTO, boolean ignoreConflicts) {
+        WeekSchedulePlan plan = planWeekChanges(bulkWeekScheduleDTO, ignoreConflicts);
+        if (!plan.isApplicable()) {
+            return new BulkWeekScheduleResult(false, 0, 0, plan.violations());
+        }
+
+        scheduleSlotService.reserve(plan.schedulesToSave(), plan.schedulesToDelete());
+        if (!plan.schedulesToDelete().isEmpty()) {
+            scheduleJournal.record(ScheduleEventType.UNASSIGNED, plan.schedulesToDelete());
+            scheduleRepository.deleteAllInBatch(plan.schedulesToDelete());
+        }
+        if (!plan.schedulesToSave().isEmpty()) {
+            scheduleRepository.saveAll(plan.schedulesToSave());
+            scheduleJournal.record(ScheduleEventType.ASSIGNED, plan.schedulesToSave());
+        }
+        if (!plan.schedulesToDelete().isEmpty() || !plan.schedulesToSave().isEmpty()) {
+            scheduleVersionService.markRangeChanged(plan.from(), plan.to());
+            eventPublisher.publishEvent(ScheduleChangeEvent.ofRange(plan.from(), plan.to()));
+        }
+
+        return new BulkWeekScheduleResult(true, plan.schedulesToSave().size(), plan.schedulesToDelete().size(), plan.violations());
+    }
+
+    /**
+     * Validates the changes without writing anything. Schedules to save are new, unsaved entities.
+     */
+    @Transactional(readOnly = true)
+    public WeekSchedulePlan planWeekChanges(BulkWeekScheduleDTO bulkWeekScheduleDTO, boolean ignoreConflicts) {
+        LocalDate from = bulkWeekScheduleDTO.getWeekStartDate();
+        LocalDate to = bulkWeekScheduleDTO.getWeekEndDate();
+        if (!DateValidator.dateStartsSundayEndsSaturday(from, to)) {
+            throw new IllegalArgumentException("Invalid date range. The period must start on Sunday and end on Saturday, covering exactly one week.");
+        }
+
+        WeekSnapshot week = loadWeek(bulkWeekScheduleDTO, from, to);
+        List<WeekAssignmentViolation> violations = new ArrayList<>();
+        List<Schedule> schedulesToDelete = new ArrayList<>();
+        List<Schedule> schedulesToSave = new ArrayList<>();
+
+        List<WeekAssignmentDTO> removals = bulkWeekScheduleDTO.getRemovals();
+        for (int i = 0; i < removals.size(); i++) {
+            WeekAssignmentDTO removal = removals.get(i);
+            String violation = week.remove(removal, schedulesToDelete);
+            if (violation != null) {
+                violations.add(toViolation(REMOVE, i, removal, violation));
+            }
+        }
+
+        List<WeekAssignmentDTO> additions = bulkWeekScheduleDTO.getAdditions();
+        for (int i = 0; i < additions.size(); i++) {
+            WeekAssignmentDTO addition = additions.get(i);
+            String violation = week.add(addition, ignoreConflicts, schedulesToSave);
+            if (violation != null) {
+                violations.add(toViolation(ADD, i, addition, violation));
+            }
+        }
+
+        return new WeekSchedulePlan(from, to, schedulesToDelete, schedulesToSave, violations, bulkWeekScheduleDTO.isAllOrNothing());
+    }
+
+    private WeekSnapshot loadWeek(BulkWeekScheduleDTO bulkWeekScheduleDTO, LocalDate from, LocalDate to) {
+        Set<Long> userIds = new HashSet<>();
+        Set<Long> taskIds = new HashSet<>();
+        for (List<WeekAssignmentDTO> assignments : List.of(bulkWeekScheduleDTO.getAdditions(), bulkWeekScheduleDTO.getRemovals())) {
+            for (WeekAssignmentDTO assignment : assignments) {
+                userIds.add(assignment.getUserId());
+                taskIds.add(assignment.getTaskId());
+            }
+        }
+
+        WeekSnapshot week = new WeekSnapshot(from, to);
+        if (userIds.isEmpty()) {
+            return week;
+        }
+
+        userRepository.findAllById(userIds).forEach(user -> week.users.put(user.getId(), user));
+        taskRepository.findAllById(taskIds).forEach(task -> week.tasks.put(task.getId(), task));
+        for (Schedule schedule : scheduleRepository.findByUserIdsAndDateBetween(userIds, from, to)) {
+            week.getUserSchedules(schedule.getUser().getId()).add(schedule);
+        }
+        for (SlotAssignmentsCount count : scheduleRepository.countAssignmentsPerTaskAndDayInPeriod(taskIds, from, to)) {
+            week.getSlotCounts(count.taskId()).put(count.date(), count.assignmentsCount());
+        }
+        for (Obstacle obstacle : obstacleRepository.findByUserIdsAndStatusOverlappingPeriod(userIds, ObstacleStatus.APPROVED, from, to)) {
+            week.approvedObstacles.computeIfAbsent(obstacle.getUser().getId(), id -> new ArrayList<>()).add(obstacle);
+        }
+        Set<LocalDate> feastDates = new HashSet<>();
+        for (SpecialDate feast : specialDateRepository.findByTypeAndDateBetween(SpecialDateType.FEAST, from, to)) {
+            feastDates.add(feast.getDate());
+        }
+        week.conflictCalendar = new ConflictCalendar(conflictService.getAllConflicts(), feastDates);
+        return week;
+    }
+
+    private static WeekAssignmentViolation toViolation(String operation, int index, WeekAssignmentDTO assignment, String message) {
+        return new WeekAssignmentViolation(operation, index, assignment.getUserId(), assignment.getTaskId(), assignment.getTaskDate(), message);
+    }
+
+    /**
+     * @param allOrNothing whether the changes may be stored only if there are no violations
+     */
+    public record WeekSchedulePlan(LocalDate from, LocalDate to, List<Schedule> schedulesToDelete,
+                                   List<Schedule> schedulesToSave, List<WeekAssignmentViolation> violations,
+                                   boolean allOrNothing) {
+
+        public boolean isApplicable() {
+            return violations.isEmpty() || !allOrNothing;
+        }
+    }
+
+    private final class WeekSnapshot {
+        private final LocalDate from;
+        private final LocalDate to;
+        private final Map<Long, User> users = new HashMap<>();
+        private final Map<Long, Task> tasks = new HashMap<>();
+        private final Map<Long, List<Schedule>> userSchedules = new HashMap<>();
+        private final Map<Long, Map<LocalDate, Long>> slotCounts = new HashMap<>();
+        private final Map<Long, List<Obstacle>> approvedObstacles = new HashMap<>();
+        private ConflictCalendar conflictCalendar = new ConflictCalendar(List.of(), Set.of());
+
+        private WeekSnapshot(LocalDate from, LocalDate to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        private List<Schedule> getUserSchedules(Long userId) {
+            return userSchedules.computeIfAbsent(userId, id -> new ArrayList<>());
+        }
+
+        private Map<LocalDate, Long> getSlotCounts(Long taskId) {
+            return slotCounts.computeIfAbsent(taskId, id -> new HashMap<>());
+        }
+
+        /**
+         * @return reason of the rejection, or null if the removal was accepted
+         */
+        private String remove(WeekAssignmentDTO removal, List<Schedule> schedulesToDelete) {
+            if (!users.containsKey(removal.getUserId())) {
+                return "User with given id does not exist";
+            }
+            if (!tasks.containsKey(removal.getTaskId())) {
+                return "Task with given id does not exist";
+            }
+            if (!removal.isForWholePeriod() && !DateValidator.isDateInRange(removal.getTaskDate(), from, to)) {
+                return "Task date is not in the date range";
+            }
+
+            List<Schedule> removedSchedules = new ArrayList<>();
+            Iterator<Schedule> schedules = getUserSchedules(removal.getUserId()).iterator();
+            while (schedules.hasNext()) {
+                Schedule schedule = schedules.next();
+                if (schedule.getTask().getId().equals(removal.getTaskId())
+                        && (removal.isForWholePeriod() || schedule.getDate().equals(removal.getTaskDate()))) {
+                    schedules.remove();
+                    removedSchedules.add(schedule);
+                }
+            }
+            if (removedSchedules.isEmpty()) {
+                return "No schedules found for given user and task in the date range";
+            }
+
+            for (Schedule schedule : removedSchedules) {
+                getSlotCounts(schedule.getTask().getId()).merge(schedule.getDate(), -1L, Long::sum);
+            }
+            schedulesToDelete.addAll(removedSchedules);
+            return null;
+        }
+
+        /**
+         * Runs the same checks as adding a single schedule for a whole or daily period task.
+         *
+         * @return reason of the rejection, or null if the addition was accepted
+         */
+        private String add(WeekAssignmentDTO addition, boolean ignoreConflicts, List<Schedule> schedulesToSave) {
+            User user = users.get(addition.getUserId());
+            if (user == null) {
+                return "User with given id does not exist";
+            }
+            Task task = tasks.get(addition.getTaskId());
+            if (task == null) {
+                return "Task with given id does not exist";
+            }
+
+            List<Schedule> schedules = getUserSchedules(user.getId());
+            List<LocalDate> taskDates;
+            if (addition.isForWholePeriod()) {
+                if (!task.getSupervisorRole().isWeeklyScheduleCreatorDefault()) {
+                    return "Task's supervisor role does not allow for whole week assignment";
+                }
+                if (!roleEligibilityIndex.userHasAllowedRoleForTask(user, task)) {
+                    return "User does not have allowed role for task";
+                }
+                if (hasApprovedObstacle(user.getId(), task.getId(), from)) {
+                    return "User has an approved obstacle for this task";
+                }
+                if (schedules.stream().anyMatch(s -> s.getTask().getId().equals(task.getId()))) {
+                    return "User is already assigned to the task";
+                }
+                if (!ignoreConflicts && isInConflictDuringWeek(task, schedules)) {
+                    return "Schedule is in conflict with other schedules";
+                }
+                taskDates = getTaskDatesInWeek(task);
+            } else {
+                LocalDate taskDate = addition.getTaskDate();
+                if (!DateValidator.isDateInRange(taskDate, from, to)) {
+                    return "Task date is not in the date range";
+                }
+                if (!occursOn(task, taskDate)) {
+                    return conflictCalendar.isFeast(taskDate)
+                            ? "Task does not occur on given day of week or it does not occur on feast day"
+                            : "Task does not occur on given day of week";
+                }
+                if (!roleEligibilityIndex.userHasAllowedRoleForTask(user, task)) {
+                    return "User does not have allowed role for task";
+                }
+                if (hasApprovedObstacle(user.getId(), task.getId(), taskDate)) {
+                    return "User has an approved obstacle for this task";
+                }
+                if (schedules.stream().anyMatch(s -> s.getDate().equals(taskDate) && s.getTask().getId().equals(task.getId()))) {
+                    return "User is already assigned to the task on given day";
+                }
+                if (!ignoreConflicts && isInConflictOnDate(task, schedules, taskDate)) {
+                    return "Schedule is in conflict with other schedules";
+                }
+                taskDates = List.of(taskDate);
+            }
+
+            Map<LocalDate, Long> taskSlotCounts = getSlotCounts(task.getId());
+            for (LocalDate date : taskDates) {
+                if (taskSlotCounts.getOrDefault(date, 0L) >= task.getParticipantsLimit()) {
+                    return "Task has no free places left on " + date;
+                }
+            }
+
+            for (LocalDate date : taskDates) {
+                taskSlotCounts.merge(date, 1L, Long::sum);
+                Schedule schedule = new Schedule(task, user, date);
+                schedules.add(schedule);
+                schedulesToSave.add(schedule);
+            }
+            return null;
+        }
+
+        private boolean occursOn(Task task, LocalDate date) {
+            Set<DayOfWeek> daysOfWeek = task.getDaysOfWeek();
+            // On a feast, tasks occurring on Sunday are performed as well
+            return daysOfWeek.contains(date.getDayOfWeek()) || (conflictCalendar.isFeast(date) && daysOfWeek.contains(DayOfWeek.SUNDAY));
+        }
+
+        private List<LocalDate> getTaskDatesInWeek(Task task) {
+            List<LocalDate> dates = new ArrayList<>();
+            for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+                if (occursOn(task, date)) {
+                    dates.add(date);
+                }
+            }
+            return dates;
+        }
+
+        private boolean hasApprovedObstacle(Long userId, Long taskId, LocalDate date) {
+            for (Obstacle obstacle : approvedObstacles.getOrDefault(userId, List.of())) {
+                if (!date.isBefore(obstacle.getFromDate()) && !date.isAfter(obstacle.getToDate())
+                        && obstacle.getTasks().stream().anyMatch(t -> t.getId().equals(taskId))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean isInConflictDuringWeek(Task task, List<Schedule> schedules) {
+            Set<Long> otherTaskIds = new HashSet<>();
+            for (Schedule schedule : schedules) {
+                otherTaskIds.add(schedule.getTask().getId());
+            }
+            for (Long otherTaskId : otherTaskIds) {
+                for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+                    if (conflictCalendar.areInConflict(task.getId(), otherTaskId, date)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        private boolean isInConflictOnDate(Task task, List<Schedule> schedules, LocalDate date) {
+            return schedules.stream()
+                    .anyMatch(s -> s.getDate().equals(date) && conflictCalendar.areInConflict(task.getId(), s.getTask().getId(), date));
+        }
+    }
+}
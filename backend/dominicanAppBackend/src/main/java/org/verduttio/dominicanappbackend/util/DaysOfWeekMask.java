@@ -0,0 +1,39 @@
+package org.verduttio.dominicanappbackend.util;
+
+import java.time.DayOfWeek;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Sets of days of the week as 7-bit masks in Monday-first order: bit 0 is Monday, bit 6 is Sunday, as in
+ * {@link DayOfWeek#ordinal()}. The {@code days_of_week} columns of tasks and conflicts use the same order.
+ */
+public final class DaysOfWeekMask {
+
+    private DaysOfWeekMask() {
+    }
+
+    public static int dayBit(DayOfWeek dayOfWeek) {
+        return 1 << dayOfWeek.ordinal();
+    }
+
+    public static int toMask(Set<DayOfWeek> daysOfWeek) {
+        int mask = 0;
+        if (daysOfWeek != null) {
+            for (DayOfWeek dayOfWeek : daysOfWeek) {
+                mask |= dayBit(dayOfWeek);
+            }
+        }
+        return mask;
+    }
+
+    public static EnumSet<DayOfWeek> fromMask(int mask) {
+        EnumSet<DayOfWeek> daysOfWeek = EnumSet.noneOf(DayOfWeek.class);
+        for (DayOfWeek dayOfWeek : DayOfWeek.values()) {
+            if ((mask & dayBit(dayOfWeek)) != 0) {
+                daysOfWeek.add(dayOfWeek);
+            }
+        }
+        return daysOfWeek;
+    }
+}
@@ -0,0 +1,46 @@
+package org.verduttio.dominicanappbackend.util;
+
+import java.time.DayOfWeek;
+
+/**
+ * Builds labels like "Ws (Pn, Pt)" telling on which days of the week a task (or user) occurs in a schedule.
+ * <p>
+ * Days are passed as a {@link DaysOfWeekMask}, so the day list of every possible mask is computed only once. Days
+ * are listed from Sunday, as weeks of the schedule start on Sunday.
+ */
+public final class OccurrenceLabelFormatter {
+
+    private static final DayOfWeek[] LISTING_ORDER = {DayOfWeek.SUNDAY, DayOfWeek.MONDAY, DayOfWeek.TUESDAY,
+            DayOfWeek.WEDNESDAY, DayOfWeek.THURSDAY, DayOfWeek.FRIDAY, DayOfWeek.SATURDAY};
+    private static final String[] DAY_ABBREVIATIONS = {"Nd", "Pn", "Wt", "Śr", "Cz", "Pt", "So"};
+    private static final String[] DAYS_SUFFIXES = new String[1 << DAY_ABBREVIATIONS.length];
+
+    static {
+        for (int mask = 0; mask < DAYS_SUFFIXES.length; mask++) {
+            StringBuilder suffix = new StringBuilder(" (");
+            for (int day = 0; day < LISTING_ORDER.length; day++) {
+                if ((mask & DaysOfWeekMask.dayBit(LISTING_ORDER[day])) != 0) {
+                    if (suffix.length() > 2) {
+                        suffix.append(", ");
+                    }
+                    suffix.append(DAY_ABBREVIATIONS[day]);
+                }
+            }
+            DAYS_SUFFIXES[mask] = suffix.append(')').toString();
+        }
+    }
+
+    private OccurrenceLabelFormatter() {
+    }
+
+    /**
+     * If there is any feast in the week, or the occurrence does not cover all {@code expectedDaysCount} days,
+     * the label lists the days: "name (Pn, Śr)". Otherwise it is just the name.
+     */
+    public static String format(String name, int daysMask, int expectedDaysCount, boolean weekWithFeast) {
+        if (weekWithFeast || Integer.bitCount(daysMask) < expectedDaysCount) {
+            return name + DAYS_SUFFIXES[daysMask];
+        }
+        return name;
+    }
+}
@@ -0,0 +1,28 @@
+-- Keep the first of any duplicated assignments, which the application did not prevent before
+DELETE FROM schedule s
+    USING schedule d
+WHERE s.user_id = d.user_id
+  AND s.task_id = d.task_id
+  AND s.date = d.date
+  AND s.id > d.id;
+
+-- Contains the partition key, so it can be enforced on the partitioned table
+ALTER TABLE schedule
+    ADD CONSTRAINT uc_schedule_user_task_date UNIQUE (user_id, task_id, date);
+
+CREATE SEQUENCE IF NOT EXISTS schedule_slot_version_id_seq START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE schedule_slot_versions
+(
+    id      BIGINT NOT NULL,
+    task_id BIGINT NOT NULL,
+    date    date   NOT NULL,
+    version BIGINT NOT NULL,
+    CONSTRAINT pk_schedule_slot_versions PRIMARY KEY (id),
+    CONSTRAINT uc_schedule_slot_versions_task_date UNIQUE (task_id, date)
+);
+
+ALTER TABLE schedule_slot_versions
+    ADD CONSTRAINT FK_SCHEDULE_SLOT_VERSIONS_ON_TASK FOREIGN KEY (task_id) REFERENCES tasks (id) ON DELETE CASCADE;
+
+CREATE INDEX idx_schedule_slot_versions_date ON schedule_slot_versions (date);
@@ -0,0 +1,62 @@
+CREATE SEQUENCE IF NOT EXISTS schedule_event_id_seq START WITH 1 INCREMENT BY 1;
+
+-- No foreign keys to users and tasks: events stay in the journal when their user or task is deleted,
+-- so projections don't see ids disappear
+CREATE TABLE schedule_events
+(
+    id         BIGINT                      NOT NULL,
+    type       VARCHAR(32)                 NOT NULL,
+    user_id    BIGINT                      NOT NULL,
+    task_id    BIGINT                      NOT NULL,
+    date       date                        NOT NULL,
+    changed_by BIGINT,
+    created_at TIMESTAMP WITH TIME ZONE    NOT NULL,
+    CONSTRAINT pk_schedule_events PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_schedule_events_user_task_date ON schedule_events (user_id, task_id, date);
+
+-- Existing assignments start the journal, so projections rebuilt from it cover them too
+INSERT INTO schedule_events (id, type, user_id, task_id, date, changed_by, created_at)
+SELECT nextval('schedule_event_id_seq'), 'ASSIGNED', s.user_id, s.task_id, s.date, NULL, now()
+FROM (SELECT user_id, task_id, date FROM schedule ORDER BY date, id) s;
+
+CREATE TABLE schedule_projection_offsets
+(
+    projection_name VARCHAR(64)  NOT NULL,
+    last_event_id   BIGINT       NOT NULL,
+    basis           VARCHAR(255) NOT NULL,
+    CONSTRAINT pk_schedule_projection_offsets PRIMARY KEY (projection_name)
+);
+
+CREATE SEQUENCE IF NOT EXISTS schedule_projection_gap_id_seq START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE schedule_projection_gaps
+(
+    id              BIGINT                   NOT NULL,
+    projection_name VARCHAR(64)              NOT NULL,
+    event_id        BIGINT                   NOT NULL,
+    missing_since   TIMESTAMP WITH TIME ZONE NOT NULL,
+    CONSTRAINT pk_schedule_projection_gaps PRIMARY KEY (id),
+    CONSTRAINT uc_schedule_projection_gaps_projection_event UNIQUE (projection_name, event_id)
+);
+
+CREATE SEQUENCE IF NOT EXISTS user_task_assignment_stats_id_seq START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE user_task_assignment_stats
+(
+    id                          BIGINT NOT NULL,
+    user_id                     BIGINT NOT NULL,
+    task_id                     BIGINT NOT NULL,
+    occurrences_all_time        BIGINT NOT NULL,
+    occurrences_from_stats_date BIGINT NOT NULL,
+    last_assignment_date        date,
+    CONSTRAINT pk_user_task_assignment_stats PRIMARY KEY (id),
+    CONSTRAINT uc_user_task_assignment_stats_user_task UNIQUE (user_id, task_id)
+);
+
+ALTER TABLE user_task_assignment_stats
+    ADD CONSTRAINT FK_USER_TASK_ASSIGNMENT_STATS_ON_USER FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE;
+
+ALTER TABLE user_task_assignment_stats
+    ADD CONSTRAINT FK_USER_TASK_ASSIGNMENT_STATS_ON_TASK FOREIGN KEY (task_id) REFERENCES tasks (id) ON DELETE CASCADE;
@@ -0,0 +1,2 @@
+ALTER TABLE users
+    ADD COLUMN role_version BIGINT DEFAULT 0 NOT NULL;
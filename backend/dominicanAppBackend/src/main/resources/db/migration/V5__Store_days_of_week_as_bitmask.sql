@@ -0,0 +1,36 @@
+-- Days of week are stored as a bitmask: bit 0 is Monday, bit 6 is Sunday
+ALTER TABLE tasks
+    ADD COLUMN days_of_week SMALLINT DEFAULT 0 NOT NULL;
+
+ALTER TABLE conflicts
+    ADD COLUMN days_of_week SMALLINT DEFAULT 0 NOT NULL;
+
+UPDATE tasks t
+SET days_of_week = (SELECT COALESCE(BIT_OR(CASE d.days_of_week
+                                               WHEN 'MONDAY' THEN 1
+                                               WHEN 'TUESDAY' THEN 2
+                                               WHEN 'WEDNESDAY' THEN 4
+                                               WHEN 'THURSDAY' THEN 8
+                                               WHEN 'FRIDAY' THEN 16
+                                               WHEN 'SATURDAY' THEN 32
+                                               WHEN 'SUNDAY' THEN 64
+                                               ELSE 0 END), 0)
+                    FROM task_day_of_week d
+                    WHERE d.task_id = t.id);
+
+UPDATE conflicts c
+SET days_of_week = (SELECT COALESCE(BIT_OR(CASE d.days_of_week
+                                               WHEN 'MONDAY' THEN 1
+                                               WHEN 'TUESDAY' THEN 2
+                                               WHEN 'WEDNESDAY' THEN 4
+                                               WHEN 'THURSDAY' THEN 8
+                                               WHEN 'FRIDAY' THEN 16
+                                               WHEN 'SATURDAY' THEN 32
+                                               WHEN 'SUNDAY' THEN 64
+                                               ELSE 0 END), 0)
+                    FROM conflict_day_of_week d
+                    WHERE d.conflict_id = c.id);
+
+DROP TABLE task_day_of_week;
+
+DROP TABLE conflict_day_of_week;
@@ -0,0 +1,4 @@
+CREATE TABLE cache_invalidation_version (
+    entity_type VARCHAR(32) PRIMARY KEY,
+    version     BIGINT NOT NULL
+);
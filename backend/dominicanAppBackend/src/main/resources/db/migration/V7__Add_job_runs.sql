@@ -0,0 +1,16 @@
+CREATE SEQUENCE IF NOT EXISTS job_run_id_seq START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE job_runs
+(
+    id              BIGINT                      NOT NULL,
+    job_name        VARCHAR(64)                 NOT NULL,
+    node            VARCHAR(128)                NOT NULL,
+    started_at      TIMESTAMP WITH TIME ZONE    NOT NULL,
+    finished_at     TIMESTAMP WITH TIME ZONE,
+    duration_millis BIGINT,
+    status          VARCHAR(16)                 NOT NULL,
+    details         VARCHAR(1000),
+    CONSTRAINT pk_job_runs PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_job_runs_job_name_started_at ON job_runs (job_name, started_at);
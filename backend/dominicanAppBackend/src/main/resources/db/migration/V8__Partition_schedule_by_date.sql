@@ -0,0 +1,63 @@
+-- Converts schedule into a table partitioned by date, with one partition per year and a default partition for
+-- dates outside them. Further yearly partitions are created by the schedule-partition-maintenance job.
+-- The primary key of a partitioned table has to contain the partition key, so it becomes (id, date);
+-- ids still come from schedule_id_seq, which is not owned by the table and is kept as it is.
+
+ALTER TABLE schedule ALTER COLUMN date SET NOT NULL;
+
+ALTER TABLE schedule RENAME TO schedule_unpartitioned;
+ALTER TABLE schedule_unpartitioned RENAME CONSTRAINT pk_schedule TO pk_schedule_unpartitioned;
+
+CREATE TABLE schedule
+(
+    id      BIGINT NOT NULL,
+    task_id BIGINT,
+    user_id BIGINT,
+    date    date   NOT NULL,
+    CONSTRAINT pk_schedule PRIMARY KEY (id, date)
+) PARTITION BY RANGE (date);
+
+CREATE TABLE schedule_default PARTITION OF schedule DEFAULT;
+
+DO
+$$
+    DECLARE
+        first_year INT := LEAST(COALESCE((SELECT EXTRACT(YEAR FROM MIN(date))::INT FROM schedule_unpartitioned),
+                                         EXTRACT(YEAR FROM CURRENT_DATE)::INT),
+                                EXTRACT(YEAR FROM CURRENT_DATE)::INT);
+        last_year  INT := EXTRACT(YEAR FROM CURRENT_DATE)::INT + 2;
+    BEGIN
+        FOR year IN first_year..last_year
+            LOOP
+                EXECUTE format('CREATE TABLE schedule_y%s PARTITION OF schedule FOR VALUES FROM (%L) TO (%L)',
+                               year, make_date(year, 1, 1), make_date(year + 1, 1, 1));
+            END LOOP;
+    END
+$$;
+
+INSERT INTO schedule (id, task_id, user_id, date)
+SELECT id, task_id, user_id, date
+FROM schedule_unpartitioned;
+
+DROP TABLE schedule_unpartitioned;
+
+ALTER TABLE schedule
+    ADD CONSTRAINT FK_SCHEDULE_ON_TASK FOREIGN KEY (task_id) REFERENCES tasks (id);
+
+ALTER TABLE schedule
+    ADD CONSTRAINT FK_SCHEDULE_ON_USER FOREIGN KEY (user_id) REFERENCES users (id);
+
+-- Week views and statistics filter by date, history by user or task (and then by date)
+CREATE INDEX idx_schedule_date ON schedule (date);
+CREATE INDEX idx_schedule_user_id_date ON schedule (user_id, date);
+CREATE INDEX idx_schedule_task_id_date ON schedule (task_id, date);
+
+-- Old yearly partitions are moved here by the maintenance job, when archiving is enabled
+CREATE TABLE schedule_archive
+(
+    id      BIGINT NOT NULL,
+    task_id BIGINT,
+    user_id BIGINT,
+    date    date   NOT NULL,
+    CONSTRAINT pk_schedule_archive PRIMARY KEY (id, date)
+) PARTITION BY RANGE (date);
@@ -0,0 +1,31 @@
+CREATE SEQUENCE IF NOT EXISTS schedule_weekly_rollup_id_seq START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE schedule_weekly_rollup
+(
+    id         BIGINT  NOT NULL,
+    user_id    BIGINT  NOT NULL,
+    task_id    BIGINT  NOT NULL,
+    week_start date    NOT NULL,
+    day_mask   INTEGER NOT NULL,
+    count      INTEGER NOT NULL,
+    CONSTRAINT pk_schedule_weekly_rollup PRIMARY KEY (id),
+    CONSTRAINT uc_schedule_weekly_rollup_user_task_week UNIQUE (user_id, task_id, week_start)
+);
+
+ALTER TABLE schedule_weekly_rollup
+    ADD CONSTRAINT FK_SCHEDULE_WEEKLY_ROLLUP_ON_USER FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE;
+
+ALTER TABLE schedule_weekly_rollup
+    ADD CONSTRAINT FK_SCHEDULE_WEEKLY_ROLLUP_ON_TASK FOREIGN KEY (task_id) REFERENCES tasks (id) ON DELETE CASCADE;
+
+CREATE INDEX idx_schedule_weekly_rollup_week_start ON schedule_weekly_rollup (week_start);
+
+CREATE SEQUENCE IF NOT EXISTS schedule_rollup_state_id_seq START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE schedule_rollup_state
+(
+    id                BIGINT NOT NULL,
+    rolled_up_before  date   NOT NULL,
+    pruned_before     date,
+    CONSTRAINT pk_schedule_rollup_state PRIMARY KEY (id)
+);
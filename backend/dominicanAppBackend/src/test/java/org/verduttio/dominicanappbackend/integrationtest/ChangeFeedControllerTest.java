@@ -0,0 +1,82 @@
+package org.verduttio.dominicanappbackend.integrationtest;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.verduttio.dominicanappbackend.domain.Role;
+import org.verduttio.dominicanappbackend.domain.Task;
+import org.verduttio.dominicanappbackend.domain.User;
+import org.verduttio.dominicanappbackend.integrationtest.utility.DatabaseInitializer;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("integration_tests")
+public class ChangeFeedControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DatabaseInitializer databaseInitializer;
+
+    @Test
+    public void subscribe_WithUnknownTopic_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/changes").param("topics", "week:2024-01-07", "everything"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void subscribe_ToWeek_ShouldReceiveOnlyChangesOfThisWeek() throws Exception {
+        Role roleUser = databaseInitializer.addRoleUser();
+        User user = databaseInitializer.addUserFrankCadillac(Set.of(roleUser));
+        Task task = databaseInitializer.addDryDishesTask(Set.of(roleUser), roleUser);
+
+        MvcResult feed = mockMvc.perform(get("/api/changes").param("topics", "week:2024-01-07"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        addDailySchedule(user, task, "2024-01-15", "2024-01-14", "2024-01-20");
+        addDailySchedule(user, task, "2024-01-10", "2024-01-07", "2024-01-13");
+
+        String events = awaitContent(feed, "\"from\":\"2024-01-10\"");
+        assertThat(events).contains("event:schedule");
+        assertThat(events).contains("\"from\":\"2024-01-10\"");
+        assertThat(events).doesNotContain("2024-01-15");
+
+        databaseInitializer.clearDb();
+    }
+
+    private void addDailySchedule(User user, Task task, String taskDate, String weekStartDate, String weekEndDate) throws Exception {
+        String scheduleJson = "{\"taskId\":" + task.getId() + ",\"userId\":" + user.getId() + ",\"taskDate\":\"" + taskDate + "\"" +
+                ", \"weekStartDate\":\"" + weekStartDate + "\"" + ", \"weekEndDate\":\"" + weekEndDate + "\"}";
+        mockMvc.perform(post("/api/schedules/forDailyPeriod")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(scheduleJson))
+                .andExpect(status().isCreated());
+    }
+
+    private String awaitContent(MvcResult feed, String expected) throws Exception {
+        // Events are sent on a separate thread
+        for (int i = 0; i < 50; i++) {
+            String content = feed.getResponse().getContentAsString();
+            if (content.contains(expected)) {
+                return content;
+            }
+            Thread.sleep(100);
+        }
+        return feed.getResponse().getContentAsString();
+    }
+}
@@ -0,0 +1,100 @@
+package org.verduttio.dominicanappbackend.integrationtest;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.verduttio.dominicanappbackend.domain.Role;
+import org.verduttio.dominicanappbackend.domain.Task;
+import org.verduttio.dominicanappbackend.domain.User;
+import org.verduttio.dominicanappbackend.integrationtest.utility.DatabaseInitializer;
+import org.verduttio.dominicanappbackend.job.ClusterJobScheduler;
+import org.verduttio.dominicanappbackend.repository.JobRunRepository;
+import org.verduttio.dominicanappbackend.repository.ScheduleRollupStateRepository;
+import org.verduttio.dominicanappbackend.repository.ScheduleWeeklyRollupRepository;
+import org.verduttio.dominicanappbackend.service.ScheduleVersionService;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("integration_tests")
+public class JobControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DatabaseInitializer databaseInitializer;
+
+    @Autowired
+    private ClusterJobScheduler clusterJobScheduler;
+
+    @Autowired
+    private JobRunRepository jobRunRepository;
+
+    @Autowired
+    private ScheduleWeeklyRollupRepository scheduleWeeklyRollupRepository;
+
+    @Autowired
+    private ScheduleRollupStateRepository scheduleRollupStateRepository;
+
+    @Autowired
+    private ScheduleVersionService scheduleVersionService;
+
+    @BeforeEach
+    public void setUp() {
+        jobRunRepository.deleteAll();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        jobRunRepository.deleteAll();
+        scheduleWeeklyRollupRepository.deleteAll();
+        scheduleRollupStateRepository.deleteAll();
+        // Makes the roll-up boundary be read again
+        scheduleVersionService.markAllChanged();
+    }
+
+    @Test
+    public void runDueJobs_ShouldRunEveryJobOnceAndRecordItsRun() throws Exception {
+        Role roleUser = databaseInitializer.addRoleUser();
+        User user = databaseInitializer.addUserFrankCadillac(Set.of(roleUser));
+        Task task = databaseInitializer.addDryDishesTask(Set.of(roleUser), roleUser);
+        databaseInitializer.addSchedule(user, task, LocalDate.of(2024, 1, 10));
+        // Duplicated assignments are rejected by the database, so the check finds none
+        assertThrows(DataIntegrityViolationException.class,
+                () -> databaseInitializer.addSchedule(user, task, LocalDate.of(2024, 1, 10)));
+
+        clusterJobScheduler.runDueJobs();
+        // Not due again until the next planned run
+        clusterJobScheduler.runDueJobs();
+
+        mockMvc.perform(get("/api/jobs"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.name == 'session-cleanup')].recentRuns.length()").value(1))
+                .andExpect(jsonPath("$[?(@.name == 'session-cleanup')].recentRuns[0].status").value("SUCCEEDED"))
+                .andExpect(jsonPath("$[?(@.name == 'statistics-consistency-check')].recentRuns.length()").value(1))
+                .andExpect(jsonPath("$[?(@.name == 'statistics-consistency-check')].recentRuns[0].details")
+                        .value(hasItem(not(containsString("duplicate assignments")))))
+                .andExpect(jsonPath("$[?(@.name == 'statistics-consistency-check')].averageDurationMillis").isNotEmpty())
+                .andExpect(jsonPath("$[?(@.name == 'schedule-rollup')].recentRuns[0].status").value(hasItem("SUCCEEDED")))
+                .andExpect(jsonPath("$[?(@.name == 'schedule-projections')].recentRuns[0].status").value(hasItem("SUCCEEDED")));
+
+        databaseInitializer.clearDb();
+    }
+}
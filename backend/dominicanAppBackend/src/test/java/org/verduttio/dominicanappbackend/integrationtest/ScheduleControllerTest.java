@@ -1,15 +1,19 @@
 package org.verduttio.dominicanappbackend.integrationtest;
 
+import com.jayway.jsonpath.JsonPath;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.verduttio.dominicanappbackend.domain.*;
 import org.verduttio.dominicanappbackend.integrationtest.utility.DatabaseInitializer;
 import org.verduttio.dominicanappbackend.repository.ScheduleRepository;
+import org.verduttio.dominicanappbackend.repository.SpecialDateRepository;
+import org.verduttio.dominicanappbackend.repository.TaskRepository;
 
 import java.time.DayOfWeek;
 import java.time.LocalDate;
@@ -18,7 +22,9 @@ import java.util.Set;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.hasSize;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -33,6 +39,12 @@ public class ScheduleControllerTest {
     @Autowired
     private ScheduleRepository scheduleRepository;
 
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private SpecialDateRepository specialDateRepository;
+
     @Autowired
     private DatabaseInitializer databaseInitializer;
 
@@ -190,4 +202,259 @@ public class ScheduleControllerTest {
         databaseInitializer.clearDb();
     }
 
+    @Test
+    public void getWeekView_WithMatchingETag_ShouldReturnNotModifiedUntilWeekChanges() throws Exception {
+        Role roleUser = databaseInitializer.addRoleUser();
+        User user = databaseInitializer.addUserFrankCadillac(Set.of(roleUser));
+        Task task = databaseInitializer.addDryDishesTask(Set.of(roleUser), roleUser);
+        String weekUrl = "/api/schedules/tasks/scheduleShortInfo/week?from=07-01-2024&to=13-01-2024";
+
+        String eTag = mockMvc.perform(get(weekUrl))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get(weekUrl).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        String scheduleJson = "{\"taskId\":" + task.getId() + ",\"userId\":" + user.getId() + ",\"taskDate\":\"2024-01-10\"" + ", \"weekStartDate\":\"2024-01-07\"" + ", \"weekEndDate\":\"2024-01-13\"}";
+        mockMvc.perform(post("/api/schedules/forDailyPeriod")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(scheduleJson))
+                .andExpect(status().isCreated());
+
+        String newETag = mockMvc.perform(get(weekUrl).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(eTag, newETag);
+
+        databaseInitializer.clearDb();
+    }
+
+    @Test
+    public void getWeeklyBoard_WithMatchingETag_ShouldReturnOkAfterEarlierWeekChanges() throws Exception {
+        Role roleUser = databaseInitializer.addRoleUser();
+        User user = databaseInitializer.addUserFrankCadillac(Set.of(roleUser));
+        Task task = databaseInitializer.addDryDishesTask(Set.of(roleUser), roleUser);
+        SpecialDate statsDate = specialDateRepository.save(new SpecialDate(LocalDate.of(2023, 12, 1), SpecialDateType.STATS));
+        String boardUrl = "/api/schedules/task/" + roleUser.getName() + "/all/schedule-info/weekly?from=14-01-2024&to=20-01-2024";
+
+        String eTag = mockMvc.perform(get(boardUrl))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // The board counts assignments since the statistics date, so a change in an earlier week changes it too
+        String scheduleJson = "{\"taskId\":" + task.getId() + ",\"userId\":" + user.getId() + ",\"taskDate\":\"2024-01-10\"" + ", \"weekStartDate\":\"2024-01-07\"" + ", \"weekEndDate\":\"2024-01-13\"}";
+        mockMvc.perform(post("/api/schedules/forDailyPeriod")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(scheduleJson))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get(boardUrl).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk());
+
+        specialDateRepository.delete(statsDate);
+        databaseInitializer.clearDb();
+    }
+
+    @Test
+    public void applyBulkWeekSchedule_WithValidChanges_ShouldApplyAllOfThem() throws Exception {
+        Role roleUser = databaseInitializer.addRoleUser();
+        User user = databaseInitializer.addUserFrankCadillac(Set.of(roleUser));
+        Task dryDishes = databaseInitializer.addDryDishesTask(Set.of(roleUser), roleUser);
+        Task prepareMeal = databaseInitializer.addPrepareMealTask(Set.of(roleUser), roleUser);
+        databaseInitializer.addSchedule(user, dryDishes, LocalDate.of(2024, 1, 8));
+        String bulkJson = "{\"weekStartDate\":\"2024-01-07\",\"weekEndDate\":\"2024-01-13\"," +
+                "\"removals\":[{\"userId\":" + user.getId() + ",\"taskId\":" + dryDishes.getId() + ",\"taskDate\":\"2024-01-08\"}]," +
+                "\"additions\":[{\"userId\":" + user.getId() + ",\"taskId\":" + dryDishes.getId() + ",\"taskDate\":\"2024-01-10\"}," +
+                "{\"userId\":" + user.getId() + ",\"taskId\":" + prepareMeal.getId() + ",\"taskDate\":\"2024-01-12\"}]}";
+
+        mockMvc.perform(post("/api/schedules/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(bulkJson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.applied").value(true))
+                .andExpect(jsonPath("$.addedSchedules").value(2))
+                .andExpect(jsonPath("$.removedSchedules").value(1))
+                .andExpect(jsonPath("$.violations", hasSize(0)));
+
+        assertEquals(2, scheduleRepository.count());
+
+        databaseInitializer.clearDb();
+    }
+
+    @Test
+    public void applyBulkWeekSchedule_AllOrNothingWithViolations_ShouldReportAllAndApplyNothing() throws Exception {
+        Role roleUser = databaseInitializer.addRoleUser();
+        User user = databaseInitializer.addUserFrankCadillac(Set.of(roleUser));
+        Task dryDishes = databaseInitializer.addDryDishesTask(Set.of(roleUser), roleUser);
+        Task prepareMeal = databaseInitializer.addPrepareMealTask(Set.of(roleUser), roleUser);
+        Task washDishes = databaseInitializer.addWashDishesTask(Set.of(roleUser), roleUser);
+        databaseInitializer.addConflict(prepareMeal, washDishes, Set.of(DayOfWeek.TUESDAY));
+        // Wash dishes conflicts with the prepare meal assignment added earlier in the same batch,
+        // and dry dishes does not occur on Tuesday
+        String bulkJson = "{\"weekStartDate\":\"2024-01-07\",\"weekEndDate\":\"2024-01-13\",\"allOrNothing\":true," +
+                "\"additions\":[{\"userId\":" + user.getId() + ",\"taskId\":" + prepareMeal.getId() + ",\"taskDate\":\"2024-01-09\"}," +
+                "{\"userId\":" + user.getId() + ",\"taskId\":" + washDishes.getId() + ",\"taskDate\":\"2024-01-09\"}," +
+                "{\"userId\":" + user.getId() + ",\"taskId\":" + dryDishes.getId() + ",\"taskDate\":\"2024-01-09\"}]}";
+
+        mockMvc.perform(post("/api/schedules/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(bulkJson))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.applied").value(false))
+                .andExpect(jsonPath("$.violations", hasSize(2)))
+                .andExpect(jsonPath("$.violations[0].index").value(1))
+                .andExpect(jsonPath("$.violations[0].message").value("Schedule is in conflict with other schedules"))
+                .andExpect(jsonPath("$.violations[1].index").value(2));
+
+        assertEquals(0, scheduleRepository.count());
+
+        databaseInitializer.clearDb();
+    }
+
+    @Test
+    public void applyBulkWeekSchedule_OverParticipantsLimit_ShouldRejectExtraAssignments() throws Exception {
+        Role roleUser = databaseInitializer.addRoleUser();
+        User frank = databaseInitializer.addUserFrankCadillac(Set.of(roleUser));
+        User john = databaseInitializer.addUserJohnDoe(Set.of(roleUser));
+        Task dryDishes = databaseInitializer.addDryDishesTask(Set.of(roleUser), roleUser);
+        dryDishes.setParticipantsLimit(1);
+        taskRepository.save(dryDishes);
+        databaseInitializer.addSchedule(frank, dryDishes, LocalDate.of(2024, 1, 8));
+        // Monday is taken by an existing assignment, Wednesday by the first addition of the batch
+        String bulkJson = "{\"weekStartDate\":\"2024-01-07\",\"weekEndDate\":\"2024-01-13\"," +
+                "\"additions\":[{\"userId\":" + john.getId() + ",\"taskId\":" + dryDishes.getId() + ",\"taskDate\":\"2024-01-08\"}," +
+                "{\"userId\":" + frank.getId() + ",\"taskId\":" + dryDishes.getId() + ",\"taskDate\":\"2024-01-10\"}," +
+                "{\"userId\":" + john.getId() + ",\"taskId\":" + dryDishes.getId() + ",\"taskDate\":\"2024-01-10\"}]}";
+
+        mockMvc.perform(post("/api/schedules/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(bulkJson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.applied").value(true))
+                .andExpect(jsonPath("$.addedSchedules").value(1))
+                .andExpect(jsonPath("$.violations", hasSize(2)))
+                .andExpect(jsonPath("$.violations[0].index").value(0))
+                .andExpect(jsonPath("$.violations[0].message").value("Task has no free places left on 2024-01-08"))
+                .andExpect(jsonPath("$.violations[1].index").value(2))
+                .andExpect(jsonPath("$.violations[1].message").value("Task has no free places left on 2024-01-10"));
+
+        assertEquals(2, scheduleRepository.count());
+
+        databaseInitializer.clearDb();
+    }
+
+    @Test
+    public void applyBulkWeekSchedule_WithPeriodNotBeingWeek_ShouldReturnBadRequest() throws Exception {
+        String bulkJson = "{\"weekStartDate\":\"2024-01-08\",\"weekEndDate\":\"2024-01-13\",\"additions\":[]}";
+
+        mockMvc.perform(post("/api/schedules/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(bulkJson))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void previewGeneratedSchedule_ShouldReportObstacleHitsWithoutSavingAnything() throws Exception {
+        Role roleUser = databaseInitializer.addRoleUser();
+        User user = databaseInitializer.addUserFrankCadillac(Set.of(roleUser));
+        Task task = databaseInitializer.addDryDishesTask(Set.of(roleUser), roleUser);
+        databaseInitializer.addObstacle_01_01_To_01_20(user, task);
+
+        mockMvc.perform(post("/api/schedules/generator/kitchen-style/" + roleUser.getId() + "/preview")
+                        .param("startingFromUserId", user.getId().toString())
+                        .param("from", "08-01-2024")
+                        .param("to", "09-01-2024"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.committable").value(true))
+                .andExpect(jsonPath("$.proposedSchedules", hasSize(2)))
+                .andExpect(jsonPath("$.obstacleHits", hasSize(2)))
+                .andExpect(jsonPath("$.fairnessDeltas[0].assignmentsBefore").value(0))
+                .andExpect(jsonPath("$.fairnessDeltas[0].delta").value(2));
+
+        assertEquals(0, scheduleRepository.count());
+
+        databaseInitializer.clearDb();
+    }
+
+    @Test
+    public void commitSchedulePreview_ShouldStorePreviewedChangesOnlyOnce() throws Exception {
+        Role roleUser = databaseInitializer.addRoleUser();
+        User user = databaseInitializer.addUserFrankCadillac(Set.of(roleUser));
+        Task task = databaseInitializer.addDryDishesTask(Set.of(roleUser), roleUser);
+        String bulkJson = "{\"weekStartDate\":\"2024-01-07\",\"weekEndDate\":\"2024-01-13\"," +
+                "\"additions\":[{\"userId\":" + user.getId() + ",\"taskId\":" + task.getId() + ",\"taskDate\":\"2024-01-10\"}]}";
+
+        String previewJson = mockMvc.perform(post("/api/schedules/bulk/preview")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(bulkJson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.proposedSchedules", hasSize(1)))
+                .andReturn().getResponse().getContentAsString();
+        String previewId = JsonPath.read(previewJson, "$.previewId");
+        assertEquals(0, scheduleRepository.count());
+
+        mockMvc.perform(post("/api/schedules/previews/" + previewId + "/commit"))
+                .andExpect(status().isCreated());
+        assertEquals(1, scheduleRepository.count());
+
+        mockMvc.perform(post("/api/schedules/previews/" + previewId + "/commit"))
+                .andExpect(status().isNotFound());
+
+        databaseInitializer.clearDb();
+    }
+
+    @Test
+    public void commitSchedulePreview_AfterWeekChanged_ShouldReturnConflict() throws Exception {
+        Role roleUser = databaseInitializer.addRoleUser();
+        User user = databaseInitializer.addUserFrankCadillac(Set.of(roleUser));
+        Task task = databaseInitializer.addDryDishesTask(Set.of(roleUser), roleUser);
+        String bulkJson = "{\"weekStartDate\":\"2024-01-07\",\"weekEndDate\":\"2024-01-13\"," +
+                "\"additions\":[{\"userId\":" + user.getId() + ",\"taskId\":" + task.getId() + ",\"taskDate\":\"2024-01-10\"}]}";
+        String previewJson = mockMvc.perform(post("/api/schedules/bulk/preview")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(bulkJson))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String previewId = JsonPath.read(previewJson, "$.previewId");
+
+        String scheduleJson = "{\"taskId\":" + task.getId() + ",\"userId\":" + user.getId() + ",\"taskDate\":\"2024-01-08\"" + ", \"weekStartDate\":\"2024-01-07\"" + ", \"weekEndDate\":\"2024-01-13\"}";
+        mockMvc.perform(post("/api/schedules/forDailyPeriod")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(scheduleJson))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post("/api/schedules/previews/" + previewId + "/commit"))
+                .andExpect(status().isConflict());
+        assertEquals(1, scheduleRepository.count());
+
+        databaseInitializer.clearDb();
+    }
+
+    @Test
+    public void commitSchedulePreview_OverParticipantsLimit_ShouldReturnConflict() throws Exception {
+        Role roleUser = databaseInitializer.addRoleUser();
+        User frank = databaseInitializer.addUserFrankCadillac(Set.of(roleUser));
+        User john = databaseInitializer.addUserJohnDoe(Set.of(roleUser));
+        Task dryDishes = databaseInitializer.addDryDishesTask(Set.of(roleUser), roleUser);
+        dryDishes.setParticipantsLimit(1);
+        taskRepository.save(dryDishes);
+        databaseInitializer.addSchedule(john, dryDishes, LocalDate.of(2024, 1, 8));
+        String previewJson = mockMvc.perform(post("/api/schedules/generator/kitchen-style/" + roleUser.getId() + "/preview")
+                        .param("startingFromUserId", frank.getId().toString())
+                        .param("from", "08-01-2024")
+                        .param("to", "08-01-2024"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.proposedSchedules", hasSize(1)))
+                .andReturn().getResponse().getContentAsString();
+        String previewId = JsonPath.read(previewJson, "$.previewId");
+
+        mockMvc.perform(post("/api/schedules/previews/" + previewId + "/commit"))
+                .andExpect(status().isConflict());
+        assertEquals(1, scheduleRepository.count());
+
+        databaseInitializer.clearDb();
+    }
+
 }
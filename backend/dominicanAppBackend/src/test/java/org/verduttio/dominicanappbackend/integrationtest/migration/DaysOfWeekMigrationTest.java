@@ -0,0 +1,69 @@
+package org.verduttio.dominicanappbackend.integrationtest.migration;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.verduttio.dominicanappbackend.domain.DaysOfWeekConverter;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.DayOfWeek;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the V5 migration on PostgreSQL over days of the week stored the way they were before it.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public class DaysOfWeekMigrationTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    private final DaysOfWeekConverter converter = new DaysOfWeekConverter();
+
+    @Test
+    public void migrateToV5_ShouldStoreExistingDaysAsBitmask() throws SQLException {
+        migrateTo("4");
+        try (Connection connection = getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO tasks (id, name, participants_limit, archived) VALUES (1, 'Zmywanie', 1, false), (2, 'Suszenie', 1, false)");
+            statement.execute("INSERT INTO task_day_of_week (task_id, days_of_week) VALUES (1, 'MONDAY'), (1, 'WEDNESDAY'), (1, 'SUNDAY')");
+            statement.execute("INSERT INTO conflicts (id, task1_id, task2_id) VALUES (1, 1, 2)");
+            statement.execute("INSERT INTO conflict_day_of_week (conflict_id, days_of_week) VALUES (1, 'TUESDAY'), (1, 'SATURDAY')");
+        }
+
+        migrateTo("5");
+
+        assertThat(readDaysOfWeek("SELECT days_of_week FROM tasks WHERE id = 1"))
+                .containsExactlyInAnyOrder(DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY, DayOfWeek.SUNDAY);
+        assertThat(readDaysOfWeek("SELECT days_of_week FROM tasks WHERE id = 2")).isEmpty();
+        assertThat(readDaysOfWeek("SELECT days_of_week FROM conflicts WHERE id = 1"))
+                .containsExactlyInAnyOrder(DayOfWeek.TUESDAY, DayOfWeek.SATURDAY);
+    }
+
+    private void migrateTo(String version) {
+        Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .target(version)
+                .load()
+                .migrate();
+    }
+
+    private Set<DayOfWeek> readDaysOfWeek(String query) throws SQLException {
+        try (Connection connection = getConnection(); Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(query)) {
+            resultSet.next();
+            return converter.convertToEntityAttribute(resultSet.getShort(1));
+        }
+    }
+
+    private Connection getConnection() throws SQLException {
+        return DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+    }
+}
@@ -0,0 +1,96 @@
+package org.verduttio.dominicanappbackend.integrationtest.migration;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.verduttio.dominicanappbackend.job.SchedulePartitionMaintenanceJob;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the V8 and later migrations on PostgreSQL over existing schedules, then the partition maintenance job on the
+ * partitioned table. The job changes the partitions, so it runs after the migrations are checked.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class SchedulePartitioningMigrationTest {
+
+    private static final int CURRENT_YEAR = LocalDate.now().getYear();
+    private static final int OLD_YEAR = 2019;
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    private static DriverManagerDataSource dataSource;
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    public static void migrate() {
+        dataSource = new DriverManagerDataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        Flyway.configure().dataSource(dataSource).target("7").load().migrate();
+        jdbcTemplate.execute("INSERT INTO users (id, email, name, surname) VALUES (1, 'frank@example.com', 'Frank', 'Cadillac')");
+        jdbcTemplate.execute("INSERT INTO tasks (id, name, participants_limit, archived) VALUES (1, 'Zmywanie', 1, false)");
+        jdbcTemplate.update("INSERT INTO schedule (id, task_id, user_id, date) VALUES (1, 1, 1, ?), (2, 1, 1, ?), (3, 1, 1, ?)",
+                LocalDate.of(OLD_YEAR, 3, 4), LocalDate.of(CURRENT_YEAR, 1, 10), LocalDate.of(CURRENT_YEAR, 1, 10));
+
+        Flyway.configure().dataSource(dataSource).load().migrate();
+    }
+
+    @Test
+    @Order(1)
+    public void migrations_ShouldPartitionScheduleAndKeepItsRows() {
+        assertThat(getPartitions("schedule")).contains("schedule_default", "schedule_y" + OLD_YEAR,
+                "schedule_y" + CURRENT_YEAR, "schedule_y" + (CURRENT_YEAR + 2));
+        assertThat(countRows("schedule_y" + OLD_YEAR)).isEqualTo(1);
+        assertThat(countRows("schedule_default")).isZero();
+
+        // V10 keeps the first of duplicated assignments, V11 starts the journal with the remaining ones
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM schedule ORDER BY id", Long.class)).containsExactly(1L, 2L);
+        assertThat(countRows("schedule_events")).isEqualTo(2);
+    }
+
+    @Test
+    @Order(2)
+    public void maintenanceJob_ShouldCreateMissingPartitionsAndArchiveOldOnes() {
+        LocalDate farDate = LocalDate.of(CURRENT_YEAR + 3, 6, 1);
+        jdbcTemplate.update("INSERT INTO schedule (id, task_id, user_id, date) VALUES (10, 1, 1, ?)", farDate);
+        assertThat(countRows("schedule_default")).isEqualTo(1);
+
+        String result = new SchedulePartitionMaintenanceJob(jdbcTemplate, new DataSourceTransactionManager(dataSource),
+                "-", 3, 1).run();
+
+        assertThat(result).contains("created schedule_y" + (CURRENT_YEAR + 3), "archived schedule_y" + OLD_YEAR);
+        assertThat(countRows("schedule_default")).isZero();
+        assertThat(countRows("schedule_y" + (CURRENT_YEAR + 3))).isEqualTo(1);
+        assertThat(getPartitions("schedule")).doesNotContain("schedule_y" + OLD_YEAR);
+        assertThat(getPartitions("schedule_archive")).contains("schedule_y" + OLD_YEAR);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pg_constraint WHERE conrelid = to_regclass(?) AND contype = 'f'",
+                Long.class, "schedule_y" + OLD_YEAR)).isZero();
+
+        assertThat(new SchedulePartitionMaintenanceJob(jdbcTemplate, new DataSourceTransactionManager(dataSource),
+                "-", 3, 1).run()).isEqualTo("Partitions are up to date");
+    }
+
+    private List<String> getPartitions(String parentTable) {
+        return jdbcTemplate.queryForList("SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                "WHERE i.inhparent = to_regclass(?)", String.class, parentTable);
+    }
+
+    private long countRows(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+    }
+}
@@ -10,17 +10,28 @@ import org.springframework.transaction.annotation.Transactional;
 import org.verduttio.dominicanappbackend.domain.Role;
 import org.verduttio.dominicanappbackend.domain.RoleType;
 import org.verduttio.dominicanappbackend.domain.Schedule;
+import org.verduttio.dominicanappbackend.domain.SpecialDate;
+import org.verduttio.dominicanappbackend.domain.SpecialDateType;
 import org.verduttio.dominicanappbackend.domain.Task;
+import org.verduttio.dominicanappbackend.domain.User;
+import org.verduttio.dominicanappbackend.domain.AuthProvider;
+import org.verduttio.dominicanappbackend.dto.schedule.ScheduleShortInfoForTask;
+import org.verduttio.dominicanappbackend.dto.schedule.TaskAssignmentsCount;
 import org.verduttio.dominicanappbackend.repository.RoleRepository;
 import org.verduttio.dominicanappbackend.repository.ScheduleRepository;
+import org.verduttio.dominicanappbackend.repository.SpecialDateRepository;
 import org.verduttio.dominicanappbackend.repository.TaskRepository;
+import org.verduttio.dominicanappbackend.repository.UserRepository;
 import org.verduttio.dominicanappbackend.service.schedule.ScheduleService;
 import org.verduttio.dominicanappbackend.service.exception.EntityNotFoundException;
 
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -42,6 +53,12 @@ public class ScheduleServiceTest {
     @Autowired
     private RoleRepository roleRepository;
 
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SpecialDateRepository specialDateRepository;
+
     @BeforeEach
     public void setUp() {
         initializeTestData();
@@ -97,6 +114,50 @@ public class ScheduleServiceTest {
         assertFalse(availableTasks.contains(task3), "Task 3 should not be available as it's fully assigned for its day.");
     }
 
+    @Test
+    public void shouldCountAssignmentsPerTaskOnlyInPeriod() {
+        Task task1 = taskRepository.findByName("Task 1").get();
+        Task task2 = taskRepository.findByName("Task 2").get();
+        scheduleRepository.save(new Schedule(task2, null, LocalDate.of(2024, 2, 11)));
+        scheduleRepository.save(new Schedule(task2, null, LocalDate.of(2024, 2, 12)));
+
+        Map<Long, Long> assignmentsCounts = scheduleRepository.countAssignmentsPerTaskInPeriod(LocalDate.of(2024, 2, 5), LocalDate.of(2024, 2, 11))
+                .stream().collect(Collectors.toMap(TaskAssignmentsCount::taskId, TaskAssignmentsCount::assignmentsCount));
+
+        assertEquals(Map.of(task1.getId(), 1L, task2.getId(), 2L), assignmentsCounts,
+                "Tasks without schedules in the period should not be counted.");
+    }
+
+    @Test
+    public void shouldCountAssignmentsOnlyOfTasksOfSupervisorRole() {
+        Role otherSupervisorRole = roleRepository.save(new Role("OtherSupervisorRoleName", RoleType.SUPERVISOR));
+        Task otherTask = taskRepository.save(new Task("Task 4", "4", 1, false, null, otherSupervisorRole, EnumSet.of(DayOfWeek.MONDAY)));
+        scheduleRepository.save(new Schedule(otherTask, null, LocalDate.of(2024, 2, 5)));
+        Role supervisorRole = roleRepository.findByName("SupervisorRoleName").get();
+
+        List<Long> countedTaskIds = scheduleRepository.countAssignmentsPerTaskOfSupervisorRoleInPeriod(supervisorRole.getId(),
+                LocalDate.of(2024, 2, 5), LocalDate.of(2024, 2, 11)).stream().map(TaskAssignmentsCount::taskId).toList();
+
+        assertEquals(2, countedTaskIds.size());
+        assertFalse(countedTaskIds.contains(otherTask.getId()), "Tasks of other supervisor roles should not be counted.");
+    }
+
+    @Test
+    public void shouldNotReturnTaskWithAssignmentsEqualToLimitTimesDays() {
+        // Task 1 needs 2 participants on 2 days
+        Task task1 = taskRepository.findByName("Task 1").get();
+        LocalDate from = LocalDate.of(2024, 2, 5);
+        LocalDate to = LocalDate.of(2024, 2, 11);
+        scheduleRepository.save(new Schedule(task1, null, LocalDate.of(2024, 2, 5)));
+        scheduleRepository.save(new Schedule(task1, null, LocalDate.of(2024, 2, 6)));
+
+        assertTrue(scheduleService.getAvailableTasks(from, to).contains(task1), "Task with 3 of 4 assignments should be available.");
+
+        scheduleRepository.save(new Schedule(task1, null, LocalDate.of(2024, 2, 6)));
+
+        assertFalse(scheduleService.getAvailableTasks(from, to).contains(task1), "Task with 4 of 4 assignments should not be available.");
+    }
+
     @Test
     public void shouldReturnAllTasksForSupervisorWhenNoSchedules() {
         LocalDate from = LocalDate.of(2024, 2, 7);
@@ -141,6 +202,41 @@ public class ScheduleServiceTest {
         });
     }
 
+    @Test
+    public void shouldMarkFeastOnlyInHistoryWeekContainingIt() {
+        User user = userRepository.save(new User("history@mail.com", "password", new HashSet<>(), "John", "Doe",
+                AuthProvider.LOCAL, true, 0, null, null));
+        Task task3 = taskRepository.findByName("Task 3").get();
+        scheduleRepository.save(new Schedule(task3, user, LocalDate.of(2024, 2, 9)));
+        scheduleRepository.save(new Schedule(task3, user, LocalDate.of(2024, 2, 16)));
+        specialDateRepository.save(new SpecialDate(LocalDate.of(2024, 2, 13), SpecialDateType.FEAST));
 
+        Map<Integer, List<String>> history = scheduleService.getScheduleHistoryForUser(user.getId(), LocalDate.of(2024, 2, 18), 3);
+
+        assertEquals(List.of("1 (Pt)"), history.get(1), "Week with a feast should list the days of the task.");
+        assertEquals(List.of("1"), history.get(2), "Week without a feast should not list the days of the task.");
+        assertEquals(List.of(), history.get(3), "Week without schedules should be empty.");
+    }
 
+    @Test
+    public void shouldGroupWeekSchedulesByTaskInShortInfo() {
+        User user = userRepository.save(new User("short-info@mail.com", "password", new HashSet<>(), "John", "Doe",
+                AuthProvider.LOCAL, true, 0, null, null));
+        Task task2 = taskRepository.findByName("Task 2").get();
+        Task task3 = taskRepository.findByName("Task 3").get();
+        LocalDate from = LocalDate.of(2024, 2, 11);
+        LocalDate to = LocalDate.of(2024, 2, 17);
+        scheduleRepository.save(new Schedule(task2, user, LocalDate.of(2024, 2, 12)));
+        scheduleRepository.save(new Schedule(task2, user, LocalDate.of(2024, 2, 13)));
+        scheduleRepository.save(new Schedule(task3, user, LocalDate.of(2024, 2, 16)));
+
+        List<ScheduleShortInfoForTask> shortInfos = scheduleService.getScheduleShortInfoForTaskByRoleForSpecifiedWeek("SupervisorRoleName", from, to);
+
+        Map<String, List<String>> usersInfoStringsByTask = shortInfos.stream()
+                .collect(Collectors.toMap(ScheduleShortInfoForTask::taskName, ScheduleShortInfoForTask::usersInfoStrings));
+        assertEquals(3, shortInfos.size(), "Tasks without schedules should be included.");
+        assertEquals(List.of(), usersInfoStringsByTask.get("Task 1"));
+        assertEquals(List.of("John Doe (Pn, Wt)"), usersInfoStringsByTask.get("Task 2"));
+        assertEquals(List.of("John Doe"), usersInfoStringsByTask.get("Task 3"));
+    }
 }
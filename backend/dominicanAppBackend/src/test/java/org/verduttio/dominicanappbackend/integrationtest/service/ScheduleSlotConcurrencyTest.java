@@ -0,0 +1,108 @@
+package org.verduttio.dominicanappbackend.integrationtest.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.verduttio.dominicanappbackend.domain.Role;
+import org.verduttio.dominicanappbackend.domain.Schedule;
+import org.verduttio.dominicanappbackend.domain.Task;
+import org.verduttio.dominicanappbackend.domain.User;
+import org.verduttio.dominicanappbackend.dto.schedule.ScheduleDTO;
+import org.verduttio.dominicanappbackend.integrationtest.utility.DatabaseInitializer;
+import org.verduttio.dominicanappbackend.repository.ScheduleRepository;
+import org.verduttio.dominicanappbackend.repository.TaskRepository;
+import org.verduttio.dominicanappbackend.service.schedule.ScheduleService;
+import org.verduttio.dominicanappbackend.service.schedule.ScheduleSlotService;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("integration_tests")
+public class ScheduleSlotConcurrencyTest {
+
+    private static final LocalDate WEDNESDAY = LocalDate.of(2024, 1, 10);
+    private static final int ROUNDS = 10;
+
+    @Autowired
+    private ScheduleService scheduleService;
+
+    @Autowired
+    private ScheduleSlotService scheduleSlotService;
+
+    @Autowired
+    private ScheduleRepository scheduleRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private DatabaseInitializer databaseInitializer;
+
+    private User frank;
+    private User john;
+    private Task washDishes;
+    private Task dryDishes;
+
+    @BeforeEach
+    public void setUp() {
+        Role roleUser = databaseInitializer.addRoleUser();
+        frank = databaseInitializer.addUserFrankCadillac(Set.of(roleUser));
+        john = databaseInitializer.addUserJohnDoe(Set.of(roleUser));
+        washDishes = databaseInitializer.addWashDishesTask(Set.of(roleUser), roleUser);
+        dryDishes = databaseInitializer.addDryDishesTask(Set.of(roleUser), roleUser);
+        dryDishes.setParticipantsLimit(1);
+        dryDishes = taskRepository.save(dryDishes);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        databaseInitializer.clearDb();
+    }
+
+    @Test
+    public void updateSchedule_RacingWithAssign_ShouldNotExceedParticipantsLimit() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                scheduleRepository.deleteAll();
+                Schedule frankSchedule = databaseInitializer.addSchedule(frank, washDishes, WEDNESDAY);
+                ScheduleDTO moveToDryDishes = new ScheduleDTO();
+                moveToDryDishes.setTaskId(dryDishes.getId());
+                moveToDryDishes.setUserId(frank.getId());
+                moveToDryDishes.setDate(WEDNESDAY);
+
+                CyclicBarrier start = new CyclicBarrier(2);
+                Future<Boolean> update = executor.submit(() -> succeeds(start,
+                        () -> scheduleService.updateSchedule(frankSchedule.getId(), moveToDryDishes, false)));
+                Future<Boolean> assign = executor.submit(() -> succeeds(start,
+                        () -> scheduleSlotService.assign(dryDishes, john, List.of(WEDNESDAY))));
+
+                int successes = (update.get(30, TimeUnit.SECONDS) ? 1 : 0) + (assign.get(30, TimeUnit.SECONDS) ? 1 : 0);
+                long dryDishesParticipants = scheduleRepository.countByTaskIdAndDate(dryDishes.getId(), WEDNESDAY);
+                assertTrue(dryDishesParticipants <= 1, "Participants limit exceeded in round " + round);
+                assertEquals(successes, dryDishesParticipants, "Unexpected outcome in round " + round);
+                assertEquals(1, successes, "Exactly one writer should get the last place in round " + round);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static boolean succeeds(CyclicBarrier start, Runnable write) throws Exception {
+        start.await(10, TimeUnit.SECONDS);
+        try {
+            write.run();
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package org.verduttio.dominicanappbackend.integrationtest.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.verduttio.dominicanappbackend.domain.Role;
+import org.verduttio.dominicanappbackend.domain.Task;
+import org.verduttio.dominicanappbackend.domain.User;
+import org.verduttio.dominicanappbackend.integrationtest.utility.DatabaseInitializer;
+import org.verduttio.dominicanappbackend.journal.ScheduleProjectionRunner;
+import org.verduttio.dominicanappbackend.journal.UserTaskStatisticsProjection;
+import org.verduttio.dominicanappbackend.repository.ScheduleEventRepository;
+import org.verduttio.dominicanappbackend.repository.ScheduleProjectionGapRepository;
+import org.verduttio.dominicanappbackend.repository.ScheduleProjectionOffsetRepository;
+import org.verduttio.dominicanappbackend.repository.UserTaskAssignmentStatsRepository;
+import org.verduttio.dominicanappbackend.service.UserService;
+import org.verduttio.dominicanappbackend.service.schedule.ScheduleSlotService;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("integration_tests")
+public class UserTaskStatisticsProjectionTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2024, 1, 8);
+
+    @Autowired
+    private ScheduleSlotService scheduleSlotService;
+
+    @Autowired
+    private ScheduleProjectionRunner scheduleProjectionRunner;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ScheduleEventRepository scheduleEventRepository;
+
+    @Autowired
+    private ScheduleProjectionOffsetRepository offsetRepository;
+
+    @Autowired
+    private ScheduleProjectionGapRepository gapRepository;
+
+    @Autowired
+    private UserTaskAssignmentStatsRepository statsRepository;
+
+    @Autowired
+    private DatabaseInitializer databaseInitializer;
+
+    private User frank;
+    private User john;
+    private Task washDishes;
+
+    @BeforeEach
+    public void setUp() {
+        Role roleUser = databaseInitializer.addRoleUser();
+        frank = databaseInitializer.addUserFrankCadillac(Set.of(roleUser));
+        john = databaseInitializer.addUserJohnDoe(Set.of(roleUser));
+        washDishes = databaseInitializer.addWashDishesTask(Set.of(roleUser), roleUser);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        databaseInitializer.clearDb();
+        statsRepository.deleteAll();
+        gapRepository.deleteAll();
+        offsetRepository.deleteAll();
+        scheduleEventRepository.deleteAll();
+    }
+
+    @Test
+    public void catchUp_AfterUserIsDeleted_ShouldKeepTheirEventsAndSkipThem() {
+        scheduleSlotService.assign(washDishes, frank, List.of(MONDAY));
+        scheduleSlotService.assign(washDishes, john, List.of(MONDAY));
+        scheduleProjectionRunner.catchUp(UserTaskStatisticsProjection.NAME);
+
+        userService.deleteUser(frank.getId());
+        scheduleSlotService.assign(washDishes, john, List.of(MONDAY.plusDays(1)));
+        scheduleProjectionRunner.rebuild(UserTaskStatisticsProjection.NAME);
+
+        assertEquals(1, scheduleEventRepository.findAll().stream().filter(event -> event.getUserId().equals(frank.getId())).count());
+        assertEquals(2, statsRepository.findByUserIdAndTaskId(john.getId(), washDishes.getId()).orElseThrow().getOccurrencesAllTime());
+        assertEquals(List.of(john.getId()), statsRepository.findAll().stream().map(stats -> stats.getUser().getId()).toList());
+    }
+}
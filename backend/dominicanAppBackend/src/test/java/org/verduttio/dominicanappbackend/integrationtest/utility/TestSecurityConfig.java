@@ -13,8 +13,8 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.context.NullSecurityContextRepository;
 import org.springframework.security.web.context.SecurityContextRepository;
+import org.springframework.session.FindByIndexNameSessionRepository;
 import org.springframework.session.Session;
-import org.springframework.session.jdbc.JdbcIndexedSessionRepository;
 import org.springframework.session.security.SpringSessionBackedSessionRegistry;
 import org.verduttio.dominicanappbackend.security.UserDetailsServiceImpl;
 
@@ -24,12 +24,12 @@ import org.verduttio.dominicanappbackend.security.UserDetailsServiceImpl;
 public class TestSecurityConfig {
     private final UserDetailsServiceImpl userDetailsServiceImpl;
     private final BCryptPasswordEncoder bCryptPasswordEncoder;
-    private final JdbcIndexedSessionRepository jdbcIndexedSessionRepository;
+    private final FindByIndexNameSessionRepository<? extends Session> sessionRepository;
 
-    public TestSecurityConfig(UserDetailsServiceImpl userDetailsServiceImpl, BCryptPasswordEncoder bCryptPasswordEncoder, JdbcIndexedSessionRepository jdbcIndexedSessionRepository) {
+    public TestSecurityConfig(UserDetailsServiceImpl userDetailsServiceImpl, BCryptPasswordEncoder bCryptPasswordEncoder, FindByIndexNameSessionRepository<? extends Session> sessionRepository) {
         this.userDetailsServiceImpl = userDetailsServiceImpl;
         this.bCryptPasswordEncoder = bCryptPasswordEncoder;
-        this.jdbcIndexedSessionRepository = jdbcIndexedSessionRepository;
+        this.sessionRepository = sessionRepository;
     }
 
     @Bean
@@ -59,7 +59,7 @@ public class TestSecurityConfig {
 
     @Bean
     public SpringSessionBackedSessionRegistry<? extends Session> sessionRegistry() {
-        return new SpringSessionBackedSessionRegistry<>(jdbcIndexedSessionRepository);
+        return new SpringSessionBackedSessionRegistry<>(sessionRepository);
     }
 }
 
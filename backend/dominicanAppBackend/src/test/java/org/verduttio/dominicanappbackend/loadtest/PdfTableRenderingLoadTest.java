@@ -0,0 +1,109 @@
+package org.verduttio.dominicanappbackend.loadtest;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.verduttio.dominicanappbackend.dto.user.UserSchedulesOnDaysDTO;
+import org.verduttio.dominicanappbackend.dto.user.UserShortInfo;
+import org.verduttio.dominicanappbackend.service.pdf.builders.DayTableBuilder;
+import org.verduttio.dominicanappbackend.service.pdf.table.PdfTable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.verduttio.dominicanappbackend.service.pdf.generators.AbstractPdfGenerator.MARGIN;
+import static org.verduttio.dominicanappbackend.service.pdf.generators.AbstractPdfGenerator.loadFont;
+
+/**
+ * Measures drawing and saving the 60 days by 60 users day matrix with {@link PdfTable}.
+ * Not part of the regular test run; start it with {@code gradle loadTest}.
+ */
+@Tag("load")
+public class PdfTableRenderingLoadTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(PdfTableRenderingLoadTest.class);
+
+    private static final int DAYS = 60;
+    private static final int USERS = 60;
+    private static final int WARM_UP_RUNS = 5;
+    private static final int MEASURED_RUNS = 20;
+    private static final LocalDate FROM = LocalDate.of(2024, 3, 3);
+    private static final LocalDate TO = FROM.plusDays(DAYS - 1);
+    private static final List<String> TASKS = List.of("Zmywanie", "Obiad", "Lektor", "Kantor", "Ceremoniarz", "Żółć");
+
+    @Test
+    public void measureDayMatrixRendering() throws Exception {
+        List<UserSchedulesOnDaysDTO> userSchedules = createUserSchedules();
+
+        Result pdfTable = measure(document -> drawWithPdfTable(document, userSchedules));
+
+        logger.info("PdfTable: {} ms per document, {} pages", String.format("%.1f", pdfTable.millis()), pdfTable.pages());
+        assertThat(pdfTable.pages()).isGreaterThan(1);
+    }
+
+    private Result measure(Drawing drawing) throws IOException {
+        int pages = 0;
+        for (int i = 0; i < WARM_UP_RUNS; i++) {
+            pages = render(drawing);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            render(drawing);
+        }
+        return new Result((System.nanoTime() - start) / 1_000_000.0 / MEASURED_RUNS, pages);
+    }
+
+    private int render(Drawing drawing) throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            drawing.draw(document);
+            document.save(new ByteArrayOutputStream());
+            return document.getNumberOfPages();
+        }
+    }
+
+    private void drawWithPdfTable(PDDocument document, List<UserSchedulesOnDaysDTO> userSchedules) throws IOException {
+        PDFont font = loadFont(document);
+        PDPage page = addPage(document);
+        PdfTable table = new PdfTable(document, page, font, page.getMediaBox().getHeight() - 50, MARGIN);
+        new DayTableBuilder(table, FROM, TO).buildTable(userSchedules);
+    }
+
+    private PDPage addPage(PDDocument document) {
+        PDPage page = new PDPage(new PDRectangle(PDRectangle.A4.getHeight(), PDRectangle.A4.getWidth()));
+        document.addPage(page);
+        return page;
+    }
+
+    private List<UserSchedulesOnDaysDTO> createUserSchedules() {
+        List<UserSchedulesOnDaysDTO> userSchedules = new ArrayList<>();
+        for (int user = 0; user < USERS; user++) {
+            Map<LocalDate, List<String>> schedules = new HashMap<>();
+            for (LocalDate date = FROM; !date.isAfter(TO); date = date.plusDays(1)) {
+                int numberOfTasks = (user + date.getDayOfMonth()) % 4;
+                List<String> tasks = new ArrayList<>();
+                for (int i = 0; i < numberOfTasks; i++) {
+                    tasks.add(TASKS.get((user + i) % TASKS.size()));
+                }
+                schedules.put(date, tasks);
+            }
+            userSchedules.add(new UserSchedulesOnDaysDTO(new UserShortInfo((long) user, "Brat" + user, "Łukaszewski"), schedules));
+        }
+        return userSchedules;
+    }
+
+    private interface Drawing {
+        void draw(PDDocument document) throws IOException;
+    }
+
+    private record Result(double millis, int pages) {
+    }
+}
@@ -0,0 +1,192 @@
+package org.verduttio.dominicanappbackend.loadtest;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.verduttio.dominicanappbackend.DominicanAppBackendApplication;
+import org.verduttio.dominicanappbackend.domain.Role;
+import org.verduttio.dominicanappbackend.domain.User;
+import org.verduttio.dominicanappbackend.integrationtest.utility.DatabaseInitializer;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares request throughput of the application running on platform Tomcat threads and on virtual threads,
+ * for plain reads, task schedule PDFs and kitchen-style schedule generation.
+ * Not part of the regular test run; start it with {@code gradle loadTest}.
+ */
+@Tag("load")
+public class ThroughputLoadTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ThroughputLoadTest.class);
+
+    private static final List<String> READ_PATHS = List.of("/api/tasks", "/api/users", "/api/roles");
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+    private static final LocalDate FIRST_MONDAY = LocalDate.of(2024, 1, 1);
+
+    private static final Scenario READS = new Scenario("reads", 200, 20);
+    private static final Scenario PDF = new Scenario("pdf", 20, 5);
+    private static final Scenario GENERATOR = new Scenario("generator", 10, 5);
+    private static final List<Scenario> SCENARIOS = List.of(READS, PDF, GENERATOR);
+
+    @Test
+    public void compareThroughputOfPlatformAndVirtualThreads() throws Exception {
+        Map<Scenario, Result> platformThreads = measure(false);
+        Map<Scenario, Result> virtualThreads = measure(true);
+
+        for (Scenario scenario : SCENARIOS) {
+            log("platform", scenario, platformThreads.get(scenario));
+            log("virtual", scenario, virtualThreads.get(scenario));
+        }
+
+        for (Scenario scenario : SCENARIOS) {
+            assertAllAnswered(scenario, platformThreads.get(scenario));
+            assertAllAnswered(scenario, virtualThreads.get(scenario));
+        }
+    }
+
+    private Map<Scenario, Result> measure(boolean virtualThreadsEnabled) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DominicanAppBackendApplication.class)
+                .profiles("integration_tests")
+                .properties("server.port=0", "spring.threads.virtual.enabled=" + virtualThreadsEnabled)
+                .run()) {
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient client = HttpClient.newHttpClient();
+            Requests requests = seed(context.getBean(DatabaseInitializer.class), port);
+
+            // Warm up, so that both modes are measured with loaded classes, fonts and a filled connection pool
+            for (Scenario scenario : SCENARIOS) {
+                runClients(client, requests, scenario, 2);
+            }
+
+            Map<Scenario, Result> results = new LinkedHashMap<>();
+            for (Scenario scenario : SCENARIOS) {
+                long start = System.nanoTime();
+                Result counts = runClients(client, requests, scenario, scenario.clients());
+                double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+                results.put(scenario, new Result(counts.ok(), counts.rejected(), counts.failed(),
+                        (counts.ok() + counts.rejected()) / seconds));
+            }
+            return results;
+        }
+    }
+
+    private Requests seed(DatabaseInitializer databaseInitializer, int port) {
+        Role roleUser = databaseInitializer.addRoleUser();
+        User frank = databaseInitializer.addUserFrankCadillac(Set.of(roleUser));
+        databaseInitializer.addUserJohnDoe(Set.of(roleUser));
+        databaseInitializer.addWashDishesTask(Set.of(roleUser), roleUser);
+        databaseInitializer.addDryDishesTask(Set.of(roleUser), roleUser);
+        return new Requests("http://localhost:" + port, roleUser.getId(), frank.getId());
+    }
+
+    private Result runClients(HttpClient client, Requests requests, Scenario scenario, int clients) throws Exception {
+        AtomicInteger ok = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int c = 0; c < clients; c++) {
+                int clientNumber = c;
+                futures.add(executor.submit(() -> {
+                    for (int r = 0; r < scenario.requestsPerClient(); r++) {
+                        int status = client.send(requests.next(scenario, clientNumber + r),
+                                HttpResponse.BodyHandlers.discarding()).statusCode();
+                        if (status == 200 || status == 201) {
+                            ok.incrementAndGet();
+                        } else if (status == 503) {
+                            rejected.incrementAndGet();
+                        } else {
+                            failed.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        return new Result(ok.get(), rejected.get(), failed.get(), 0);
+    }
+
+    private static void log(String mode, Scenario scenario, Result result) {
+        logger.info("{} threads, {}: {} req/s ({} ok, {} rejected, {} failed)", mode, scenario.name(),
+                String.format("%.1f", result.throughput()), result.ok(), result.rejected(), result.failed());
+    }
+
+    private static void assertAllAnswered(Scenario scenario, Result result) {
+        assertThat(result.failed()).as("failed %s requests", scenario.name()).isZero();
+        assertThat(result.ok() + result.rejected()).as("answered %s requests", scenario.name()).isEqualTo(scenario.totalRequests());
+        assertThat(result.ok()).as("successful %s requests", scenario.name()).isPositive();
+    }
+
+    private record Scenario(String name, int clients, int requestsPerClient) {
+        int totalRequests() {
+            return clients * requestsPerClient;
+        }
+    }
+
+    private record Result(int ok, int rejected, int failed, double throughput) {
+    }
+
+    /**
+     * Builds the requests of each scenario. PDFs are requested for a different week each time, so renders
+     * are not shared by the single-flight cache, and every generation targets a day not generated before.
+     */
+    private static final class Requests {
+        private final String baseUrl;
+        private final Long roleId;
+        private final Long startingFromUserId;
+        private final AtomicInteger pdfWeek = new AtomicInteger();
+        private final AtomicInteger generatorDay = new AtomicInteger();
+
+        private Requests(String baseUrl, Long roleId, Long startingFromUserId) {
+            this.baseUrl = baseUrl;
+            this.roleId = roleId;
+            this.startingFromUserId = startingFromUserId;
+        }
+
+        HttpRequest next(Scenario scenario, int sequence) {
+            if (scenario == PDF) {
+                LocalDate from = FIRST_MONDAY.plusWeeks(pdfWeek.getAndIncrement());
+                return get("/api/pdf/schedules/tasks/scheduleShortInfo/week?from=" + from.format(DATE_FORMAT)
+                        + "&to=" + from.plusDays(6).format(DATE_FORMAT));
+            }
+            if (scenario == GENERATOR) {
+                String day = FIRST_MONDAY.plusDays(generatorDay.getAndIncrement()).format(DATE_FORMAT);
+                return HttpRequest.newBuilder(URI.create(baseUrl + "/api/schedules/generator/kitchen-style/" + roleId
+                                + "?startingFromUserId=" + startingFromUserId + "&from=" + day + "&to=" + day))
+                        .POST(HttpRequest.BodyPublishers.noBody())
+                        .build();
+            }
+            return get(READ_PATHS.get(sequence % READ_PATHS.size()));
+        }
+
+        private HttpRequest get(String path) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package org.verduttio.dominicanappbackend.unittest.changefeed;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.verduttio.dominicanappbackend.changefeed.ChangeFeedService;
+import org.verduttio.dominicanappbackend.changefeed.ChangeTopics;
+import org.verduttio.dominicanappbackend.changefeed.ScheduleChangeEvent;
+import org.verduttio.dominicanappbackend.security.SessionPrincipal;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ChangeFeedServiceTest {
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void scheduleChangeEvent_ShouldHaveTopicOfEveryWeekInRange() {
+        ScheduleChangeEvent event = new ScheduleChangeEvent(LocalDate.of(2024, 1, 10), LocalDate.of(2024, 1, 15), 3L, 7L);
+
+        assertThat(event.topics()).containsExactlyInAnyOrder(
+                "week:2024-01-07", "week:2024-01-14", ChangeTopics.SCHEDULES, "user:3", "role:7");
+    }
+
+    @Test
+    public void isValid_ShouldAcceptOnlyKnownTopics() {
+        assertThat(ChangeTopics.isValid("week:2024-01-07")).isTrue();
+        assertThat(ChangeTopics.isValid("user:12")).isTrue();
+        assertThat(ChangeTopics.isValid(ChangeTopics.OBSTACLES)).isTrue();
+
+        assertThat(ChangeTopics.isValid("week:2024-01-08")).isFalse();
+        assertThat(ChangeTopics.isValid("week:tomorrow")).isFalse();
+        assertThat(ChangeTopics.isValid("user:")).isFalse();
+        assertThat(ChangeTopics.isValid("tasks")).isFalse();
+    }
+
+    @Test
+    public void subscribe_OverLimit_ShouldBeRejected() {
+        ChangeFeedService changeFeedService = new ChangeFeedService(8, 2, Duration.ofMinutes(1));
+
+        assertThat(changeFeedService.subscribe(Set.of(ChangeTopics.USERS))).isPresent();
+        assertThat(changeFeedService.subscribe(Set.of(ChangeTopics.USERS))).isPresent();
+        assertThat(changeFeedService.subscribe(Set.of(ChangeTopics.USERS))).isEmpty();
+        assertThat(changeFeedService.getNumberOfSubscribers()).isEqualTo(2);
+    }
+
+    @Test
+    public void subscribe_ToObstaclesAsNonAdmin_ShouldBeDenied() {
+        ChangeFeedService changeFeedService = new ChangeFeedService(8, 10, Duration.ofMinutes(1));
+        logIn(3L, "ROLE_USER");
+
+        assertThrows(AccessDeniedException.class,
+                () -> changeFeedService.subscribe(Set.of(ChangeTopics.SCHEDULES, ChangeTopics.OBSTACLES)));
+        assertThat(changeFeedService.getNumberOfSubscribers()).isZero();
+    }
+
+    @Test
+    public void subscribe_ToOtherUserAsNonAdmin_ShouldBeDenied() {
+        ChangeFeedService changeFeedService = new ChangeFeedService(8, 10, Duration.ofMinutes(1));
+        logIn(3L, "ROLE_USER");
+
+        assertThat(changeFeedService.subscribe(Set.of(ChangeTopics.user(3L)))).isPresent();
+        assertThrows(AccessDeniedException.class, () -> changeFeedService.subscribe(Set.of(ChangeTopics.user(4L))));
+        assertThat(changeFeedService.getNumberOfSubscribers()).isEqualTo(1);
+    }
+
+    @Test
+    public void subscribe_ToObstaclesAndOtherUserAsAdmin_ShouldBeAllowed() {
+        ChangeFeedService changeFeedService = new ChangeFeedService(8, 10, Duration.ofMinutes(1));
+        logIn(3L, "ROLE_USER", "ROLE_ADMIN");
+
+        assertThat(changeFeedService.subscribe(Set.of(ChangeTopics.OBSTACLES, ChangeTopics.user(4L)))).isPresent();
+    }
+
+    private void logIn(Long userId, String... roleNames) {
+        SessionPrincipal principal = new SessionPrincipal(userId, "user@example.com", Set.of(roleNames), 0);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+}
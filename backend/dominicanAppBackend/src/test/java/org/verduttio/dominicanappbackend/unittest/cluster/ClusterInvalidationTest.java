@@ -0,0 +1,65 @@
+package org.verduttio.dominicanappbackend.unittest.cluster;
+
+import org.junit.jupiter.api.Test;
+import org.verduttio.dominicanappbackend.cluster.ClusterInvalidationEvent;
+import org.verduttio.dominicanappbackend.cluster.ClusterInvalidationService;
+import org.verduttio.dominicanappbackend.cluster.InvalidationMessage;
+import org.verduttio.dominicanappbackend.cluster.InvalidationType;
+import org.verduttio.dominicanappbackend.service.ScheduleVersionService;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+public class ClusterInvalidationTest {
+
+    @Test
+    public void invalidationMessage_ShouldBeDecodedFromItsEncodedForm() {
+        InvalidationMessage message = new InvalidationMessage(InvalidationType.SCHEDULE_WEEK, 19730, 42, "a1b2c3d4");
+
+        assertThat(InvalidationMessage.decode(message.encode())).isEqualTo(message);
+    }
+
+    @Test
+    public void invalidationMessage_ForSession_ShouldKeepSessionId() {
+        InvalidationMessage message = new InvalidationMessage(InvalidationType.SESSION, "5f1e0c2a-7d3b-4b8e-9a51-0c6d2e4f7a18", 7, "a1b2c3d4");
+
+        assertThat(InvalidationMessage.decode(message.encode())).isEqualTo(message);
+    }
+
+    @Test
+    public void invalidationMessage_Malformed_ShouldNotBeDecoded() {
+        assertThatThrownBy(() -> InvalidationMessage.decode("SCHEDULE_WEEK:1:2"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> InvalidationMessage.decode("TASKS:1:2:node"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> InvalidationMessage.decode("GLOBAL:x:2:node"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void scheduleVersionService_RemoteWeekChange_ShouldChangeETagOfThatWeekOnly() {
+        ScheduleVersionService scheduleVersionService = new ScheduleVersionService(mock(ClusterInvalidationService.class));
+        LocalDate sunday = LocalDate.of(2024, 1, 7);
+        String changedWeekETag = scheduleVersionService.getETag(sunday, sunday.plusDays(6));
+        String otherWeekETag = scheduleVersionService.getETag(sunday.plusWeeks(1), sunday.plusWeeks(1).plusDays(6));
+
+        scheduleVersionService.onClusterInvalidation(new ClusterInvalidationEvent(InvalidationType.SCHEDULE_WEEK, sunday.toEpochDay()));
+
+        assertThat(scheduleVersionService.getETag(sunday, sunday.plusDays(6))).isNotEqualTo(changedWeekETag);
+        assertThat(scheduleVersionService.getETag(sunday.plusWeeks(1), sunday.plusWeeks(1).plusDays(6))).isEqualTo(otherWeekETag);
+    }
+
+    @Test
+    public void scheduleVersionService_MissedNotifications_ShouldChangeETagOfAllWeeks() {
+        ScheduleVersionService scheduleVersionService = new ScheduleVersionService(mock(ClusterInvalidationService.class));
+        LocalDate sunday = LocalDate.of(2024, 1, 7);
+        String eTag = scheduleVersionService.getETag(sunday, sunday.plusDays(6));
+
+        scheduleVersionService.onClusterInvalidation(new ClusterInvalidationEvent(InvalidationType.SCHEDULE_WEEK, InvalidationMessage.ALL_IDS));
+
+        assertThat(scheduleVersionService.getETag(sunday, sunday.plusDays(6))).isNotEqualTo(eTag);
+    }
+}
@@ -0,0 +1,127 @@
+package org.verduttio.dominicanappbackend.unittest.concurrency;
+
+import org.junit.jupiter.api.Test;
+import org.verduttio.dominicanappbackend.concurrency.SingleFlight;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SingleFlightTest {
+
+    private static final LocalDate FROM = LocalDate.of(2024, 1, 7);
+    private static final LocalDate TO = LocalDate.of(2024, 1, 13);
+
+    private final SingleFlight singleFlight = new SingleFlight(Duration.ofSeconds(5));
+
+    @Test
+    public void execute_ConcurrentIdenticalCalls_ShouldDoTheWorkOnce() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+        SingleFlight.Work<String, RuntimeException> work = () -> {
+            runs.incrementAndGet();
+            await(release);
+            return "pdf";
+        };
+
+        List<Future<String>> results = startCalls(4, SingleFlight.key("usersPdf", "\"v1\"", FROM, TO), work);
+        awaitCallsInFlight(1);
+        Thread.sleep(100);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("pdf");
+        }
+        assertThat(runs.get()).isEqualTo(1);
+        assertThat(singleFlight.getNumberOfCallsInFlight()).isZero();
+    }
+
+    @Test
+    public void execute_WithDifferentDataVersions_ShouldNotShareResults() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+
+        String first = singleFlight.execute(SingleFlight.key("usersPdf", "\"v1\"", FROM, TO), () -> "v1-" + runs.incrementAndGet());
+        String second = singleFlight.execute(SingleFlight.key("usersPdf", "\"v2\"", FROM, TO), () -> "v2-" + runs.incrementAndGet());
+
+        assertThat(first).isEqualTo("v1-1");
+        assertThat(second).isEqualTo("v2-2");
+    }
+
+    @Test
+    public void execute_WhenWorkFails_ShouldPropagateExceptionToAllCallers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        SingleFlight.Work<byte[], IOException> work = () -> {
+            await(release);
+            throw new IOException("Font not found");
+        };
+
+        List<Future<byte[]>> results = startCalls(3, SingleFlight.key("tasksPdf", "\"v1\"", FROM, TO), work);
+        awaitCallsInFlight(1);
+        Thread.sleep(100);
+        release.countDown();
+
+        for (Future<byte[]> result : results) {
+            assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .cause()
+                    .isInstanceOf(IOException.class)
+                    .hasMessage("Font not found");
+        }
+    }
+
+    @Test
+    public void execute_WhenWaitingTooLong_ShouldDoTheWorkItself() throws Exception {
+        SingleFlight impatientSingleFlight = new SingleFlight(Duration.ofMillis(50));
+        SingleFlight.Key key = SingleFlight.key("usersPdf", "\"v1\"", FROM, TO);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> slowCall = executor.submit(() -> impatientSingleFlight.execute(key, () -> {
+                await(release);
+                return "slow";
+            }));
+            while (impatientSingleFlight.getNumberOfCallsInFlight() == 0) {
+                Thread.sleep(5);
+            }
+
+            assertThat(impatientSingleFlight.execute(key, () -> "own")).isEqualTo("own");
+
+            release.countDown();
+            assertThat(slowCall.get(5, TimeUnit.SECONDS)).isEqualTo("slow");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private <T, E extends Exception> List<Future<T>> startCalls(int count, SingleFlight.Key key, SingleFlight.Work<T, E> work) {
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        List<Future<T>> results = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            results.add(executor.submit(() -> singleFlight.execute(key, work)));
+        }
+        executor.shutdown();
+        return results;
+    }
+
+    private void awaitCallsInFlight(int expected) throws InterruptedException {
+        while (singleFlight.getNumberOfCallsInFlight() < expected) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package org.verduttio.dominicanappbackend.unittest.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Configuration;
+import org.verduttio.dominicanappbackend.concurrency.ConcurrencyLimiter;
+import org.verduttio.dominicanappbackend.datasource.ReplicaDataSourceConfig;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReplicaDataSourceConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withInitializer(context -> context.getBeanFactory().setConversionService(ApplicationConversionService.getSharedInstance()))
+            .withUserConfiguration(DataSourcePropertiesConfig.class, ReplicaDataSourceConfig.class, ConcurrencyLimiter.class)
+            .withPropertyValues(
+                    "app.datasource.replica.enabled=true",
+                    "app.datasource.replica.url=jdbc:h2:mem:config_replica",
+                    "spring.datasource.url=jdbc:h2:mem:config_primary",
+                    "spring.datasource.hikari.maximum-pool-size=7",
+                    "spring.datasource.hikari.connection-timeout=1234");
+
+    @Test
+    public void primaryPool_ShouldBindHikariProperties() {
+        contextRunner.run(context -> {
+            HikariDataSource primary = context.getBean(ReplicaDataSourceConfig.PRIMARY_POOL, HikariDataSource.class);
+            assertThat(primary.getMaximumPoolSize()).isEqualTo(7);
+            assertThat(primary.getConnectionTimeout()).isEqualTo(1234);
+        });
+    }
+
+    @Test
+    public void concurrencyLimiter_ShouldBeSizedToPrimaryPool() {
+        contextRunner.withPropertyValues("spring.datasource.hikari.maximum-pool-size=3")
+                .run(context -> assertThat(context.getBean(ConcurrencyLimiter.class).availablePermits()).isEqualTo(3));
+    }
+
+    @Configuration
+    @EnableConfigurationProperties(DataSourceProperties.class)
+    static class DataSourcePropertiesConfig {
+    }
+}
@@ -0,0 +1,102 @@
+package org.verduttio.dominicanappbackend.unittest.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.verduttio.dominicanappbackend.cluster.ClusterInvalidationService;
+import org.verduttio.dominicanappbackend.datasource.DataSourceRoute;
+import org.verduttio.dominicanappbackend.datasource.ReplicaLagGuard;
+import org.verduttio.dominicanappbackend.datasource.ReplicaRoutingDataSource;
+import org.verduttio.dominicanappbackend.service.ScheduleVersionService;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class ReplicaRoutingDataSourceTest {
+
+    private static final String PRIMARY_URL = "jdbc:h2:mem:routing_primary";
+    private static final String REPLICA_URL = "jdbc:h2:mem:routing_replica";
+
+    private ScheduleVersionService scheduleVersionService;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWriteTransaction;
+    private TransactionTemplate readOnlyTransaction;
+
+    @BeforeEach
+    public void setUp() {
+        scheduleVersionService = new ScheduleVersionService(mock(ClusterInvalidationService.class));
+        ReplicaLagGuard replicaLagGuard = new ReplicaLagGuard(() -> scheduleVersionService, Duration.ofMinutes(1));
+
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(replicaLagGuard);
+        routingDataSource.setTargetDataSources(Map.of(
+                DataSourceRoute.PRIMARY, new DriverManagerDataSource(PRIMARY_URL),
+                DataSourceRoute.REPLICA, new DriverManagerDataSource(REPLICA_URL)));
+        routingDataSource.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWriteTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void readOnlyTransaction_ShouldUseReplica() {
+        assertThat(getDatabaseUrlInTransaction(readOnlyTransaction)).isEqualTo(REPLICA_URL);
+        assertThat(getDatabaseUrlInTransaction(readWriteTransaction)).isEqualTo(PRIMARY_URL);
+        assertThat(getDatabaseUrl()).isEqualTo(PRIMARY_URL);
+    }
+
+    @Test
+    public void readOnlyTransaction_AfterWriteOfSameSession_ShouldUsePrimary() {
+        inSession("first");
+        getDatabaseUrlInTransaction(readWriteTransaction);
+
+        assertThat(getDatabaseUrlInTransaction(readOnlyTransaction)).isEqualTo(PRIMARY_URL);
+
+        inSession("second");
+        assertThat(getDatabaseUrlInTransaction(readOnlyTransaction)).isEqualTo(REPLICA_URL);
+    }
+
+    @Test
+    public void readOnlyTransaction_AfterScheduleChange_ShouldUsePrimary() {
+        assertThat(getDatabaseUrlInTransaction(readOnlyTransaction)).isEqualTo(REPLICA_URL);
+
+        scheduleVersionService.markAllChanged();
+
+        assertThat(getDatabaseUrlInTransaction(readOnlyTransaction)).isEqualTo(PRIMARY_URL);
+    }
+
+    private String getDatabaseUrlInTransaction(TransactionTemplate transactionTemplate) {
+        return transactionTemplate.execute(status -> getDatabaseUrl());
+    }
+
+    private String getDatabaseUrl() {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getURL());
+    }
+
+    private static void inSession(String sessionId) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRequestedSessionId(sessionId);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+}
@@ -0,0 +1,45 @@
+package org.verduttio.dominicanappbackend.unittest.domain;
+
+import org.junit.jupiter.api.Test;
+import org.verduttio.dominicanappbackend.domain.DaysOfWeekConverter;
+
+import java.time.DayOfWeek;
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DaysOfWeekConverterTest {
+
+    private final DaysOfWeekConverter converter = new DaysOfWeekConverter();
+
+    @Test
+    public void convert_EverySetOfDays_ShouldRoundTrip() {
+        for (int mask = 0; mask < 1 << 7; mask++) {
+            Set<DayOfWeek> daysOfWeek = EnumSet.noneOf(DayOfWeek.class);
+            for (DayOfWeek dayOfWeek : DayOfWeek.values()) {
+                if ((mask & (1 << dayOfWeek.ordinal())) != 0) {
+                    daysOfWeek.add(dayOfWeek);
+                }
+            }
+
+            Short column = converter.convertToDatabaseColumn(daysOfWeek);
+            assertThat(column).isEqualTo((short) mask);
+            assertThat(converter.convertToEntityAttribute(column)).isEqualTo(daysOfWeek);
+        }
+    }
+
+    @Test
+    public void convertToDatabaseColumn_ShouldUseBitsOfMigration() {
+        // Values the V5 migration gives to the day names stored before
+        assertThat(converter.convertToDatabaseColumn(Set.of(DayOfWeek.MONDAY))).isEqualTo((short) 1);
+        assertThat(converter.convertToDatabaseColumn(Set.of(DayOfWeek.WEDNESDAY))).isEqualTo((short) 4);
+        assertThat(converter.convertToDatabaseColumn(Set.of(DayOfWeek.SUNDAY))).isEqualTo((short) 64);
+    }
+
+    @Test
+    public void convert_Null_ShouldGiveNoDays() {
+        assertThat(converter.convertToDatabaseColumn(null)).isEqualTo((short) 0);
+        assertThat(converter.convertToEntityAttribute(null)).isEmpty();
+    }
+}
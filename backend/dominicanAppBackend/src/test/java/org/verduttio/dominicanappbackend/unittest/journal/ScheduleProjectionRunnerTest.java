@@ -0,0 +1,153 @@
+package org.verduttio.dominicanappbackend.unittest.journal;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.verduttio.dominicanappbackend.domain.ScheduleEvent;
+import org.verduttio.dominicanappbackend.domain.ScheduleEventType;
+import org.verduttio.dominicanappbackend.domain.ScheduleProjectionGap;
+import org.verduttio.dominicanappbackend.domain.ScheduleProjectionOffset;
+import org.verduttio.dominicanappbackend.journal.ScheduleProjection;
+import org.verduttio.dominicanappbackend.journal.ScheduleProjectionRunner;
+import org.verduttio.dominicanappbackend.repository.ScheduleEventRepository;
+import org.verduttio.dominicanappbackend.repository.ScheduleProjectionGapRepository;
+import org.verduttio.dominicanappbackend.repository.ScheduleProjectionOffsetRepository;
+import org.verduttio.dominicanappbackend.service.exception.EntityNotFoundException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ScheduleProjectionRunnerTest {
+
+    private static final String NAME = "test-projection";
+
+    @Mock
+    private ScheduleProjection projection;
+
+    @Mock
+    private ScheduleEventRepository scheduleEventRepository;
+
+    @Mock
+    private ScheduleProjectionOffsetRepository offsetRepository;
+
+    @Mock
+    private ScheduleProjectionGapRepository gapRepository;
+
+    private ScheduleProjectionRunner runner;
+    private ScheduleProjectionOffset offset;
+
+    @BeforeEach
+    public void setUp() {
+        runner = new ScheduleProjectionRunner(List.of(projection), scheduleEventRepository, offsetRepository,
+                gapRepository, mock(PlatformTransactionManager.class), 10, Duration.ofMinutes(1));
+
+        offset = new ScheduleProjectionOffset(NAME, "");
+        lenient().when(projection.getName()).thenReturn(NAME);
+        lenient().when(projection.getBasis()).thenReturn("");
+        lenient().when(offsetRepository.existsById(NAME)).thenReturn(true);
+        lenient().when(offsetRepository.findForUpdate(NAME)).thenReturn(Optional.of(offset));
+        lenient().when(scheduleEventRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), any(Pageable.class)))
+                .thenReturn(Collections.emptyList());
+    }
+
+    @Test
+    public void catchUp_ShouldApplyNewEventsAndMoveOffset() {
+        List<ScheduleEvent> events = List.of(event(1L, Instant.now()), event(2L, Instant.now()));
+        when(scheduleEventRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class))).thenReturn(events);
+
+        assertThat(runner.catchUp(NAME)).isEqualTo(2);
+        verify(projection).apply(events);
+        assertThat(offset.getLastEventId()).isEqualTo(2L);
+    }
+
+    @Test
+    public void catchUp_WithRecentGap_ShouldApplyEventsAfterGapAndRecordIt() {
+        List<ScheduleEvent> events = List.of(event(1L, Instant.now()), event(3L, Instant.now()));
+        when(scheduleEventRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class))).thenReturn(events);
+
+        assertThat(runner.catchUp(NAME)).isEqualTo(2);
+        verify(projection).apply(events);
+        assertThat(offset.getLastEventId()).isEqualTo(3L);
+        verify(gapRepository).saveAll(argThat(gaps -> gaps.iterator().next().getEventId() == 2L));
+    }
+
+    @Test
+    public void catchUp_WithOldGap_ShouldNotRecordIt() {
+        List<ScheduleEvent> events = List.of(event(1L, Instant.now().minusSeconds(600)), event(3L, Instant.now().minusSeconds(600)));
+        when(scheduleEventRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class))).thenReturn(events);
+
+        assertThat(runner.catchUp(NAME)).isEqualTo(2);
+        assertThat(offset.getLastEventId()).isEqualTo(3L);
+        verify(gapRepository).saveAll(argThat(gaps -> !gaps.iterator().hasNext()));
+    }
+
+    @Test
+    public void catchUp_WhenEventOfGapIsCommitted_ShouldApplyItAndForgetGap() {
+        offset.setLastEventId(3L);
+        ScheduleProjectionGap gap = new ScheduleProjectionGap(NAME, 2L, Instant.now());
+        ScheduleEvent lateEvent = event(2L, Instant.now());
+        ScheduleEvent newEvent = event(4L, Instant.now());
+        when(gapRepository.findByProjectionName(NAME)).thenReturn(List.of(gap)).thenReturn(List.of());
+        when(scheduleEventRepository.findByIdInOrderByIdAsc(List.of(2L))).thenReturn(List.of(lateEvent));
+        when(scheduleEventRepository.findByIdGreaterThanOrderByIdAsc(eq(3L), any(Pageable.class))).thenReturn(List.of(newEvent));
+
+        assertThat(runner.catchUp(NAME)).isEqualTo(2);
+        verify(projection).apply(List.of(lateEvent, newEvent));
+        verify(gapRepository).deleteAllInBatch(List.of(gap));
+        assertThat(offset.getLastEventId()).isEqualTo(4L);
+    }
+
+    @Test
+    public void catchUp_WhenEventOfGapIsStillMissing_ShouldKeepGap() {
+        offset.setLastEventId(3L);
+        ScheduleProjectionGap gap = new ScheduleProjectionGap(NAME, 2L, Instant.now());
+        when(gapRepository.findByProjectionName(NAME)).thenReturn(List.of(gap));
+        when(scheduleEventRepository.findByIdInOrderByIdAsc(List.of(2L))).thenReturn(Collections.emptyList());
+
+        assertThat(runner.catchUp(NAME)).isEqualTo(0);
+        verify(projection, never()).apply(anyList());
+        verify(gapRepository).deleteAllInBatch(Collections.emptyList());
+        verify(gapRepository).deleteByProjectionNameAndMissingSinceBefore(eq(NAME), any(Instant.class));
+    }
+
+    @Test
+    public void catchUp_WhenBasisChanged_ShouldResetAndStartFromBeginning() {
+        offset.setLastEventId(5L);
+        when(projection.getBasis()).thenReturn("2024-01-01");
+
+        runner.catchUp(NAME);
+
+        verify(projection).reset();
+        verify(gapRepository).deleteByProjectionName(NAME);
+        verify(scheduleEventRepository).findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class));
+        assertThat(offset.getBasis()).isEqualTo("2024-01-01");
+    }
+
+    @Test
+    public void catchUp_WithUnknownProjection_ShouldThrowException() {
+        assertThrows(EntityNotFoundException.class, () -> runner.catchUp("unknown"));
+    }
+
+    private ScheduleEvent event(Long id, Instant createdAt) {
+        ScheduleEvent event = new ScheduleEvent(ScheduleEventType.ASSIGNED, null, null, LocalDate.of(2024, 3, 5), null, createdAt);
+        event.setId(id);
+        return event;
+    }
+}
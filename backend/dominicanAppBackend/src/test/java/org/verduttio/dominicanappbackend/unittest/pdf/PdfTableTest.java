@@ -0,0 +1,96 @@
+package org.verduttio.dominicanappbackend.unittest.pdf;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.verduttio.dominicanappbackend.service.pdf.generators.AbstractPdfGenerator;
+import org.verduttio.dominicanappbackend.service.pdf.table.CellStyle;
+import org.verduttio.dominicanappbackend.service.pdf.table.PdfTable;
+import org.verduttio.dominicanappbackend.service.pdf.table.TableCell;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class PdfTableTest {
+
+    private static final CellStyle STYLE = CellStyle.of(12);
+
+    private PDDocument document;
+    private PdfTable table;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        document = new PDDocument();
+        PDPage page = new PDPage(PDRectangle.A4);
+        document.addPage(page);
+        table = new PdfTable(document, page, AbstractPdfGenerator.loadFont(document),
+                page.getMediaBox().getHeight() - 15, 15);
+        table.setColumnWidths(50, 50);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        document.close();
+    }
+
+    @Test
+    public void draw_RowsNotFittingOnPage_ShouldContinueOnNewPageBelowHeader() throws IOException {
+        table.addHeaderRow(15f, List.of(TableCell.of("Brat", STYLE), TableCell.of("Oficjum", STYLE)));
+        for (int i = 0; i < 60; i++) {
+            table.addRow(12f, List.of(TableCell.of("Brat " + i, STYLE), TableCell.of("Zmywanie", STYLE)));
+        }
+
+        table.draw();
+
+        List<String> pages = extractPages();
+        assertThat(pages).hasSizeGreaterThan(1);
+        assertThat(pages).allSatisfy(page -> assertThat(page).startsWith("Brat Oficjum"));
+        assertThat(String.join("", pages)).contains("Brat 0", "Brat 59");
+    }
+
+    @Test
+    public void draw_TextWiderThanCell_ShouldWrapIntoTallerRow() throws IOException {
+        table.addRow(12f, List.of(TableCell.of("Żółć", STYLE), TableCell.of(String.join(", ", Collections.nCopies(12, "Ceremoniarz")), STYLE)));
+        table.addRow(12f, List.of(TableCell.of("Ostatni", STYLE), TableCell.of("", STYLE)));
+
+        table.draw();
+
+        String text = extractPages().getFirst();
+        assertThat(text).contains("Żółć", "Ceremoniarz");
+        assertThat(text.lines().count()).isGreaterThan(3);
+        assertThat(text.lines().toList().getLast()).isEqualTo("Ostatni");
+    }
+
+    @Test
+    public void addRow_WithWrongNumberOfColumns_ShouldThrowException() {
+        assertThatThrownBy(() -> table.addRow(12f, List.of(TableCell.of("Brat", STYLE))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private List<String> extractPages() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        document.save(output);
+        try (PDDocument saved = Loader.loadPDF(output.toByteArray())) {
+            PDFTextStripper stripper = new PDFTextStripper();
+            stripper.setSortByPosition(true);
+            List<String> pages = new ArrayList<>();
+            for (int page = 1; page <= saved.getNumberOfPages(); page++) {
+                stripper.setStartPage(page);
+                stripper.setEndPage(page);
+                pages.add(stripper.getText(saved).strip());
+            }
+            return pages;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package org.verduttio.dominicanappbackend.unittest.pdf;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType0Font;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.verduttio.dominicanappbackend.dto.schedule.ScheduleShortInfoForTask;
+import org.verduttio.dominicanappbackend.service.pdf.generators.AbstractPdfGenerator;
+import org.verduttio.dominicanappbackend.service.pdf.generators.RenderedPdf;
+import org.verduttio.dominicanappbackend.service.pdf.generators.TaskSchedulePdfGenerator;
+import org.verduttio.dominicanappbackend.service.schedule.ScheduleService;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskSchedulePdfGeneratorTest {
+
+    private static final LocalDate FROM = LocalDate.of(2024, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2024, 1, 7);
+    private static final String POLISH_LETTERS = "ąćęłńóśźżĄĆĘŁŃÓŚŹŻ";
+
+    @Mock
+    private ScheduleService scheduleService;
+
+    private RenderedPdf pdf;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        when(scheduleService.getScheduleShortInfoForEachTaskForSpecifiedWeek(FROM, TO)).thenReturn(List.of(
+                new ScheduleShortInfoForTask(1L, "Zmywanie " + POLISH_LETTERS, List.of("Brat Łukasz Żółkiewski (Pn)"))));
+
+        pdf = new TaskSchedulePdfGenerator(scheduleService, FROM, TO, null).generatePdf();
+    }
+
+    @Test
+    public void generatePdf_ShouldKeepPolishLettersWithSubsetFont() throws IOException {
+        try (PDDocument document = Loader.loadPDF(pdf.content())) {
+            assertThat(new PDFTextStripper().getText(document)).contains(POLISH_LETTERS, "Łukasz Żółkiewski");
+
+            PDFont font = document.getPage(0).getResources().getFont(
+                    document.getPage(0).getResources().getFontNames().iterator().next());
+            assertThat(font.getName()).matches("[A-Z]{6}\\+.*");
+            long embeddedFontSize = ((PDType0Font) font).getDescendantFont().getFontDescriptor().getFontFile2().getCOSObject().getLength();
+            assertThat(embeddedFontSize).isLessThan(new File(AbstractPdfGenerator.FONT_PATH).length() / 10);
+        }
+    }
+
+    @Test
+    public void generatePdf_ShouldWriteObjectStreams() {
+        assertThat(new String(pdf.content(), StandardCharsets.ISO_8859_1)).contains("/ObjStm", "/XRef");
+    }
+
+    @Test
+    public void generatePdf_ShouldEstimateFullSizeLargerThanContent() {
+        assertThat(pdf.estimatedFullSize()).isGreaterThan(new File(AbstractPdfGenerator.FONT_PATH).length());
+        assertThat(pdf.content().length).isLessThan((int) (pdf.estimatedFullSize() / 10));
+    }
+}
@@ -170,17 +170,17 @@ public class ScheduleRepositoryTest {
     }
 
     @Test
-    public void testDeleteAllByUserIdAndTaskIdAndDateBetween() {
+    public void testFindByUserIdAndTaskIdAndDateBetweenWithEmptyResult() {
         Long userId = 1L;
         Long taskId = 1L;
         LocalDate fromDate = LocalDate.of(2023, 1, 1);
         LocalDate toDate = LocalDate.of(2023, 12, 31);
 
-        doNothing().when(scheduleRepository).deleteAllByUserIdAndTaskIdAndDateBetween(userId, taskId, fromDate, toDate);
+        when(scheduleRepository.findByUserIdAndTaskIdAndDateBetween(userId, taskId, fromDate, toDate)).thenReturn(Collections.emptyList());
 
-        scheduleRepository.deleteAllByUserIdAndTaskIdAndDateBetween(userId, taskId, fromDate, toDate);
+        List<Schedule> actualSchedules = scheduleRepository.findByUserIdAndTaskIdAndDateBetween(userId, taskId, fromDate, toDate);
 
-        verify(scheduleRepository, times(1)).deleteAllByUserIdAndTaskIdAndDateBetween(userId, taskId, fromDate, toDate);
+        assertThat(actualSchedules).isEmpty();
     }
 
     @Test
@@ -0,0 +1,112 @@
+package org.verduttio.dominicanappbackend.unittest.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.MapSession;
+import org.verduttio.dominicanappbackend.cluster.ClusterInvalidationEvent;
+import org.verduttio.dominicanappbackend.cluster.ClusterInvalidationService;
+import org.verduttio.dominicanappbackend.cluster.InvalidationType;
+import org.verduttio.dominicanappbackend.security.session.CachingSessionRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CachingSessionRepositoryTest {
+
+    @Mock
+    private FindByIndexNameSessionRepository<MapSession> delegate;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ClusterInvalidationService clusterInvalidationService;
+
+    private CachingSessionRepository<MapSession> repository;
+
+    private MapSession storedSession;
+
+    @BeforeEach
+    public void setUp() {
+        repository = new CachingSessionRepository<>(delegate, jdbcTemplate, clusterInvalidationService, "SPRING_SESSION",
+                Duration.ofMinutes(1), 100);
+        storedSession = new MapSession("session-1");
+        storedSession.setAttribute("name", "value");
+    }
+
+    @Test
+    public void findById_CalledTwice_ShouldLoadFromDelegateOnce() {
+        when(delegate.findById("session-1")).thenReturn(storedSession);
+
+        var first = repository.findById("session-1");
+        var second = repository.findById("session-1");
+
+        assertThat(first.<String>getAttribute("name")).isEqualTo("value");
+        assertThat(second.<String>getAttribute("name")).isEqualTo("value");
+        verify(delegate, times(1)).findById("session-1");
+    }
+
+    @Test
+    public void save_WithOnlyLastAccessedTimeChanged_ShouldBatchUpdateOnFlush() {
+        when(delegate.findById("session-1")).thenReturn(storedSession);
+
+        var session = repository.findById("session-1");
+        session.setLastAccessedTime(Instant.now());
+        repository.save(session);
+
+        verify(delegate, never()).save(any());
+        verifyNoInteractions(jdbcTemplate);
+
+        repository.flushPendingAccessTimes();
+
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE SPRING_SESSION"), argThat((List<Object[]> args) -> args.size() == 1));
+    }
+
+    @Test
+    public void save_WithAttributeChanged_ShouldWriteThrough() {
+        when(delegate.findById("session-1")).thenReturn(storedSession);
+
+        var session = repository.findById("session-1");
+        session.setAttribute("name", "changed");
+        repository.save(session);
+
+        verify(delegate).save(storedSession);
+        verify(clusterInvalidationService).publish(InvalidationType.SESSION, "session-1");
+        assertThat(storedSession.<String>getAttribute("name")).isEqualTo("changed");
+        assertThat(repository.findById("session-1").<String>getAttribute("name")).isEqualTo("changed");
+    }
+
+    @Test
+    public void deleteById_ShouldEvictCachedSession() {
+        when(delegate.findById("session-1")).thenReturn(storedSession, (MapSession) null);
+
+        repository.findById("session-1");
+        repository.deleteById("session-1");
+
+        verify(delegate).deleteById("session-1");
+        verify(clusterInvalidationService).publish(InvalidationType.SESSION, "session-1");
+        assertThat(repository.findById("session-1")).isNull();
+    }
+
+    @Test
+    public void onClusterInvalidation_ForSession_ShouldReloadItFromDelegate() {
+        when(delegate.findById("session-1")).thenReturn(storedSession);
+
+        repository.findById("session-1");
+        repository.onClusterInvalidation(new ClusterInvalidationEvent(InvalidationType.SESSION, "session-1"));
+        repository.findById("session-1");
+
+        verify(delegate, times(2)).findById("session-1");
+    }
+}
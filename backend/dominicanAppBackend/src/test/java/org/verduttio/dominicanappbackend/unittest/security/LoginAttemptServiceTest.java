@@ -0,0 +1,81 @@
+package org.verduttio.dominicanappbackend.unittest.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.verduttio.dominicanappbackend.domain.User;
+import org.verduttio.dominicanappbackend.security.apiauth.Configuration;
+import org.verduttio.dominicanappbackend.security.apiauth.LoginAttemptService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class LoginAttemptServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private LoginAttemptService loginAttemptService;
+
+    private User user;
+
+    @BeforeEach
+    public void setUp() {
+        user = new User();
+        user.setId(1L);
+        user.setEmail("user@example.com");
+    }
+
+    @Test
+    public void loginFailed_MaxTimes_ShouldLockUserWithoutTouchingDatabase() {
+        for (int i = 0; i < Configuration.MAX_LOGIN_ATTEMPTS; i++) {
+            loginAttemptService.loginFailed(user);
+        }
+
+        assertThat(loginAttemptService.isLocked(user)).isTrue();
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    public void flushAttempts_ShouldWriteChangesInOneBatch() {
+        User otherUser = new User();
+        otherUser.setId(2L);
+        loginAttemptService.loginFailed(user);
+        loginAttemptService.loginFailed(otherUser);
+
+        loginAttemptService.flushAttempts();
+        loginAttemptService.flushAttempts();
+
+        verify(jdbcTemplate, times(1)).batchUpdate(startsWith("UPDATE users"), argThat((List<Object[]> args) -> args.size() == 2));
+    }
+
+    @Test
+    public void isLocked_WithExpiredLock_ShouldResetAttempts() {
+        user.setFailedLoginAttempts(Configuration.MAX_LOGIN_ATTEMPTS);
+        user.setLockTime(LocalDateTime.now().minusMinutes(Configuration.LOCK_ACCOUNT_DURATION_MINUTES + 1));
+
+        assertThat(loginAttemptService.isLocked(user)).isFalse();
+
+        loginAttemptService.flushAttempts();
+        verify(jdbcTemplate).batchUpdate(anyString(), argThat((List<Object[]> args) ->
+                args.size() == 1 && args.get(0)[0].equals(0) && args.get(0)[1] == null));
+    }
+
+    @Test
+    public void loginSucceeded_WithoutFailedAttempts_ShouldNotWriteAnything() {
+        loginAttemptService.loginSucceeded(user);
+        loginAttemptService.flushAttempts();
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
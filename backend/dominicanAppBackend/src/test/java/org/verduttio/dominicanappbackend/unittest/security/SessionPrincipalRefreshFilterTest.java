@@ -0,0 +1,99 @@
+package org.verduttio.dominicanappbackend.unittest.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.context.SecurityContextRepository;
+import org.verduttio.dominicanappbackend.domain.Role;
+import org.verduttio.dominicanappbackend.domain.User;
+import org.verduttio.dominicanappbackend.repository.UserRepository;
+import org.verduttio.dominicanappbackend.security.SessionPrincipal;
+import org.verduttio.dominicanappbackend.security.SessionPrincipalRefreshFilter;
+import org.verduttio.dominicanappbackend.security.UserRoleVersionService;
+
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SessionPrincipalRefreshFilterTest {
+
+    @Mock
+    private UserRoleVersionService userRoleVersionService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private SecurityContextRepository securityContextRepository;
+
+    private SessionPrincipalRefreshFilter filter;
+
+    @BeforeEach
+    public void setUp() {
+        filter = new SessionPrincipalRefreshFilter(userRoleVersionService, userRepository, securityContextRepository);
+        SessionPrincipal principal = new SessionPrincipal(1L, "user@example.com", Set.of("ROLE_USER"), 0);
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated(principal, null, principal.getAuthorities()));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void doFilter_WithCurrentRoleVersion_ShouldKeepAuthentication() throws Exception {
+        when(userRoleVersionService.getRoleVersion(1L)).thenReturn(Optional.of(0L));
+
+        filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), new MockFilterChain());
+
+        verifyNoInteractions(userRepository, securityContextRepository);
+    }
+
+    @Test
+    public void doFilter_WithChangedRoleVersion_ShouldRefreshAuthorities() throws Exception {
+        Role roleUser = new Role();
+        roleUser.setName("ROLE_USER");
+        Role roleAdmin = new Role();
+        roleAdmin.setName("ROLE_ADMIN");
+        User user = new User();
+        user.setId(1L);
+        user.setEmail("user@example.com");
+        user.setRoles(Set.of(roleUser, roleAdmin));
+        user.setRoleVersion(1);
+        when(userRoleVersionService.getRoleVersion(1L)).thenReturn(Optional.of(1L));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), new MockFilterChain());
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(authentication.getAuthorities()).extracting(GrantedAuthority::getAuthority)
+                .containsExactlyInAnyOrder("ROLE_USER", "ROLE_ADMIN");
+        assertThat(((SessionPrincipal) authentication.getPrincipal()).roleVersion()).isEqualTo(1L);
+        verify(securityContextRepository).saveContext(any(), any(), any());
+    }
+
+    @Test
+    public void doFilter_WithRemovedUser_ShouldClearAuthentication() throws Exception {
+        when(userRoleVersionService.getRoleVersion(1L)).thenReturn(Optional.empty());
+
+        filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        verify(securityContextRepository).saveContext(any(), any(), any());
+    }
+}
@@ -5,12 +5,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.test.context.ActiveProfiles;
 import org.verduttio.dominicanappbackend.dto.conflict.ConflictDTO;
 import org.verduttio.dominicanappbackend.domain.Conflict;
 import org.verduttio.dominicanappbackend.domain.Task;
 import org.verduttio.dominicanappbackend.repository.ConflictRepository;
 import org.verduttio.dominicanappbackend.service.ConflictService;
+import org.verduttio.dominicanappbackend.service.ScheduleVersionService;
 import org.verduttio.dominicanappbackend.validation.ConflictValidator;
 
 import java.time.DayOfWeek;
@@ -29,6 +31,12 @@ public class ConflictServiceTest {
     @Mock
     private ConflictValidator conflictValidator;
 
+    @Mock
+    private ScheduleVersionService scheduleVersionService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ConflictService conflictService;
 
@@ -0,0 +1,100 @@
+package org.verduttio.dominicanappbackend.unittest.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.verduttio.dominicanappbackend.cluster.ClusterInvalidationService;
+import org.verduttio.dominicanappbackend.domain.Task;
+import org.verduttio.dominicanappbackend.domain.User;
+import org.verduttio.dominicanappbackend.dto.role.RoleMembership;
+import org.verduttio.dominicanappbackend.repository.TaskRepository;
+import org.verduttio.dominicanappbackend.repository.UserRepository;
+import org.verduttio.dominicanappbackend.service.RoleEligibilityIndex;
+import org.verduttio.dominicanappbackend.service.ScheduleVersionService;
+
+import java.util.HashSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RoleEligibilityIndexTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    private ScheduleVersionService scheduleVersionService;
+    private RoleEligibilityIndex roleEligibilityIndex;
+
+    @BeforeEach
+    public void setUp() {
+        scheduleVersionService = new ScheduleVersionService(mock(ClusterInvalidationService.class));
+        roleEligibilityIndex = new RoleEligibilityIndex(userRepository, taskRepository, scheduleVersionService);
+
+        // Users in order of entry date: 3 has role 10, 1 has roles 10 and 20, 2 has no role
+        when(userRepository.findAllUserRoleMemberships()).thenReturn(List.of(
+                new RoleMembership(3L, 10L),
+                new RoleMembership(1L, 10L),
+                new RoleMembership(1L, 20L),
+                new RoleMembership(2L, null)));
+        // Task 100 allows role 20, task 200 allows role 10, task 300 allows no role
+        when(taskRepository.findAllTaskAllowedRoleMemberships()).thenReturn(List.of(
+                new RoleMembership(100L, 20L),
+                new RoleMembership(200L, 10L),
+                new RoleMembership(300L, null)));
+    }
+
+    @Test
+    public void userHasAllowedRoleForTask_ShouldCompareRoleMasks() {
+        assertThat(roleEligibilityIndex.userHasAllowedRoleForTask(user(1L), task(100L))).isTrue();
+        assertThat(roleEligibilityIndex.userHasAllowedRoleForTask(user(3L), task(100L))).isFalse();
+        assertThat(roleEligibilityIndex.userHasAllowedRoleForTask(user(3L), task(200L))).isTrue();
+        assertThat(roleEligibilityIndex.userHasAllowedRoleForTask(user(2L), task(200L))).isFalse();
+
+        verify(userRepository, times(1)).findAllUserRoleMemberships();
+    }
+
+    @Test
+    public void getIdsOfUsersEligibleForAnyOf_ShouldKeepEntryDateOrderWithoutDuplicates() {
+        assertThat(roleEligibilityIndex.getIdsOfUsersEligibleForAnyOf(List.of(task(100L), task(200L)))).containsExactly(3L, 1L);
+        assertThat(roleEligibilityIndex.getIdsOfUsersEligibleForAnyOf(List.of(task(100L)))).containsExactly(1L);
+        assertThat(roleEligibilityIndex.getIdsOfUsersEligibleForAnyOf(List.of(task(300L)))).isEmpty();
+    }
+
+    @Test
+    public void shouldRebuildAfterGlobalChange() {
+        roleEligibilityIndex.userHasAllowedRoleForTask(user(1L), task(100L));
+        scheduleVersionService.markAllChanged();
+        roleEligibilityIndex.userHasAllowedRoleForTask(user(1L), task(100L));
+
+        verify(userRepository, times(2)).findAllUserRoleMemberships();
+    }
+
+    @Test
+    public void shouldRebuildWhenAskedAboutNewerTask() {
+        roleEligibilityIndex.userHasAllowedRoleForTask(user(1L), task(100L));
+        roleEligibilityIndex.userHasAllowedRoleForTask(user(1L), task(400L));
+
+        verify(taskRepository, times(2)).findAllTaskAllowedRoleMemberships();
+    }
+
+    private static User user(Long id) {
+        User user = new User();
+        user.setId(id);
+        user.setRoles(new HashSet<>());
+        return user;
+    }
+
+    private static Task task(Long id) {
+        Task task = new Task();
+        task.setId(id);
+        task.setAllowedRoles(new HashSet<>());
+        return task;
+    }
+}
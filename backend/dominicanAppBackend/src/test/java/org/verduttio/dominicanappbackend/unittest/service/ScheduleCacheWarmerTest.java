@@ -0,0 +1,75 @@
+package org.verduttio.dominicanappbackend.unittest.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.verduttio.dominicanappbackend.domain.Role;
+import org.verduttio.dominicanappbackend.domain.RoleType;
+import org.verduttio.dominicanappbackend.service.RoleService;
+import org.verduttio.dominicanappbackend.service.ScheduleVersionService;
+import org.verduttio.dominicanappbackend.service.schedule.ScheduleCacheWarmer;
+import org.verduttio.dominicanappbackend.service.schedule.ScheduleViewCache;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ScheduleCacheWarmerTest {
+
+    @Mock
+    private ScheduleViewCache scheduleViewCache;
+
+    @Mock
+    private ScheduleVersionService scheduleVersionService;
+
+    @Mock
+    private RoleService roleService;
+
+    private ScheduleCacheWarmer scheduleCacheWarmer;
+
+    @BeforeEach
+    public void setUp() {
+        scheduleCacheWarmer = new ScheduleCacheWarmer(scheduleViewCache, scheduleVersionService, roleService, true, Duration.ofSeconds(2));
+        Role weeklyRole = new Role("Kucharz", RoleType.SUPERVISOR, true, null, 1L, true);
+        Role dailyRole = new Role("Zmywanie", RoleType.SUPERVISOR, false, null, 2L, true);
+        when(roleService.getRolesByType(RoleType.SUPERVISOR)).thenReturn(List.of(weeklyRole, dailyRole));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        scheduleCacheWarmer.close();
+    }
+
+    @Test
+    public void warmUp_ShouldComputeViewsOfThreeWeeksForEveryRole() {
+        when(scheduleVersionService.getETag()).thenReturn("\"v1\"");
+
+        assertThat(scheduleCacheWarmer.warmUp()).isTrue();
+
+        verify(scheduleViewCache, times(3)).getScheduleShortInfoForUsers(any(LocalDate.class), any(LocalDate.class));
+        verify(scheduleViewCache, times(3)).getWeeklyBoard(eq("Kucharz"), any(LocalDate.class), any(LocalDate.class));
+        verify(scheduleViewCache, never()).getWeeklyBoard(eq("Zmywanie"), any(LocalDate.class), any(LocalDate.class));
+        verify(scheduleViewCache, times(3)).getWeeklyBoardByAllDays(eq("Zmywanie"), any(LocalDate.class), any(LocalDate.class));
+        verify(scheduleViewCache, times(6)).getUserSchedulesByDays(anyString(), any(LocalDate.class), any(LocalDate.class));
+    }
+
+    @Test
+    public void warmUp_WhenSchedulesChange_ShouldStopEarly() {
+        when(scheduleVersionService.getETag()).thenReturn("\"v1\"", "\"v1\"", "\"v1\"", "\"v2\"");
+
+        assertThat(scheduleCacheWarmer.warmUp()).isFalse();
+
+        verify(scheduleViewCache).getScheduleShortInfoForUsers(any(LocalDate.class), any(LocalDate.class));
+        verify(scheduleViewCache).getGroupedScheduleShortInfoForUsers(any(LocalDate.class), any(LocalDate.class));
+        verifyNoMoreInteractions(scheduleViewCache);
+    }
+}
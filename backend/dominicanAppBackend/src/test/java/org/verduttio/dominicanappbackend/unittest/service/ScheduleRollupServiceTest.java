@@ -0,0 +1,131 @@
+package org.verduttio.dominicanappbackend.unittest.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.verduttio.dominicanappbackend.cluster.ClusterInvalidationService;
+import org.verduttio.dominicanappbackend.domain.Schedule;
+import org.verduttio.dominicanappbackend.domain.ScheduleRollupState;
+import org.verduttio.dominicanappbackend.domain.ScheduleWeeklyRollup;
+import org.verduttio.dominicanappbackend.repository.*;
+import org.verduttio.dominicanappbackend.service.ScheduleVersionService;
+import org.verduttio.dominicanappbackend.service.schedule.ScheduleRollupService;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ScheduleRollupServiceTest {
+
+    // Sunday
+    private static final LocalDate ROLLED_UP_BEFORE = LocalDate.of(2024, 3, 3);
+
+    @Mock
+    private ScheduleRepository scheduleRepository;
+
+    @Mock
+    private ScheduleWeeklyRollupRepository rollupRepository;
+
+    @Mock
+    private ScheduleRollupStateRepository stateRepository;
+
+    private ScheduleRollupService scheduleRollupService;
+
+    @BeforeEach
+    public void setUp() {
+        ScheduleVersionService scheduleVersionService = new ScheduleVersionService(mock(ClusterInvalidationService.class));
+        scheduleRollupService = new ScheduleRollupService(scheduleRepository, rollupRepository, stateRepository,
+                mock(UserRepository.class), mock(TaskRepository.class), scheduleVersionService, mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    public void countAssignments_WithNothingRolledUp_ShouldCountSchedules() {
+        when(stateRepository.findFirstByOrderByIdAsc()).thenReturn(Optional.empty());
+        when(scheduleRepository.countByUserIdAndTaskIdInLastNDays(1L, 2L, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 3, 31)))
+                .thenReturn(7L);
+
+        assertThat(scheduleRollupService.countAssignments(1L, 2L, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 3, 31))).isEqualTo(7);
+        verifyNoInteractions(rollupRepository);
+    }
+
+    @Test
+    public void countAssignments_StartingInRolledUpWeeks_ShouldAddRollupsAndLaterSchedules() {
+        when(stateRepository.findFirstByOrderByIdAsc()).thenReturn(Optional.of(new ScheduleRollupState(ROLLED_UP_BEFORE)));
+        // Monday to Wednesday of the week starting on 2024-02-18, and the whole next week
+        when(rollupRepository.findByUserIdAndTaskIdAndWeekStartBetween(1L, 2L, LocalDate.of(2024, 2, 18), LocalDate.of(2024, 3, 2)))
+                .thenReturn(List.of(rollup(LocalDate.of(2024, 2, 18), 0b1110, 3), rollup(LocalDate.of(2024, 2, 25), 0b1111111, 8)));
+        when(scheduleRepository.countByUserIdAndTaskIdInLastNDays(1L, 2L, ROLLED_UP_BEFORE, LocalDate.of(2024, 3, 31)))
+                .thenReturn(4L);
+
+        // From Tuesday, so the first week counts only its Tuesday and Wednesday
+        long count = scheduleRollupService.countAssignments(1L, 2L, LocalDate.of(2024, 2, 20), LocalDate.of(2024, 3, 31));
+
+        assertThat(count).isEqualTo(2 + 8 + 4);
+    }
+
+    @Test
+    public void findLatestAssignmentDate_WithoutLaterSchedules_ShouldTakeLastDayOfRollup() {
+        when(stateRepository.findFirstByOrderByIdAsc()).thenReturn(Optional.of(new ScheduleRollupState(ROLLED_UP_BEFORE)));
+        when(scheduleRepository.findLatestTaskCompletionDateByUserIdAndTaskId(1L, 2L, LocalDate.of(2024, 3, 10)))
+                .thenReturn(Optional.empty());
+        when(rollupRepository.findTop2ByUserIdAndTaskIdAndWeekStartLessThanOrderByWeekStartDesc(1L, 2L, ROLLED_UP_BEFORE))
+                .thenReturn(List.of(rollup(LocalDate.of(2024, 2, 25), 0b0010110, 3)));
+
+        Optional<LocalDate> latestDate = scheduleRollupService.findLatestAssignmentDate(1L, 2L, LocalDate.of(2024, 3, 10));
+
+        // Bit 4 is Thursday
+        assertThat(latestDate).contains(LocalDate.of(2024, 2, 29));
+    }
+
+    @Test
+    public void findLatestAssignmentDate_WithLaterSchedule_ShouldNotReadRollups() {
+        when(stateRepository.findFirstByOrderByIdAsc()).thenReturn(Optional.of(new ScheduleRollupState(ROLLED_UP_BEFORE)));
+        when(scheduleRepository.findLatestTaskCompletionDateByUserIdAndTaskId(1L, 2L, LocalDate.of(2024, 3, 10)))
+                .thenReturn(Optional.of(LocalDate.of(2024, 3, 5)));
+
+        assertThat(scheduleRollupService.findLatestAssignmentDate(1L, 2L, LocalDate.of(2024, 3, 10))).contains(LocalDate.of(2024, 3, 5));
+        verifyNoInteractions(rollupRepository);
+    }
+
+    @Test
+    public void restorePrunedSchedules_ShouldTurnDaysOfRollupsIntoSchedules() {
+        when(stateRepository.findFirstByOrderByIdAsc()).thenReturn(Optional.of(prunedState()));
+        when(rollupRepository.findWithUsersByWeekStartBetween(1L, null, LocalDate.of(2024, 2, 25), LocalDate.of(2024, 3, 2)))
+                .thenReturn(List.of(rollup(LocalDate.of(2024, 2, 25), 0b0010110, 3)));
+
+        // From Tuesday, so Monday of the roll-up is left out
+        List<Schedule> schedules = scheduleRollupService.restorePrunedSchedules(1L, null, LocalDate.of(2024, 2, 27), LocalDate.of(2024, 3, 9));
+
+        assertThat(schedules).extracting(Schedule::getDate).containsExactly(LocalDate.of(2024, 2, 27), LocalDate.of(2024, 2, 29));
+    }
+
+    @Test
+    public void ensureNotPruned_DateOfPrunedWeek_ShouldThrowException() {
+        when(stateRepository.findFirstByOrderByIdAsc()).thenReturn(Optional.of(prunedState()));
+
+        assertThatThrownBy(() -> scheduleRollupService.ensureNotPruned(ROLLED_UP_BEFORE.minusDays(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+        scheduleRollupService.ensureNotPruned(ROLLED_UP_BEFORE);
+    }
+
+    private static ScheduleRollupState prunedState() {
+        ScheduleRollupState state = new ScheduleRollupState(ROLLED_UP_BEFORE);
+        state.setPrunedBefore(ROLLED_UP_BEFORE);
+        return state;
+    }
+
+    private static ScheduleWeeklyRollup rollup(LocalDate weekStart, int dayMask, int count) {
+        ScheduleWeeklyRollup rollup = new ScheduleWeeklyRollup(null, null, weekStart);
+        rollup.setDayMask(dayMask);
+        rollup.setCount(count);
+        return rollup;
+    }
+}
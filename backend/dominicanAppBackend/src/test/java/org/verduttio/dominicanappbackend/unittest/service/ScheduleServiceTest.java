@@ -5,28 +5,55 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.verduttio.dominicanappbackend.domain.Role;
 import org.verduttio.dominicanappbackend.domain.RoleType;
 import org.verduttio.dominicanappbackend.domain.Schedule;
 import org.verduttio.dominicanappbackend.domain.Task;
+import org.verduttio.dominicanappbackend.domain.User;
+import org.verduttio.dominicanappbackend.dto.schedule.ScheduleShortInfoForTask;
+import org.verduttio.dominicanappbackend.repository.ScheduleRepository;
 import org.verduttio.dominicanappbackend.repository.SpecialDateRepository;
+import org.verduttio.dominicanappbackend.service.RoleService;
+import org.verduttio.dominicanappbackend.service.TaskService;
+import org.verduttio.dominicanappbackend.service.schedule.ScheduleRollupService;
 import org.verduttio.dominicanappbackend.service.schedule.ScheduleService;
 
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 public class ScheduleServiceTest {
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ScheduleService scheduleService;
 
     @Mock
     private SpecialDateRepository specialDateRepository;
 
+    @Mock
+    private ScheduleRepository scheduleRepository;
+
+    @Mock
+    private TaskService taskService;
+
+    @Mock
+    private RoleService roleService;
+
+    @Mock
+    private ScheduleRollupService scheduleRollupService;
+
+    private static final LocalDate PRUNED_WEEK_FROM = LocalDate.parse("2024-02-04");
+    private static final LocalDate PRUNED_WEEK_TO = LocalDate.parse("2024-02-10");
+
     @Test
     void makeUsersTasksInWeekInfoString_mixOfAllAndPartAssignTasks() {
         Role superVisorRole = new Role("superRole", RoleType.SUPERVISOR, false, "tasks", 1L, true);
@@ -65,4 +92,90 @@ public class ScheduleServiceTest {
 
         assertEquals(expectedResult, testResult);
     }
+
+    @Test
+    void makeUsersTasksInWeekInfoString_weekWithFeast_listsDaysStartingFromSunday() {
+        Role superVisorRole = new Role("superRole", RoleType.SUPERVISOR, false, "tasks", 1L, true);
+
+        Task task1 = new Task("Washing", "Ws",2, true, null, superVisorRole,
+                Set.of(DayOfWeek.SUNDAY, DayOfWeek.SATURDAY), 2L, true);
+        Task task2 = new Task("Cooking", "Co",2, true, null, superVisorRole,
+                Set.of(DayOfWeek.TUESDAY, DayOfWeek.THURSDAY), 1L, true);
+
+        Schedule schedule1 = new Schedule();
+        schedule1.setTask(task1);
+        schedule1.setDate(LocalDate.parse("2024-02-10"));
+
+        Schedule schedule2 = new Schedule();
+        schedule2.setTask(task1);
+        schedule2.setDate(LocalDate.parse("2024-02-04"));
+
+        Schedule schedule3 = new Schedule();
+        schedule3.setTask(task2);
+        schedule3.setDate(LocalDate.parse("2024-02-08"));
+
+        Schedule schedule4 = new Schedule();
+        schedule4.setTask(task2);
+        schedule4.setDate(LocalDate.parse("2024-02-06"));
+
+        List<Schedule> schedules = List.of(schedule1, schedule2, schedule3, schedule4);
+
+        List<String> testResult = scheduleService.createInfoStringsOfTasksOccurrenceFromGivenSchedule(schedules, true);
+        List<String> expectedResult = List.of("Co (Wt, Cz)", "Ws (Nd, So)");
+
+        assertEquals(expectedResult, testResult);
+    }
+
+    @Test
+    void getScheduleShortInfoForEachTaskForSpecifiedWeek_prunedWeek_restoresSchedulesFromRollups() {
+        Role superVisorRole = supervisorRole(1L, "superRole");
+        Task washing = task(10L, "Washing", superVisorRole);
+        when(taskService.getAllTasks()).thenReturn(List.of(washing));
+        when(scheduleRepository.findWithUsersByDateBetween(PRUNED_WEEK_FROM, PRUNED_WEEK_TO)).thenReturn(List.of());
+        when(scheduleRollupService.restorePrunedSchedules(null, null, PRUNED_WEEK_FROM, PRUNED_WEEK_TO))
+                .thenReturn(List.of(new Schedule(washing, user(), LocalDate.parse("2024-02-05"))));
+
+        List<ScheduleShortInfoForTask> testResult = scheduleService.getScheduleShortInfoForEachTaskForSpecifiedWeek(PRUNED_WEEK_FROM, PRUNED_WEEK_TO);
+
+        assertEquals(List.of(new ScheduleShortInfoForTask(10L, "Washing", List.of("John Doe (Pn)"))), testResult);
+    }
+
+    @Test
+    void getScheduleShortInfoForTaskByRoleForSpecifiedWeek_prunedWeek_restoresSchedulesOfRoleFromRollups() {
+        Role superVisorRole = supervisorRole(1L, "superRole");
+        Task washing = task(10L, "Washing", superVisorRole);
+        Task cooking = task(11L, "Cooking", supervisorRole(2L, "otherRole"));
+        when(roleService.findByNameAndType("superRole", RoleType.SUPERVISOR)).thenReturn(Optional.of(superVisorRole));
+        when(taskService.findTasksBySupervisorRoleName("superRole")).thenReturn(List.of(washing));
+        when(scheduleRepository.findWithUsersBySupervisorRoleIdAndDateBetween(1L, PRUNED_WEEK_FROM, PRUNED_WEEK_TO)).thenReturn(List.of());
+        when(scheduleRollupService.restorePrunedSchedules(null, null, PRUNED_WEEK_FROM, PRUNED_WEEK_TO)).thenReturn(List.of(
+                new Schedule(washing, user(), LocalDate.parse("2024-02-05")),
+                new Schedule(cooking, user(), LocalDate.parse("2024-02-07"))));
+
+        List<ScheduleShortInfoForTask> testResult = scheduleService.getScheduleShortInfoForTaskByRoleForSpecifiedWeek("superRole", PRUNED_WEEK_FROM, PRUNED_WEEK_TO);
+
+        assertEquals(List.of(new ScheduleShortInfoForTask(10L, "Washing", List.of("John Doe (Pn)"))), testResult);
+    }
+
+    private static Role supervisorRole(Long id, String name) {
+        Role role = new Role(name, RoleType.SUPERVISOR, false, "tasks", 1L, true);
+        role.setId(id);
+        return role;
+    }
+
+    private static Task task(Long id, String name, Role supervisorRole) {
+        Task task = new Task(name, name.substring(0, 2), 2, true, null, supervisorRole,
+                Set.of(DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY), 1L, true);
+        task.setId(id);
+        return task;
+    }
+
+    private static User user() {
+        User user = new User();
+        user.setId(5L);
+        user.setName("John");
+        user.setSurname("Doe");
+        user.setEmail("john.doe@mail.com");
+        return user;
+    }
 }
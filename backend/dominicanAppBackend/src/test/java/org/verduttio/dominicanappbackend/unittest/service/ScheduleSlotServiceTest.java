@@ -0,0 +1,138 @@
+package org.verduttio.dominicanappbackend.unittest.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.verduttio.dominicanappbackend.domain.Schedule;
+import org.verduttio.dominicanappbackend.domain.ScheduleSlotVersion;
+import org.verduttio.dominicanappbackend.domain.Task;
+import org.verduttio.dominicanappbackend.domain.User;
+import org.verduttio.dominicanappbackend.journal.ScheduleJournal;
+import org.verduttio.dominicanappbackend.repository.ScheduleRepository;
+import org.verduttio.dominicanappbackend.repository.ScheduleSlotVersionRepository;
+import org.verduttio.dominicanappbackend.service.exception.ScheduleWriteConflictException;
+import org.verduttio.dominicanappbackend.service.exception.TaskParticipantsLimitExceededException;
+import org.verduttio.dominicanappbackend.service.schedule.ScheduleRollupService;
+import org.verduttio.dominicanappbackend.service.schedule.ScheduleSlotService;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ScheduleSlotServiceTest {
+
+    private static final LocalDate DATE = LocalDate.of(2024, 3, 5);
+
+    @Mock
+    private ScheduleRepository scheduleRepository;
+
+    @Mock
+    private ScheduleSlotVersionRepository slotVersionRepository;
+
+    private ScheduleSlotService scheduleSlotService;
+    private Task task;
+    private User user;
+
+    @BeforeEach
+    public void setUp() {
+        scheduleSlotService = new ScheduleSlotService(scheduleRepository, slotVersionRepository,
+                mock(ScheduleJournal.class), mock(ScheduleRollupService.class), mock(PlatformTransactionManager.class), 3);
+
+        task = new Task();
+        task.setId(2L);
+        task.setParticipantsLimit(2);
+        user = new User();
+        user.setId(1L);
+
+        ScheduleSlotVersion slotVersion = new ScheduleSlotVersion(task, DATE);
+        slotVersion.setId(10L);
+        slotVersion.setVersion(4);
+        lenient().when(slotVersionRepository.findByTaskIdAndDate(2L, DATE)).thenReturn(Optional.of(slotVersion));
+    }
+
+    @Test
+    public void assign_WithFreePlace_ShouldSaveScheduleAndIncreaseVersion() {
+        when(scheduleRepository.countByTaskIdAndDate(2L, DATE)).thenReturn(1L);
+        when(slotVersionRepository.compareAndIncrement(10L, 4)).thenReturn(1);
+
+        assertThat(scheduleSlotService.assign(task, user, List.of(DATE))).isEqualTo(1);
+        verify(scheduleRepository).save(any(Schedule.class));
+    }
+
+    @Test
+    public void assign_WhenAlreadyAssigned_ShouldSaveNothing() {
+        when(scheduleRepository.existsByUserIdAndTaskIdAndDate(1L, 2L, DATE)).thenReturn(true);
+
+        assertThat(scheduleSlotService.assign(task, user, List.of(DATE))).isZero();
+        verify(scheduleRepository, never()).save(any(Schedule.class));
+        verify(slotVersionRepository, never()).compareAndIncrement(any(), anyLong());
+    }
+
+    @Test
+    public void assign_WhenLimitReached_ShouldThrowException() {
+        when(scheduleRepository.countByTaskIdAndDate(2L, DATE)).thenReturn(2L);
+
+        assertThrows(TaskParticipantsLimitExceededException.class, () -> scheduleSlotService.assign(task, user, List.of(DATE)));
+        verify(scheduleRepository, never()).save(any(Schedule.class));
+    }
+
+    @Test
+    public void assign_WhenVersionChangedMeanwhile_ShouldRetry() {
+        when(scheduleRepository.countByTaskIdAndDate(2L, DATE)).thenReturn(1L);
+        when(slotVersionRepository.compareAndIncrement(10L, 4)).thenReturn(0, 1);
+
+        assertThat(scheduleSlotService.assign(task, user, List.of(DATE))).isEqualTo(1);
+        verify(scheduleRepository, times(2)).save(any(Schedule.class));
+    }
+
+    @Test
+    public void assign_WhenVersionKeepsChanging_ShouldGiveUpAfterMaxAttempts() {
+        when(scheduleRepository.countByTaskIdAndDate(2L, DATE)).thenReturn(1L);
+        when(slotVersionRepository.compareAndIncrement(10L, 4)).thenReturn(0);
+
+        assertThrows(ScheduleWriteConflictException.class, () -> scheduleSlotService.assign(task, user, List.of(DATE)));
+        verify(slotVersionRepository, times(3)).compareAndIncrement(10L, 4);
+    }
+
+    @Test
+    public void reserve_WhenAddedAssignmentsExceedLimit_ShouldThrowException() {
+        ScheduleSlotVersion slotVersion = new ScheduleSlotVersion(task, DATE);
+        when(slotVersionRepository.findForUpdateByTaskIdAndDate(2L, DATE)).thenReturn(Optional.of(slotVersion));
+        when(scheduleRepository.countByTaskIdAndDate(2L, DATE)).thenReturn(1L);
+
+        assertThrows(TaskParticipantsLimitExceededException.class, () -> scheduleSlotService.reserve(
+                List.of(new Schedule(task, user, DATE), new Schedule(task, new User(), DATE)), List.of()));
+        assertThat(slotVersion.getVersion()).isZero();
+    }
+
+    @Test
+    public void reserve_WhenAssignmentStaysInSlot_ShouldOnlyIncreaseVersion() {
+        ScheduleSlotVersion slotVersion = new ScheduleSlotVersion(task, DATE);
+        when(slotVersionRepository.findForUpdateByTaskIdAndDate(2L, DATE)).thenReturn(Optional.of(slotVersion));
+
+        scheduleSlotService.reserve(List.of(new Schedule(task, user, DATE)), List.of(new Schedule(task, new User(), DATE)));
+
+        assertThat(slotVersion.getVersion()).isEqualTo(1);
+        verify(scheduleRepository, never()).countByTaskIdAndDate(any(), any());
+    }
+
+    @Test
+    public void reserve_WhenUserWasAssignedMeanwhile_ShouldThrowConflict() {
+        ScheduleSlotVersion slotVersion = new ScheduleSlotVersion(task, DATE);
+        when(slotVersionRepository.findForUpdateByTaskIdAndDate(2L, DATE)).thenReturn(Optional.of(slotVersion));
+        when(scheduleRepository.existsByUserIdAndTaskIdAndDate(1L, 2L, DATE)).thenReturn(true);
+
+        assertThrows(ScheduleWriteConflictException.class, () -> scheduleSlotService.reserve(
+                List.of(new Schedule(task, user, DATE)), List.of()));
+        assertThat(slotVersion.getVersion()).isZero();
+    }
+}
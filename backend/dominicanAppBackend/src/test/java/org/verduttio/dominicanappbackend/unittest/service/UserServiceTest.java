@@ -6,6 +6,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Sort;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
@@ -20,9 +21,12 @@ import org.verduttio.dominicanappbackend.repository.ObstacleRepository;
 import org.verduttio.dominicanappbackend.repository.ScheduleRepository;
 import org.verduttio.dominicanappbackend.repository.UserRepository;
 import org.verduttio.dominicanappbackend.security.SecurityUtils;
+import org.verduttio.dominicanappbackend.security.SessionPrincipal;
 import org.verduttio.dominicanappbackend.security.UserDetailsServiceImpl;
-import org.verduttio.dominicanappbackend.security.UserSessionService;
+import org.verduttio.dominicanappbackend.security.UserRoleVersionService;
+import org.verduttio.dominicanappbackend.service.RoleEligibilityIndex;
 import org.verduttio.dominicanappbackend.service.RoleService;
+import org.verduttio.dominicanappbackend.service.ScheduleVersionService;
 import org.verduttio.dominicanappbackend.service.UserService;
 import org.verduttio.dominicanappbackend.validation.UserValidator;
 
@@ -57,7 +61,16 @@ public class UserServiceTest {
     private BCryptPasswordEncoder bCryptPasswordEncoder;
 
     @Mock
-    private UserSessionService userSessionService;
+    private UserRoleVersionService userRoleVersionService;
+
+    @Mock
+    private ScheduleVersionService scheduleVersionService;
+
+    @Mock
+    private RoleEligibilityIndex roleEligibilityIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private UserService userService;
@@ -241,7 +254,7 @@ public class UserServiceTest {
 
         userService.updateUserRolesSupervisorAndTaskPerformer(userId, roleNames);
 
-        verify(userSessionService, times(1)).expireUserSessions(user.getEmail());
+        verify(userRoleVersionService, times(1)).markUserRolesChanged(userId);
         verify(userRepository, times(1)).save(user);
     }
 
@@ -255,7 +268,7 @@ public class UserServiceTest {
 
         try (MockedStatic<SecurityUtils> mockedSecurityUtils = mockStatic(SecurityUtils.class)) {
             mockedSecurityUtils.when(() -> SecurityUtils.isUserOwnerOrAdmin(userId)).thenReturn(true);
-            mockedSecurityUtils.when(SecurityUtils::getCurrentUser).thenReturn(user);
+            mockedSecurityUtils.when(SecurityUtils::getCurrentPrincipal).thenReturn(new SessionPrincipal(userId, user.getEmail(), Set.of(), 0));
 
             when(userRepository.findById(userId)).thenReturn(Optional.of(user));
             when(bCryptPasswordEncoder.encode(newPassword)).thenReturn("encodedPassword");
@@ -279,7 +292,7 @@ public class UserServiceTest {
 
         try (MockedStatic<SecurityUtils> mockedSecurityUtils = mockStatic(SecurityUtils.class)) {
             mockedSecurityUtils.when(() -> SecurityUtils.isUserOwnerOrAdmin(userId)).thenReturn(true);
-            mockedSecurityUtils.when(SecurityUtils::getCurrentUser).thenReturn(user);
+            mockedSecurityUtils.when(SecurityUtils::getCurrentPrincipal).thenReturn(new SessionPrincipal(userId, user.getEmail(), Set.of(), 0));
             when(userRepository.findById(userId)).thenReturn(Optional.of(user));
             when(userRepository.save(user)).thenReturn(user);
 
@@ -287,7 +300,7 @@ public class UserServiceTest {
 
             assertThat(user.getName()).isEqualTo("NewName");
             assertThat(user.getSurname()).isEqualTo("NewSurname");
-            verify(userSessionService, times(1)).expireUserSessions(user.getEmail());
+            verify(userRoleVersionService, never()).markUserRolesChanged(any());
         }
     }
 
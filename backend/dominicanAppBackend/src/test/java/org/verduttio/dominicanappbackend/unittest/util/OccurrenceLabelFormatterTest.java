@@ -0,0 +1,28 @@
+package org.verduttio.dominicanappbackend.unittest.util;
+
+import org.junit.jupiter.api.Test;
+import org.verduttio.dominicanappbackend.util.DaysOfWeekMask;
+import org.verduttio.dominicanappbackend.util.OccurrenceLabelFormatter;
+
+import java.time.DayOfWeek;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OccurrenceLabelFormatterTest {
+
+    @Test
+    public void format_WithSomeDays_ShouldListThemFromSunday() {
+        int daysMask = DaysOfWeekMask.toMask(Set.of(DayOfWeek.SATURDAY, DayOfWeek.MONDAY, DayOfWeek.SUNDAY));
+
+        assertThat(OccurrenceLabelFormatter.format("Ws", daysMask, 7, false)).isEqualTo("Ws (Nd, Pn, So)");
+    }
+
+    @Test
+    public void format_WithAllExpectedDays_ShouldGiveOnlyName() {
+        int daysMask = DaysOfWeekMask.toMask(Set.of(DayOfWeek.WEDNESDAY, DayOfWeek.FRIDAY));
+
+        assertThat(OccurrenceLabelFormatter.format("Ws", daysMask, 2, false)).isEqualTo("Ws");
+        assertThat(OccurrenceLabelFormatter.format("Ws", daysMask, 2, true)).isEqualTo("Ws (Śr, Pt)");
+    }
+}
@@ -4,10 +4,17 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.context.ApplicationEventPublisher;
+import org.verduttio.dominicanappbackend.cluster.ClusterInvalidationService;
 import org.verduttio.dominicanappbackend.domain.Role;
 import org.verduttio.dominicanappbackend.domain.RoleType;
 import org.verduttio.dominicanappbackend.domain.Task;
 import org.verduttio.dominicanappbackend.domain.User;
+import org.verduttio.dominicanappbackend.repository.TaskRepository;
+import org.verduttio.dominicanappbackend.repository.UserRepository;
+import org.verduttio.dominicanappbackend.service.RoleEligibilityIndex;
+import org.verduttio.dominicanappbackend.service.ScheduleVersionService;
 import org.verduttio.dominicanappbackend.service.schedule.ScheduleService;
 
 import java.util.HashSet;
@@ -15,9 +22,13 @@ import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 class ScheduleValidatorTest {
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ScheduleService scheduleService;
 
@@ -27,6 +38,10 @@ class ScheduleValidatorTest {
     @Mock
     private Task mockTask;
 
+    @Spy
+    private RoleEligibilityIndex roleEligibilityIndex =
+            new RoleEligibilityIndex(mock(UserRepository.class), mock(TaskRepository.class), new ScheduleVersionService(mock(ClusterInvalidationService.class)));
+
     @Test
     void hasAllowedRoleForTask_shouldReturnTrueWhenUserHasAllowedRole() {
         // Arrange